@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.scfofrenderer.listeners;
+
+import java.util.Collections;
+import java.util.Objects;
+import java.util.Optional;
+import javax.annotation.Nonnull;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.serviceutils.tools.mdsal.listener.AbstractSyncDataTreeChangeListener;
+import org.opendaylight.sfc.provider.api.SfcProviderAclAPI;
+import org.opendaylight.sfc.provider.api.SfcProviderServiceClassifierAPI;
+import org.opendaylight.sfc.scfofrenderer.processors.SfcScfOfProcessor;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.acl.rev151001.access.lists.state.AccessListState;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.acl.rev151001.access.lists.state.access.list.state.AclServiceFunctionClassifier;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.AccessLists;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.Acl;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class listens to changes in the ACLs used by Service Function
+ * Classifiers, and updates the flows of the ACEs that changed in every
+ * classifier using the ACL.
+ */
+public class SfcScfOfAclDataListener extends AbstractSyncDataTreeChangeListener<Acl> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SfcScfOfAclDataListener.class);
+
+    private final SfcScfOfProcessor sfcScfProcessor;
+
+    public SfcScfOfAclDataListener(DataBroker dataBroker, SfcScfOfProcessor sfcScfProcessor) {
+        super(dataBroker, LogicalDatastoreType.CONFIGURATION,
+              InstanceIdentifier.create(AccessLists.class).child(Acl.class));
+        this.sfcScfProcessor = sfcScfProcessor;
+    }
+
+    @Override
+    public void add(@Nonnull InstanceIdentifier<Acl> instanceIdentifier, @Nonnull Acl acl) {
+        // the ACL flows are written when the classifier using it is created
+        LOG.debug("Created ACL name: {}", acl.getAclName());
+    }
+
+    @Override
+    public void update(@Nonnull InstanceIdentifier<Acl> instanceIdentifier,
+                       @Nonnull Acl originalAcl,
+                       @Nonnull Acl updatedAcl) {
+        if (originalAcl.equals(updatedAcl)) {
+            return;
+        }
+
+        LOG.debug("Updated ACL name: {}", updatedAcl.getAclName());
+        Optional.ofNullable(SfcProviderAclAPI.readAccessListState(updatedAcl.getAclName(), updatedAcl.getAclType()))
+                .map(AccessListState::getAclServiceFunctionClassifier)
+                .orElse(Collections.emptyList())
+                .stream()
+                .map(AclServiceFunctionClassifier::getName)
+                .map(SfcProviderServiceClassifierAPI::readServiceClassifier)
+                .filter(Objects::nonNull)
+                .forEach(scf -> sfcScfProcessor.updatedAccessList(scf, originalAcl, updatedAcl));
+    }
+
+    @Override
+    public void remove(@Nonnull InstanceIdentifier<Acl> instanceIdentifier, @Nonnull Acl acl) {
+        // the ACL flows are removed when the classifier using it is deleted
+        LOG.debug("Deleted ACL name: {}", acl.getAclName());
+    }
+}
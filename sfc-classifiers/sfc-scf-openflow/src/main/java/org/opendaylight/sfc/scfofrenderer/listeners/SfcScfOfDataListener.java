@@ -8,6 +8,7 @@
 
 package org.opendaylight.sfc.scfofrenderer.listeners;
 
+import java.util.Objects;
 import javax.annotation.Nonnull;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
@@ -51,8 +52,14 @@ public class SfcScfOfDataListener extends AbstractSyncDataTreeChangeListener<Ser
         if (originalServiceFunctionClassifier.getName() != null && updatedServiceFunctionClassifier.getName() != null
                 && !originalServiceFunctionClassifier.equals(updatedServiceFunctionClassifier)) {
             LOG.debug("Updated ServiceFunctionClassifier name: {}\n", updatedServiceFunctionClassifier.getName());
-            this.sfcScfProcessor.deletedServiceFunctionClassifier(originalServiceFunctionClassifier);
-            this.sfcScfProcessor.createdServiceFunctionClassifier(updatedServiceFunctionClassifier);
+            if (Objects.equals(originalServiceFunctionClassifier.getAcl(), updatedServiceFunctionClassifier.getAcl())) {
+                // same ACL: only the classifier switches changed
+                this.sfcScfProcessor.updatedServiceFunctionClassifier(originalServiceFunctionClassifier,
+                        updatedServiceFunctionClassifier);
+            } else {
+                this.sfcScfProcessor.deletedServiceFunctionClassifier(originalServiceFunctionClassifier);
+                this.sfcScfProcessor.createdServiceFunctionClassifier(updatedServiceFunctionClassifier);
+            }
         }
     }
 
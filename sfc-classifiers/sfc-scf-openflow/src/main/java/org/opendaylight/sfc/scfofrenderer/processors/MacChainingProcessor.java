@@ -12,6 +12,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 import org.opendaylight.sfc.ovs.provider.SfcOvsUtil;
 import org.opendaylight.sfc.provider.api.SfcProviderRenderedPathAPI;
 import org.opendaylight.sfc.provider.api.SfcProviderServiceForwarderAPI;
@@ -22,6 +23,7 @@ import org.opendaylight.sfc.scfofrenderer.utils.SfcScfMatch;
 import org.opendaylight.sfc.util.openflow.writer.FlowDetails;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.RspName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SffName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.RenderedServicePath;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.ServiceFunctionForwarder;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.access.list.entries.Ace;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.types.rev131026.flow.Match;
@@ -39,14 +41,26 @@ public class MacChainingProcessor implements ClassifierProcessorInterface {
 
     private final ClassifierHandler classifierHandler;
 
+    // retrieves the RSPs the processed ACEs refer to
+    private final Function<RspName, RenderedServicePath> rspReader;
+
     private static final Logger LOG = LoggerFactory.getLogger(MacChainingProcessor.class);
 
     public MacChainingProcessor(ClassifierHandler classifierHandler,
                                 ClassifierInterface classifierInterface,
                                 boolean addClassifier) {
+        this(classifierHandler, classifierInterface, addClassifier,
+                SfcProviderRenderedPathAPI::readRenderedServicePath);
+    }
+
+    public MacChainingProcessor(ClassifierHandler classifierHandler,
+                                ClassifierInterface classifierInterface,
+                                boolean addClassifier,
+                                Function<RspName, RenderedServicePath> rspReader) {
         this.classifierHandler = classifierHandler;
         this.classifierInterface = classifierInterface;
         this.addClassifier = addClassifier;
+        this.rspReader = rspReader;
     }
 
     /**
@@ -84,7 +98,7 @@ public class MacChainingProcessor implements ClassifierProcessorInterface {
                 .map(scfMatch -> scfMatch.setAclMatch(theAce.getMatches())).orElseThrow(IllegalArgumentException::new)
                 .build();
 
-        Optional<SfcRspInfo> sfcRspInfo = rspName.map(SfcRspInfo::getSfcRspInfo);
+        Optional<SfcRspInfo> sfcRspInfo = rspName.map(rspReader).map(SfcRspInfo::getSfcRspInfo);
 
         if (!sfcRspInfo.isPresent()) {
             LOG.error("processAce: sfcRspInfo is null; returning empty list");
@@ -151,7 +165,9 @@ public class MacChainingProcessor implements ClassifierProcessorInterface {
 
         RspName reverseRspName = SfcProviderRenderedPathAPI.generateReversedPathName(theRspName);
 
-        SfcRspInfo sfcRspInfo = SfcRspInfo.getSfcRspInfo(reverseRspName);
+        SfcRspInfo sfcRspInfo = Optional.ofNullable(rspReader.apply(reverseRspName))
+                .map(SfcRspInfo::getSfcRspInfo)
+                .orElse(null);
         if (sfcRspInfo == null) {
             LOG.warn("processReverseRsp: reverseNsh is null");
             return Collections.emptyList();
@@ -13,6 +13,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 import org.opendaylight.sfc.ovs.provider.SfcOvsUtil;
 import org.opendaylight.sfc.provider.api.SfcProviderRenderedPathAPI;
 import org.opendaylight.sfc.provider.api.SfcProviderServiceForwarderAPI;
@@ -22,6 +23,7 @@ import org.opendaylight.sfc.scfofrenderer.utils.SfcRspInfo;
 import org.opendaylight.sfc.scfofrenderer.utils.SfcScfMatch;
 import org.opendaylight.sfc.util.openflow.writer.FlowDetails;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.RspName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.RenderedServicePath;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.ServiceFunctionForwarder;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sl.rev140701.data.plane.locator.locator.type.Ip;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.access.list.entries.Ace;
@@ -40,14 +42,26 @@ public class NshProcessor implements ClassifierProcessorInterface {
 
     private final ClassifierHandler classifierHandler;
 
+    // retrieves the RSPs the processed ACEs refer to
+    private final Function<RspName, RenderedServicePath> rspReader;
+
     private static final Logger LOG = LoggerFactory.getLogger(NshProcessor.class);
 
     public NshProcessor(ClassifierInterface classifierInterface,
                         ClassifierHandler classifierHandler,
                         boolean addClassifier) {
+        this(classifierInterface, classifierHandler, addClassifier,
+                SfcProviderRenderedPathAPI::readRenderedServicePath);
+    }
+
+    public NshProcessor(ClassifierInterface classifierInterface,
+                        ClassifierHandler classifierHandler,
+                        boolean addClassifier,
+                        Function<RspName, RenderedServicePath> rspReader) {
         this.classifierInterface = classifierInterface;
         this.classifierHandler = classifierHandler;
         this.addClassifier = addClassifier;
+        this.rspReader = rspReader;
     }
 
     /**
@@ -82,7 +96,7 @@ public class NshProcessor implements ClassifierProcessorInterface {
                 .orElseThrow(IllegalArgumentException::new)
                 .build();
 
-        Optional<SfcRspInfo> sfcRspInfo = rspName.map(SfcRspInfo::getSfcRspInfo);
+        Optional<SfcRspInfo> sfcRspInfo = rspName.map(rspReader).map(SfcRspInfo::getSfcRspInfo);
 
         if (!sfcRspInfo.isPresent()) {
             LOG.error("processAce: sfcRspInfo is null; returning empty list");
@@ -157,7 +171,9 @@ public class NshProcessor implements ClassifierProcessorInterface {
         List<FlowDetails> theFlows = new ArrayList<>();
 
         RspName reverseRspName = SfcProviderRenderedPathAPI.generateReversedPathName(theRspName);
-        SfcRspInfo sfcRspInfo = SfcRspInfo.getSfcRspInfo(reverseRspName);
+        SfcRspInfo sfcRspInfo = Optional.ofNullable(rspReader.apply(reverseRspName))
+                .map(SfcRspInfo::getSfcRspInfo)
+                .orElse(null);
 
         if (sfcRspInfo == null) {
             LOG.warn("processReverseRsp: reverseNsh is null");
@@ -10,17 +10,25 @@ package org.opendaylight.sfc.scfofrenderer.processors;
 
 import com.google.common.base.Strings;
 import com.google.common.eventbus.Subscribe;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
 import org.opendaylight.sfc.provider.api.SfcProviderRenderedPathAPI;
 import org.opendaylight.sfc.provider.api.SfcProviderServiceForwarderAPI;
 import org.opendaylight.sfc.scfofrenderer.flowgenerators.BareClassifier;
-import org.opendaylight.sfc.scfofrenderer.flowgenerators.ClassifierInterface;
 import org.opendaylight.sfc.scfofrenderer.flowgenerators.LogicallyAttachedClassifier;
 import org.opendaylight.sfc.scfofrenderer.flowgenerators.MacChainingClassifier;
 import org.opendaylight.sfc.scfofrenderer.logicalclassifier.ClassifierGeniusIntegration;
@@ -41,16 +49,22 @@ import org.slf4j.LoggerFactory;
 
 public class OpenflowClassifierProcessor {
 
-    private WriteTransaction tx;
+    private static final int CLASSIFIER_THREADS = 4;
+    private static final long CLASSIFIER_THREAD_KEEP_ALIVE_SECONDS = 60;
 
-    // true if we're adding a classifier node, false if we're deleting it
-    private boolean addClassifier = true;
+    private WriteTransaction tx;
 
-    private ClassifierInterface classifierInterface;
+    // guards the transaction, since classifier SFFs are processed in parallel
+    private final Object txLock = new Object();
 
     private BareClassifier bareClassifier;
 
-    private MacChainingClassifier macChainingClassifier;
+    // guards the SFF set in the bare classifier while its node name is resolved
+    private final Object bareClassifierLock = new Object();
+
+    // the classifier SFFs are processed on a pool of their own, since doing so
+    // involves blocking datastore reads
+    private ThreadPoolExecutor classifierExecutor;
 
     private LogicallyAttachedClassifier logicallyAttachedClassifier;
 
@@ -65,16 +79,22 @@ public class OpenflowClassifierProcessor {
     public OpenflowClassifierProcessor(WriteTransaction theTx, LogicallyAttachedClassifier theLogicClassifier,
             BareClassifier theBareClassifier) {
         tx = theTx;
-        classifierInterface = theBareClassifier;
         logicallyAttachedClassifier = theLogicClassifier;
         bareClassifier = theBareClassifier;
         classifierHandler = new ClassifierHandler();
-        macChainingClassifier = new MacChainingClassifier();
+        classifierExecutor = new ThreadPoolExecutor(CLASSIFIER_THREADS, CLASSIFIER_THREADS,
+                CLASSIFIER_THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                new ThreadFactoryBuilder().setNameFormat("sfc-classifier-flows-%d").setDaemon(true).build());
+        classifierExecutor.allowCoreThreadTimeOut(true);
     }
 
     /**
      * Process a list of classifier switches objects, adding or removing flows
-     * for the entire impacted RSP.
+     * for the entire impacted RSP. The classifier switches are independent
+     * from each other, and are thus processed in parallel on a bounded pool
+     * owned by this processor; the returned flow
+     * list keeps the order of the supplied classifier list. The RSPs
+     * referenced by the ACEs are read only once per invocation.
      *
      * @param theAcl
      *            the ACL object to install
@@ -88,10 +108,53 @@ public class OpenflowClassifierProcessor {
      */
     public List<FlowDetails> processClassifierList(Acl theAcl, boolean onAddClassifier,
             List<SclServiceFunctionForwarder> classifierList) {
-        return classifierList.stream().map(classifier -> processClassifier(classifier, theAcl, onAddClassifier))
-                .peek(theFlows -> LOG.info("createdServiceFunctionClassifier - flow size: {}", theFlows.size()))
-                .reduce(new ArrayList<>(), (dstList, theList) -> Stream.concat(dstList.stream(), theList.stream())
-                        .collect(Collectors.toList()));
+        return processClassifierList(theAcl, theAcl.getAccessListEntries().getAce(), onAddClassifier, classifierList,
+                true);
+    }
+
+    /**
+     * Process a subset of the ACEs of an ACL in a list of classifier switches,
+     * adding or removing only the flows of those ACEs. Unlike
+     * {@link #processClassifierList(Acl, boolean, List)}, the classifier
+     * interfaces are neither bound nor unbound, since the classifier remains
+     * attached to them.
+     *
+     * @param theAcl
+     *            the ACL the ACEs belong to
+     * @param theAces
+     *            the ACEs to process
+     * @param onAddClassifier
+     *            true when adding the ACE flows, false when deleting them
+     * @param classifierList
+     *            the list of {@link SclServiceFunctionForwarder} in which the
+     *            ACE flows are installed
+     * @return the list of all the relevant flows to be installed / removed
+     */
+    public List<FlowDetails> processAceList(Acl theAcl, List<Ace> theAces, boolean onAddClassifier,
+            List<SclServiceFunctionForwarder> classifierList) {
+        return processClassifierList(theAcl, theAces, onAddClassifier, classifierList, false);
+    }
+
+    private List<FlowDetails> processClassifierList(Acl theAcl, List<Ace> theAces, boolean onAddClassifier,
+            List<SclServiceFunctionForwarder> classifierList, boolean bindInterfaces) {
+        Map<RspName, Optional<RenderedServicePath>> rspCache = new ConcurrentHashMap<>();
+        List<Future<List<FlowDetails>>> classifierFlows = new ArrayList<>();
+        for (SclServiceFunctionForwarder classifier : classifierList) {
+            if (classifierList.size() > 1) {
+                classifierFlows.add(classifierExecutor.submit(() -> processClassifier(classifier, theAcl, theAces,
+                        onAddClassifier, bindInterfaces, rspCache)));
+            } else {
+                classifierFlows.add(Futures.immediateFuture(processClassifier(classifier, theAcl, theAces,
+                        onAddClassifier, bindInterfaces, rspCache)));
+            }
+        }
+        List<FlowDetails> allFlows = new ArrayList<>();
+        for (Future<List<FlowDetails>> theFlows : classifierFlows) {
+            List<FlowDetails> flows = Futures.getUnchecked(theFlows);
+            LOG.info("createdServiceFunctionClassifier - flow size: {}", flows.size());
+            allFlows.addAll(flows);
+        }
+        return allFlows;
     }
 
     /**
@@ -111,8 +174,13 @@ public class OpenflowClassifierProcessor {
      */
     public List<FlowDetails> processClassifier(final SclServiceFunctionForwarder theClassifier, final Acl theAcl,
             final boolean addClassifierScenario) {
-        addClassifier = addClassifierScenario;
+        return processClassifier(theClassifier, theAcl, theAcl.getAccessListEntries().getAce(),
+                addClassifierScenario, true, new HashMap<>());
+    }
 
+    private List<FlowDetails> processClassifier(final SclServiceFunctionForwarder theClassifier, final Acl theAcl,
+            final List<Ace> theAces, final boolean addClassifierScenario, final boolean bindInterface,
+            final Map<RspName, Optional<RenderedServicePath>> rspCache) {
         Optional<ServiceFunctionForwarder> sff = Optional.of(new SffName(theClassifier.getName()))
                 .map(SfcProviderServiceForwarderAPI::readServiceFunctionForwarder);
 
@@ -127,20 +195,31 @@ public class OpenflowClassifierProcessor {
         }
 
         // bind/unbind the interface in genius, if the classifier is attached to a logical interface
-        if (classifierHandler.usesLogicalInterfaces(sff.get())) {
-            if (addClassifierScenario) {
-                ClassifierGeniusIntegration.performGeniusServiceBinding(tx, itfName.get());
-                LOG.info("processClassifier - Bound interface {}", itfName.get());
-            } else {
-                ClassifierGeniusIntegration.performGeniusServiceUnbinding(tx, itfName.get());
-                LOG.info("processClassifier - Unbound interface {}", itfName.get());
+        if (bindInterface && classifierHandler.usesLogicalInterfaces(sff.get())) {
+            synchronized (txLock) {
+                if (addClassifierScenario) {
+                    ClassifierGeniusIntegration.performGeniusServiceBinding(tx, itfName.get());
+                    LOG.info("processClassifier - Bound interface {}", itfName.get());
+                } else {
+                    ClassifierGeniusIntegration.performGeniusServiceUnbinding(tx, itfName.get());
+                    LOG.info("processClassifier - Unbound interface {}", itfName.get());
+                }
             }
         }
 
-        return theAcl.getAccessListEntries().getAce().stream()
-                .map(theAce -> processAce(itfName, sff.get(), theClassifier.getName(), theAcl.getAclName(), theAce))
-                .reduce(new ArrayList<>(), (dstList, theList) -> Stream.concat(dstList.stream(), theList.stream())
-                        .collect(Collectors.toList()));
+        Function<RspName, RenderedServicePath> rspReader = theRspName -> rspCache
+                .computeIfAbsent(theRspName,
+                    rspKey -> Optional.ofNullable(SfcProviderRenderedPathAPI.readRenderedServicePath(rspKey)))
+                .orElse(null);
+
+        // the mac chaining classifier holds the SFF, so each classifier SFF needs its own
+        MacChainingClassifier macChainingClassifier = new MacChainingClassifier(sff.get());
+
+        return theAces.stream()
+                .map(theAce -> processAce(itfName, sff.get(), theClassifier.getName(), theAcl.getAclName(), theAce,
+                        addClassifierScenario, macChainingClassifier, rspReader))
+                .flatMap(List::stream)
+                .collect(Collectors.toList());
     }
 
     /**
@@ -158,11 +237,20 @@ public class OpenflowClassifierProcessor {
      *            the interface we want to classify
      * @param theAce
      *            the ACE
+     * @param addClassifier
+     *            true when adding the classifier flows, false when deleting
+     *            them
+     * @param macChainingClassifier
+     *            the mac chaining flow generator bound to theSff
+     * @param rspReader
+     *            the function used to retrieve the RSPs referenced by the ACE
      * @return a List of {@link FlowDetails} having all the generated flows,
      *         which will be later installed
      */
-    public List<FlowDetails> processAce(Optional<String> itfName, ServiceFunctionForwarder theSff, String theScfName,
-                                        String aclName, Ace theAce) {
+    private List<FlowDetails> processAce(Optional<String> itfName, ServiceFunctionForwarder theSff, String theScfName,
+                                         String aclName, Ace theAce, boolean addClassifier,
+                                         MacChainingClassifier macChainingClassifier,
+                                         Function<RspName, RenderedServicePath> rspReader) {
 
         String ruleName = theAce.getRuleName();
         if (Strings.isNullOrEmpty(ruleName)) {
@@ -175,22 +263,33 @@ public class OpenflowClassifierProcessor {
                 .map(actions1 -> (AclRenderedServicePath) actions1.getSfcAction())
                 .map(aclRsp -> new RspName(aclRsp.getRenderedServicePath()));
 
-        RenderedServicePath rsp = SfcProviderRenderedPathAPI.readRenderedServicePath(rspName.get());
+        RenderedServicePath rsp = rspName.map(rspReader).orElse(null);
+        if (rsp == null) {
+            LOG.error("processAce - could not read the RSP of ACE {}; returning empty list", ruleName);
+            return Collections.emptyList();
+        }
 
         final ClassifierProcessorInterface classifierProcessor;
+        final Optional<String> nodeName;
 
         // choose which handler to use
         if (rsp.getSfcEncapsulation() == MacChaining.class) {
-            classifierInterface = macChainingClassifier.setSff(theSff);
             classifierProcessor = new MacChainingProcessor(
-                    this.classifierHandler, macChainingClassifier, addClassifier);
+                    this.classifierHandler, macChainingClassifier, addClassifier, rspReader);
+            nodeName = itfName.flatMap(macChainingClassifier::getNodeName);
+        } else if (classifierHandler.usesLogicalInterfaces(theSff)) {
+            classifierProcessor = new NshProcessor(
+                    logicallyAttachedClassifier, this.classifierHandler, addClassifier, rspReader);
+            nodeName = itfName.flatMap(logicallyAttachedClassifier::getNodeName);
         } else {
-            classifierInterface = classifierHandler.usesLogicalInterfaces(theSff)
-                    ? logicallyAttachedClassifier : bareClassifier.setSff(theSff);
-            classifierProcessor = new NshProcessor(this.classifierInterface, this.classifierHandler, addClassifier);
+            classifierProcessor = new NshProcessor(bareClassifier, this.classifierHandler, addClassifier, rspReader);
+            // the bare classifier only relies on the SFF to resolve the node name
+            synchronized (bareClassifierLock) {
+                bareClassifier.setSff(theSff);
+                nodeName = itfName.flatMap(bareClassifier::getNodeName);
+            }
         }
 
-        final Optional<String> nodeName = itfName.flatMap(classifierInterface::getNodeName);
         if (!nodeName.isPresent()) {
             LOG.error("Could not extract the node name from classifier on SFF {}", theSff.getName());
             return Collections.emptyList();
@@ -202,6 +301,13 @@ public class OpenflowClassifierProcessor {
                 nodeName.get(), theSff, theScfName, aclName, itfName.get(), theAce, rspName);
     }
 
+    /**
+     * Stop the threads processing the classifier SFFs.
+     */
+    public void close() {
+        classifierExecutor.shutdown();
+    }
+
     /**
      * Handler method of the {@link com.google.common.eventbus.EventBus class}.
      *
@@ -212,6 +318,8 @@ public class OpenflowClassifierProcessor {
     @Subscribe
     public void refreshTransaction(WriteTransaction theTx) {
         LOG.debug("refreshTransaction - refreshing the transaction.");
-        tx = theTx;
+        synchronized (txLock) {
+            tx = theTx;
+        }
     }
 }
@@ -10,8 +10,12 @@ package org.opendaylight.sfc.scfofrenderer.processors;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import org.opendaylight.sfc.scfofrenderer.utils.ClassifierHandler;
+import org.opendaylight.sfc.scfofrenderer.utils.SfcScfAceDiff;
 import org.opendaylight.sfc.util.openflow.writer.SfcOfFlowWriterInterface;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.scf.rev140701.service.function.classifiers.ServiceFunctionClassifier;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.scf.rev140701.service.function.classifiers.service.function.classifier.SclServiceFunctionForwarder;
@@ -91,6 +95,102 @@ public class SfcScfOfProcessor {
         return true;
     }
 
+    /**
+     * Update the flows of a classifier whose ACL remains the same, but whose
+     * list of classifier switches changed. Only the switches that were
+     * removed, added, or modified have their flows processed.
+     *
+     * @param originalScf
+     *            the classifier before the update
+     * @param updatedScf
+     *            the classifier after the update
+     * @return update result
+     */
+    public boolean updatedServiceFunctionClassifier(ServiceFunctionClassifier originalScf,
+            ServiceFunctionClassifier updatedScf) {
+        Optional<Acl> theAcl = classifierHandler.extractAcl(updatedScf);
+        if (!theAcl.isPresent() || !validateInputs(theAcl.get())) {
+            LOG.error("updatedServiceFunctionClassifier: Could not retrieve the ACL from the classifier: {}",
+                    updatedScf);
+            return false;
+        }
+
+        Map<String, SclServiceFunctionForwarder> originalSffs = indexSffsByName(originalScf);
+        Map<String, SclServiceFunctionForwarder> updatedSffs = indexSffsByName(updatedScf);
+
+        List<SclServiceFunctionForwarder> removedSffs = originalSffs.entrySet().stream()
+                .filter(sffEntry -> !sffEntry.getValue().equals(updatedSffs.get(sffEntry.getKey())))
+                .map(Map.Entry::getValue)
+                .collect(Collectors.toList());
+        List<SclServiceFunctionForwarder> addedSffs = updatedSffs.entrySet().stream()
+                .filter(sffEntry -> !sffEntry.getValue().equals(originalSffs.get(sffEntry.getKey())))
+                .map(Map.Entry::getValue)
+                .collect(Collectors.toList());
+
+        LOG.debug("updatedServiceFunctionClassifier: classifier {}; removed SFFs: {}; added SFFs: {}",
+                updatedScf.getName(), removedSffs.size(), addedSffs.size());
+
+        if (!removedSffs.isEmpty()) {
+            openflowWriter.removeFlows(classifierProcessor.processClassifierList(theAcl.get(), false, removedSffs));
+            openflowWriter.clearSffsIfNoRspExists();
+            openflowWriter.deleteFlowSet();
+        }
+
+        if (!addedSffs.isEmpty()) {
+            openflowWriter.writeFlows(classifierProcessor.processClassifierList(theAcl.get(), true, addedSffs));
+            openflowWriter.flushFlows();
+        }
+        return true;
+    }
+
+    /**
+     * Update the flows of a classifier upon a change of its ACL. Only the
+     * ACEs that were removed, added, or modified have their flows processed;
+     * the flows of the remaining ACEs are left untouched.
+     *
+     * @param scf
+     *            the classifier using the ACL
+     * @param originalAcl
+     *            the ACL before the update
+     * @param updatedAcl
+     *            the ACL after the update
+     * @return update result
+     */
+    public boolean updatedAccessList(ServiceFunctionClassifier scf, Acl originalAcl, Acl updatedAcl) {
+        List<SclServiceFunctionForwarder> sfflist = scf.getSclServiceFunctionForwarder();
+        if (sfflist == null) {
+            LOG.error("updatedAccessList: sfflist is null");
+            return false;
+        }
+
+        SfcScfAceDiff aceDiff = SfcScfAceDiff.compute(originalAcl, updatedAcl);
+        LOG.info("updatedAccessList: classifier {}; ACEs to remove: {}; ACEs to add: {}", scf.getName(),
+                aceDiff.getAcesToRemove().size(), aceDiff.getAcesToAdd().size());
+
+        if (!aceDiff.getAcesToRemove().isEmpty()) {
+            openflowWriter.removeFlows(
+                    classifierProcessor.processAceList(originalAcl, aceDiff.getAcesToRemove(), false, sfflist));
+            // so that we delete the initialization flows from SFFs that do not
+            // belong to any RSPs
+            openflowWriter.clearSffsIfNoRspExists();
+            openflowWriter.deleteFlowSet();
+        }
+
+        if (!aceDiff.getAcesToAdd().isEmpty()) {
+            openflowWriter.writeFlows(
+                    classifierProcessor.processAceList(updatedAcl, aceDiff.getAcesToAdd(), true, sfflist));
+            openflowWriter.flushFlows();
+        }
+        return true;
+    }
+
+    private static Map<String, SclServiceFunctionForwarder> indexSffsByName(ServiceFunctionClassifier scf) {
+        return Optional.ofNullable(scf.getSclServiceFunctionForwarder())
+                .orElse(Collections.emptyList())
+                .stream()
+                .collect(Collectors.toMap(SclServiceFunctionForwarder::getName, Function.identity()));
+    }
+
     /**
      * Check if the supplied ACL is valid.
      *
@@ -19,6 +19,7 @@ import org.opendaylight.sfc.genius.util.SfcGeniusRpcClient;
 import org.opendaylight.sfc.scfofrenderer.flowgenerators.BareClassifier;
 import org.opendaylight.sfc.scfofrenderer.flowgenerators.LogicallyAttachedClassifier;
 import org.opendaylight.sfc.scfofrenderer.listeners.ClassifierRspsUpdateListener;
+import org.opendaylight.sfc.scfofrenderer.listeners.SfcScfOfAclDataListener;
 import org.opendaylight.sfc.scfofrenderer.listeners.SfcScfOfDataListener;
 import org.opendaylight.sfc.scfofrenderer.logicalclassifier.LogicalClassifierDataGetter;
 import org.opendaylight.sfc.scfofrenderer.processors.ClassifierRspUpdateProcessor;
@@ -37,6 +38,8 @@ public class SfcScfOfRenderer implements AutoCloseable {
     private static final Logger LOG = LoggerFactory.getLogger(SfcScfOfRenderer.class);
     private final ClassifierRspsUpdateListener classifierRspsUpdateListener;
     private final SfcScfOfDataListener sfcScfDataListener;
+    private final SfcScfOfAclDataListener sfcScfAclDataListener;
+    private final OpenflowClassifierProcessor logicalClassifierHandler;
 
     @Inject
     public SfcScfOfRenderer(DataBroker dataBroker, NotificationProviderService notificationService,
@@ -54,7 +57,7 @@ public class SfcScfOfRenderer implements AutoCloseable {
 
         LogicallyAttachedClassifier logicalClassifier = new LogicallyAttachedClassifier(dataGetter);
 
-        OpenflowClassifierProcessor logicalClassifierHandler = new OpenflowClassifierProcessor(theTx, logicalClassifier,
+        logicalClassifierHandler = new OpenflowClassifierProcessor(theTx, logicalClassifier,
                 new BareClassifier());
 
         // register the classifierProcessor as a listener of the transaction
@@ -69,10 +72,12 @@ public class SfcScfOfRenderer implements AutoCloseable {
         classifierRspsUpdateListener = new ClassifierRspsUpdateListener(dataBroker,
                 new ClassifierRspUpdateProcessor(logicalClassifier), openflowWriter,
                 new ClassifierRspUpdateDataGetter(), dataGetter);
-        sfcScfDataListener = new SfcScfOfDataListener(dataBroker,
-                new SfcScfOfProcessor(openflowWriter, logicalClassifierHandler));
+        SfcScfOfProcessor sfcScfProcessor = new SfcScfOfProcessor(openflowWriter, logicalClassifierHandler);
+        sfcScfDataListener = new SfcScfOfDataListener(dataBroker, sfcScfProcessor);
+        sfcScfAclDataListener = new SfcScfOfAclDataListener(dataBroker, sfcScfProcessor);
         classifierRspsUpdateListener.register();
         sfcScfDataListener.register();
+        sfcScfAclDataListener.register();
 
         LOG.info("SfcScfOfRenderer successfully started the SfcScfOfRenderer plugin");
     }
@@ -85,6 +90,8 @@ public class SfcScfOfRenderer implements AutoCloseable {
     public void close()  {
         classifierRspsUpdateListener.close();
         sfcScfDataListener.close();
+        sfcScfAclDataListener.close();
+        logicalClassifierHandler.close();
         LOG.info("SfcScfOfRenderer auto-closed");
     }
 }
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.scfofrenderer.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.Acl;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.AccessListEntries;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.access.list.entries.Ace;
+
+/**
+ * ACE granular difference between two versions of the same ACL. ACEs are
+ * identified by their rule name, which is also what identifies the classifier
+ * flows generated for them (see {@link ClassifierHandler#buildFlowKeyName}).
+ * A modified ACE features both in the ACEs to remove - with its original
+ * contents - and in the ACEs to add - with its updated contents.
+ */
+public final class SfcScfAceDiff {
+
+    private final List<Ace> acesToRemove;
+
+    private final List<Ace> acesToAdd;
+
+    private SfcScfAceDiff(List<Ace> theAcesToRemove, List<Ace> theAcesToAdd) {
+        acesToRemove = theAcesToRemove;
+        acesToAdd = theAcesToAdd;
+    }
+
+    /**
+     * Compute the ACEs that changed between two versions of an ACL.
+     *
+     * @param originalAcl
+     *            the ACL before the change; may be null
+     * @param updatedAcl
+     *            the ACL after the change; may be null
+     * @return the {@link SfcScfAceDiff} holding the ACEs whose flows must be
+     *         removed, and the ACEs whose flows must be written
+     */
+    public static SfcScfAceDiff compute(Acl originalAcl, Acl updatedAcl) {
+        Map<String, Ace> originalAces = indexByRuleName(originalAcl);
+        Map<String, Ace> updatedAces = indexByRuleName(updatedAcl);
+
+        List<Ace> theAcesToRemove = new ArrayList<>();
+        originalAces.forEach((ruleName, ace) -> {
+            if (!ace.equals(updatedAces.get(ruleName))) {
+                theAcesToRemove.add(ace);
+            }
+        });
+
+        List<Ace> theAcesToAdd = new ArrayList<>();
+        updatedAces.forEach((ruleName, ace) -> {
+            if (!ace.equals(originalAces.get(ruleName))) {
+                theAcesToAdd.add(ace);
+            }
+        });
+
+        return new SfcScfAceDiff(theAcesToRemove, theAcesToAdd);
+    }
+
+    private static Map<String, Ace> indexByRuleName(Acl theAcl) {
+        List<Ace> theAces = Optional.ofNullable(theAcl)
+                .map(Acl::getAccessListEntries)
+                .map(AccessListEntries::getAce)
+                .orElse(Collections.emptyList());
+
+        // keep the provisioned order, so that the generated flows are deterministic
+        Map<String, Ace> acesByRuleName = new LinkedHashMap<>();
+        theAces.stream()
+                .filter(ace -> ace.getRuleName() != null)
+                .forEach(ace -> acesByRuleName.put(ace.getRuleName(), ace));
+        return acesByRuleName;
+    }
+
+    public List<Ace> getAcesToRemove() {
+        return acesToRemove;
+    }
+
+    public List<Ace> getAcesToAdd() {
+        return acesToAdd;
+    }
+
+    public boolean isEmpty() {
+        return acesToRemove.isEmpty() && acesToAdd.isEmpty();
+    }
+}
@@ -219,6 +219,39 @@ public class OpenflowClassifierProcessorTest {
         Assert.assertEquals(2 + 2 + 1, theFlows.size());
     }
 
+    @Test
+    public void addClassifierListLargeAcl() {
+        // must set the usesLogicalInterfaces = false
+        when(sff.getSffDataPlaneLocator()).thenReturn(new ArrayList<>());
+
+        // disable DPDK extensions
+        PowerMockito.when(SfcOvsUtil.getDpdkOfPort(any(), any())).thenReturn(null);
+
+        // 10k ACEs, pointing to 5k different RSPs
+        final int numberOfAces = 10000;
+        when(accessListEntries.getAce()).thenReturn(new ClassifierAclDataBuilder().mockAces(numberOfAces));
+
+        BareClassifier bareClassifierHandler = Mockito.spy(new BareClassifier(sff));
+        doReturn(Optional.of(FIRST_SF_NODE_NAME)).when(bareClassifierHandler).getNodeName(anyString());
+
+        OpenflowClassifierProcessor classifierManager = new OpenflowClassifierProcessor(readWriteTransaction,
+                new LogicallyAttachedClassifier(dataGetter), bareClassifierHandler);
+
+        List<SclServiceFunctionForwarder> classifierList = new ArrayList<>();
+        classifierList.add(sffClassifier);
+        classifierList.add(sffClassifier);
+
+        List<FlowDetails> theFlows = classifierManager.processClassifierList(acl, true, classifierList);
+
+        // per classifier and ACE: table miss, classifier "out" flow and
+        // classifier 'in' flow for the reverse RSP
+        Assert.assertEquals(2 * numberOfAces * 3, theFlows.size());
+
+        // each RSP, and its reverse RSP, is read only once
+        PowerMockito.verifyStatic(SfcProviderRenderedPathAPI.class, Mockito.times(numberOfAces));
+        SfcProviderRenderedPathAPI.readRenderedServicePath(any(RspName.class));
+    }
+
     @Test
     public void addClassifierEmptyAcl() {
         OpenflowClassifierProcessor classifierManager = new OpenflowClassifierProcessor(readWriteTransaction,
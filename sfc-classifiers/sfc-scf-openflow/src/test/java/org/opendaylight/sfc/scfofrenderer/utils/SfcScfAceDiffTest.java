@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.scfofrenderer.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+import org.opendaylight.sfc.scfofrenderer.ClassifierAclDataBuilder;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.Acl;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.AclBuilder;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.AccessListEntriesBuilder;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.access.list.entries.Ace;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.access.list.entries.AceBuilder;
+
+public class SfcScfAceDiffTest {
+
+    private static Acl buildAcl(List<Ace> theAces) {
+        return new AclBuilder().setAclName("aclName")
+                .setAccessListEntries(new AccessListEntriesBuilder().setAce(theAces).build()).build();
+    }
+
+    @Test
+    public void unchangedAcl() {
+        List<Ace> theAces = new ClassifierAclDataBuilder().mockAces(10);
+
+        SfcScfAceDiff aceDiff = SfcScfAceDiff.compute(buildAcl(theAces), buildAcl(new ArrayList<>(theAces)));
+
+        Assert.assertTrue(aceDiff.isEmpty());
+    }
+
+    @Test
+    public void addedRemovedAndModifiedAces() {
+        List<Ace> originalAces = new ClassifierAclDataBuilder().mockAces(4);
+
+        // ACE0 is removed, ACE1 is modified, ACE2 and ACE3 are kept, ACE4 is added
+        Ace modifiedAce = new AceBuilder(originalAces.get(1)).setActions(null).build();
+        Ace addedAce = new AceBuilder(originalAces.get(3)).setRuleName("ACE4").build();
+        List<Ace> updatedAces = Arrays.asList(modifiedAce, originalAces.get(2), originalAces.get(3), addedAce);
+
+        SfcScfAceDiff aceDiff = SfcScfAceDiff.compute(buildAcl(originalAces), buildAcl(updatedAces));
+
+        Assert.assertFalse(aceDiff.isEmpty());
+        Assert.assertEquals(Arrays.asList(originalAces.get(0), originalAces.get(1)), aceDiff.getAcesToRemove());
+        Assert.assertEquals(Arrays.asList(modifiedAce, addedAce), aceDiff.getAcesToAdd());
+    }
+
+    @Test
+    public void oneAceAddedToLargeAcl() {
+        List<Ace> originalAces = new ClassifierAclDataBuilder().mockAces(5000);
+        List<Ace> updatedAces = new ArrayList<>(originalAces);
+        Ace addedAce = new AceBuilder(originalAces.get(0)).setRuleName("newAce").build();
+        updatedAces.add(addedAce);
+
+        SfcScfAceDiff aceDiff = SfcScfAceDiff.compute(buildAcl(originalAces), buildAcl(updatedAces));
+
+        Assert.assertTrue(aceDiff.getAcesToRemove().isEmpty());
+        Assert.assertEquals(Collections.singletonList(addedAce), aceDiff.getAcesToAdd());
+    }
+
+    @Test
+    public void missingAcls() {
+        List<Ace> theAces = new ClassifierAclDataBuilder().mockAces(2);
+
+        Assert.assertEquals(theAces, SfcScfAceDiff.compute(null, buildAcl(theAces)).getAcesToAdd());
+        Assert.assertEquals(theAces, SfcScfAceDiff.compute(buildAcl(theAces), null).getAcesToRemove());
+        Assert.assertTrue(SfcScfAceDiff.compute(null, null).isEmpty());
+    }
+}
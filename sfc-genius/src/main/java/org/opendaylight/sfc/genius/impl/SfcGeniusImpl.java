@@ -16,6 +16,7 @@ import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.sfc.genius.impl.handlers.SfcGeniusInterfaceStateAggregator;
 import org.opendaylight.sfc.genius.impl.handlers.SfcGeniusServiceManagerImpl;
 import org.opendaylight.sfc.genius.impl.listeners.SfcGeniusInterfaceStateListener;
 import org.opendaylight.sfc.genius.impl.listeners.SfcGeniusSfListener;
@@ -29,6 +30,10 @@ import org.slf4j.LoggerFactory;
 public class SfcGeniusImpl {
 
     private static final Logger LOG = LoggerFactory.getLogger(SfcGeniusImpl.class);
+
+    // Interface state up events are aggregated over this time window
+    private static final long INTERFACE_STATE_WINDOW_MILLIS = 250;
+
     private final DataBroker dataBroker;
     private final ItmRpcService itmRpcService;
     private AutoCloseable onDestroy;
@@ -54,13 +59,19 @@ public class SfcGeniusImpl {
         SfcGeniusServiceManager interfaceManager;
         interfaceManager = new SfcGeniusServiceManagerImpl(dataBroker, itmRpcService, handlerExecutor);
 
+        // Interface state up events are handled in batches by this manager
+        SfcGeniusInterfaceStateAggregator interfaceStateAggregator;
+        interfaceStateAggregator = new SfcGeniusInterfaceStateAggregator(interfaceManager,
+                INTERFACE_STATE_WINDOW_MILLIS);
+
         // Listeners to data store events
         SfcGeniusSfStateListener sfStateListener;
         sfStateListener = new SfcGeniusSfStateListener(dataBroker, interfaceManager, listenerExecutor);
         sfStateListener.register();
 
         SfcGeniusInterfaceStateListener interfaceStateListener;
-        interfaceStateListener = new SfcGeniusInterfaceStateListener(dataBroker, interfaceManager, listenerExecutor);
+        interfaceStateListener = new SfcGeniusInterfaceStateListener(dataBroker, interfaceStateAggregator,
+                listenerExecutor);
         interfaceStateListener.register();
 
         SfcGeniusSffDpnStateListener sfcGeniusSffDpnStateListener;
@@ -76,6 +87,7 @@ public class SfcGeniusImpl {
             interfaceStateListener.close();
             sfcGeniusSffDpnStateListener.close();
             sfcGeniusSfListener.close();
+            interfaceStateAggregator.close();
         };
 
         LOG.info("SFC Genius module {} initialized", this);
@@ -10,6 +10,7 @@ package org.opendaylight.sfc.genius.impl;
 
 import java.math.BigInteger;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Genius SFC Service manager.
@@ -40,6 +41,16 @@ public interface SfcGeniusServiceManager {
      */
     void interfaceStateUp(String interfaceName, BigInteger dpnId);
 
+    /**
+     * Several interfaces become available at their nodes. The rendered
+     * service paths affected by any of them are re-rendered only once.
+     *
+     * @param dpnIdsByInterfaceName
+     *            the data plane id of the new node associated to each
+     *            interface, by interface name.
+     */
+    void interfacesStateUp(Map<String, BigInteger> dpnIdsByInterfaceName);
+
     /**
      * Bind the interfaces of a service function to SFC service.
      *
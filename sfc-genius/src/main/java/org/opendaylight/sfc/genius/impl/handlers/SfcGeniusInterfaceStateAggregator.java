@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.genius.impl.handlers;
+
+import java.math.BigInteger;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.sfc.genius.impl.SfcGeniusServiceManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link SfcGeniusServiceManager} that aggregates interface state up events.
+ *
+ * <p>
+ * When a node reboots, the interfaces of all its VMs come up at about the
+ * same time, and handling them one by one re-renders the same RSPs over and
+ * over. Instead, interface state up events are collected over a short window
+ * and handed over to the delegate service manager as a single batch, so that
+ * each affected RSP is re-rendered once. Events are queued without blocking
+ * the caller; batches are handled one at a time on a dedicated thread, while
+ * the events arriving meanwhile make up the next batch.
+ *
+ * <p>
+ * Any other operation is delegated as is.
+ */
+public class SfcGeniusInterfaceStateAggregator implements SfcGeniusServiceManager, AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SfcGeniusInterfaceStateAggregator.class);
+
+    private final SfcGeniusServiceManager serviceManager;
+    private final long windowMillis;
+    private final ScheduledExecutorService scheduler;
+
+    // guarded by this
+    private Map<String, BigInteger> pendingDpnIdsByInterfaceName = new LinkedHashMap<>();
+    private boolean flushScheduled = false;
+
+    /**
+     * Constructs a {@code SfcGeniusInterfaceStateAggregator}.
+     *
+     * @param serviceManager
+     *            the service manager handling the aggregated events and any
+     *            other operation.
+     * @param windowMillis
+     *            the time in milliseconds during which interface state up
+     *            events are collected before being handled.
+     */
+    public SfcGeniusInterfaceStateAggregator(SfcGeniusServiceManager serviceManager, long windowMillis) {
+        this.serviceManager = serviceManager;
+        this.windowMillis = windowMillis;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @Override
+    public void interfaceStateUp(String interfaceName, BigInteger dpnId) {
+        synchronized (this) {
+            // the latest node of the interface is the one that matters
+            pendingDpnIdsByInterfaceName.put(interfaceName, dpnId);
+            if (flushScheduled) {
+                return;
+            }
+            flushScheduled = true;
+        }
+        try {
+            scheduler.schedule(this::flush, windowMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            LOG.debug("Interface {} state up on {} ignored, aggregator closed", interfaceName, dpnId);
+        }
+    }
+
+    @Override
+    public void interfacesStateUp(Map<String, BigInteger> dpnIdsByInterfaceName) {
+        serviceManager.interfacesStateUp(dpnIdsByInterfaceName);
+    }
+
+    /**
+     * Handle the interface state up events collected so far as a batch.
+     */
+    void flush() {
+        Map<String, BigInteger> dpnIdsByInterfaceName;
+        synchronized (this) {
+            dpnIdsByInterfaceName = pendingDpnIdsByInterfaceName;
+            pendingDpnIdsByInterfaceName = new LinkedHashMap<>();
+            flushScheduled = false;
+        }
+        if (dpnIdsByInterfaceName.isEmpty()) {
+            return;
+        }
+
+        LOG.debug("Handling state up of {} interfaces", dpnIdsByInterfaceName.size());
+        try {
+            serviceManager.interfacesStateUp(dpnIdsByInterfaceName);
+        } catch (RuntimeException e) {
+            LOG.error("Error handling interfaces state up {}", dpnIdsByInterfaceName.keySet(), e);
+        }
+    }
+
+    @Override
+    public void bindInterfacesOfServiceFunction(String sfName) {
+        serviceManager.bindInterfacesOfServiceFunction(sfName);
+    }
+
+    @Override
+    public void unbindInterfacesOfServiceFunction(String sfName) {
+        serviceManager.unbindInterfacesOfServiceFunction(sfName);
+    }
+
+    @Override
+    public void unbindInterfaces(List<String> interfaceNames) {
+        serviceManager.unbindInterfaces(interfaceNames);
+    }
+
+    @Override
+    public void bindNode(BigInteger dpnId) {
+        serviceManager.bindNode(dpnId);
+    }
+
+    @Override
+    public void unbindNode(BigInteger dpnId) {
+        serviceManager.unbindNode(dpnId);
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
@@ -11,7 +11,10 @@ package org.opendaylight.sfc.genius.impl.handlers;
 import static org.opendaylight.sfc.genius.util.SfcGeniusConcurrentUtils.toCompletableFuture;
 
 import java.math.BigInteger;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.Executor;
@@ -38,7 +41,8 @@ import org.slf4j.LoggerFactory;
  * <p>
  * When an interface becomes available after being unavailable due to a
  * node/port transition, any RSPs on which associated service functions
- * participate will be re-rendered.
+ * participate will be re-rendered. When several interfaces become available
+ * together, each of those RSPs is re-rendered once in a single transaction.
  *
  * @see "org.opendaylight.genius.itm"
  * @see "org.opendaylight.genius.interfacemanager"
@@ -155,18 +159,24 @@ public class SfcGeniusServiceManagerImpl implements org.opendaylight.sfc.genius.
 
     @Override
     public void interfaceStateUp(String interfaceName, BigInteger dpnId) {
+        interfacesStateUp(Collections.singletonMap(interfaceName, dpnId));
+    }
+
+    @Override
+    public void interfacesStateUp(Map<String, BigInteger> dpnIdsByInterfaceName) {
         ReadWriteTransaction readWriteTransaction = dataBroker.newReadWriteTransaction();
         SfcGeniusRspHandler rspHandler = getSfcGeniusRspHandler(readWriteTransaction);
         SfcGeniusSfReader sfReader = getSfcGeniusSfReader(readWriteTransaction);
+        Set<String> interfaceNames = dpnIdsByInterfaceName.keySet();
 
-        sfReader.readSfOnInterface(interfaceName)
+        sfReader.readSfOnInterfaces(interfaceNames)
                 .thenCompose(serviceFunctions -> serviceFunctions.isEmpty()
                         ? CompletableFuture.completedFuture(null)
-                        : rspHandler.interfaceStateUp(interfaceName, serviceFunctions))
+                        : rspHandler.interfacesStateUp(interfaceNames, serviceFunctions))
                 .thenCompose(aVoid -> toCompletableFuture(readWriteTransaction.submit(), executor))
                 .handle((nop, exception) -> {
                     if (exception != null) {
-                        LOG.error("Error handling interface {} state up on {}", interfaceName, dpnId, exception);
+                        LOG.error("Error handling interfaces state up {}", dpnIdsByInterfaceName, exception);
                     }
                     return null;
                 }).join();
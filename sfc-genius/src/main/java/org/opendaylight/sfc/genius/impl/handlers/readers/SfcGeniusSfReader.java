@@ -8,6 +8,7 @@
 
 package org.opendaylight.sfc.genius.impl.handlers.readers;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
@@ -62,12 +63,37 @@ public class SfcGeniusSfReader extends SfcGeniusReaderAbstract {
                         .collect(Collectors.toList()));
     }
 
+    /**
+     * Read the service function names that have any of the given interfaces
+     * configured as a data plane locator. The service functions are read only
+     * once, whatever the number of interfaces.
+     *
+     * @param interfaceNames the interface names.
+     * @return a list of service function names, empty list if none.
+     */
+    public CompletableFuture<List<SfName>> readSfOnInterfaces(Collection<String> interfaceNames) {
+        InstanceIdentifier<ServiceFunctions> sfsIID = InstanceIdentifier.builder(ServiceFunctions.class).build();
+        return doReadOptional(LogicalDatastoreType.CONFIGURATION, sfsIID)
+                .thenApply(optionalServiceFunctions -> optionalServiceFunctions
+                        .map(ServiceFunctions::getServiceFunction)
+                        .orElse(Collections.emptyList())
+                        .stream()
+                        .filter(serviceFunction -> isServiceFunctionOnAnyInterface(serviceFunction, interfaceNames))
+                        .map(ServiceFunction::getName)
+                        .collect(Collectors.toList()));
+    }
+
     private static boolean isServiceFunctionOnInterface(ServiceFunction serviceFunction, String interfaceName) {
+        return isServiceFunctionOnAnyInterface(serviceFunction, Collections.singleton(interfaceName));
+    }
+
+    private static boolean isServiceFunctionOnAnyInterface(ServiceFunction serviceFunction,
+                                                           Collection<String> interfaceNames) {
         return serviceFunction.getSfDataPlaneLocator().stream()
                 .map(DataPlaneLocator::getLocatorType)
                 .filter(locatorType -> locatorType instanceof LogicalInterface)
                 .map(locatorType -> (LogicalInterface) locatorType)
-                .anyMatch(logicalInterface -> interfaceName.equals(logicalInterface.getInterfaceName()));
+                .anyMatch(logicalInterface -> interfaceNames.contains(logicalInterface.getInterfaceName()));
     }
 
     /**
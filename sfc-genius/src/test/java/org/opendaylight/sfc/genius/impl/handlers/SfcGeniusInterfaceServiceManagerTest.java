@@ -17,8 +17,12 @@ import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
 import com.google.common.util.concurrent.Futures;
+import java.math.BigInteger;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.Executor;
@@ -172,4 +176,25 @@ public class SfcGeniusInterfaceServiceManagerTest {
 
         sfcGeniusInterfaceServiceManager.unbindInterfacesOfServiceFunction("SF1");
     }
+
+    @Test
+    public void interfacesStateUp() throws Exception {
+        Map<String, BigInteger> dpnIdsByInterfaceName = new LinkedHashMap<>();
+        dpnIdsByInterfaceName.put("IF1", BigInteger.ONE);
+        dpnIdsByInterfaceName.put("IF2", BigInteger.ONE);
+        List<SfName> sfNameList = Arrays.asList(new SfName("SF1"), new SfName("SF2"));
+        doReturn(sfcGeniusRspHandler).when(sfcGeniusInterfaceServiceManager)
+                .getSfcGeniusRspHandler(readWriteTransaction);
+        when(sfcGeniusSfReader.readSfOnInterfaces(dpnIdsByInterfaceName.keySet()))
+                .thenReturn(CompletableFuture.completedFuture(sfNameList));
+        when(sfcGeniusRspHandler.interfacesStateUp(dpnIdsByInterfaceName.keySet(), sfNameList))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        sfcGeniusInterfaceServiceManager.interfacesStateUp(dpnIdsByInterfaceName);
+
+        verify(sfcGeniusSfReader).readSfOnInterfaces(dpnIdsByInterfaceName.keySet());
+        verify(sfcGeniusRspHandler).interfacesStateUp(dpnIdsByInterfaceName.keySet(), sfNameList);
+        verify(dataBroker).newReadWriteTransaction();
+        verify(readWriteTransaction).submit();
+    }
 }
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.genius.impl.handlers;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.opendaylight.sfc.genius.impl.SfcGeniusServiceManager;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SfcGeniusInterfaceStateAggregatorTest {
+
+    // long enough for the scheduled flush not to happen during a test
+    private static final long WINDOW_MILLIS = 60000;
+
+    @Mock
+    SfcGeniusServiceManager sfcGeniusServiceManager;
+
+    SfcGeniusInterfaceStateAggregator sfcGeniusInterfaceStateAggregator;
+
+    @Before
+    public void setup() {
+        sfcGeniusInterfaceStateAggregator = new SfcGeniusInterfaceStateAggregator(sfcGeniusServiceManager,
+                WINDOW_MILLIS);
+    }
+
+    @After
+    public void teardown() {
+        sfcGeniusInterfaceStateAggregator.close();
+    }
+
+    @Test
+    public void interfaceStateUpIsAggregated() throws Exception {
+        Map<String, BigInteger> dpnIdsByInterfaceName = new HashMap<>();
+        for (int i = 0; i < 500; i++) {
+            sfcGeniusInterfaceStateAggregator.interfaceStateUp("IF" + i, BigInteger.ONE);
+            dpnIdsByInterfaceName.put("IF" + i, BigInteger.ONE);
+        }
+        // the interface moved again within the window
+        sfcGeniusInterfaceStateAggregator.interfaceStateUp("IF0", BigInteger.TEN);
+        dpnIdsByInterfaceName.put("IF0", BigInteger.TEN);
+
+        verifyZeroInteractions(sfcGeniusServiceManager);
+
+        sfcGeniusInterfaceStateAggregator.flush();
+        sfcGeniusInterfaceStateAggregator.flush();
+
+        verify(sfcGeniusServiceManager).interfacesStateUp(dpnIdsByInterfaceName);
+        verifyNoMoreInteractions(sfcGeniusServiceManager);
+    }
+
+    @Test
+    public void otherOperationsAreDelegated() throws Exception {
+        sfcGeniusInterfaceStateAggregator.bindInterfacesOfServiceFunction("SF1");
+        sfcGeniusInterfaceStateAggregator.bindNode(BigInteger.ONE);
+
+        verify(sfcGeniusServiceManager).bindInterfacesOfServiceFunction("SF1");
+        verify(sfcGeniusServiceManager).bindNode(BigInteger.ONE);
+    }
+}
@@ -12,7 +12,9 @@ import static org.opendaylight.sfc.provider.SfcProviderDebug.printTraceStart;
 import static org.opendaylight.sfc.provider.SfcProviderDebug.printTraceStop;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.sfc.provider.api.SfcDataStoreAPI;
 import org.opendaylight.sfc.provider.api.SfcProviderServiceFunctionAPI;
@@ -241,4 +243,35 @@ public class SfcNetconfServiceFunctionAPI {
         printTraceStop(LOG);
         return ret;
     }
+
+    /**
+     * Put the monitor information of several service functions into the
+     * OPERATIONAL datastore, in a single transaction. The information is
+     * merged, so the description information already present is kept.
+     *
+     * @param monInfos
+     *            Service Function monitoring information by Service Function
+     *            name
+     * @return true if all the monInfos were successfully put, false otherwise
+     */
+    public boolean putServiceFunctionMonitors(Map<SfName, MonitoringInfo> monInfos) {
+        printTraceStart(LOG);
+
+        Map<InstanceIdentifier<ServiceFunctionState>, ServiceFunctionState> serviceFunctionStates = new HashMap<>();
+        monInfos.forEach((sfName, monInfo) -> {
+            ServiceFunctionStateKey serviceFunctionStateKey = new ServiceFunctionStateKey(sfName);
+            InstanceIdentifier<ServiceFunctionState> sfStateIID = InstanceIdentifier
+                    .builder(ServiceFunctionsState.class).child(ServiceFunctionState.class, serviceFunctionStateKey)
+                    .build();
+            SfcSfDescMon sfDescMon = new SfcSfDescMonBuilder().setMonitoringInfo(monInfo).build();
+            ServiceFunctionState1 sfState1 = new ServiceFunctionState1Builder().setSfcSfDescMon(sfDescMon).build();
+            serviceFunctionStates.put(sfStateIID, new ServiceFunctionStateBuilder().withKey(serviceFunctionStateKey)
+                    .addAugmentation(ServiceFunctionState1.class, sfState1).build());
+        });
+        boolean ret = SfcDataStoreAPI.writeMergeTransactionsAPI(serviceFunctionStates,
+                LogicalDatastoreType.OPERATIONAL);
+
+        printTraceStop(LOG);
+        return ret;
+    }
 }
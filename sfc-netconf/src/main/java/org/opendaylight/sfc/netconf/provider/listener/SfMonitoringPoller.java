@@ -0,0 +1,254 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.netconf.provider.listener;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.opendaylight.sfc.netconf.provider.api.SfcNetconfServiceFunctionAPI;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfName;
+import org.opendaylight.yang.gen.v1.urn.intel.params.xml.ns.sf.desc.mon.rev141201.service.functions.state.service.function.state.sfc.sf.desc.mon.MonitoringInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Polls the monitoring information of the NETCONF service functions.
+ *
+ * <p>
+ * All the SF nodes are polled by a single scheduler with a bounded pool of
+ * threads. Each node has one schedule entry, started when the node connects
+ * and cancelled when it disconnects. The polls of the nodes are spread with
+ * some jitter, a node whose polls fail is polled less and less often, and the
+ * information polled is written to the datastore in batches.
+ */
+@Singleton
+public class SfMonitoringPoller implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SfMonitoringPoller.class);
+
+    public static final String THREAD_NAME_PREFIX = "sfc-netconf-sf-monitor-";
+    public static final int DEFAULT_POOL_SIZE = 4;
+    public static final long DEFAULT_PERIOD_MILLIS = 5000;
+    public static final long DEFAULT_MAX_BACKOFF_MILLIS = 60000;
+    public static final long DEFAULT_FLUSH_PERIOD_MILLIS = 1000;
+    public static final int DEFAULT_MAX_BATCH_SIZE = 500;
+    // the delay between two polls of a node varies by up to 10% either way
+    private static final double JITTER = 0.1;
+    private static final int MAX_BACKOFF_SHIFT = 20;
+
+    private final SfcNetconfServiceFunctionAPI sfcNetconfServiceFunctionAPI;
+    private final ScheduledExecutorService scheduler;
+    private final long periodMillis;
+    private final long maxBackoffMillis;
+    private final int maxBatchSize;
+    private final Map<String, NodePoll> polls = new ConcurrentHashMap<>();
+    // latest monitoring information polled, not written yet
+    private final Map<SfName, MonitoringInfo> pending = new ConcurrentHashMap<>();
+    private final AtomicLong pollCount = new AtomicLong();
+    private final AtomicLong failureCount = new AtomicLong();
+    private final AtomicLong batchCount = new AtomicLong();
+    private final AtomicLong writeCount = new AtomicLong();
+
+    @Inject
+    public SfMonitoringPoller(SfcNetconfServiceFunctionAPI sfcNetconfServiceFunctionAPI) {
+        this(sfcNetconfServiceFunctionAPI, newScheduler(DEFAULT_POOL_SIZE), DEFAULT_PERIOD_MILLIS,
+                DEFAULT_MAX_BACKOFF_MILLIS, DEFAULT_FLUSH_PERIOD_MILLIS, DEFAULT_MAX_BATCH_SIZE);
+    }
+
+    public SfMonitoringPoller(SfcNetconfServiceFunctionAPI sfcNetconfServiceFunctionAPI,
+                              ScheduledExecutorService scheduler, long periodMillis, long maxBackoffMillis,
+                              long flushPeriodMillis, int maxBatchSize) {
+        this.sfcNetconfServiceFunctionAPI = Preconditions.checkNotNull(sfcNetconfServiceFunctionAPI);
+        this.scheduler = Preconditions.checkNotNull(scheduler);
+        this.periodMillis = periodMillis;
+        this.maxBackoffMillis = Math.max(periodMillis, maxBackoffMillis);
+        this.maxBatchSize = maxBatchSize;
+        scheduler.scheduleWithFixedDelay(this::flush, flushPeriodMillis, flushPeriodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Creates a scheduler with a fixed number of daemon threads, dropping the
+     * cancelled polls at once so that flapping nodes do not pile them up.
+     */
+    public static ScheduledExecutorService newScheduler(int poolSize) {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(poolSize,
+                new ThreadFactoryBuilder().setNameFormat(THREAD_NAME_PREFIX + "%d").setDaemon(true).build());
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+
+    /**
+     * Start polling a node, no-op if it is already polled. The first poll
+     * happens at a random point of the polling period.
+     */
+    public void start(String nodeName) {
+        polls.computeIfAbsent(nodeName, name -> {
+            NodePoll poll = new NodePoll(name);
+            poll.schedule(ThreadLocalRandom.current().nextLong(periodMillis + 1));
+            LOG.debug("Started polling the monitoring information of SF {}", name);
+            return poll;
+        });
+    }
+
+    /**
+     * Stop polling a node, dropping its information not written yet.
+     */
+    public void stop(String nodeName) {
+        NodePoll poll = polls.remove(nodeName);
+        if (poll != null) {
+            poll.cancel();
+            pending.remove(poll.sfName);
+            LOG.debug("Stopped polling the monitoring information of SF {}", nodeName);
+        }
+    }
+
+    @Override
+    @PreDestroy
+    public void close() {
+        polls.values().forEach(NodePoll::cancel);
+        polls.clear();
+        scheduler.shutdownNow();
+    }
+
+    public int getPolledNodeCount() {
+        return polls.size();
+    }
+
+    public long getPollCount() {
+        return pollCount.get();
+    }
+
+    public long getFailureCount() {
+        return failureCount.get();
+    }
+
+    public long getBatchCount() {
+        return batchCount.get();
+    }
+
+    public long getWriteCount() {
+        return writeCount.get();
+    }
+
+    private long getDelay(int failures) {
+        long delay = failures == 0 ? periodMillis
+                : Math.min(maxBackoffMillis, periodMillis << Math.min(failures, MAX_BACKOFF_SHIFT));
+        long jitter = (long) ((ThreadLocalRandom.current().nextDouble() * 2 - 1) * JITTER * delay);
+        return delay + jitter;
+    }
+
+    // the periodic flush stops for good if it throws, a failed write must not prevent the next ones
+    @SuppressWarnings("checkstyle:IllegalCatch")
+    private void flush() {
+        try {
+            Map<SfName, MonitoringInfo> batch = new HashMap<>();
+            for (SfName sfName : pending.keySet()) {
+                MonitoringInfo monInfo = pending.remove(sfName);
+                // the node may have been stopped while it was being polled
+                if (monInfo != null && polls.containsKey(sfName.getValue())) {
+                    batch.put(sfName, monInfo);
+                }
+                if (batch.size() >= maxBatchSize) {
+                    write(batch);
+                    batch = new HashMap<>();
+                }
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+            }
+        } catch (RuntimeException e) {
+            LOG.error("Failed to write the monitoring information of the SFs", e);
+        }
+    }
+
+    private void write(Map<SfName, MonitoringInfo> batch) {
+        batchCount.incrementAndGet();
+        writeCount.addAndGet(batch.size());
+        if (!sfcNetconfServiceFunctionAPI.putServiceFunctionMonitors(batch)) {
+            LOG.warn("Failed to write the monitoring information of {} SFs", batch.size());
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "SfMonitoringPoller [nodes=" + polls.size() + ", polls=" + pollCount + ", failures=" + failureCount
+                + ", batches=" + batchCount + ", writes=" + writeCount + "]";
+    }
+
+    /* The schedule entry of a node, rescheduling itself after each poll */
+    private final class NodePoll implements Runnable {
+        private final String nodeName;
+        private final SfName sfName;
+        // consecutive failed polls, only used by the poll running
+        private int failures;
+        private ScheduledFuture<?> future;
+        private boolean cancelled;
+
+        NodePoll(String nodeName) {
+            this.nodeName = nodeName;
+            this.sfName = new SfName(nodeName);
+        }
+
+        synchronized void schedule(long delayMillis) {
+            if (cancelled) {
+                return;
+            }
+            try {
+                future = scheduler.schedule(this, delayMillis, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                LOG.debug("Poller closed, SF {} is not polled anymore", nodeName, e);
+            }
+        }
+
+        synchronized void cancel() {
+            cancelled = true;
+            if (future != null) {
+                future.cancel(false);
+            }
+        }
+
+        @Override
+        public void run() {
+            pollCount.incrementAndGet();
+            MonitoringInfo monInfo = poll();
+            if (monInfo != null) {
+                failures = 0;
+                pending.put(sfName, monInfo);
+            } else {
+                failures++;
+                failureCount.incrementAndGet();
+                LOG.debug("Polling SF {} failed {} times in a row", nodeName, failures);
+            }
+            schedule(getDelay(failures));
+        }
+
+        // a failing poll must not stop the polling of the node
+        @SuppressWarnings("checkstyle:IllegalCatch")
+        private MonitoringInfo poll() {
+            try {
+                return sfcNetconfServiceFunctionAPI.getServiceFunctionMonitor(nodeName);
+            } catch (RuntimeException e) {
+                LOG.warn("Failed to poll the monitoring information of SF {}", nodeName, e);
+                return null;
+            }
+        }
+    }
+}
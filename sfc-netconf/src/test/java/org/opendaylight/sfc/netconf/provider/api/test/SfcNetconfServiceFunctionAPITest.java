@@ -14,7 +14,9 @@ import static org.junit.Assert.assertTrue;
 
 import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import org.junit.Before;
 import org.junit.Test;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
@@ -216,6 +218,32 @@ public class SfcNetconfServiceFunctionAPITest extends AbstractDataBrokerTest {
         assertTrue("Must be true", result);
     }
 
+    /*
+     * test, whether the monitor information of several service functions is
+     * put at once, keeping their description
+     */
+    @Test
+    public void testPutServiceFunctionMonitors() {
+        DescriptionInfo descInfo = new DescriptionInfoBuilder()
+                .setDataPlaneIp(new IpAddress(new Ipv4Address(IP_MGMT_ADDRESS)))
+                .setDataPlanePort(new PortNumber(DP_PORT)).setType("firewall").build();
+        assertTrue("Must be true", sfcNetconfServiceFunctionAPI.putServiceFunctionDescription(descInfo, SF_NAME));
+
+        MonitoringInfo monInfo = new MonitoringInfoBuilder().setLiveness(true).build();
+        Map<SfName, MonitoringInfo> monInfos = new HashMap<>();
+        monInfos.put(SF_NAME, monInfo);
+        monInfos.put(SF_STATE_NAME, monInfo);
+        assertTrue("Must be true", sfcNetconfServiceFunctionAPI.putServiceFunctionMonitors(monInfos));
+
+        SfcSfDescMon readSfcSfDescMon = SfcProviderServiceFunctionAPI.readServiceFunctionDescriptionMonitor(SF_NAME);
+        assertNotNull("Must be not null", readSfcSfDescMon);
+        assertEquals("Must be equal", descInfo, readSfcSfDescMon.getDescriptionInfo());
+        assertTrue("Must be true", readSfcSfDescMon.getMonitoringInfo().isLiveness());
+        readSfcSfDescMon = SfcProviderServiceFunctionAPI.readServiceFunctionDescriptionMonitor(SF_STATE_NAME);
+        assertNotNull("Must be not null", readSfcSfDescMon);
+        assertTrue("Must be true", readSfcSfDescMon.getMonitoringInfo().isLiveness());
+    }
+
     /**
      * Write service function state with augmentation.
      */
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.netconf.provider.listener.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.sfc.netconf.provider.api.SfcNetconfServiceFunctionAPI;
+import org.opendaylight.sfc.netconf.provider.listener.SfMonitoringPoller;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfName;
+import org.opendaylight.yang.gen.v1.urn.intel.params.xml.ns.sf.desc.mon.rev141201.service.functions.state.service.function.state.sfc.sf.desc.mon.MonitoringInfo;
+import org.opendaylight.yang.gen.v1.urn.intel.params.xml.ns.sf.desc.mon.rev141201.service.functions.state.service.function.state.sfc.sf.desc.mon.MonitoringInfoBuilder;
+
+public class SfMonitoringPollerTest {
+
+    private static final int POOL_SIZE = 4;
+    private static final long PERIOD_MS = 20;
+    private static final long MAX_BACKOFF_MS = 160;
+    private static final long FLUSH_PERIOD_MS = 10;
+    private static final int MAX_BATCH_SIZE = 100;
+    private static final int NODE_COUNT = 2000;
+    private static final int FLAP_COUNT = 10;
+
+    private FakeServiceFunctionAPI serviceFunctionAPI;
+    private SfMonitoringPoller poller;
+
+    /* Fake NETCONF SFs, answering the polls of the nodes not failing */
+    private static final class FakeServiceFunctionAPI extends SfcNetconfServiceFunctionAPI {
+        private final MonitoringInfo monInfo = new MonitoringInfoBuilder().setLiveness(true).build();
+        private final Map<String, AtomicInteger> polls = new ConcurrentHashMap<>();
+        private final Set<String> failingNodes = ConcurrentHashMap.newKeySet();
+        private final Set<SfName> writtenNodes = ConcurrentHashMap.newKeySet();
+        private final AtomicInteger maxBatchSize = new AtomicInteger();
+
+        FakeServiceFunctionAPI() {
+            super(null);
+        }
+
+        @Override
+        public MonitoringInfo getServiceFunctionMonitor(String sfName) {
+            polls.computeIfAbsent(sfName, name -> new AtomicInteger()).incrementAndGet();
+            return failingNodes.contains(sfName) ? null : monInfo;
+        }
+
+        @Override
+        public boolean putServiceFunctionMonitors(Map<SfName, MonitoringInfo> monInfos) {
+            maxBatchSize.accumulateAndGet(monInfos.size(), Math::max);
+            writtenNodes.addAll(monInfos.keySet());
+            return true;
+        }
+
+        int getPolls(String nodeName) {
+            AtomicInteger nodePolls = polls.get(nodeName);
+            return nodePolls == null ? 0 : nodePolls.get();
+        }
+    }
+
+    @Before
+    public void setUp() {
+        serviceFunctionAPI = new FakeServiceFunctionAPI();
+        poller = new SfMonitoringPoller(serviceFunctionAPI, SfMonitoringPoller.newScheduler(POOL_SIZE), PERIOD_MS,
+                MAX_BACKOFF_MS, FLUSH_PERIOD_MS, MAX_BATCH_SIZE);
+    }
+
+    @After
+    public void tearDown() {
+        poller.close();
+    }
+
+    private static String nodeName(int index) {
+        return "sf-node-" + index;
+    }
+
+    private static long countPollerThreads() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().startsWith(SfMonitoringPoller.THREAD_NAME_PREFIX)).count();
+    }
+
+    @Test
+    public void flappingNodesKeepThreadCountBounded() throws Exception {
+        int baseThreadCount = Thread.activeCount();
+
+        for (int flap = 0; flap < FLAP_COUNT; flap++) {
+            for (int i = 0; i < NODE_COUNT; i++) {
+                // connected again while still polled, the node keeps a single schedule entry
+                poller.start(nodeName(i));
+                poller.start(nodeName(i));
+            }
+            Thread.sleep(PERIOD_MS);
+            assertEquals(NODE_COUNT, poller.getPolledNodeCount());
+            for (int i = 0; i < NODE_COUNT; i++) {
+                poller.stop(nodeName(i));
+            }
+            assertTrue(countPollerThreads() <= POOL_SIZE);
+            assertTrue(Thread.activeCount() <= baseThreadCount + POOL_SIZE);
+        }
+        assertEquals(0, poller.getPolledNodeCount());
+
+        // Only the even nodes stay connected
+        for (int i = 0; i < NODE_COUNT; i += 2) {
+            poller.start(nodeName(i));
+        }
+        Thread.sleep(PERIOD_MS * 5);
+        int[] polls = new int[NODE_COUNT];
+        for (int i = 0; i < NODE_COUNT; i++) {
+            polls[i] = serviceFunctionAPI.getPolls(nodeName(i));
+        }
+        Thread.sleep(PERIOD_MS * 5);
+        for (int i = 0; i < NODE_COUNT; i++) {
+            int newPolls = serviceFunctionAPI.getPolls(nodeName(i)) - polls[i];
+            if (i % 2 == 0) {
+                assertTrue(poller.toString(), newPolls > 0);
+            } else {
+                // disconnected nodes are not polled anymore
+                assertEquals(0, newPolls);
+            }
+        }
+        assertTrue(countPollerThreads() <= POOL_SIZE);
+        assertTrue(Thread.activeCount() <= baseThreadCount + POOL_SIZE);
+
+        // the information polled is written in batches
+        assertTrue(serviceFunctionAPI.writtenNodes.contains(new SfName(nodeName(0))));
+        assertTrue(serviceFunctionAPI.maxBatchSize.get() <= MAX_BATCH_SIZE);
+        assertTrue(poller.toString(), poller.getBatchCount() < poller.getWriteCount());
+    }
+
+    @Test
+    public void failingNodeIsPolledLessOften() throws Exception {
+        serviceFunctionAPI.failingNodes.add(nodeName(1));
+        poller.start(nodeName(0));
+        poller.start(nodeName(1));
+
+        Thread.sleep(MAX_BACKOFF_MS * 4);
+        poller.stop(nodeName(0));
+        poller.stop(nodeName(1));
+        // let a poll running finish
+        Thread.sleep(PERIOD_MS);
+
+        int healthyPolls = serviceFunctionAPI.getPolls(nodeName(0));
+        int failingPolls = serviceFunctionAPI.getPolls(nodeName(1));
+        assertTrue(poller.toString(), failingPolls > 0);
+        assertTrue(poller.toString(), failingPolls * 3 < healthyPolls);
+        assertEquals(failingPolls, poller.getFailureCount());
+        assertTrue(serviceFunctionAPI.writtenNodes.contains(new SfName(nodeName(0))));
+        assertFalse(serviceFunctionAPI.writtenNodes.contains(new SfName(nodeName(1))));
+    }
+}
@@ -17,6 +17,7 @@ package org.opendaylight.sfc.ovs.api;
 
 import com.google.common.base.Preconditions;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.sfc.ovs.provider.SfcOvsTopologyIndex;
 import org.opendaylight.sfc.ovs.provider.SfcOvsUtil;
 import org.opendaylight.sfc.provider.api.SfcDataStoreAPI;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.IpAddress;
@@ -76,6 +77,10 @@ public final class SfcOvsDataStoreAPI {
         Preconditions.checkNotNull(ipAddress,
                 "Cannot READ Node for given ipAddress from OVS operational store, ipAddress is null.");
 
+        if (SfcOvsTopologyIndex.isEnabled()) {
+            return SfcOvsTopologyIndex.getManagerNodeByIp(ipAddress);
+        }
+
         Topology topology = SfcDataStoreAPI.readTransactionAPI(SfcOvsUtil.buildOvsdbTopologyIID(),
                 LogicalDatastoreType.OPERATIONAL);
 
@@ -23,6 +23,7 @@ import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.MoreExecutors;
 
+import java.util.Objects;
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -32,11 +33,13 @@ import org.opendaylight.controller.md.sal.binding.api.ReadTransaction;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.ovsdb.southbound.SouthboundConstants;
 import org.opendaylight.serviceutils.tools.mdsal.listener.AbstractSyncDataTreeChangeListener;
+import org.opendaylight.sfc.ovs.provider.SfcOvsSffIndex;
 import org.opendaylight.sfc.ovs.provider.SfcOvsUtil;
 import org.opendaylight.sfc.provider.api.SfcDataStoreAPI;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.ovs.rev140701.SffOvsBridgeAugmentation;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.ServiceFunctionForwarders;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.ServiceFunctionForwarder;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.IpAddress;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.ovsdb.rev150105.DatapathId;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.ovsdb.rev150105.OvsdbBridgeAugmentation;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.ovsdb.rev150105.OvsdbBridgeName;
@@ -128,6 +131,17 @@ public class SfcOvsNodeDataListener extends AbstractSyncDataTreeChangeListener<N
         LOG.debug("SfcOvsNodeDataListener::update()");
         OvsdbBridgeAugmentation ovsdbBridgeAugmentation = updatedNode.augmentation(OvsdbBridgeAugmentation.class);
         if (ovsdbBridgeAugmentation != null) {
+            // Most bridge updates are statistics or port changes, only a new
+            // bridge name or DPID may have to be propagated to an SFF
+            OvsdbBridgeAugmentation originalBridgeAugmentation =
+                    originalNode.augmentation(OvsdbBridgeAugmentation.class);
+            if (originalBridgeAugmentation != null
+                    && Objects.equals(originalBridgeAugmentation.getBridgeName(),
+                            ovsdbBridgeAugmentation.getBridgeName())
+                    && Objects.equals(originalBridgeAugmentation.getDatapathId(),
+                            ovsdbBridgeAugmentation.getDatapathId())) {
+                return;
+            }
             if (ovsdbBridgeAugmentation.getBridgeName() != null && ovsdbBridgeAugmentation.getDatapathId() != null) {
                 LOG.debug("SfcOvsNodeDataListener::update() bridge name [{}] DPID [{}]",
                         ovsdbBridgeAugmentation.getBridgeName().getValue(),
@@ -138,6 +152,16 @@ public class SfcOvsNodeDataListener extends AbstractSyncDataTreeChangeListener<N
     }
 
     private void runAddOvsdbAugmentations(ConnectionInfo connectionInfo) {
+        if (SfcOvsSffIndex.isEnabled()) {
+            ServiceFunctionForwarder sff = SfcOvsSffIndex.getSffByIp(connectionInfo.getRemoteIp());
+            if (sff != null) {
+                LOG.info("SfcOvsNodeDataListener will create the necessary entities for SFF [{}]",
+                        sff.getName().getValue());
+                SfcOvsSffEntryDataListener.addOvsdbAugmentations(sff);
+            }
+            return;
+        }
+
         ListenableFuture<Optional<ServiceFunctionForwarders>> exitsingSffs = readServiceFunctionForwarders();
 
         Futures.addCallback(exitsingSffs, new FutureCallback<Optional<ServiceFunctionForwarders>>() {
@@ -162,6 +186,27 @@ public class SfcOvsNodeDataListener extends AbstractSyncDataTreeChangeListener<N
     }
 
     private void runSffOvsBridgeAugmentOpenflowNodeId(OvsdbBridgeAugmentation ovsdbBridgeAugmentation) {
+        if (SfcOvsSffIndex.isEnabled()) {
+            String bridgeName = ovsdbBridgeAugmentation.getBridgeName().getValue();
+            if (!SfcOvsSffIndex.hasSffOnBridge(bridgeName)) {
+                LOG.debug("There are no SFFs created on OVS bridge [{}]", bridgeName);
+                return;
+            }
+
+            IpAddress managerIp = getManagerIp(ovsdbBridgeAugmentation);
+            if (managerIp == null) {
+                return;
+            }
+
+            ServiceFunctionForwarder sff = SfcOvsSffIndex.getSffByIpAndBridgeName(managerIp, bridgeName);
+            if (sff == null) {
+                LOG.info("There are no SFFs created on this OVS bridge [{}]", bridgeName);
+                return;
+            }
+            augmentSffWithOpenFlowNodeId(sff, ovsdbBridgeAugmentation);
+            return;
+        }
+
         ListenableFuture<Optional<ServiceFunctionForwarders>> exitsingSffs = readServiceFunctionForwarders();
         Futures.addCallback(exitsingSffs, new FutureCallback<Optional<ServiceFunctionForwarders>>() {
             @Override
@@ -171,59 +216,18 @@ public class SfcOvsNodeDataListener extends AbstractSyncDataTreeChangeListener<N
                     return;
                 }
 
-                OvsdbNodeAugmentation managerNode = SfcOvsUtil.getManagerNodeByBridgeNode(ovsdbBridgeAugmentation);
-                if (managerNode == null) {
-                    LOG.warn("Cant get managing OVS node in runSffOvsBridgeAugOpenflowNodeId.");
+                IpAddress managerIp = getManagerIp(ovsdbBridgeAugmentation);
+                if (managerIp == null) {
                     return;
                 }
 
-                ConnectionInfo connectionInfo = managerNode.getConnectionInfo();
-                if (connectionInfo == null || connectionInfo.getRemoteIp() == null) {
-                    LOG.warn("Managing OVS node does not have connectionInfo available");
-                    return;
-                }
-
-                OvsdbBridgeName bridgeName = ovsdbBridgeAugmentation.getBridgeName();
-                ServiceFunctionForwarder sff = SfcOvsUtil.findSffByIp(optionalSffs.get(), connectionInfo.getRemoteIp());
+                ServiceFunctionForwarder sff = SfcOvsUtil.findSffByIp(optionalSffs.get(), managerIp);
                 if (sff == null) {
-                    LOG.info("There are no SFFs created on this OVS bridge [{}]", bridgeName);
-                    return;
-                }
-
-                SffOvsBridgeAugmentation sffOvsBridge = sff.augmentation(SffOvsBridgeAugmentation.class);
-                if (sffOvsBridge == null || sffOvsBridge.getOvsBridge() == null) {
-                    LOG.debug("SFF [{}] does not have sffOvsBridgeAugmentation", sff.getName().getValue());
+                    LOG.info("There are no SFFs created on this OVS bridge [{}]",
+                            ovsdbBridgeAugmentation.getBridgeName());
                     return;
                 }
-
-                // If the SFF already has the OpenFlow NodeId, if its the same, then nothing to do here
-                DatapathId dpid = ovsdbBridgeAugmentation.getDatapathId();
-                String openFlowNodeId = SfcOvsUtil.getOpenflowNodeIdFromDpid(dpid.getValue());
-                if (sffOvsBridge.getOvsBridge().getOpenflowNodeId() != null) {
-                    if (openFlowNodeId.equals(sffOvsBridge.getOvsBridge().getOpenflowNodeId())) {
-                        LOG.debug("SFF [{}] already has the same OpenFlowNodeId set", sff.getName().getValue());
-                        return;
-                    }
-                }
-
-                // Check that the SFF bridge name matches this bridge name
-                if (!sffOvsBridge.getOvsBridge().getBridgeName().equals(bridgeName.getValue())) {
-                    LOG.debug("SFF [{}] is not on this bridge [{}]", sff.getName().getValue(), bridgeName.getValue());
-                    return;
-                }
-
-                LOG.info("Creating and storing augmentedSFF [{}] for bridge [{}] with DPID [{}] OpenFlow NodeId [{}]",
-                        sff.getName().getValue(), bridgeName.getValue(), dpid.getValue(), openFlowNodeId);
-                ServiceFunctionForwarder augmentedSff = SfcOvsUtil.augmentSffWithOpenFlowNodeId(
-                        sff, SfcOvsUtil.getOpenflowNodeIdFromDpid(dpid.getValue()));
-                InstanceIdentifier<SffOvsBridgeAugmentation> sffOvsBridgeAugIid = InstanceIdentifier
-                        .builder(ServiceFunctionForwarders.class)
-                        .child(ServiceFunctionForwarder.class, sff.key())
-                        .augmentation(SffOvsBridgeAugmentation.class).build();
-
-                SfcDataStoreAPI.writePutTransactionAPI(sffOvsBridgeAugIid,
-                        augmentedSff.augmentation(SffOvsBridgeAugmentation.class),
-                        LogicalDatastoreType.CONFIGURATION);
+                augmentSffWithOpenFlowNodeId(sff, ovsdbBridgeAugmentation);
             }
 
             @Override
@@ -233,6 +237,59 @@ public class SfcOvsNodeDataListener extends AbstractSyncDataTreeChangeListener<N
         }, MoreExecutors.directExecutor());
     }
 
+    private static IpAddress getManagerIp(OvsdbBridgeAugmentation ovsdbBridgeAugmentation) {
+        OvsdbNodeAugmentation managerNode = SfcOvsUtil.getManagerNodeByBridgeNode(ovsdbBridgeAugmentation);
+        if (managerNode == null) {
+            LOG.warn("Cant get managing OVS node in runSffOvsBridgeAugOpenflowNodeId.");
+            return null;
+        }
+
+        ConnectionInfo connectionInfo = managerNode.getConnectionInfo();
+        if (connectionInfo == null || connectionInfo.getRemoteIp() == null) {
+            LOG.warn("Managing OVS node does not have connectionInfo available");
+            return null;
+        }
+        return connectionInfo.getRemoteIp();
+    }
+
+    private static void augmentSffWithOpenFlowNodeId(ServiceFunctionForwarder sff,
+                                                     OvsdbBridgeAugmentation ovsdbBridgeAugmentation) {
+        SffOvsBridgeAugmentation sffOvsBridge = sff.augmentation(SffOvsBridgeAugmentation.class);
+        if (sffOvsBridge == null || sffOvsBridge.getOvsBridge() == null) {
+            LOG.debug("SFF [{}] does not have sffOvsBridgeAugmentation", sff.getName().getValue());
+            return;
+        }
+
+        // If the SFF already has the OpenFlow NodeId, if its the same, then nothing to do here
+        OvsdbBridgeName bridgeName = ovsdbBridgeAugmentation.getBridgeName();
+        DatapathId dpid = ovsdbBridgeAugmentation.getDatapathId();
+        String openFlowNodeId = SfcOvsUtil.getOpenflowNodeIdFromDpid(dpid.getValue());
+        if (sffOvsBridge.getOvsBridge().getOpenflowNodeId() != null) {
+            if (openFlowNodeId.equals(sffOvsBridge.getOvsBridge().getOpenflowNodeId())) {
+                LOG.debug("SFF [{}] already has the same OpenFlowNodeId set", sff.getName().getValue());
+                return;
+            }
+        }
+
+        // Check that the SFF bridge name matches this bridge name
+        if (!sffOvsBridge.getOvsBridge().getBridgeName().equals(bridgeName.getValue())) {
+            LOG.debug("SFF [{}] is not on this bridge [{}]", sff.getName().getValue(), bridgeName.getValue());
+            return;
+        }
+
+        LOG.info("Creating and storing augmentedSFF [{}] for bridge [{}] with DPID [{}] OpenFlow NodeId [{}]",
+                sff.getName().getValue(), bridgeName.getValue(), dpid.getValue(), openFlowNodeId);
+        ServiceFunctionForwarder augmentedSff = SfcOvsUtil.augmentSffWithOpenFlowNodeId(sff, openFlowNodeId);
+        InstanceIdentifier<SffOvsBridgeAugmentation> sffOvsBridgeAugIid = InstanceIdentifier
+                .builder(ServiceFunctionForwarders.class)
+                .child(ServiceFunctionForwarder.class, sff.key())
+                .augmentation(SffOvsBridgeAugmentation.class).build();
+
+        SfcDataStoreAPI.writePutTransactionAPI(sffOvsBridgeAugIid,
+                augmentedSff.augmentation(SffOvsBridgeAugmentation.class),
+                LogicalDatastoreType.CONFIGURATION);
+    }
+
     private ListenableFuture<Optional<ServiceFunctionForwarders>> readServiceFunctionForwarders() {
         ReadTransaction transaction = dataBroker.newReadOnlyTransaction();
         InstanceIdentifier<ServiceFunctionForwarders> sffIid = InstanceIdentifier
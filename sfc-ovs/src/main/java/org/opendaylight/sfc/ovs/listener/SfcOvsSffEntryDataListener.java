@@ -18,12 +18,14 @@ package org.opendaylight.sfc.ovs.listener;
 
 import java.util.List;
 import javax.annotation.Nonnull;
+import javax.annotation.PreDestroy;
 import javax.inject.Singleton;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.serviceutils.tools.mdsal.listener.AbstractSyncDataTreeChangeListener;
 import org.opendaylight.sfc.ovs.api.SfcOvsDataStoreAPI;
 import org.opendaylight.sfc.ovs.api.SfcSffToOvsMappingAPI;
+import org.opendaylight.sfc.ovs.provider.SfcOvsSffIndex;
 import org.opendaylight.sfc.ovs.provider.SfcOvsUtil;
 import org.opendaylight.sfc.provider.api.SfcDataStoreAPI;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.ovs.rev140701.SffOvsBridgeAugmentation;
@@ -46,12 +48,14 @@ public class SfcOvsSffEntryDataListener extends AbstractSyncDataTreeChangeListen
     public SfcOvsSffEntryDataListener(final DataBroker dataBroker) {
         super(dataBroker, LogicalDatastoreType.CONFIGURATION,
               InstanceIdentifier.create(ServiceFunctionForwarders.class).child(ServiceFunctionForwarder.class));
+        SfcOvsSffIndex.enable();
     }
 
     @Override
     public void add(@Nonnull InstanceIdentifier<ServiceFunctionForwarder> instanceIdentifier,
                     @Nonnull ServiceFunctionForwarder serviceFunctionForwarder) {
         LOG.info("Created Service Function Forwarder: {}", serviceFunctionForwarder.toString());
+        SfcOvsSffIndex.putSff(serviceFunctionForwarder);
         // add augmentations for serviceFunctionForwarder
         addOvsdbAugmentations(serviceFunctionForwarder);
         setSffOvsBridgeAugOpenflowNodeId(serviceFunctionForwarder);
@@ -61,6 +65,7 @@ public class SfcOvsSffEntryDataListener extends AbstractSyncDataTreeChangeListen
     public void remove(@Nonnull InstanceIdentifier<ServiceFunctionForwarder> instanceIdentifier,
                        @Nonnull ServiceFunctionForwarder deletedServiceFunctionForwarder) {
         LOG.info("Deleted Service Function Forwarder: {}", deletedServiceFunctionForwarder.toString());
+        SfcOvsSffIndex.removeSff(deletedServiceFunctionForwarder.getName());
         deleteOvsdbAugmentations(deletedServiceFunctionForwarder);
     }
 
@@ -80,10 +85,18 @@ public class SfcOvsSffEntryDataListener extends AbstractSyncDataTreeChangeListen
         // http://localhost:${PORT}/restconf/config/service-function-forwarder:service-function-forwarders/service-function-forwarder/sff1/sff-data-plane-locator/vxgpe1
 
         LOG.info("Modified Service Function Forwarder : {}", updatedServiceFunctionForwarder.toString());
+        SfcOvsSffIndex.putSff(updatedServiceFunctionForwarder);
         // rewrite augmentations for serviceFunctionForwarder
         addOvsdbAugmentations(updatedServiceFunctionForwarder);
     }
 
+    @Override
+    @PreDestroy
+    public void close() {
+        SfcOvsSffIndex.disable();
+        super.close();
+    }
+
     /**
      * Add OVSDB augmentations.
      *
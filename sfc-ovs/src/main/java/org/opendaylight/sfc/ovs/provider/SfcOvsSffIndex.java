@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.ovs.provider;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.sfc.provider.api.SfcDataStoreAPI;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SffName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.ovs.rev140701.SffOvsBridgeAugmentation;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.ServiceFunctionForwarders;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarder.base.SffDataPlaneLocator;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.ServiceFunctionForwarder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sl.rev140701.data.plane.locator.locator.type.Ip;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.IpAddress;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * In-memory index of the configured SFFs by data plane locator IP address
+ * and by OVS bridge name, so that the SFF hosted on an OVS node or bridge is
+ * found without reading and scanning all the SFFs.
+ *
+ * <p>
+ * The index is kept up to date by
+ * {@link org.opendaylight.sfc.ovs.listener.SfcOvsSffEntryDataListener}, and
+ * is only used while that listener is alive. As with
+ * {@link SfcOvsTopologyIndex}, the SFFs are read once on the first lookup
+ * after the index is enabled.
+ */
+public final class SfcOvsSffIndex {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SfcOvsSffIndex.class);
+
+    private static final Map<SffName, ServiceFunctionForwarder> SFFS_BY_NAME = new LinkedHashMap<>();
+
+    private static final Map<IpAddress, Set<SffName>> SFF_NAMES_BY_IP = new LinkedHashMap<>();
+
+    private static final Map<String, Set<SffName>> SFF_NAMES_BY_BRIDGE_NAME = new LinkedHashMap<>();
+
+    // SFFs changed by the listener before the SFFs were loaded
+    private static final Set<SffName> CHANGED_BEFORE_LOAD = new HashSet<>();
+
+    private static volatile boolean enabled = false;
+
+    private static boolean loaded = false;
+
+    private SfcOvsSffIndex() {
+    }
+
+    public static synchronized void enable() {
+        clear();
+        enabled = true;
+    }
+
+    public static synchronized void disable() {
+        enabled = false;
+        clear();
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Index a SFF, replacing any former version of it.
+     *
+     * @param sff
+     *            the SFF
+     */
+    public static synchronized void putSff(ServiceFunctionForwarder sff) {
+        if (!loaded) {
+            CHANGED_BEFORE_LOAD.add(sff.getName());
+        }
+        doRemoveSff(sff.getName());
+        doPutSff(sff);
+    }
+
+    /**
+     * Un-index a SFF.
+     *
+     * @param sffName
+     *            the SFF name
+     */
+    public static synchronized void removeSff(SffName sffName) {
+        if (!loaded) {
+            CHANGED_BEFORE_LOAD.add(sffName);
+        }
+        doRemoveSff(sffName);
+    }
+
+    /**
+     * Get a SFF having a data plane locator with the given IP address.
+     *
+     * @param ipAddress
+     *            the data plane locator IP address
+     * @return the first such SFF, or null if there is none
+     */
+    public static synchronized ServiceFunctionForwarder getSffByIp(IpAddress ipAddress) {
+        load();
+        Set<SffName> sffNames = SFF_NAMES_BY_IP.get(ipAddress);
+        return sffNames == null || sffNames.isEmpty() ? null : SFFS_BY_NAME.get(sffNames.iterator().next());
+    }
+
+    /**
+     * Check whether any SFF is configured on an OVS bridge with the given
+     * name, whatever the host.
+     *
+     * @param bridgeName
+     *            the OVS bridge name
+     * @return true if there is such a SFF
+     */
+    public static synchronized boolean hasSffOnBridge(String bridgeName) {
+        load();
+        return SFF_NAMES_BY_BRIDGE_NAME.containsKey(bridgeName);
+    }
+
+    /**
+     * Get the SFF configured on the OVS bridge with the given name and having
+     * a data plane locator with the given IP address.
+     *
+     * @param ipAddress
+     *            the data plane locator IP address
+     * @param bridgeName
+     *            the OVS bridge name
+     * @return the SFF, or null if there is none
+     */
+    public static synchronized ServiceFunctionForwarder getSffByIpAndBridgeName(IpAddress ipAddress,
+                                                                              String bridgeName) {
+        load();
+        Set<SffName> sffNames = SFF_NAMES_BY_IP.get(ipAddress);
+        Set<SffName> bridgeSffNames = SFF_NAMES_BY_BRIDGE_NAME.get(bridgeName);
+        if (sffNames == null || bridgeSffNames == null) {
+            return null;
+        }
+        return sffNames.stream().filter(bridgeSffNames::contains).findFirst().map(SFFS_BY_NAME::get).orElse(null);
+    }
+
+    private static void load() {
+        if (loaded || !enabled) {
+            return;
+        }
+
+        ServiceFunctionForwarders sffs = SfcDataStoreAPI.readTransactionAPI(
+                InstanceIdentifier.create(ServiceFunctionForwarders.class), LogicalDatastoreType.CONFIGURATION);
+        if (sffs != null && sffs.getServiceFunctionForwarder() != null) {
+            // the listener already provided a fresher version of the SFFs it changed
+            sffs.getServiceFunctionForwarder().stream()
+                    .filter(sff -> !CHANGED_BEFORE_LOAD.contains(sff.getName()))
+                    .forEach(SfcOvsSffIndex::doPutSff);
+        }
+        CHANGED_BEFORE_LOAD.clear();
+        loaded = true;
+        LOG.debug("OVS SFF index loaded: {} SFFs", SFFS_BY_NAME.size());
+    }
+
+    private static void clear() {
+        SFFS_BY_NAME.clear();
+        SFF_NAMES_BY_IP.clear();
+        SFF_NAMES_BY_BRIDGE_NAME.clear();
+        CHANGED_BEFORE_LOAD.clear();
+        loaded = false;
+    }
+
+    private static void doPutSff(ServiceFunctionForwarder sff) {
+        SFFS_BY_NAME.put(sff.getName(), sff);
+        getIps(sff).forEach(ip -> SFF_NAMES_BY_IP.computeIfAbsent(ip, key -> new LinkedHashSet<>())
+                .add(sff.getName()));
+        String bridgeName = getBridgeName(sff);
+        if (bridgeName != null) {
+            SFF_NAMES_BY_BRIDGE_NAME.computeIfAbsent(bridgeName, key -> new LinkedHashSet<>()).add(sff.getName());
+        }
+    }
+
+    private static void doRemoveSff(SffName sffName) {
+        ServiceFunctionForwarder sff = SFFS_BY_NAME.remove(sffName);
+        if (sff == null) {
+            return;
+        }
+        getIps(sff).forEach(ip -> removeName(SFF_NAMES_BY_IP, ip, sffName));
+        String bridgeName = getBridgeName(sff);
+        if (bridgeName != null) {
+            removeName(SFF_NAMES_BY_BRIDGE_NAME, bridgeName, sffName);
+        }
+    }
+
+    private static <K> void removeName(Map<K, Set<SffName>> sffNamesByKey, K key, SffName sffName) {
+        Set<SffName> sffNames = sffNamesByKey.get(key);
+        if (sffNames != null) {
+            sffNames.remove(sffName);
+            if (sffNames.isEmpty()) {
+                sffNamesByKey.remove(key);
+            }
+        }
+    }
+
+    private static Set<IpAddress> getIps(ServiceFunctionForwarder sff) {
+        Set<IpAddress> ips = new LinkedHashSet<>();
+        if (sff.getSffDataPlaneLocator() != null) {
+            for (SffDataPlaneLocator sffLocator : sff.getSffDataPlaneLocator()) {
+                if (sffLocator.getDataPlaneLocator() != null
+                        && sffLocator.getDataPlaneLocator().getLocatorType() instanceof Ip) {
+                    IpAddress ip = ((Ip) sffLocator.getDataPlaneLocator().getLocatorType()).getIp();
+                    if (ip != null) {
+                        ips.add(ip);
+                    }
+                }
+            }
+        }
+        return ips;
+    }
+
+    private static String getBridgeName(ServiceFunctionForwarder sff) {
+        SffOvsBridgeAugmentation sffOvsBridge = sff.augmentation(SffOvsBridgeAugmentation.class);
+        return sffOvsBridge == null || sffOvsBridge.getOvsBridge() == null
+                ? null
+                : sffOvsBridge.getOvsBridge().getBridgeName();
+    }
+}
@@ -0,0 +1,287 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.ovs.provider;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.sfc.provider.api.SfcDataStoreAPI;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.IpAddress;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.ovsdb.rev150105.OvsdbBridgeAugmentation;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.ovsdb.rev150105.OvsdbNodeAugmentation;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.ovsdb.rev150105.OvsdbTerminationPointAugmentation;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.NodeId;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.Topology;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.Node;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.node.TerminationPoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * In-memory index of the OVSDB operational topology, so that the OVSDB
+ * manager node of an IP address, the bridge node of an OpenFlow node id and
+ * the OpenFlow ports of a bridge are looked up without reading and scanning
+ * the whole topology.
+ *
+ * <p>
+ * The index is kept up to date by
+ * {@link org.opendaylight.sfc.ovs.listener.SfcOvsTopologyIndexListener}, and
+ * is only used while that listener is alive; otherwise lookups fall back to
+ * reading the topology. The topology is read once, on the first lookup after
+ * the index is enabled, to catch up with the nodes that existed before the
+ * listener was registered.
+ */
+public final class SfcOvsTopologyIndex {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SfcOvsTopologyIndex.class);
+
+    private static final Map<String, Node> MANAGER_NODES_BY_IP = new ConcurrentHashMap<>();
+
+    private static final Map<String, IndexedBridge> BRIDGES_BY_OF_NODE_ID = new ConcurrentHashMap<>();
+
+    // node id to the node and its keys in the maps above
+    private static final Map<NodeId, IndexedNode> INDEXED_NODES = new ConcurrentHashMap<>();
+
+    // nodes changed by the listener before the topology was loaded
+    private static final Set<NodeId> CHANGED_BEFORE_LOAD = new HashSet<>();
+
+    private static volatile boolean enabled = false;
+
+    private static volatile boolean loaded = false;
+
+    private SfcOvsTopologyIndex() {
+    }
+
+    public static synchronized void enable() {
+        clear();
+        enabled = true;
+    }
+
+    public static synchronized void disable() {
+        enabled = false;
+        clear();
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Index a node, replacing any former version of it.
+     *
+     * @param node
+     *            the OVSDB topology node
+     */
+    public static synchronized void putNode(Node node) {
+        if (!loaded) {
+            CHANGED_BEFORE_LOAD.add(node.getNodeId());
+        }
+        doRemoveNode(node.getNodeId());
+        doPutNode(node);
+    }
+
+    /**
+     * Un-index a node.
+     *
+     * @param nodeId
+     *            the OVSDB topology node id
+     */
+    public static synchronized void removeNode(NodeId nodeId) {
+        if (!loaded) {
+            CHANGED_BEFORE_LOAD.add(nodeId);
+        }
+        doRemoveNode(nodeId);
+    }
+
+    /**
+     * Get the OVSDB manager node connected from the given IP address.
+     *
+     * @param ipAddress
+     *            IPv4 or IPv6 address
+     * @return the node, or null if there is none
+     */
+    public static Node getManagerNodeByIp(String ipAddress) {
+        ensureLoaded();
+        return ipAddress == null ? null : MANAGER_NODES_BY_IP.get(ipAddress);
+    }
+
+    /**
+     * Get an OVSDB manager or bridge node by its node id.
+     *
+     * @param nodeId
+     *            the OVSDB topology node id
+     * @return the node, or null if there is none
+     */
+    public static Node getNode(NodeId nodeId) {
+        ensureLoaded();
+        IndexedNode indexedNode = nodeId == null ? null : INDEXED_NODES.get(nodeId);
+        return indexedNode == null ? null : indexedNode.node;
+    }
+
+    /**
+     * Get the OVSDB bridge node of an OpenFlow node id.
+     *
+     * @param ofNodeId
+     *            OpenFlow node id, i.e. "openflow:" followed by the DPID
+     * @return the node, or null if there is none
+     */
+    public static Node getBridgeNode(String ofNodeId) {
+        IndexedBridge bridge = getBridge(ofNodeId);
+        return bridge == null ? null : bridge.node;
+    }
+
+    public static Long getOfPortByName(String ofNodeId, String portName) {
+        IndexedBridge bridge = getBridge(ofNodeId);
+        return bridge == null || portName == null ? null : bridge.ofPortsByName.get(portName);
+    }
+
+    public static Long getVxlanOfPort(String ofNodeId) {
+        IndexedBridge bridge = getBridge(ofNodeId);
+        return bridge == null ? null : bridge.vxlanOfPort;
+    }
+
+    public static Long getVxlanGpeOfPort(String ofNodeId) {
+        IndexedBridge bridge = getBridge(ofNodeId);
+        return bridge == null ? null : bridge.vxlanGpeOfPort;
+    }
+
+    private static IndexedBridge getBridge(String ofNodeId) {
+        ensureLoaded();
+        return ofNodeId == null ? null : BRIDGES_BY_OF_NODE_ID.get(ofNodeId);
+    }
+
+    private static void ensureLoaded() {
+        if (!loaded) {
+            load();
+        }
+    }
+
+    private static synchronized void load() {
+        if (loaded || !enabled) {
+            return;
+        }
+
+        Topology topology = SfcDataStoreAPI.readTransactionAPI(SfcOvsUtil.buildOvsdbTopologyIID(),
+                LogicalDatastoreType.OPERATIONAL);
+        List<Node> nodes = topology == null || topology.getNode() == null
+                ? Collections.emptyList()
+                : topology.getNode();
+        // the listener already provided a fresher version of the nodes it changed
+        nodes.stream().filter(node -> !CHANGED_BEFORE_LOAD.contains(node.getNodeId()))
+                .forEach(SfcOvsTopologyIndex::doPutNode);
+        CHANGED_BEFORE_LOAD.clear();
+        loaded = true;
+        LOG.info("OVSDB topology index loaded: {} manager nodes, {} bridges", MANAGER_NODES_BY_IP.size(),
+                BRIDGES_BY_OF_NODE_ID.size());
+    }
+
+    private static void clear() {
+        MANAGER_NODES_BY_IP.clear();
+        BRIDGES_BY_OF_NODE_ID.clear();
+        INDEXED_NODES.clear();
+        CHANGED_BEFORE_LOAD.clear();
+        loaded = false;
+    }
+
+    private static void doPutNode(Node node) {
+        String ipAddress = null;
+        OvsdbNodeAugmentation ovsdbNode = node.augmentation(OvsdbNodeAugmentation.class);
+        if (ovsdbNode != null && ovsdbNode.getConnectionInfo() != null) {
+            ipAddress = toString(ovsdbNode.getConnectionInfo().getRemoteIp());
+            if (ipAddress != null) {
+                MANAGER_NODES_BY_IP.put(ipAddress, node);
+            }
+        }
+
+        String ofNodeId = null;
+        OvsdbBridgeAugmentation ovsdbBridge = node.augmentation(OvsdbBridgeAugmentation.class);
+        if (ovsdbBridge != null && ovsdbBridge.getDatapathId() != null) {
+            ofNodeId = SfcOvsUtil.getOpenflowNodeIdFromDpid(ovsdbBridge.getDatapathId().getValue());
+            BRIDGES_BY_OF_NODE_ID.put(ofNodeId, new IndexedBridge(node));
+        }
+
+        INDEXED_NODES.put(node.getNodeId(), new IndexedNode(node, ipAddress, ofNodeId));
+    }
+
+    private static void doRemoveNode(NodeId nodeId) {
+        IndexedNode indexedNode = INDEXED_NODES.remove(nodeId);
+        if (indexedNode == null) {
+            return;
+        }
+        // only remove the entries still pointing at this node
+        if (indexedNode.ipAddress != null) {
+            MANAGER_NODES_BY_IP.computeIfPresent(indexedNode.ipAddress,
+                (ip, node) -> nodeId.equals(node.getNodeId()) ? null : node);
+        }
+        if (indexedNode.ofNodeId != null) {
+            BRIDGES_BY_OF_NODE_ID.computeIfPresent(indexedNode.ofNodeId,
+                (ofNodeId, bridge) -> nodeId.equals(bridge.node.getNodeId()) ? null : bridge);
+        }
+    }
+
+    private static String toString(IpAddress ipAddress) {
+        if (ipAddress == null) {
+            return null;
+        }
+        if (ipAddress.getIpv4Address() != null) {
+            return ipAddress.getIpv4Address().getValue();
+        }
+        if (ipAddress.getIpv6Address() != null) {
+            return ipAddress.getIpv6Address().getValue();
+        }
+        return null;
+    }
+
+    private static final class IndexedNode {
+        private final Node node;
+        private final String ipAddress;
+        private final String ofNodeId;
+
+        IndexedNode(Node node, String ipAddress, String ofNodeId) {
+            this.node = node;
+            this.ipAddress = ipAddress;
+            this.ofNodeId = ofNodeId;
+        }
+    }
+
+    private static final class IndexedBridge {
+        private final Node node;
+        private final Map<String, Long> ofPortsByName = new HashMap<>();
+        private Long vxlanOfPort;
+        private Long vxlanGpeOfPort;
+
+        IndexedBridge(Node node) {
+            this.node = node;
+            if (node.getTerminationPoint() == null) {
+                return;
+            }
+            // keep the first matching port, as the topology scan used to do
+            for (TerminationPoint tp : node.getTerminationPoint()) {
+                OvsdbTerminationPointAugmentation otp = tp.augmentation(OvsdbTerminationPointAugmentation.class);
+                if (otp == null || otp.getOfport() == null) {
+                    continue;
+                }
+                if (otp.getName() != null) {
+                    ofPortsByName.putIfAbsent(otp.getName(), otp.getOfport());
+                }
+                if (vxlanOfPort == null && SfcOvsUtil.isVxlanPort(otp)) {
+                    vxlanOfPort = otp.getOfport();
+                }
+                if (vxlanGpeOfPort == null && SfcOvsUtil.isVxlanGpePort(otp)) {
+                    vxlanGpeOfPort = otp.getOfport();
+                }
+            }
+        }
+    }
+}
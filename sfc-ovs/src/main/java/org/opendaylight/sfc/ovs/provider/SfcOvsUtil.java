@@ -18,6 +18,7 @@
 package org.opendaylight.sfc.ovs.provider;
 
 import com.google.common.base.Preconditions;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.function.Predicate;
@@ -175,7 +176,15 @@ public final class SfcOvsUtil {
         }
 
         InstanceIdentifier<Node> nodeIID = (InstanceIdentifier<Node>) ovsdbBridge.getManagedBy().getValue();
-        Node node = SfcDataStoreAPI.readTransactionAPI(nodeIID, LogicalDatastoreType.OPERATIONAL);
+        NodeKey nodeKey = nodeIID.firstKeyOf(Node.class);
+        Node node = SfcOvsTopologyIndex.isEnabled() && nodeKey != null
+                ? SfcOvsTopologyIndex.getNode(nodeKey.getNodeId())
+                : null;
+        if (node == null) {
+            // the index is filled by its own listener, which may not have
+            // processed the manager node yet
+            node = SfcDataStoreAPI.readTransactionAPI(nodeIID, LogicalDatastoreType.OPERATIONAL);
+        }
 
         if (node == null) {
             LOG.warn("OVS bridge [{}] ManagedBy node does not exist", ovsdbBridge.getBridgeName().getValue());
@@ -649,6 +658,9 @@ public final class SfcOvsUtil {
      * @return port number
      */
     public static Long getOfPortByName(String nodeName, String portName) {
+        if (SfcOvsTopologyIndex.isEnabled()) {
+            return SfcOvsTopologyIndex.getOfPortByName(nodeName, portName);
+        }
         return getOvsPort(nodeName, otp -> {
             if (otp == null) {
                 return false;
@@ -666,28 +678,10 @@ public final class SfcOvsUtil {
      * @return port number
      */
     public static Long getVxlanOfPort(String nodeName) {
-        class VxlanPortCompare implements OvsdbTPComp {
-            @Override
-            public boolean compare(OvsdbTerminationPointAugmentation otp) {
-                if (otp == null) {
-                    return false;
-                }
-
-                if (otp.getInterfaceType() != InterfaceTypeVxlan.class) {
-                    return false;
-                }
-
-                List<Options> options = otp.getOptions();
-                if (options == null || options.isEmpty()) {
-                    return false;
-                }
-
-                return options.stream().anyMatch(FLOW_BASED_OPT);
-
-            }
+        if (SfcOvsTopologyIndex.isEnabled()) {
+            return SfcOvsTopologyIndex.getVxlanOfPort(nodeName);
         }
-
-        return getOvsPort(nodeName, new VxlanPortCompare());
+        return getOvsPort(nodeName, SfcOvsUtil::isVxlanPort);
     }
 
     /**
@@ -698,27 +692,44 @@ public final class SfcOvsUtil {
      * @return port number
      */
     public static Long getVxlanGpeOfPort(String nodeName) {
-        class VxlanGpePortCompare implements OvsdbTPComp {
-            @Override
-            public boolean compare(OvsdbTerminationPointAugmentation otp) {
-                if (otp == null) {
-                    return false;
-                }
+        if (SfcOvsTopologyIndex.isEnabled()) {
+            return SfcOvsTopologyIndex.getVxlanGpeOfPort(nodeName);
+        }
+        return getOvsPort(nodeName, SfcOvsUtil::isVxlanGpePort);
+    }
 
-                if (otp.getInterfaceType() != InterfaceTypeVxlan.class) {
-                    return false;
-                }
+    static boolean isVxlanPort(OvsdbTerminationPointAugmentation otp) {
+        if (otp == null) {
+            return false;
+        }
 
-                List<Options> options = otp.getOptions();
-                if (options == null || options.isEmpty()) {
-                    return false;
-                }
+        if (otp.getInterfaceType() != InterfaceTypeVxlan.class) {
+            return false;
+        }
 
-                return options.stream().filter(FLOW_BASED_OR_GPE_OPT).distinct().count() == 2;
-            }
+        List<Options> options = otp.getOptions();
+        if (options == null || options.isEmpty()) {
+            return false;
+        }
+
+        return options.stream().anyMatch(FLOW_BASED_OPT);
+    }
+
+    static boolean isVxlanGpePort(OvsdbTerminationPointAugmentation otp) {
+        if (otp == null) {
+            return false;
         }
 
-        return getOvsPort(nodeName, new VxlanGpePortCompare());
+        if (otp.getInterfaceType() != InterfaceTypeVxlan.class) {
+            return false;
+        }
+
+        List<Options> options = otp.getOptions();
+        if (options == null || options.isEmpty()) {
+            return false;
+        }
+
+        return options.stream().filter(FLOW_BASED_OR_GPE_OPT).distinct().count() == 2;
     }
 
     /**
@@ -743,14 +754,23 @@ public final class SfcOvsUtil {
             localDpdkPortName = "dpdk0";
         }
 
-        InstanceIdentifier<Topology> topoIID = buildOvsdbTopologyIID();
+        List<Node> nodes;
+        if (SfcOvsTopologyIndex.isEnabled()) {
+            Node bridgeNode = SfcOvsTopologyIndex.getBridgeNode(nodeName);
+            if (bridgeNode == null) {
+                return null;
+            }
+            nodes = Collections.singletonList(bridgeNode);
+        } else {
+            InstanceIdentifier<Topology> topoIID = buildOvsdbTopologyIID();
 
-        Topology topo = SfcDataStoreAPI.readTransactionAPI(topoIID, LogicalDatastoreType.OPERATIONAL);
-        if (topo == null) {
-            return null;
-        }
+            Topology topo = SfcDataStoreAPI.readTransactionAPI(topoIID, LogicalDatastoreType.OPERATIONAL);
+            if (topo == null) {
+                return null;
+            }
 
-        List<Node> nodes = topo.getNode();
+            nodes = topo.getNode();
+        }
 
         if (nodes == null) {
             return null;
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.ovs.provider;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.sfc.ovs.AbstractDataStoreManager;
+import org.opendaylight.sfc.provider.api.SfcProviderServiceForwarderAPI;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SffDataPlaneLocatorName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SffName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.ovs.rev140701.SffOvsBridgeAugmentation;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.ovs.rev140701.SffOvsBridgeAugmentationBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.ovs.rev140701.bridge.OvsBridgeBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarder.base.SffDataPlaneLocatorBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarder.base.SffDataPlaneLocatorKey;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarder.base.sff.data.plane.locator.DataPlaneLocatorBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.ServiceFunctionForwarder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.ServiceFunctionForwarderBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.ServiceFunctionForwarderKey;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sl.rev140701.VxlanGpe;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sl.rev140701.data.plane.locator.locator.type.IpBuilder;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.IpAddress;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Ipv4Address;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.PortNumber;
+
+public class SfcOvsSffIndexTest extends AbstractDataStoreManager {
+
+    private static final IpAddress IP_1 = new IpAddress(new Ipv4Address("10.1.1.101"));
+    private static final IpAddress IP_2 = new IpAddress(new Ipv4Address("10.1.1.102"));
+
+    @Before
+    public void before() {
+        setupSfc();
+        assertTrue(SfcProviderServiceForwarderAPI.putServiceFunctionForwarder(buildSff("sff1", IP_1, "br-sfc")));
+        SfcOvsSffIndex.enable();
+    }
+
+    @After
+    public void after() {
+        SfcOvsSffIndex.disable();
+    }
+
+    private static ServiceFunctionForwarder buildSff(String name, IpAddress ip, String bridgeName) {
+        SffDataPlaneLocatorName dplName = new SffDataPlaneLocatorName(name + "-dpl");
+        SffName sffName = new SffName(name);
+        return new ServiceFunctionForwarderBuilder().setName(sffName).withKey(new ServiceFunctionForwarderKey(sffName))
+                .setSffDataPlaneLocator(Collections.singletonList(new SffDataPlaneLocatorBuilder().setName(dplName)
+                        .withKey(new SffDataPlaneLocatorKey(dplName))
+                        .setDataPlaneLocator(new DataPlaneLocatorBuilder().setTransport(VxlanGpe.class)
+                                .setLocatorType(new IpBuilder().setIp(ip).setPort(new PortNumber(6633)).build())
+                                .build())
+                        .build()))
+                .addAugmentation(SffOvsBridgeAugmentation.class, new SffOvsBridgeAugmentationBuilder()
+                        .setOvsBridge(new OvsBridgeBuilder().setBridgeName(bridgeName).build()).build())
+                .build();
+    }
+
+    @Test
+    public void lookupsOnLoadedSffs() {
+        assertEquals("sff1", SfcOvsSffIndex.getSffByIp(IP_1).getName().getValue());
+        assertEquals("sff1", SfcOvsSffIndex.getSffByIpAndBridgeName(IP_1, "br-sfc").getName().getValue());
+        assertTrue(SfcOvsSffIndex.hasSffOnBridge("br-sfc"));
+        assertFalse(SfcOvsSffIndex.hasSffOnBridge("br-int"));
+        assertNull(SfcOvsSffIndex.getSffByIp(IP_2));
+        assertNull(SfcOvsSffIndex.getSffByIpAndBridgeName(IP_1, "br-int"));
+    }
+
+    @Test
+    public void listenerChanges() {
+        SfcOvsSffIndex.putSff(buildSff("sff2", IP_2, "br-sfc"));
+        assertEquals("sff2", SfcOvsSffIndex.getSffByIpAndBridgeName(IP_2, "br-sfc").getName().getValue());
+
+        // sff1 moves to another bridge
+        SfcOvsSffIndex.putSff(buildSff("sff1", IP_1, "br-int"));
+        assertNull(SfcOvsSffIndex.getSffByIpAndBridgeName(IP_1, "br-sfc"));
+        assertEquals("sff1", SfcOvsSffIndex.getSffByIpAndBridgeName(IP_1, "br-int").getName().getValue());
+
+        SfcOvsSffIndex.removeSff(new SffName("sff2"));
+        assertNull(SfcOvsSffIndex.getSffByIp(IP_2));
+        assertFalse(SfcOvsSffIndex.hasSffOnBridge("br-sfc"));
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.ovs.provider;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.ovsdb.southbound.SouthboundConstants;
+import org.opendaylight.sfc.ovs.AbstractDataStoreManager;
+import org.opendaylight.sfc.ovs.api.SfcOvsDataStoreAPI;
+import org.opendaylight.sfc.ovs.api.SfcOvsDataStoreAPITest;
+import org.opendaylight.sfc.provider.api.SfcDataStoreAPI;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.ovsdb.rev150105.DatapathId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.ovsdb.rev150105.InterfaceTypeVxlan;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.ovsdb.rev150105.OvsdbBridgeAugmentation;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.ovsdb.rev150105.OvsdbBridgeAugmentationBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.ovsdb.rev150105.OvsdbBridgeName;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.ovsdb.rev150105.OvsdbNodeAugmentation;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.ovsdb.rev150105.OvsdbNodeRef;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.ovsdb.rev150105.OvsdbTerminationPointAugmentation;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.ovsdb.rev150105.OvsdbTerminationPointAugmentationBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.ovsdb.rev150105.ovsdb.port._interface.attributes.Options;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.ovsdb.rev150105.ovsdb.port._interface.attributes.OptionsBuilder;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.NodeId;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.TpId;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.Topology;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.TopologyBuilder;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.Node;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.NodeBuilder;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.NodeKey;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.node.TerminationPoint;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.node.TerminationPointBuilder;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+
+/**
+ * Tests the OVSDB topology index lookups against a large synthetic topology.
+ */
+public class SfcOvsTopologyIndexTest extends AbstractDataStoreManager {
+
+    private static final int OVS_HOSTS = 2500;
+
+    @Before
+    public void before() {
+        setupSfc();
+        List<Node> nodes = new ArrayList<>();
+        for (int i = 0; i < OVS_HOSTS; i++) {
+            nodes.add(buildManagerNode(i));
+            nodes.add(buildBridgeNode(i, i + 1));
+        }
+        Topology topology = new TopologyBuilder().setTopologyId(SouthboundConstants.OVSDB_TOPOLOGY_ID)
+                .setNode(nodes).build();
+        assertTrue(SfcDataStoreAPI.writePutTransactionAPI(SfcOvsUtil.buildOvsdbTopologyIID(), topology,
+                LogicalDatastoreType.OPERATIONAL));
+        SfcOvsTopologyIndex.enable();
+    }
+
+    @After
+    public void after() {
+        SfcOvsTopologyIndex.disable();
+    }
+
+    private static String ipOf(int host) {
+        return "10.0." + host / 256 + "." + host % 256;
+    }
+
+    private static String dpidOf(long dpid) {
+        StringBuilder sb = new StringBuilder();
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            sb.append(String.format("%02x", dpid >> shift & 0xff));
+            if (shift > 0) {
+                sb.append(':');
+            }
+        }
+        return sb.toString();
+    }
+
+    private static Node buildManagerNode(int host) {
+        NodeId nodeId = new NodeId("ovsdb://" + ipOf(host));
+        return new NodeBuilder().setNodeId(nodeId).withKey(new NodeKey(nodeId))
+                .addAugmentation(OvsdbNodeAugmentation.class, SfcOvsDataStoreAPITest.createOvsdbNodeAugmentation(
+                        ipOf(host)))
+                .build();
+    }
+
+    private static Node buildBridgeNode(int host, long dpid) {
+        NodeId nodeId = new NodeId("ovsdb://" + ipOf(host) + "/bridge/br-sfc");
+        OvsdbBridgeAugmentation bridge = new OvsdbBridgeAugmentationBuilder()
+                .setDatapathId(new DatapathId(dpidOf(dpid))).build();
+        return new NodeBuilder().setNodeId(nodeId).withKey(new NodeKey(nodeId))
+                .addAugmentation(OvsdbBridgeAugmentation.class, bridge)
+                .setTerminationPoint(Arrays.asList(
+                        buildTerminationPoint("tap" + host, 10L, Collections.emptyList()),
+                        buildTerminationPoint("vxlan", 20L, Collections.singletonList(
+                                new OptionsBuilder().setOption(SfcOvsUtil.OVSDB_OPTION_REMOTE_IP)
+                                        .setValue(SfcOvsUtil.OVSDB_OPTION_VALUE_FLOW).build())),
+                        buildTerminationPoint("vxlangpe", 30L, Arrays.asList(
+                                new OptionsBuilder().setOption(SfcOvsUtil.OVSDB_OPTION_REMOTE_IP)
+                                        .setValue(SfcOvsUtil.OVSDB_OPTION_VALUE_FLOW).build(),
+                                new OptionsBuilder().setOption(SfcOvsUtil.OVSDB_OPTION_EXTS)
+                                        .setValue(SfcOvsUtil.OVSDB_OPTION_GPE).build()))))
+                .build();
+    }
+
+    private static TerminationPoint buildTerminationPoint(String name, Long ofPort, List<Options> options) {
+        OvsdbTerminationPointAugmentation otp = new OvsdbTerminationPointAugmentationBuilder().setName(name)
+                .setInterfaceType(InterfaceTypeVxlan.class).setOfport(ofPort).setOptions(options).build();
+        return new TerminationPointBuilder().setTpId(new TpId(name))
+                .addAugmentation(OvsdbTerminationPointAugmentation.class, otp).build();
+    }
+
+    @Test
+    public void lookupsOnLoadedTopology() {
+        for (int i = 0; i < OVS_HOSTS; i++) {
+            String ofNodeId = SfcOvsUtil.getOpenflowNodeIdFromDpid(dpidOf(i + 1));
+            assertEquals("ovsdb://" + ipOf(i), SfcOvsDataStoreAPI.readOvsdbNodeByIp(ipOf(i)).getNodeId().getValue());
+            assertEquals("ovsdb://" + ipOf(i) + "/bridge/br-sfc",
+                    SfcOvsTopologyIndex.getBridgeNode(ofNodeId).getNodeId().getValue());
+            assertEquals(Long.valueOf(10L), SfcOvsUtil.getOfPortByName(ofNodeId, "tap" + i));
+            assertEquals(Long.valueOf(20L), SfcOvsUtil.getVxlanOfPort(ofNodeId));
+            assertEquals(Long.valueOf(30L), SfcOvsUtil.getVxlanGpeOfPort(ofNodeId));
+        }
+        assertNull(SfcOvsDataStoreAPI.readOvsdbNodeByIp("192.168.0.1"));
+        assertNull(SfcOvsUtil.getVxlanOfPort(SfcOvsUtil.getOpenflowNodeIdFromDpid(dpidOf(OVS_HOSTS + 1))));
+        assertNull(SfcOvsUtil.getOfPortByName(SfcOvsUtil.getOpenflowNodeIdFromDpid(dpidOf(1)), "tap1"));
+    }
+
+    @Test
+    public void listenerChanges() {
+        // a bridge changes its DPID after the topology was loaded
+        String oldOfNodeId = SfcOvsUtil.getOpenflowNodeIdFromDpid(dpidOf(1));
+        String newOfNodeId = SfcOvsUtil.getOpenflowNodeIdFromDpid(dpidOf(OVS_HOSTS + 1));
+        assertEquals(Long.valueOf(20L), SfcOvsUtil.getVxlanOfPort(oldOfNodeId));
+        SfcOvsTopologyIndex.putNode(buildBridgeNode(0, OVS_HOSTS + 1));
+        assertNull(SfcOvsUtil.getVxlanOfPort(oldOfNodeId));
+        assertEquals(Long.valueOf(20L), SfcOvsUtil.getVxlanOfPort(newOfNodeId));
+
+        SfcOvsTopologyIndex.removeNode(new NodeId("ovsdb://" + ipOf(1)));
+        assertNull(SfcOvsDataStoreAPI.readOvsdbNodeByIp(ipOf(1)));
+    }
+
+    @Test
+    public void managerNodeNotIndexedYet() {
+        // the topology is loaded, then a manager node and its bridge are
+        // written before the listener indexes the manager node
+        assertEquals("ovsdb://" + ipOf(0), SfcOvsDataStoreAPI.readOvsdbNodeByIp(ipOf(0)).getNodeId().getValue());
+        Node managerNode = buildManagerNode(OVS_HOSTS);
+        InstanceIdentifier<Node> managerNodeIid = SfcOvsUtil.buildOvsdbTopologyIID()
+                .child(Node.class, new NodeKey(managerNode.getNodeId()));
+        assertTrue(SfcDataStoreAPI.writePutTransactionAPI(managerNodeIid, managerNode,
+                LogicalDatastoreType.OPERATIONAL));
+        OvsdbBridgeAugmentation bridge = new OvsdbBridgeAugmentationBuilder()
+                .setBridgeName(new OvsdbBridgeName("br-sfc")).setManagedBy(new OvsdbNodeRef(managerNodeIid)).build();
+
+        OvsdbNodeAugmentation ovsdbNode = SfcOvsUtil.getManagerNodeByBridgeNode(bridge);
+        assertEquals(managerNode.augmentation(OvsdbNodeAugmentation.class), ovsdbNode);
+    }
+
+    @Test
+    public void listenerChangesBeforeLoad() {
+        // the listener removes a node before the first lookup, the stale
+        // datastore read must not bring it back
+        SfcOvsTopologyIndex.removeNode(new NodeId("ovsdb://" + ipOf(2)));
+        assertNull(SfcOvsDataStoreAPI.readOvsdbNodeByIp(ipOf(2)));
+        assertEquals("ovsdb://" + ipOf(3), SfcOvsDataStoreAPI.readOvsdbNodeByIp(ipOf(3)).getNodeId().getValue());
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.provider;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.opendaylight.serviceutils.tools.mdsal.listener.AbstractSyncDataTreeChangeListener;
+import org.opendaylight.sfc.provider.api.AbstractSfcCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Base of the components that enable a set of {@link AbstractSfcCache} and
+ * keep them fresh through invalidating data tree change listeners.
+ */
+public abstract class AbstractSfcCacheManager implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AbstractSfcCacheManager.class);
+
+    private final String description;
+    private final List<? extends AbstractSfcCache<?, ?>> caches;
+    private final List<AbstractSyncDataTreeChangeListener<?>> listeners = new ArrayList<>();
+
+    /**
+     * Constructor.
+     *
+     * @param description
+     *            the description of the caches, used for logging
+     * @param caches
+     *            the managed caches
+     */
+    protected AbstractSfcCacheManager(String description, List<? extends AbstractSfcCache<?, ?>> caches) {
+        this.description = description;
+        this.caches = caches;
+    }
+
+    /**
+     * Register the listeners keeping the caches fresh, then enable the
+     * caches.
+     *
+     * @param cacheListeners
+     *            the invalidating listeners
+     * @param maximumSize
+     *            maximum number of values held by each cache, the caches are
+     *            left disabled if not positive
+     */
+    protected void start(List<? extends AbstractSyncDataTreeChangeListener<?>> cacheListeners, long maximumSize) {
+        // listeners are registered before the caches are enabled, so that no
+        // change is missed for a cached value
+        listeners.addAll(cacheListeners);
+        listeners.forEach(AbstractSyncDataTreeChangeListener::register);
+
+        if (maximumSize > 0) {
+            AbstractSfcCache.enableAll(caches, maximumSize);
+        } else {
+            LOG.info("{} caches disabled", description);
+        }
+    }
+
+    @Override
+    public void close() {
+        caches.forEach(sfcCache -> LOG.info("Closing {} cache {}", description, sfcCache));
+        AbstractSfcCache.disableAll(caches);
+        listeners.forEach(AbstractSyncDataTreeChangeListener::close);
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.provider;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.sfc.provider.api.SfcConfigCache;
+import org.opendaylight.sfc.provider.listeners.SfcConfigCacheListener;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.ServiceFunctions;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.service.functions.ServiceFunction;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfc.rev140701.ServiceFunctionChains;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfc.rev140701.service.function.chain.grouping.ServiceFunctionChain;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.ServiceFunctionForwarders;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.ServiceFunctionForwarder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfp.rev140701.ServiceFunctionPaths;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfp.rev140701.service.function.paths.ServiceFunctionPath;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sft.rev140701.ServiceFunctionTypes;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sft.rev140701.service.function.types.ServiceFunctionType;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+
+/**
+ * Enables the SFC configuration caches ({@link SfcConfigCache}) and keeps
+ * them consistent with the CONFIGURATION datastore, registering one
+ * invalidating listener per cached object type.
+ */
+public class SfcConfigCacheManager extends AbstractSfcCacheManager {
+
+    public SfcConfigCacheManager(DataBroker dataBroker, long maximumSize) {
+        super("SFC configuration", SfcConfigCache.getAll());
+        List<SfcConfigCacheListener<?, ?>> listeners = new ArrayList<>();
+        listeners.add(new SfcConfigCacheListener<>(dataBroker,
+                InstanceIdentifier.create(ServiceFunctions.class).child(ServiceFunction.class),
+                SfcConfigCache.SERVICE_FUNCTIONS, ServiceFunction::getName));
+        listeners.add(new SfcConfigCacheListener<>(dataBroker,
+                InstanceIdentifier.create(ServiceFunctionForwarders.class).child(ServiceFunctionForwarder.class),
+                SfcConfigCache.SERVICE_FUNCTION_FORWARDERS, ServiceFunctionForwarder::getName));
+        listeners.add(new SfcConfigCacheListener<>(dataBroker,
+                InstanceIdentifier.create(ServiceFunctionTypes.class).child(ServiceFunctionType.class),
+                SfcConfigCache.SERVICE_FUNCTION_TYPES, ServiceFunctionType::getType));
+        listeners.add(new SfcConfigCacheListener<>(dataBroker,
+                InstanceIdentifier.create(ServiceFunctionChains.class).child(ServiceFunctionChain.class),
+                SfcConfigCache.SERVICE_FUNCTION_CHAINS, ServiceFunctionChain::getName));
+        listeners.add(new SfcConfigCacheListener<>(dataBroker,
+                InstanceIdentifier.create(ServiceFunctionPaths.class).child(ServiceFunctionPath.class),
+                SfcConfigCache.SERVICE_FUNCTION_PATHS, ServiceFunctionPath::getName));
+        start(listeners, maximumSize);
+    }
+}
@@ -15,9 +15,16 @@ import com.google.common.base.Optional;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.MoreExecutors;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.md.sal.binding.api.ReadOnlyTransaction;
 import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
@@ -41,12 +48,19 @@ import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.service.path.id
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.service.path.id.rev150804.SetGenerationAlgorithmOutputBuilder;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.RspName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfpName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.CreateRenderedPathsInput;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.CreateRenderedPathsOutput;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.CreateRenderedPathsOutputBuilder;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.ReadRenderedServicePathFirstHopInput;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.ReadRenderedServicePathFirstHopOutput;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.ReadRenderedServicePathFirstHopOutputBuilder;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.RenderedServicePathService;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.TraceRenderedServicePathInput;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.TraceRenderedServicePathOutput;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.create.rendered.paths.output.RenderedPathResult;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.create.rendered.paths.output.RenderedPathResultBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.RenderedServicePath;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.path.first.hop.info.RenderedServicePathFirstHop;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.DeleteAllServiceFunctionInput;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.DeleteAllServiceFunctionOutput;
@@ -72,6 +86,9 @@ import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfc.rev1407
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfc.rev140701.ServiceFunctionChainService;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfc.rev140701.ServiceFunctionChains;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfc.rev140701.ServiceFunctionChainsBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfp.rev140701.ServiceFunctionPaths;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfp.rev140701.service.function.paths.ServiceFunctionPath;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfp.rev140701.service.function.paths.ServiceFunctionPathKey;
 import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
 import org.opendaylight.yangtools.yang.common.RpcError.ErrorType;
 import org.opendaylight.yangtools.yang.common.RpcResult;
@@ -260,6 +277,85 @@ public class SfcProviderRpc implements ServiceFunctionService, ServiceFunctionCh
         return null;
     }
 
+    /**
+     * Creates the Rendered Service Paths of several Service Function Paths at
+     * once, see
+     * {@link SfcProviderRenderedPathAPI#createRenderedServicePathsInConfig(List)}.
+     *
+     * <p>
+     * @param input
+     *            RPC input including the Service Function Path names
+     * @return RPC output including the result for each Service Function Path
+     *         and the number of Rendered Service Paths created per second
+     */
+    @Override
+    public ListenableFuture<RpcResult<CreateRenderedPathsOutput>> createRenderedPaths(
+            CreateRenderedPathsInput input) {
+        List<SfpName> sfpNames = input.getServiceFunctionPath() != null
+                ? input.getServiceFunctionPath() : Collections.emptyList();
+        LOG.info("createRenderedPaths: creating the RSPs of {} SFPs", sfpNames.size());
+
+        // The RSPs are created on the RPC executor, one bulk creation at a time
+        return MoreExecutors.listeningDecorator(executor).submit(() -> createRenderedPaths(sfpNames));
+    }
+
+    private RpcResult<CreateRenderedPathsOutput> createRenderedPaths(List<SfpName> sfpNames) {
+        final long startNanos = System.nanoTime();
+
+        List<InstanceIdentifier<ServiceFunctionPath>> sfpIIDs = sfpNames.stream()
+                .map(sfpName -> InstanceIdentifier.builder(ServiceFunctionPaths.class)
+                        .child(ServiceFunctionPath.class, new ServiceFunctionPathKey(sfpName)).build())
+                .collect(Collectors.toList());
+        Map<InstanceIdentifier<ServiceFunctionPath>, ServiceFunctionPath> sfps = SfcDataStoreAPI
+                .readTransactionsAPI(sfpIIDs, LogicalDatastoreType.CONFIGURATION);
+
+        List<ServiceFunctionPath> createdSfps = new ArrayList<>();
+        List<RenderedPathResultBuilder> resultBuilders = new ArrayList<>(sfpNames.size());
+        Set<SfpName> seenSfpNames = new HashSet<>();
+        for (int i = 0; i < sfpNames.size(); i++) {
+            RenderedPathResultBuilder resultBuilder = new RenderedPathResultBuilder()
+                    .setServiceFunctionPath(sfpNames.get(i)).setResult(false);
+            ServiceFunctionPath sfp = sfps.get(sfpIIDs.get(i));
+            if (!seenSfpNames.add(sfpNames.get(i))) {
+                resultBuilder.setErrorMessage("Duplicate Service Function Path");
+            } else if (sfp == null) {
+                resultBuilder.setErrorMessage("Service Function Path does not exist");
+            } else {
+                createdSfps.add(sfp);
+            }
+            resultBuilders.add(resultBuilder);
+        }
+
+        List<RenderedServicePath> rsps = SfcProviderRenderedPathAPI.createRenderedServicePathsInConfig(createdSfps);
+
+        long createdCount = 0;
+        int rspIndex = 0;
+        for (RenderedPathResultBuilder resultBuilder : resultBuilders) {
+            if (resultBuilder.getErrorMessage() != null) {
+                continue;
+            }
+            RenderedServicePath rsp = rsps.get(rspIndex++);
+            if (rsp == null) {
+                resultBuilder.setErrorMessage("Failed to create the Rendered Service Path");
+            } else {
+                resultBuilder.setResult(true).setName(rsp.getName()).setPathId(rsp.getPathId());
+                createdCount++;
+            }
+        }
+
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        long pathsPerSecond = createdCount * 1000 / Math.max(elapsedMillis, 1);
+        LOG.info("createRenderedPaths: created {} of {} RSPs in {} ms, {} RSPs/s", createdCount, sfpNames.size(),
+                elapsedMillis, pathsPerSecond);
+
+        List<RenderedPathResult> results = resultBuilders.stream().map(RenderedPathResultBuilder::build)
+                .collect(Collectors.toList());
+        CreateRenderedPathsOutput output = new CreateRenderedPathsOutputBuilder().setRenderedPathResult(results)
+                .setCreatedCount(createdCount).setElapsedTime(elapsedMillis).setPathsPerSecond(pathsPerSecond)
+                .build();
+        return RpcResultBuilder.success(output).build();
+    }
+
     @Override
     public ListenableFuture<RpcResult<ReservePathIdRangeOutput>> reservePathIdRange(ReservePathIdRangeInput input) {
         return null;
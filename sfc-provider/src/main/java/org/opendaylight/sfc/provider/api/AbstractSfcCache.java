@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.provider.api;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Base of the SFC caches kept fresh by invalidation. A cache is disabled -
+ * every lookup goes to its source - until it is enabled by the component that
+ * also keeps it fresh (see {@link org.opendaylight.sfc.provider.AbstractSfcCacheManager}).
+ *
+ * <p>
+ * Each invalidation, as well as enabling or disabling the cache, bumps a
+ * generation counter. A value loaded on a miss is only stored if the
+ * generation did not change while it was being loaded, so that a load
+ * racing with an invalidation never leaves a stale value in the cache.
+ *
+ * @param <K> the cache key
+ * @param <V> the cached value
+ */
+public abstract class AbstractSfcCache<K, V> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AbstractSfcCache.class);
+
+    private final String name;
+    private final Object generationLock = new Object();
+    private long generation;
+    private volatile Cache<K, V> cache;
+
+    protected AbstractSfcCache(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Enable some caches.
+     *
+     * @param caches
+     *            the caches to enable
+     * @param maximumSize
+     *            maximum number of values held by each cache
+     */
+    public static void enableAll(Collection<? extends AbstractSfcCache<?, ?>> caches, long maximumSize) {
+        caches.forEach(sfcCache -> sfcCache.enable(maximumSize));
+        LOG.info("Caches {} enabled, maximum size {}",
+                caches.stream().map(AbstractSfcCache::getName).collect(Collectors.joining(", ")), maximumSize);
+    }
+
+    /**
+     * Disable some caches, dropping their contents.
+     *
+     * @param caches
+     *            the caches to disable
+     */
+    public static void disableAll(Collection<? extends AbstractSfcCache<?, ?>> caches) {
+        caches.forEach(AbstractSfcCache::disable);
+    }
+
+    private void enable(long maximumSize) {
+        synchronized (generationLock) {
+            generation++;
+            cache = CacheBuilder.newBuilder().maximumSize(maximumSize).recordStats().build();
+        }
+    }
+
+    private void disable() {
+        synchronized (generationLock) {
+            generation++;
+            cache = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get a cached value, counting a hit or a miss.
+     *
+     * @param key
+     *            the cache key
+     * @return the value, or null if it is not cached or the cache is
+     *         disabled
+     */
+    protected V getIfPresent(K key) {
+        Cache<K, V> theCache = cache;
+        return theCache == null || key == null ? null : theCache.getIfPresent(key);
+    }
+
+    /**
+     * Get the current generation, to be passed on to
+     * {@link #putIfCurrent(Object, Object, long)} for a value loaded
+     * afterwards.
+     *
+     * @return the current generation
+     */
+    protected long getGeneration() {
+        synchronized (generationLock) {
+            return generation;
+        }
+    }
+
+    /**
+     * Cache a loaded value, unless the cache was invalidated, enabled or
+     * disabled since the load started.
+     *
+     * @param key
+     *            the cache key
+     * @param value
+     *            the loaded value
+     * @param loadGeneration
+     *            the generation when the load started
+     */
+    protected void putIfCurrent(K key, V value, long loadGeneration) {
+        synchronized (generationLock) {
+            Cache<K, V> theCache = cache;
+            if (theCache != null && loadGeneration == generation && key != null && value != null) {
+                theCache.put(key, value);
+            }
+        }
+    }
+
+    /**
+     * Cache several loaded values, unless the cache was invalidated, enabled
+     * or disabled since the load started.
+     *
+     * @param values
+     *            the loaded values, indexed by cache key
+     * @param loadGeneration
+     *            the generation when the load started
+     */
+    protected void putAllIfCurrent(Map<K, V> values, long loadGeneration) {
+        synchronized (generationLock) {
+            values.forEach((key, value) -> putIfCurrent(key, value, loadGeneration));
+        }
+    }
+
+    /**
+     * Invalidate a cached value. Must be called after the source of the value
+     * has changed.
+     *
+     * @param key
+     *            the cache key
+     */
+    public void invalidate(K key) {
+        synchronized (generationLock) {
+            generation++;
+            Cache<K, V> theCache = cache;
+            if (theCache != null && key != null) {
+                theCache.invalidate(key);
+            }
+        }
+    }
+
+    /**
+     * Invalidate the cached values whose key matches the given predicate.
+     *
+     * @param predicate
+     *            the key predicate
+     */
+    public void invalidateIf(Predicate<K> predicate) {
+        synchronized (generationLock) {
+            generation++;
+            Cache<K, V> theCache = cache;
+            if (theCache != null) {
+                theCache.asMap().keySet().removeIf(predicate);
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (generationLock) {
+            generation++;
+            Cache<K, V> theCache = cache;
+            if (theCache != null) {
+                theCache.invalidateAll();
+            }
+        }
+    }
+
+    public long size() {
+        Cache<K, V> theCache = cache;
+        return theCache == null ? 0 : theCache.size();
+    }
+
+    /**
+     * Get the cache hit ratio since the cache was enabled.
+     *
+     * @return the ratio of lookups served from the cache, 1.0 if there were
+     *         no lookups
+     */
+    public double getHitRatio() {
+        return getStats().hitRate();
+    }
+
+    public CacheStats getStats() {
+        Cache<K, V> theCache = cache;
+        return theCache == null ? new CacheStats(0, 0, 0, 0, 0, 0) : theCache.stats();
+    }
+
+    @Override
+    public String toString() {
+        CacheStats stats = getStats();
+        return String.format("%s: size=%d hits=%d misses=%d hitRatio=%.3f", name, size(), stats.hitCount(),
+                stats.missCount(), stats.hitRate());
+    }
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.provider.api;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfcName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SffName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfpName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SftTypeName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.ServiceFunctions;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.service.functions.ServiceFunction;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.service.functions.ServiceFunctionKey;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfc.rev140701.ServiceFunctionChains;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfc.rev140701.service.function.chain.grouping.ServiceFunctionChain;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfc.rev140701.service.function.chain.grouping.ServiceFunctionChainKey;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.ServiceFunctionForwarders;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.ServiceFunctionForwarder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.ServiceFunctionForwarderKey;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfp.rev140701.ServiceFunctionPaths;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfp.rev140701.service.function.paths.ServiceFunctionPath;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfp.rev140701.service.function.paths.ServiceFunctionPathKey;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sft.rev140701.ServiceFunctionTypes;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sft.rev140701.service.function.types.ServiceFunctionType;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sft.rev140701.service.function.types.ServiceFunctionTypeKey;
+import org.opendaylight.yangtools.yang.binding.DataObject;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+
+/**
+ * Read-through snapshot cache of a kind of SFC configuration object, keyed
+ * by name. The cache is disabled - every read goes to the datastore - until
+ * {@link #enableAll(long)} is called by the component that also keeps it fresh
+ * through data tree change listeners (see
+ * {@link org.opendaylight.sfc.provider.SfcConfigCacheManager}).
+ *
+ * <p>
+ * A datastore read racing with a change of the object it reads is never
+ * cached, as the read may have returned the former object.
+ *
+ * <p>
+ * Besides the listeners, {@link SfcDataStoreAPI} invalidates the objects it
+ * writes or deletes in CONFIGURATION before its commit future completes, so
+ * that a caller reads its own writes even if they bypass the SFC object APIs.
+ *
+ * @param <K> the object key
+ * @param <V> the object type
+ */
+public final class SfcConfigCache<K, V extends DataObject> extends AbstractSfcCache<K, V> {
+
+    public static final SfcConfigCache<SfName, ServiceFunction> SERVICE_FUNCTIONS =
+            new SfcConfigCache<>("service-functions",
+                    InstanceIdentifier.create(ServiceFunctions.class).child(ServiceFunction.class),
+                    path -> Optional.ofNullable(path.firstKeyOf(ServiceFunction.class))
+                            .map(ServiceFunctionKey::getName));
+    public static final SfcConfigCache<SffName, ServiceFunctionForwarder> SERVICE_FUNCTION_FORWARDERS =
+            new SfcConfigCache<>("service-function-forwarders",
+                    InstanceIdentifier.create(ServiceFunctionForwarders.class).child(ServiceFunctionForwarder.class),
+                    path -> Optional.ofNullable(path.firstKeyOf(ServiceFunctionForwarder.class))
+                            .map(ServiceFunctionForwarderKey::getName));
+    public static final SfcConfigCache<SftTypeName, ServiceFunctionType> SERVICE_FUNCTION_TYPES =
+            new SfcConfigCache<>("service-function-types",
+                    InstanceIdentifier.create(ServiceFunctionTypes.class).child(ServiceFunctionType.class),
+                    path -> Optional.ofNullable(path.firstKeyOf(ServiceFunctionType.class))
+                            .map(ServiceFunctionTypeKey::getType));
+    public static final SfcConfigCache<SfcName, ServiceFunctionChain> SERVICE_FUNCTION_CHAINS =
+            new SfcConfigCache<>("service-function-chains",
+                    InstanceIdentifier.create(ServiceFunctionChains.class).child(ServiceFunctionChain.class),
+                    path -> Optional.ofNullable(path.firstKeyOf(ServiceFunctionChain.class))
+                            .map(ServiceFunctionChainKey::getName));
+    public static final SfcConfigCache<SfpName, ServiceFunctionPath> SERVICE_FUNCTION_PATHS =
+            new SfcConfigCache<>("service-function-paths",
+                    InstanceIdentifier.create(ServiceFunctionPaths.class).child(ServiceFunctionPath.class),
+                    path -> Optional.ofNullable(path.firstKeyOf(ServiceFunctionPath.class))
+                            .map(ServiceFunctionPathKey::getName));
+
+    // the path of any of the cached objects
+    private final InstanceIdentifier<V> wildcardIdentifier;
+    // the key of the cached object a path points into, empty if the path is wildcarded
+    private final Function<InstanceIdentifier<?>, Optional<K>> pathKeyExtractor;
+
+    private SfcConfigCache(String name, InstanceIdentifier<V> wildcardIdentifier,
+                           Function<InstanceIdentifier<?>, Optional<K>> pathKeyExtractor) {
+        super(name);
+        this.wildcardIdentifier = wildcardIdentifier;
+        this.pathKeyExtractor = pathKeyExtractor;
+    }
+
+    public static List<SfcConfigCache<?, ?>> getAll() {
+        return Arrays.asList(SERVICE_FUNCTIONS, SERVICE_FUNCTION_FORWARDERS, SERVICE_FUNCTION_TYPES,
+                SERVICE_FUNCTION_CHAINS, SERVICE_FUNCTION_PATHS);
+    }
+
+    /**
+     * Enable all the configuration caches.
+     *
+     * @param maximumSize
+     *            maximum number of objects held by each cache
+     */
+    public static void enableAll(long maximumSize) {
+        enableAll(getAll(), maximumSize);
+    }
+
+    /**
+     * Disable all the configuration caches, dropping their contents.
+     */
+    public static void disableAll() {
+        disableAll(getAll());
+    }
+
+    /**
+     * Invalidate the cached objects affected by a change of the CONFIGURATION
+     * datastore: the object the given path points into, or all the objects
+     * of a cache if the path is one of their ancestors. Must be called after
+     * the change has been committed.
+     *
+     * @param path
+     *            the path that was written or deleted
+     */
+    public static void invalidateConfigPath(InstanceIdentifier<?> path) {
+        getAll().forEach(sfcConfigCache -> sfcConfigCache.invalidatePath(path));
+    }
+
+    /**
+     * Read an object, from the cache if present or else with the given
+     * datastore reader.
+     *
+     * @param key
+     *            the object key
+     * @param datastoreReader
+     *            reads the object from the datastore, returning null if not
+     *            found
+     * @return the object, or null if not found
+     */
+    public V read(K key, Supplier<V> datastoreReader) {
+        if (!isEnabled() || key == null) {
+            return datastoreReader.get();
+        }
+
+        V value = getIfPresent(key);
+        if (value != null) {
+            return value;
+        }
+
+        long readGeneration = getGeneration();
+        value = datastoreReader.get();
+        putIfCurrent(key, value, readGeneration);
+        return value;
+    }
+
+    /**
+     * Read several objects: those present in the cache are served from it,
+     * and the others are read all at once with the given datastore reader.
+     *
+     * @param keys
+     *            the object keys
+     * @param datastoreReader
+     *            reads the objects of the given keys from the datastore,
+     *            returning the objects found indexed by key
+     * @return the objects found, indexed by key in the order of the given
+     *         keys
+     */
+    public Map<K, V> readAll(Collection<K> keys, Function<Collection<K>, Map<K, V>> datastoreReader) {
+        if (!isEnabled()) {
+            return order(keys, datastoreReader.apply(keys));
+        }
+
+        Map<K, V> values = new HashMap<>();
+        Set<K> missingKeys = new LinkedHashSet<>();
+        for (K key : keys) {
+            V value = getIfPresent(key);
+            if (value != null) {
+                values.put(key, value);
+            } else {
+                missingKeys.add(key);
+            }
+        }
+        if (missingKeys.isEmpty()) {
+            return order(keys, values);
+        }
+
+        long readGeneration = getGeneration();
+        Map<K, V> readValues = datastoreReader.apply(missingKeys);
+        putAllIfCurrent(readValues, readGeneration);
+        values.putAll(readValues);
+        return order(keys, values);
+    }
+
+    private static <K, V> Map<K, V> order(Collection<K> keys, Map<K, V> values) {
+        Map<K, V> orderedValues = new LinkedHashMap<>();
+        for (K key : keys) {
+            V value = values.get(key);
+            if (value != null) {
+                orderedValues.put(key, value);
+            }
+        }
+        return orderedValues;
+    }
+
+    private void invalidatePath(InstanceIdentifier<?> path) {
+        if (path.contains(wildcardIdentifier)) {
+            invalidateAll();
+        } else if (wildcardIdentifier.containsWildcarded(path)) {
+            Optional<K> key = pathKeyExtractor.apply(path);
+            if (key.isPresent()) {
+                invalidate(key.get());
+            } else {
+                invalidateAll();
+            }
+        }
+    }
+}
@@ -10,10 +10,19 @@ package org.opendaylight.sfc.provider.api;
 
 import com.google.common.base.Optional;
 import com.google.common.util.concurrent.FluentFuture;
+import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ExecutionException;
 
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
@@ -21,6 +30,7 @@ import org.opendaylight.controller.md.sal.binding.api.ReadOnlyTransaction;
 import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.mdsal.common.api.CommitInfo;
+import org.opendaylight.yangtools.yang.binding.DataObject;
 import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -39,17 +49,26 @@ public final class SfcDataStoreAPI {
     private static DataBroker dataBroker = null;
     private static final Logger LOG = LoggerFactory.getLogger(SfcDataStoreAPI.class);
 
+    // per operation latency, measured from the transaction creation until its future completes
+    private static final SfcLatencyHistogram READ_LATENCY = new SfcLatencyHistogram("read");
+    private static final SfcLatencyHistogram BATCH_READ_LATENCY = new SfcLatencyHistogram("batch-read");
+    private static final SfcLatencyHistogram PUT_LATENCY = new SfcLatencyHistogram("put");
+    private static final SfcLatencyHistogram MERGE_LATENCY = new SfcLatencyHistogram("merge");
+    private static final SfcLatencyHistogram DELETE_LATENCY = new SfcLatencyHistogram("delete");
+
     // blueprint setter
     // FIXME - Suppress FB violation. This class should really be a normal instance and not use statics.
     @SuppressFBWarnings("ST_WRITE_TO_STATIC_FROM_INSTANCE_METHOD")
     public void setDataProvider(DataBroker broker) {
         SfcDataStoreAPI.dataBroker = broker;
+        SfcSffStateIndex.clear();
     }
 
     // Auxiliary static setter just for testing, because in UT we can't use
     // blueprint, so the injection should be manual
     public static void setDataProviderAux(DataBroker broker) {
         SfcDataStoreAPI.dataBroker = broker;
+        SfcSffStateIndex.clear();
     }
 
     public static <U extends org.opendaylight.yangtools.yang.binding.DataObject> boolean deleteTransactionAPI(
@@ -72,10 +91,82 @@ public final class SfcDataStoreAPI {
     public static <U extends org.opendaylight.yangtools.yang.binding.DataObject>
         FluentFuture<? extends CommitInfo> deleteTransactionAsyncAPI(
             InstanceIdentifier<U> deleteIID, LogicalDatastoreType logicalDatastoreType) {
+        final long startNanos = System.nanoTime();
         WriteTransaction writeTx = dataBroker.newWriteOnlyTransaction();
         writeTx.delete(logicalDatastoreType, deleteIID);
 
-        return writeTx.commit();
+        return invalidatingConfigCaches(timed(writeTx.commit(), startNanos, DELETE_LATENCY),
+                Collections.singleton(deleteIID), logicalDatastoreType);
+    }
+
+    /**
+     * Delete several objects from the datastore within a single write
+     * transaction.
+     *
+     * @param deleteIIDs
+     *            the instance identifiers of the objects to delete
+     * @param logicalDatastoreType
+     *            the datastore to delete from
+     * @return true if the transaction succeeded, false otherwise
+     */
+    public static boolean deleteTransactionsAPI(Collection<? extends InstanceIdentifier<?>> deleteIIDs,
+                                                LogicalDatastoreType logicalDatastoreType) {
+        if (dataBroker == null) {
+            LOG.error("deleteTransactionsAPI: dataBroker not initialized!");
+            return false;
+        }
+
+        if (deleteIIDs.isEmpty()) {
+            return true;
+        }
+
+        final long startNanos = System.nanoTime();
+        WriteTransaction writeTx = dataBroker.newWriteOnlyTransaction();
+        deleteIIDs.forEach(deleteIID -> writeTx.delete(logicalDatastoreType, deleteIID));
+        try {
+            invalidatingConfigCaches(timed(writeTx.commit(), startNanos, DELETE_LATENCY), deleteIIDs,
+                    logicalDatastoreType).get();
+            return true;
+        } catch (InterruptedException | ExecutionException e) {
+            LOG.error("deleteTransactionsAPI: Transaction failed", e);
+            return false;
+        }
+    }
+
+    /**
+     * Merge several objects into the datastore within a single write
+     * transaction.
+     *
+     * @param addData
+     *            the objects to merge, indexed by instance identifier
+     * @param logicalDatastoreType
+     *            the datastore to merge into
+     * @param <U>
+     *            the type of the objects to merge
+     * @return true if the transaction succeeded, false otherwise
+     */
+    public static <U extends DataObject> boolean writeMergeTransactionsAPI(Map<InstanceIdentifier<U>, U> addData,
+                                                                           LogicalDatastoreType logicalDatastoreType) {
+        if (dataBroker == null) {
+            LOG.error("writeMergeTransactionsAPI: dataBroker not initialized!");
+            return false;
+        }
+
+        if (addData.isEmpty()) {
+            return true;
+        }
+
+        final long startNanos = System.nanoTime();
+        WriteTransaction writeTx = dataBroker.newWriteOnlyTransaction();
+        addData.forEach((addIID, data) -> writeTx.merge(logicalDatastoreType, addIID, data, true));
+        try {
+            invalidatingConfigCaches(timed(writeTx.commit(), startNanos, MERGE_LATENCY), addData.keySet(),
+                    logicalDatastoreType).get();
+            return true;
+        } catch (InterruptedException | ExecutionException e) {
+            LOG.error("writeMergeTransactionsAPI: Transaction failed", e);
+            return false;
+        }
     }
 
     public static <U extends org.opendaylight.yangtools.yang.binding.DataObject> boolean writeMergeTransactionAPI(
@@ -100,10 +191,12 @@ public final class SfcDataStoreAPI {
     public static <U extends org.opendaylight.yangtools.yang.binding.DataObject>
         FluentFuture<? extends CommitInfo> writeMergeTransactionAsyncAPI(
             InstanceIdentifier<U> addIID, U data, LogicalDatastoreType logicalDatastoreType) {
+        final long startNanos = System.nanoTime();
         WriteTransaction writeTx = dataBroker.newWriteOnlyTransaction();
         writeTx.merge(logicalDatastoreType, addIID, data, true);
 
-        return writeTx.commit();
+        return invalidatingConfigCaches(timed(writeTx.commit(), startNanos, MERGE_LATENCY),
+                Collections.singleton(addIID), logicalDatastoreType);
     }
 
     public static <U extends org.opendaylight.yangtools.yang.binding.DataObject> boolean writePutTransactionAPI(
@@ -128,10 +221,12 @@ public final class SfcDataStoreAPI {
     public static <U extends org.opendaylight.yangtools.yang.binding.DataObject>
         FluentFuture<? extends CommitInfo> writePutTransactionAsyncAPI(
             InstanceIdentifier<U> addIID, U data, LogicalDatastoreType logicalDatastoreType) {
+        final long startNanos = System.nanoTime();
         WriteTransaction writeTx = dataBroker.newWriteOnlyTransaction();
         writeTx.put(logicalDatastoreType, addIID, data, true);
 
-        return writeTx.commit();
+        return invalidatingConfigCaches(timed(writeTx.commit(), startNanos, PUT_LATENCY),
+                Collections.singleton(addIID), logicalDatastoreType);
     }
 
     public static <U extends org.opendaylight.yangtools.yang.binding.DataObject> U readTransactionAPI(
@@ -160,8 +255,118 @@ public final class SfcDataStoreAPI {
     public static <U extends org.opendaylight.yangtools.yang.binding.DataObject>
         ListenableFuture<Optional<U>> readTransactionAsyncAPI(
             InstanceIdentifier<U> readIID, LogicalDatastoreType logicalDatastoreType) {
+        final long startNanos = System.nanoTime();
         ReadOnlyTransaction readTx = dataBroker.newReadOnlyTransaction();
+        ListenableFuture<Optional<U>> readFuture = readTx.read(logicalDatastoreType, readIID);
+        readFuture.addListener(readTx::close, MoreExecutors.directExecutor());
+
+        return timed(readFuture, startNanos, READ_LATENCY);
+    }
+
+    /**
+     * Read several objects from the datastore within a single read
+     * transaction. The reads are issued concurrently, and the caller does not
+     * block.
+     *
+     * @param readIIDs
+     *            the instance identifiers of the objects to read
+     * @param logicalDatastoreType
+     *            the datastore to read from
+     * @param <U>
+     *            the type of the objects to read
+     * @return a future holding the objects that were found, indexed by
+     *         instance identifier, in the order of the supplied identifiers
+     */
+    public static <U extends DataObject> ListenableFuture<Map<InstanceIdentifier<U>, U>> readTransactionsAsyncAPI(
+            Collection<InstanceIdentifier<U>> readIIDs, LogicalDatastoreType logicalDatastoreType) {
+        final long startNanos = System.nanoTime();
+        final List<InstanceIdentifier<U>> theIIDs = new ArrayList<>(readIIDs);
+        ReadOnlyTransaction readTx = dataBroker.newReadOnlyTransaction();
+        List<ListenableFuture<Optional<U>>> reads = new ArrayList<>(theIIDs.size());
+        theIIDs.forEach(readIID -> reads.add(readTx.read(logicalDatastoreType, readIID)));
+
+        ListenableFuture<Map<InstanceIdentifier<U>, U>> readFuture = Futures.transform(Futures.allAsList(reads),
+            results -> {
+                Map<InstanceIdentifier<U>, U> dataObjects = new LinkedHashMap<>();
+                Iterator<InstanceIdentifier<U>> readIIDIterator = theIIDs.iterator();
+                results.forEach(result -> {
+                    InstanceIdentifier<U> readIID = readIIDIterator.next();
+                    if (result != null && result.isPresent()) {
+                        dataObjects.put(readIID, result.get());
+                    }
+                });
+                return dataObjects;
+            }, MoreExecutors.directExecutor());
+        readFuture.addListener(readTx::close, MoreExecutors.directExecutor());
+
+        return timed(readFuture, startNanos, BATCH_READ_LATENCY);
+    }
+
+    /**
+     * Blocking version of
+     * {@link #readTransactionsAsyncAPI(Collection, LogicalDatastoreType)}.
+     *
+     * @param readIIDs
+     *            the instance identifiers of the objects to read
+     * @param logicalDatastoreType
+     *            the datastore to read from
+     * @param <U>
+     *            the type of the objects to read
+     * @return the objects that were found, indexed by instance identifier;
+     *         empty if the read failed
+     */
+    public static <U extends DataObject> Map<InstanceIdentifier<U>, U> readTransactionsAPI(
+            Collection<InstanceIdentifier<U>> readIIDs, LogicalDatastoreType logicalDatastoreType) {
+        if (dataBroker == null) {
+            LOG.error("readTransactionsAPI: dataBroker not initialized!");
+            return Collections.emptyMap();
+        }
+
+        if (readIIDs.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        try {
+            return readTransactionsAsyncAPI(readIIDs, logicalDatastoreType).get();
+        } catch (InterruptedException | ExecutionException e) {
+            LOG.warn("readTransactionsAPI: failed to read {} objects", readIIDs.size(), e);
+            return Collections.emptyMap();
+        }
+    }
+
+    /**
+     * Get the latency histograms of the datastore operations performed
+     * through this API.
+     *
+     * @return the latency histograms, one per operation type
+     */
+    public static List<SfcLatencyHistogram> getLatencyHistograms() {
+        List<SfcLatencyHistogram> histograms = new ArrayList<>();
+        histograms.add(READ_LATENCY);
+        histograms.add(BATCH_READ_LATENCY);
+        histograms.add(PUT_LATENCY);
+        histograms.add(MERGE_LATENCY);
+        histograms.add(DELETE_LATENCY);
+        return histograms;
+    }
+
+    // the SFC configuration caches are invalidated before the commit future
+    // completes, so that the callers read their own writes
+    private static FluentFuture<? extends CommitInfo> invalidatingConfigCaches(
+            FluentFuture<? extends CommitInfo> commitFuture, Collection<? extends InstanceIdentifier<?>> paths,
+            LogicalDatastoreType logicalDatastoreType) {
+        if (logicalDatastoreType != LogicalDatastoreType.CONFIGURATION) {
+            return commitFuture;
+        }
+        return commitFuture.transform(commitInfo -> {
+            paths.forEach(SfcConfigCache::invalidateConfigPath);
+            return commitInfo;
+        }, MoreExecutors.directExecutor());
+    }
 
-        return readTx.read(logicalDatastoreType, readIID);
+    private static <F extends ListenableFuture<?>> F timed(F future, long startNanos,
+            SfcLatencyHistogram histogram) {
+        future.addListener(() -> histogram.recordSince(startNanos), MoreExecutors.directExecutor());
+        return future;
     }
 }
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2017 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.provider.api;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock free latency histogram. Latencies are recorded in power of two
+ * microsecond buckets, which is precise enough to tell a 100us datastore read
+ * from a 10ms one, while keeping the recording cost to a couple of atomic
+ * increments.
+ */
+public final class SfcLatencyHistogram {
+
+    private static final int BUCKETS = Long.SIZE;
+
+    private final String name;
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalMicros = new LongAdder();
+    private final LongAccumulator maxMicros = new LongAccumulator(Long::max, 0L);
+
+    public SfcLatencyHistogram(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Record a latency sample.
+     *
+     * @param elapsedNanos
+     *            the measured latency, in nanoseconds
+     */
+    public void record(long elapsedNanos) {
+        long micros = Math.max(0L, TimeUnit.NANOSECONDS.toMicros(elapsedNanos));
+        buckets.incrementAndGet(bucketOf(micros));
+        count.increment();
+        totalMicros.add(micros);
+        maxMicros.accumulate(micros);
+    }
+
+    /**
+     * Record the latency elapsed since the given start time.
+     *
+     * @param startNanos
+     *            the start time, as given by {@link System#nanoTime()}
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getMeanMicros() {
+        long samples = count.sum();
+        return samples == 0 ? 0 : totalMicros.sum() / samples;
+    }
+
+    public long getMaxMicros() {
+        return maxMicros.get();
+    }
+
+    /**
+     * Get an upper bound of the given latency percentile.
+     *
+     * @param percentile
+     *            the percentile, between 0 and 100
+     * @return the upper bound, in microseconds, of the bucket holding the
+     *         percentile
+     */
+    public long getPercentileMicros(double percentile) {
+        long samples = count.sum();
+        if (samples == 0) {
+            return 0;
+        }
+        long threshold = (long) Math.ceil(samples * percentile / 100.0);
+        long accumulated = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            accumulated += buckets.get(i);
+            if (accumulated >= threshold) {
+                return Math.min(bucketUpperBound(i), getMaxMicros());
+            }
+        }
+        return getMaxMicros();
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets.set(i, 0);
+        }
+        count.reset();
+        totalMicros.reset();
+        maxMicros.reset();
+    }
+
+    private static int bucketOf(long micros) {
+        return micros == 0 ? 0 : BUCKETS - Long.numberOfLeadingZeros(micros) - 1;
+    }
+
+    private static long bucketUpperBound(int bucket) {
+        return bucket >= BUCKETS - 2 ? Long.MAX_VALUE : (1L << (bucket + 1)) - 1;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: count=%d mean=%dus p50=%dus p99=%dus max=%dus", name, getCount(),
+                getMeanMicros(), getPercentileMicros(50), getPercentileMicros(99), getMaxMicros());
+    }
+}
@@ -13,10 +13,21 @@ import static org.opendaylight.sfc.provider.SfcProviderDebug.printTraceStop;
 
 import com.google.common.base.Supplier;
 import com.google.common.base.Suppliers;
+import com.google.common.collect.Lists;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.RspName;
@@ -76,12 +87,18 @@ public final class SfcProviderRenderedPathAPI {
     private static final String MPLS = "mpls";
     private static final int MAX_STARTING_INDEX = 255;
     private static final String REVERSED_PATH_SUFFIX = "-Reverse";
+    private static final int BULK_WRITE_BATCH_SIZE = 500;
+    private static final int BULK_SCHEDULING_PARALLELISM = Runtime.getRuntime().availableProcessors();
 
     private static final Logger LOG = LoggerFactory.getLogger(SfcProviderRenderedPathAPI.class);
 
     private static final Supplier<SfcServiceFunctionSchedulerAPI> DEFAULT_SCHEDULER_SUPPLIER =
             Suppliers.memoize(SfcProviderRenderedPathAPI::getDefaultServiceFunctionScheduler);
 
+    // Path ids of the RSPs created in bulk whose config RSP was not seen by
+    // the RSP listener yet
+    private static final Map<RspName, Long> BULK_CREATED_PATH_IDS = new ConcurrentHashMap<>();
+
     private SfcProviderRenderedPathAPI() {
     }
 
@@ -164,6 +181,202 @@ public final class SfcProviderRenderedPathAPI {
         return renderedServicePath;
     }
 
+    /**
+     * Creates the RSPs of several SFPs, and optionally their symmetric RSPs,
+     * in the configuration and operational data stores.
+     *
+     * <p>
+     * Unlike {@link #createRenderedServicePathInConfig(ServiceFunctionPath)},
+     * the SFs of the RSPs are scheduled concurrently, the path ids are
+     * allocated in blocks and the RSPs are written in batched transactions.
+     * The operational RSPs and their state are written before the config
+     * RSPs, so that the RSP listener does not create them once more.
+     *
+     * @param serviceFunctionPaths
+     *            The SFPs used to create the RSPs
+     * @return The RSPs, in the order of the SFPs, with null for the SFPs
+     *            whose RSP could not be created
+     */
+    public static List<RenderedServicePath> createRenderedServicePathsInConfig(
+            List<ServiceFunctionPath> serviceFunctionPaths) {
+        final long startNanos = System.nanoTime();
+
+        List<BulkRenderedServicePath> bulkRsps = scheduleRenderedServicePaths(serviceFunctionPaths);
+        allocateRenderedServicePathIds(bulkRsps);
+        allocateSymmetricRenderedServicePathIds(bulkRsps);
+        Lists.partition(bulkRsps, BULK_WRITE_BATCH_SIZE).forEach(SfcProviderRenderedPathAPI::writeRenderedServicePaths);
+
+        List<RenderedServicePath> renderedServicePaths = bulkRsps.stream()
+                .map(bulkRsp -> bulkRsp.renderedServicePath).collect(Collectors.toList());
+        long created = renderedServicePaths.stream().filter(Objects::nonNull).count();
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        LOG.info("createRenderedServicePathsInConfig: created {} of {} RSPs in {} ms, {} RSPs/s", created,
+                serviceFunctionPaths.size(), elapsedMillis, created * 1000 / Math.max(elapsedMillis, 1));
+
+        return renderedServicePaths;
+    }
+
+    private static List<BulkRenderedServicePath> scheduleRenderedServicePaths(
+            List<ServiceFunctionPath> serviceFunctionPaths) {
+        SfcServiceFunctionSchedulerAPI scheduler = DEFAULT_SCHEDULER_SUPPLIER.get();
+        Set<SfName> oneChainOnlySfNames = ConcurrentHashMap.newKeySet();
+
+        // Most of the scheduling time is spent reading the data store, so the SFPs are scheduled concurrently
+        List<BulkRenderedServicePath> bulkRsps;
+        ForkJoinPool schedulingPool = new ForkJoinPool(BULK_SCHEDULING_PARALLELISM);
+        try {
+            bulkRsps = schedulingPool.submit(() -> serviceFunctionPaths.parallelStream().map(sfp -> {
+                RenderedServicePathBuilder renderedServicePathBuilder = buildRenderedServicePathEntry(sfp,
+                        scheduler, oneChainOnlySfNames);
+                return new BulkRenderedServicePath(sfp, renderedServicePathBuilder, renderedServicePathBuilder != null
+                        && isChainSymmetric(sfp, renderedServicePathBuilder.getRenderedServicePathHop()));
+            }).collect(Collectors.toList())).get();
+        } catch (InterruptedException | ExecutionException e) {
+            LOG.error("Failed to schedule the Service Functions of {} SFPs", serviceFunctionPaths.size(), e);
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            return serviceFunctionPaths.stream().map(sfp -> new BulkRenderedServicePath(sfp, null, false))
+                    .collect(Collectors.toList());
+        } finally {
+            schedulingPool.shutdown();
+        }
+
+        // The SF state is only updated once the RSPs are written, so check
+        // the one-chain-only SFs are not used twice within these RSPs
+        Set<SfName> usedSfNames = new HashSet<>();
+        for (BulkRenderedServicePath bulkRsp : bulkRsps) {
+            if (oneChainOnlySfNames.isEmpty() || bulkRsp.renderedServicePathBuilder == null) {
+                continue;
+            }
+            Set<SfName> rspSfNames = bulkRsp.renderedServicePathBuilder.getRenderedServicePathHop().stream()
+                    .map(RenderedServicePathHop::getServiceFunctionName).filter(Objects::nonNull)
+                    .filter(oneChainOnlySfNames::contains).collect(Collectors.toSet());
+            if (rspSfNames.stream().anyMatch(usedSfNames::contains)) {
+                LOG.error("createRenderedServicePathsInConfig SF of SFP {} is-one-chain-only is TRUE and the SF "
+                        + "is already in use", bulkRsp.serviceFunctionPath.getName().getValue());
+                bulkRsp.fail();
+            } else {
+                usedSfNames.addAll(rspSfNames);
+            }
+        }
+
+        return bulkRsps;
+    }
+
+    private static void allocateRenderedServicePathIds(List<BulkRenderedServicePath> bulkRsps) {
+        List<BulkRenderedServicePath> givenIdRsps = new ArrayList<>();
+        List<BulkRenderedServicePath> generatedIdRsps = new ArrayList<>();
+        bulkRsps.stream().filter(bulkRsp -> bulkRsp.renderedServicePathBuilder != null).forEach(bulkRsp ->
+                (bulkRsp.serviceFunctionPath.getPathId() == null ? generatedIdRsps : givenIdRsps).add(bulkRsp));
+
+        if (!givenIdRsps.isEmpty()) {
+            List<Long> pathIds = SfcServicePathId.checkAndAllocatePathIds(givenIdRsps.stream()
+                    .map(bulkRsp -> bulkRsp.serviceFunctionPath.getPathId()).collect(Collectors.toList()));
+            for (int i = 0; i < givenIdRsps.size(); i++) {
+                givenIdRsps.get(i).setPathId(pathIds.get(i));
+            }
+        }
+
+        if (!generatedIdRsps.isEmpty()) {
+            long firstPathId = SfcServicePathId.allocatePathIdBlock(generatedIdRsps.size());
+            if (firstPathId == -1) {
+                LOG.warn("No block of {} path ids available, allocating them one by one", generatedIdRsps.size());
+            }
+            for (int i = 0; i < generatedIdRsps.size(); i++) {
+                generatedIdRsps.get(i).setPathId(firstPathId == -1
+                        ? SfcServicePathId.checkAndAllocatePathId() : firstPathId + i);
+            }
+        }
+    }
+
+    private static void allocateSymmetricRenderedServicePathIds(List<BulkRenderedServicePath> bulkRsps) {
+        List<BulkRenderedServicePath> symmetricRsps = bulkRsps.stream()
+                .filter(bulkRsp -> bulkRsp.renderedServicePath != null && bulkRsp.symmetric)
+                .collect(Collectors.toList());
+        if (symmetricRsps.isEmpty()) {
+            return;
+        }
+
+        List<Long> symmetricPathIds = SfcServicePathId.checkAndAllocateSymmetricPathIds(symmetricRsps.stream()
+                .map(bulkRsp -> bulkRsp.renderedServicePath.getPathId()).collect(Collectors.toList()));
+        for (int i = 0; i < symmetricRsps.size(); i++) {
+            BulkRenderedServicePath bulkRsp = symmetricRsps.get(i);
+            long symmetricPathId = symmetricPathIds.get(i);
+            if (symmetricPathId == -1) {
+                LOG.error("Failed to create symmetric Rendered Service Path for input SFP: {}",
+                        bulkRsp.serviceFunctionPath.getName().getValue());
+                continue;
+            }
+            bulkRsp.reverseRenderedServicePath = buildReverseRenderedServicePathEntry(bulkRsp.renderedServicePath,
+                    symmetricPathId);
+            bulkRsp.renderedServicePath = setSymmetricPathId(bulkRsp.renderedServicePath, symmetricPathId, null);
+        }
+    }
+
+    private static void writeRenderedServicePaths(List<BulkRenderedServicePath> batch) {
+        List<BulkRenderedServicePath> bulkRsps = batch.stream()
+                .filter(bulkRsp -> bulkRsp.renderedServicePath != null).collect(Collectors.toList());
+        if (bulkRsps.isEmpty()) {
+            return;
+        }
+
+        Map<InstanceIdentifier<RenderedServicePath>, RenderedServicePath> operationalRsps = new LinkedHashMap<>();
+        bulkRsps.forEach(bulkRsp -> bulkRsp.getRenderedServicePaths().forEach(rsp -> operationalRsps.put(
+                getRenderedServicePathIid(rsp.getName()),
+                buildOperationalRenderedServicePath(bulkRsp.serviceFunctionPath, rsp))));
+        if (!SfcDataStoreAPI.writeMergeTransactionsAPI(operationalRsps, LogicalDatastoreType.OPERATIONAL)) {
+            LOG.error("Failed to create {} Rendered Service Paths in operational", operationalRsps.size());
+            bulkRsps.forEach(bulkRsp -> {
+                bulkRsp.getRenderedServicePaths().forEach(rsp -> SfcServicePathId.freePathId(rsp.getPathId()));
+                bulkRsp.fail();
+            });
+            return;
+        }
+
+        for (BulkRenderedServicePath bulkRsp : bulkRsps) {
+            for (RenderedServicePath rsp : bulkRsp.getRenderedServicePaths()) {
+                if (!createRenderedServicePathState(bulkRsp.serviceFunctionPath,
+                        operationalRsps.get(getRenderedServicePathIid(rsp.getName())))) {
+                    deleteRenderedServicePathsAndStates(bulkRsp.getRenderedServicePathNames());
+                    bulkRsp.fail();
+                    break;
+                }
+            }
+        }
+
+        Map<InstanceIdentifier<RenderedServicePath>, RenderedServicePath> configRsps = new LinkedHashMap<>();
+        bulkRsps.forEach(bulkRsp -> bulkRsp.getRenderedServicePaths().forEach(rsp -> configRsps.put(
+                getRenderedServicePathIid(rsp.getName()), rsp)));
+        configRsps.values().forEach(rsp -> BULK_CREATED_PATH_IDS.put(rsp.getName(), rsp.getPathId()));
+        if (!SfcDataStoreAPI.writeMergeTransactionsAPI(configRsps, LogicalDatastoreType.CONFIGURATION)) {
+            LOG.error("Failed to create {} Rendered Service Paths in config", configRsps.size());
+            configRsps.values().forEach(rsp -> BULK_CREATED_PATH_IDS.remove(rsp.getName(), rsp.getPathId()));
+            bulkRsps.stream().filter(bulkRsp -> bulkRsp.renderedServicePath != null).forEach(bulkRsp -> {
+                deleteRenderedServicePathsAndStates(bulkRsp.getRenderedServicePathNames());
+                bulkRsp.fail();
+            });
+            return;
+        }
+
+        LOG.info("Create {} RSPs in operational and config data stores successfully", configRsps.size());
+    }
+
+    /**
+     * Check whether a config RSP was created by
+     * {@link #createRenderedServicePathsInConfig(List)}, which writes its
+     * operational RSP and state beforehand. Each RSP created in bulk is only
+     * reported once, to the listener of the config RSPs.
+     *
+     * @param configRenderedServicePath
+     *            the config RSP
+     * @return true if the RSP was created in bulk, with the same path id
+     */
+    public static boolean isCreatedInBulk(RenderedServicePath configRenderedServicePath) {
+        return BULK_CREATED_PATH_IDS.remove(configRenderedServicePath.getName(),
+                configRenderedServicePath.getPathId());
+    }
+
     /**
      * Creates the RSP operational state based on the given service function path.
      *
@@ -228,14 +441,8 @@ public final class SfcProviderRenderedPathAPI {
             ServiceFunctionPath createdServiceFunctionPath, RenderedServicePath createdRenderedServicePath) {
 
         // Create the Operational RSP based on the Config RSP
-        RenderedServicePathBuilder renderedServicePathBuilder =
-                new RenderedServicePathBuilder(createdRenderedServicePath);
-
-        // These are the config false RSP attributes, that can only be written in the RSP Operational data store
-        renderedServicePathBuilder.setContextMetadata(createdServiceFunctionPath.getContextMetadata());
-        renderedServicePathBuilder.setVariableMetadata(createdServiceFunctionPath.getVariableMetadata());
-
-        RenderedServicePath renderedServicePath = renderedServicePathBuilder.build();
+        RenderedServicePath renderedServicePath = buildOperationalRenderedServicePath(createdServiceFunctionPath,
+                createdRenderedServicePath);
 
         if (renderedServicePath == null) {
             LOG.error("Could not create RSP in operational for config RSP {}",
@@ -255,6 +462,18 @@ public final class SfcProviderRenderedPathAPI {
         return renderedServicePath;
     }
 
+    private static RenderedServicePath buildOperationalRenderedServicePath(ServiceFunctionPath serviceFunctionPath,
+            RenderedServicePath configRenderedServicePath) {
+        RenderedServicePathBuilder renderedServicePathBuilder =
+                new RenderedServicePathBuilder(configRenderedServicePath);
+
+        // These are the config false RSP attributes, that can only be written in the RSP Operational data store
+        renderedServicePathBuilder.setContextMetadata(serviceFunctionPath.getContextMetadata());
+        renderedServicePathBuilder.setVariableMetadata(serviceFunctionPath.getVariableMetadata());
+
+        return renderedServicePathBuilder.build();
+    }
+
     /**
      * Creates a symmetric RSP in the configuration data store. This
      * will be called when an SFP has been created.
@@ -426,6 +645,51 @@ public final class SfcProviderRenderedPathAPI {
 
         long pathId;
 
+        RenderedServicePathBuilder renderedServicePathBuilder = buildRenderedServicePathEntry(serviceFunctionPath,
+                scheduler, null);
+        if (renderedServicePathBuilder == null) {
+            return null;
+        }
+
+        // Build the service function path so it can be committed to datastore
+        /*
+         * pathId = (serviceFunctionPath.getPathId() != null) ?
+         * serviceFunctionPath.getPathId() : numCreatedPathIncrementGet();
+         */
+
+        if (serviceFunctionPath.getPathId() == null) {
+            pathId = SfcServicePathId.checkAndAllocatePathId();
+        } else {
+            pathId = SfcServicePathId.chechAndAllocatePathId(serviceFunctionPath.getPathId());
+        }
+
+        if (pathId == -1) {
+            LOG.error("{}: Failed to allocate path-id: {}", Thread.currentThread().getStackTrace()[1], pathId);
+            return null;
+        }
+
+        setRenderedServicePathId(renderedServicePathBuilder, serviceFunctionPath, rspName, pathId);
+
+        return renderedServicePathBuilder.build();
+    }
+
+    /**
+     * Schedule the Service Functions of a Service Function Path and build the
+     * RSP hops, leaving the RSP name and path id unset.
+     *
+     * <p>
+     *
+     * @param serviceFunctionPath
+     *            SFP Object
+     * @param scheduler
+     *            SfcServiceFunctionSchedulerAPI object
+     * @param oneChainOnlySfNames
+     *            if not null, the scheduled SFs that can only be used by
+     *            one chain are added to it
+     * @return RenderedServicePathBuilder or null
+     */
+    private static RenderedServicePathBuilder buildRenderedServicePathEntry(ServiceFunctionPath serviceFunctionPath,
+            SfcServiceFunctionSchedulerAPI scheduler, @Nullable Set<SfName> oneChainOnlySfNames) {
         ServiceFunctionChain serviceFunctionChain;
         SfcName serviceFunctionChainName = serviceFunctionPath.getServiceChainName();
         serviceFunctionChain = serviceFunctionChainName != null
@@ -439,8 +703,8 @@ public final class SfcProviderRenderedPathAPI {
         int serviceIndex = MAX_STARTING_INDEX;
 
         List<String> sfgNameList = SfcProviderServiceFunctionGroupAPI.getSfgNameList(serviceFunctionChain);
-        List<SfName> sfNameList = scheduler.scheduleServiceFunctions(serviceFunctionChain, serviceIndex,
-                serviceFunctionPath);
+        List<SfName> sfNameList;
+        sfNameList = scheduler.scheduleServiceFunctions(serviceFunctionChain, serviceIndex, serviceFunctionPath);
         if (sfNameList == null && sfgNameList == null) {
             LOG.warn("createRenderedServicePathEntry scheduler.scheduleServiceFunctions() returned null list");
             return null;
@@ -457,6 +721,9 @@ public final class SfcProviderRenderedPathAPI {
                             + "is already in use", sfName);
                     return null;
                 }
+                if (oneChainOnlySfNames != null && Boolean.TRUE.equals(sf.isOneChainOnly())) {
+                    oneChainOnlySfNames.add(sfName);
+                }
             }
         }
 
@@ -468,34 +735,8 @@ public final class SfcProviderRenderedPathAPI {
             return null;
         }
 
-        // Build the service function path so it can be committed to datastore
-        /*
-         * pathId = (serviceFunctionPath.getPathId() != null) ?
-         * serviceFunctionPath.getPathId() : numCreatedPathIncrementGet();
-         */
-
-        if (serviceFunctionPath.getPathId() == null) {
-            pathId = SfcServicePathId.checkAndAllocatePathId();
-        } else {
-            pathId = SfcServicePathId.chechAndAllocatePathId(serviceFunctionPath.getPathId());
-        }
-
-        if (pathId == -1) {
-            LOG.error("{}: Failed to allocate path-id: {}", Thread.currentThread().getStackTrace()[1], pathId);
-            return null;
-        }
-
         RenderedServicePathBuilder renderedServicePathBuilder = new RenderedServicePathBuilder();
         renderedServicePathBuilder.setRenderedServicePathHop(renderedServicePathHopArrayList);
-        // TODO Bug 4495 - RPCs hiding heuristics using Strings - alagalah
-        if (rspName == null || rspName.isEmpty()) {
-            renderedServicePathBuilder
-                    .setName(getRspName(serviceFunctionPath, pathId));
-        } else {
-            renderedServicePathBuilder.setName(new RspName(rspName));
-        }
-
-        renderedServicePathBuilder.setPathId(pathId);
         // TODO: Find out the exact rules for service index generation
         // renderedServicePathBuilder.setStartingIndex((short)
         // renderedServicePathHopArrayList.size());
@@ -520,7 +761,20 @@ public final class SfcProviderRenderedPathAPI {
                 ? serviceFunctionPath.getSfcEncapsulation()
                 : renderedServicePathBuilder.getTransportType().equals(VxlanGpe.class) ? Nsh.class : Transport.class);
 
-        return renderedServicePathBuilder.build();
+        return renderedServicePathBuilder;
+    }
+
+    private static void setRenderedServicePathId(RenderedServicePathBuilder renderedServicePathBuilder,
+            ServiceFunctionPath serviceFunctionPath, String rspName, long pathId) {
+        // TODO Bug 4495 - RPCs hiding heuristics using Strings - alagalah
+        if (rspName == null || rspName.isEmpty()) {
+            renderedServicePathBuilder
+                    .setName(getRspName(serviceFunctionPath, pathId));
+        } else {
+            renderedServicePathBuilder.setName(new RspName(rspName));
+        }
+
+        renderedServicePathBuilder.setPathId(pathId);
     }
 
     /**
@@ -534,8 +788,6 @@ public final class SfcProviderRenderedPathAPI {
      * @return Nothing
      */
     public static RenderedServicePath createReverseRenderedServicePathEntry(RenderedServicePath renderedServicePath) {
-        RenderedServicePath ret = null;
-
         long pathId = SfcServicePathId.checkAndAllocateSymmetricPathId(renderedServicePath.getPathId());
         printTraceStart(LOG);
 
@@ -544,6 +796,11 @@ public final class SfcProviderRenderedPathAPI {
                     Thread.currentThread().getStackTrace()[1], renderedServicePath.getPathId());
         }
 
+        return buildReverseRenderedServicePathEntry(renderedServicePath, pathId);
+    }
+
+    private static RenderedServicePath buildReverseRenderedServicePathEntry(RenderedServicePath renderedServicePath,
+            long pathId) {
         RenderedServicePathBuilder revRenderedServicePathBuilder = new RenderedServicePathBuilder(renderedServicePath);
         revRenderedServicePathBuilder.setPathId(pathId);
         RspName revPathName = generateReversedPathName(renderedServicePath.getName());
@@ -593,12 +850,14 @@ public final class SfcProviderRenderedPathAPI {
                 : new RspName(rspName.getValue() + REVERSED_PATH_SUFFIX);
     }
 
+    private static InstanceIdentifier<RenderedServicePath> getRenderedServicePathIid(RspName rspName) {
+        return InstanceIdentifier.builder(RenderedServicePaths.class)
+                .child(RenderedServicePath.class, new RenderedServicePathKey(rspName)).build();
+    }
+
     private static boolean writeRenderedServicePath(RenderedServicePath renderedServicePath,
                                                     LogicalDatastoreType type) {
-        RenderedServicePathKey renderedServicePathKey = new RenderedServicePathKey(
-                renderedServicePath.getName());
-        InstanceIdentifier<RenderedServicePath> rspIID = InstanceIdentifier.builder(RenderedServicePaths.class)
-                .child(RenderedServicePath.class, renderedServicePathKey).build();
+        InstanceIdentifier<RenderedServicePath> rspIID = getRenderedServicePathIid(renderedServicePath.getName());
 
         if (!SfcDataStoreAPI.writeMergeTransactionAPI(rspIID, renderedServicePath, type)) {
             LOG.error("{}: Failed to create Rendered Service Path: {}", Thread.currentThread().getStackTrace()[1],
@@ -871,11 +1130,14 @@ public final class SfcProviderRenderedPathAPI {
      * @return True is there the RSP is symmetric, false otherwise.
      */
     public static boolean isChainSymmetric(ServiceFunctionPath sfp, RenderedServicePath rsp) {
+        return isChainSymmetric(sfp, rsp.getRenderedServicePathHop());
+    }
+
+    private static boolean isChainSymmetric(ServiceFunctionPath sfp, List<RenderedServicePathHop> rspHops) {
         if (sfp.isSymmetric() != null) {
             return sfp.isSymmetric();
         }
 
-        List<RenderedServicePathHop> rspHops = rsp.getRenderedServicePathHop();
         for (RenderedServicePathHop hop : rspHops) {
             ServiceFunction sf = SfcProviderServiceFunctionAPI.readServiceFunction(hop.getServiceFunctionName());
             ServiceFunctionType sfType = SfcProviderServiceTypeAPI.readServiceFunctionType(sf.getType());
@@ -892,4 +1154,53 @@ public final class SfcProviderRenderedPathAPI {
 
         return false;
     }
+
+    /**
+     * An RSP being created by {@link #createRenderedServicePathsInConfig(List)}.
+     */
+    private static final class BulkRenderedServicePath {
+        private final ServiceFunctionPath serviceFunctionPath;
+        private final boolean symmetric;
+        private RenderedServicePathBuilder renderedServicePathBuilder;
+        private RenderedServicePath renderedServicePath;
+        private RenderedServicePath reverseRenderedServicePath;
+
+        BulkRenderedServicePath(ServiceFunctionPath serviceFunctionPath,
+                RenderedServicePathBuilder renderedServicePathBuilder, boolean symmetric) {
+            this.serviceFunctionPath = serviceFunctionPath;
+            this.renderedServicePathBuilder = renderedServicePathBuilder;
+            this.symmetric = symmetric;
+        }
+
+        void setPathId(long pathId) {
+            if (pathId == -1) {
+                LOG.error("Failed to allocate path-id for SFP {}", serviceFunctionPath.getName().getValue());
+                fail();
+                return;
+            }
+            setRenderedServicePathId(renderedServicePathBuilder, serviceFunctionPath, null, pathId);
+            renderedServicePath = renderedServicePathBuilder.build();
+        }
+
+        List<RenderedServicePath> getRenderedServicePaths() {
+            List<RenderedServicePath> rsps = new ArrayList<>(2);
+            if (renderedServicePath != null) {
+                rsps.add(renderedServicePath);
+            }
+            if (reverseRenderedServicePath != null) {
+                rsps.add(reverseRenderedServicePath);
+            }
+            return rsps;
+        }
+
+        List<RspName> getRenderedServicePathNames() {
+            return getRenderedServicePaths().stream().map(RenderedServicePath::getName).collect(Collectors.toList());
+        }
+
+        void fail() {
+            renderedServicePathBuilder = null;
+            renderedServicePath = null;
+            reverseRenderedServicePath = null;
+        }
+    }
 }
@@ -57,7 +57,8 @@ public final class SfcProviderServiceChainAPI {
         sfcIID = InstanceIdentifier.builder(ServiceFunctionChains.class)
                 .child(ServiceFunctionChain.class, serviceFunctionChainKey).build();
 
-        sfc = SfcDataStoreAPI.readTransactionAPI(sfcIID, LogicalDatastoreType.CONFIGURATION);
+        sfc = SfcConfigCache.SERVICE_FUNCTION_CHAINS.read(serviceFunctionChainName,
+            () -> SfcDataStoreAPI.readTransactionAPI(sfcIID, LogicalDatastoreType.CONFIGURATION));
 
         printTraceStop(LOG);
         return sfc;
@@ -12,9 +12,13 @@ import static org.opendaylight.sfc.provider.SfcProviderDebug.printTraceStart;
 import static org.opendaylight.sfc.provider.SfcProviderDebug.printTraceStop;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -130,11 +134,45 @@ public final class SfcProviderServiceForwarderAPI {
         sffIID = InstanceIdentifier.builder(ServiceFunctionForwarders.class)
                 .child(ServiceFunctionForwarder.class, serviceFunctionForwarderKey).build();
 
-        sff = SfcDataStoreAPI.readTransactionAPI(sffIID, LogicalDatastoreType.CONFIGURATION);
+        sff = SfcConfigCache.SERVICE_FUNCTION_FORWARDERS.read(serviceFunctionForwarderName,
+            () -> SfcDataStoreAPI.readTransactionAPI(sffIID, LogicalDatastoreType.CONFIGURATION));
         printTraceStop(LOG);
         return sff;
     }
 
+    /**
+     * This method reads several SFFs: those in the configuration cache are
+     * served from it, and the others are read from the datastore in a single
+     * read transaction.
+     *
+     * @param serviceFunctionForwarderNames
+     *            SFF names
+     * @return the SFF objects found, indexed by SFF name
+     */
+    public static Map<SffName, ServiceFunctionForwarder> readServiceFunctionForwarders(
+            Collection<SffName> serviceFunctionForwarderNames) {
+        printTraceStart(LOG);
+        Map<SffName, ServiceFunctionForwarder> sffs = SfcConfigCache.SERVICE_FUNCTION_FORWARDERS.readAll(
+                new LinkedHashSet<>(serviceFunctionForwarderNames),
+                SfcProviderServiceForwarderAPI::readServiceFunctionForwardersFromDatastore);
+        printTraceStop(LOG);
+        return sffs;
+    }
+
+    private static Map<SffName, ServiceFunctionForwarder> readServiceFunctionForwardersFromDatastore(
+            Collection<SffName> serviceFunctionForwarderNames) {
+        List<InstanceIdentifier<ServiceFunctionForwarder>> sffIIDs = serviceFunctionForwarderNames.stream()
+                .map(sffName -> InstanceIdentifier.builder(ServiceFunctionForwarders.class)
+                        .child(ServiceFunctionForwarder.class, new ServiceFunctionForwarderKey(sffName)).build())
+                .collect(Collectors.toList());
+
+        Map<SffName, ServiceFunctionForwarder> sffs = new LinkedHashMap<>();
+        SfcDataStoreAPI.readTransactionsAPI(sffIIDs, LogicalDatastoreType.CONFIGURATION)
+                .values()
+                .forEach(sff -> sffs.put(sff.getName(), sff));
+        return sffs;
+    }
+
     /**
      * This method deletes a SFF from the datastore.
      *
@@ -213,8 +251,11 @@ public final class SfcProviderServiceForwarderAPI {
                             .child(ServiceFunctionForwarderState.class, serviceFunctionForwarderStateKey)
                             .child(SffServicePath.class, sffServicePathKey).build();
 
-            if (!SfcDataStoreAPI.writePutTransactionAPI(sfStateIID, sffServicePathBuilder.build(),
+            if (SfcDataStoreAPI.writePutTransactionAPI(sfStateIID, sffServicePathBuilder.build(),
                     LogicalDatastoreType.OPERATIONAL)) {
+                SfcSffStateIndex.addPath(renderedServicePathHop.getServiceFunctionForwarder(),
+                        sffServicePathKey.getName());
+            } else {
                 ret = false;
                 LOG.error("Failed to add path {} to SFF {} state.", renderedServicePath.getName(),
                         renderedServicePathHop.getServiceFunctionForwarder());
@@ -237,45 +278,10 @@ public final class SfcProviderServiceForwarderAPI {
     public static boolean deletePathFromServiceForwarderState(ServiceFunctionPath serviceFunctionPath) {
         printTraceStart(LOG);
 
-        boolean ret = true;
-
         // TODO Bug 4495 - RPCs hiding heuristics using Strings
-        RspName rspName = new RspName(serviceFunctionPath.getName().getValue());
-        RenderedServicePath renderedServicePath = SfcProviderRenderedPathAPI
-                .readRenderedServicePath(new RspName(serviceFunctionPath.getName().getValue()));
-
-        if (renderedServicePath != null) {
-            Set<SffName> sffNameSet = new HashSet<>();
-            List<RenderedServicePathHop> renderedServicePathHopList = renderedServicePath.getRenderedServicePathHop();
-            for (RenderedServicePathHop renderedServicePathHop : renderedServicePathHopList) {
-
-                SffName sffName = renderedServicePathHop.getServiceFunctionForwarder();
-                if (sffNameSet.add(sffName)) {
-                    // TODO Bug 4495 - RPCs hiding heuristics using Strings -
-                    SffServicePathKey sffServicePathKey = new SffServicePathKey(new SfpName(rspName.getValue()));
-                    ServiceFunctionForwarderStateKey serviceFunctionForwarderStateKey =
-                            new ServiceFunctionForwarderStateKey(sffName);
-                    InstanceIdentifier<SffServicePath> sfStateIID =
-                            InstanceIdentifier.builder(ServiceFunctionForwardersState.class)
-                                    .child(ServiceFunctionForwarderState.class, serviceFunctionForwarderStateKey)
-                                    .child(SffServicePath.class, sffServicePathKey).build();
-                    if (SfcDataStoreAPI.deleteTransactionAPI(sfStateIID, LogicalDatastoreType.OPERATIONAL)) {
-                        ret = true;
-                    } else {
-                        ret = false;
-                        LOG.error("Could not delete Service Path {} from SFF {}", rspName, sffName);
-                    }
-                    List<SffServicePath> sffServicePathList = readSffState(sffName);
-                    if (sffServicePathList != null && sffServicePathList.isEmpty()
-                            && !deleteServiceFunctionForwarderState(sffName)) {
-                        ret = false;
-                    }
-                }
-            }
-        } else {
-            LOG.error("{}: Rendered Service Path {} does not exist", Thread.currentThread().getStackTrace()[1],
-                    serviceFunctionPath.getName());
-        }
+        boolean ret = deletePathsFromServiceForwarderState(
+                Collections.singletonList(new SfpName(serviceFunctionPath.getName().getValue())));
+
         printTraceStop(LOG);
         return ret;
     }
@@ -291,18 +297,16 @@ public final class SfcProviderServiceForwarderAPI {
      */
     public static boolean deletePathFromServiceForwarderState(List<RspName> renderedServicePaths) {
         printTraceStart(LOG);
-        boolean ret = false;
 
-        for (RspName rspName : renderedServicePaths) {
-            if (SfcProviderServiceForwarderAPI.deletePathFromServiceForwarderState(rspName)) {
-                ret = true;
-            } else {
-                LOG.debug("RSP {} already deleted by another thread or client", rspName);
-                ret = true;
-            }
+        // TODO Bug 4495 - RPCs hiding heuristics using Strings
+        if (!deletePathsFromServiceForwarderState(renderedServicePaths.stream()
+                .map(rspName -> new SfpName(rspName.getValue()))
+                .collect(Collectors.toList()))) {
+            LOG.debug("RSPs {} already deleted by another thread or client", renderedServicePaths);
         }
+
         printTraceStop(LOG);
-        return ret;
+        return !renderedServicePaths.isEmpty();
     }
 
     /**
@@ -316,49 +320,100 @@ public final class SfcProviderServiceForwarderAPI {
      * @return true if all path was deleted, false otherwise.
      */
     public static boolean deletePathFromServiceForwarderState(RspName rspName) {
-
         printTraceStart(LOG);
 
+        // TODO Bug 4495 - RPCs hiding heuristics using Strings
+        boolean ret = deletePathsFromServiceForwarderState(
+                Collections.singletonList(new SfpName(rspName.getValue())));
+
+        printTraceStop(LOG);
+        return ret;
+    }
+
+    /**
+     * Delete the given paths from the operational state of the SFFs they
+     * traverse, with a single transaction per SFF. The SFF operational state
+     * is deleted altogether when, once read back, no other path is left on
+     * it.
+     *
+     * <p>
+     * The SFFs of each path are taken from {@link SfcSffStateIndex}; the RSP
+     * is only read if the index does not know the path.
+     *
+     * @param sfpNames
+     *            the names of the paths to delete
+     * @return true if all the paths were deleted, false otherwise
+     */
+    private static boolean deletePathsFromServiceForwarderState(Collection<SfpName> sfpNames) {
         boolean ret = true;
 
-        RenderedServicePath renderedServicePath = SfcProviderRenderedPathAPI.readRenderedServicePath(rspName);
-
-        if (renderedServicePath != null) {
-            Set<SffName> sffNameSet = new HashSet<>();
-            List<RenderedServicePathHop> renderedServicePathHopList = renderedServicePath.getRenderedServicePathHop();
-            for (RenderedServicePathHop renderedServicePathHop : renderedServicePathHopList) {
-
-                SffName sffname = renderedServicePathHop.getServiceFunctionForwarder();
-                if (sffNameSet.add(sffname)) {
-                    // TODO Bug 4495 - RPCs hiding heuristics using Strings -
-                    SffServicePathKey sffServicePathKey = new SffServicePathKey(new SfpName(rspName.getValue()));
-                    ServiceFunctionForwarderStateKey serviceFunctionForwarderStateKey =
-                            new ServiceFunctionForwarderStateKey(sffname);
-                    InstanceIdentifier<SffServicePath> sfStateIID =
-                            InstanceIdentifier.builder(ServiceFunctionForwardersState.class)
-                                    .child(ServiceFunctionForwarderState.class, serviceFunctionForwarderStateKey)
-                                    .child(SffServicePath.class, sffServicePathKey).build();
-                    if (SfcDataStoreAPI.deleteTransactionAPI(sfStateIID, LogicalDatastoreType.OPERATIONAL)) {
-                        ret = true;
-                    } else {
-                        ret = false;
-                        LOG.error("Could not delete Service Path {} from SFF {}", rspName, sffname);
-                    }
-                    List<SffServicePath> sffServicePathList = readSffState(sffname);
-                    if (sffServicePathList != null && sffServicePathList.isEmpty()
-                            && !deleteServiceFunctionForwarderState(sffname)) {
-                        ret = false;
-                    }
+        Map<SffName, Set<SfpName>> pathsBySff = new LinkedHashMap<>();
+        for (SfpName sfpName : sfpNames) {
+            Set<SffName> sffNames = SfcSffStateIndex.getSffs(sfpName);
+            if (sffNames.isEmpty()) {
+                RenderedServicePath renderedServicePath = SfcProviderRenderedPathAPI
+                        .readRenderedServicePath(new RspName(sfpName.getValue()));
+                if (renderedServicePath == null) {
+                    LOG.error("{}: Rendered Service Path {} does not exist",
+                            Thread.currentThread().getStackTrace()[1], sfpName);
+                    continue;
                 }
+                sffNames = renderedServicePath.getRenderedServicePathHop().stream()
+                        .map(RenderedServicePathHop::getServiceFunctionForwarder)
+                        .collect(Collectors.toSet());
             }
-        } else {
-            LOG.error("{}: Rendered Service Path {} does not exist", Thread.currentThread().getStackTrace()[1],
-                    rspName);
+            sffNames.forEach(sffName -> pathsBySff.computeIfAbsent(sffName, key -> new HashSet<>()).add(sfpName));
         }
-        printTraceStop(LOG);
+
+        for (Map.Entry<SffName, Set<SfpName>> sffPaths : pathsBySff.entrySet()) {
+            SffName sffName = sffPaths.getKey();
+            InstanceIdentifier<ServiceFunctionForwarderState> sffStateIID =
+                    InstanceIdentifier.builder(ServiceFunctionForwardersState.class)
+                            .child(ServiceFunctionForwarderState.class, new ServiceFunctionForwarderStateKey(sffName))
+                            .build();
+
+            List<InstanceIdentifier<?>> deleteIIDs = new ArrayList<>();
+            if (SfcSffStateIndex.wouldBeEmpty(sffName, sffPaths.getValue())
+                    && holdsOnlyPaths(sffName, sffPaths.getValue())) {
+                deleteIIDs.add(sffStateIID);
+            } else {
+                sffPaths.getValue().forEach(sfpName -> deleteIIDs.add(
+                        sffStateIID.child(SffServicePath.class, new SffServicePathKey(sfpName))));
+            }
+
+            if (SfcDataStoreAPI.deleteTransactionsAPI(deleteIIDs, LogicalDatastoreType.OPERATIONAL)) {
+                SfcSffStateIndex.removePaths(sffName, sffPaths.getValue());
+            } else {
+                ret = false;
+                LOG.error("Could not delete Service Paths {} from SFF {}", sffPaths.getValue(), sffName);
+            }
+        }
+
         return ret;
     }
 
+    /**
+     * Check, reading it from the datastore, whether the operational state of a
+     * SFF holds no path other than the given ones. The index only tracks the
+     * paths written through this API, so the state is read back before it is
+     * deleted altogether; the index is resynchronized with what was read.
+     *
+     * @param sffName
+     *            the SFF name
+     * @param sfpNames
+     *            the paths about to be deleted
+     * @return true if the SFF state holds no other path
+     */
+    private static boolean holdsOnlyPaths(SffName sffName, Set<SfpName> sfpNames) {
+        List<SffServicePath> sffServicePaths = readSffState(sffName);
+        if (sffServicePaths == null) {
+            return true;
+        }
+        Set<SfpName> statePaths = sffServicePaths.stream().map(SffServicePath::getName).collect(Collectors.toSet());
+        SfcSffStateIndex.setPaths(sffName, statePaths);
+        return sfpNames.containsAll(statePaths);
+    }
+
     /**
      * This method deletes the operational state for a service function.
      *
@@ -379,6 +434,7 @@ public final class SfcProviderServiceForwarderAPI {
                         .child(ServiceFunctionForwarderState.class, serviceFunctionForwarderStateKey).build();
 
         if (SfcDataStoreAPI.deleteTransactionAPI(sffStateIID, LogicalDatastoreType.OPERATIONAL)) {
+            SfcSffStateIndex.removeSff(sffName);
             ret = true;
         } else {
             LOG.error("{}: Could not delete operational state for SFF: {}", Thread.currentThread().getStackTrace()[1],
@@ -12,7 +12,12 @@ import static org.opendaylight.sfc.provider.SfcProviderDebug.printTraceStart;
 import static org.opendaylight.sfc.provider.SfcProviderDebug.printTraceStop;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.RspName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfName;
@@ -304,12 +309,45 @@ public final class SfcProviderServiceFunctionAPI {
         sfIID = InstanceIdentifier.builder(ServiceFunctions.class).child(ServiceFunction.class, serviceFunctionKey)
                 .build();
 
-        sf = SfcDataStoreAPI.readTransactionAPI(sfIID, LogicalDatastoreType.CONFIGURATION);
+        sf = SfcConfigCache.SERVICE_FUNCTIONS.read(serviceFunctionName,
+            () -> SfcDataStoreAPI.readTransactionAPI(sfIID, LogicalDatastoreType.CONFIGURATION));
 
         printTraceStop(LOG);
         return sf;
     }
 
+    /**
+     * This method reads several SFs: those in the configuration cache are
+     * served from it, and the others are read from the datastore in a single
+     * read transaction.
+     *
+     * @param serviceFunctionNames
+     *            SF names
+     * @return the SF objects found, indexed by SF name
+     */
+    public static Map<SfName, ServiceFunction> readServiceFunctions(Collection<SfName> serviceFunctionNames) {
+        printTraceStart(LOG);
+        Map<SfName, ServiceFunction> sfs = SfcConfigCache.SERVICE_FUNCTIONS.readAll(
+                new LinkedHashSet<>(serviceFunctionNames),
+                SfcProviderServiceFunctionAPI::readServiceFunctionsFromDatastore);
+        printTraceStop(LOG);
+        return sfs;
+    }
+
+    private static Map<SfName, ServiceFunction> readServiceFunctionsFromDatastore(
+            Collection<SfName> serviceFunctionNames) {
+        List<InstanceIdentifier<ServiceFunction>> sfIIDs = serviceFunctionNames.stream()
+                .map(sfName -> InstanceIdentifier.builder(ServiceFunctions.class)
+                        .child(ServiceFunction.class, new ServiceFunctionKey(sfName)).build())
+                .collect(Collectors.toList());
+
+        Map<SfName, ServiceFunction> sfs = new LinkedHashMap<>();
+        SfcDataStoreAPI.readTransactionsAPI(sfIIDs, LogicalDatastoreType.CONFIGURATION)
+                .values()
+                .forEach(sf -> sfs.put(sf.getName(), sf));
+        return sfs;
+    }
+
     public static ServiceFunctions readAllServiceFunctions() {
         ServiceFunctions sfs;
         printTraceStart(LOG);
@@ -127,7 +127,8 @@ public final class SfcProviderServicePathAPI {
         sfpIID = InstanceIdentifier.builder(ServiceFunctionPaths.class)
                 .child(ServiceFunctionPath.class, serviceFunctionPathKey).build();
 
-        sfp = SfcDataStoreAPI.readTransactionAPI(sfpIID, LogicalDatastoreType.CONFIGURATION);
+        sfp = SfcConfigCache.SERVICE_FUNCTION_PATHS.read(serviceFunctionPathName,
+            () -> SfcDataStoreAPI.readTransactionAPI(sfpIID, LogicalDatastoreType.CONFIGURATION));
         printTraceStop(LOG);
         return sfp;
     }
@@ -176,12 +177,12 @@ public final class SfcProviderServicePathAPI {
         InstanceIdentifier<ServiceFunctionPath> sfpEntryIID = InstanceIdentifier.builder(ServiceFunctionPaths.class)
                 .child(ServiceFunctionPath.class, sfp.key()).build();
 
-        if (SfcDataStoreAPI.deleteTransactionAPI(sfpEntryIID, LogicalDatastoreType.CONFIGURATION)) {
+        boolean ret = SfcDataStoreAPI.deleteTransactionAPI(sfpEntryIID, LogicalDatastoreType.CONFIGURATION);
+        if (ret) {
             LOG.info("Deleted Service Function Path: {}", sfp.getName());
-            return true;
         }
 
-        return false;
+        return ret;
     }
 
     /**
@@ -113,7 +113,8 @@ public final class SfcProviderServiceTypeAPI {
         ServiceFunctionTypeKey serviceFunctionTypeKey = new ServiceFunctionTypeKey(serviceFunctionType);
         sftIID = InstanceIdentifier.builder(ServiceFunctionTypes.class)
                 .child(ServiceFunctionType.class, serviceFunctionTypeKey).build();
-        sft = SfcDataStoreAPI.readTransactionAPI(sftIID, LogicalDatastoreType.CONFIGURATION);
+        sft = SfcConfigCache.SERVICE_FUNCTION_TYPES.read(serviceFunctionType,
+            () -> SfcDataStoreAPI.readTransactionAPI(sftIID, LogicalDatastoreType.CONFIGURATION));
         if (sft == null) {
             LOG.error("Could not read Service Function list for Type {} ", serviceFunctionType);
         }
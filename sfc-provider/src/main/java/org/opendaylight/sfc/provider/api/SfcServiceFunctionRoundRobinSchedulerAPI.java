@@ -37,6 +37,8 @@ public final class SfcServiceFunctionRoundRobinSchedulerAPI extends SfcServiceFu
 
     private static final Logger LOG = LoggerFactory.getLogger(SfcServiceFunctionRoundRobinSchedulerAPI.class);
 
+    // Shared by all the RSP creations, which may run concurrently, guarded by
+    // the class
     private static Map<SftTypeName, Integer> MAP_COUNT_ROUND_ROBIN = new HashMap<>();
 
     protected SfcServiceFunctionRoundRobinSchedulerAPI() {
@@ -46,21 +48,24 @@ public final class SfcServiceFunctionRoundRobinSchedulerAPI extends SfcServiceFu
     private SfName getServiceFunctionByType(ServiceFunctionType serviceFunctionType) {
         List<SftServiceFunctionName> sftServiceFunctionNameList = serviceFunctionType.getSftServiceFunctionName();
         int countRoundRobin = 0;
+        SftServiceFunctionName sftServiceFunctionName;
 
-        if (!MAP_COUNT_ROUND_ROBIN.isEmpty()) {
-            for (Entry<SftTypeName, Integer> entry : MAP_COUNT_ROUND_ROBIN.entrySet()) {
-                SftTypeName sfType = entry.getKey();
-                if (sfType.equals(serviceFunctionType.getType())) {
-                    countRoundRobin = entry.getValue();
-                    LOG.debug("countRoundRobin: {}", countRoundRobin);
-                    break;
+        synchronized (SfcServiceFunctionRoundRobinSchedulerAPI.class) {
+            if (!MAP_COUNT_ROUND_ROBIN.isEmpty()) {
+                for (Entry<SftTypeName, Integer> entry : MAP_COUNT_ROUND_ROBIN.entrySet()) {
+                    SftTypeName sfType = entry.getKey();
+                    if (sfType.equals(serviceFunctionType.getType())) {
+                        countRoundRobin = entry.getValue();
+                        LOG.debug("countRoundRobin: {}", countRoundRobin);
+                        break;
+                    }
                 }
             }
-        }
 
-        SftServiceFunctionName sftServiceFunctionName = sftServiceFunctionNameList.get(countRoundRobin);
-        countRoundRobin = (countRoundRobin + 1) % sftServiceFunctionNameList.size();
-        MAP_COUNT_ROUND_ROBIN.put(serviceFunctionType.getType(), countRoundRobin);
+            sftServiceFunctionName = sftServiceFunctionNameList.get(countRoundRobin);
+            countRoundRobin = (countRoundRobin + 1) % sftServiceFunctionNameList.size();
+            MAP_COUNT_ROUND_ROBIN.put(serviceFunctionType.getType(), countRoundRobin);
+        }
         return new SfName(sftServiceFunctionName.getName());
     }
 
@@ -8,7 +8,13 @@
 
 package org.opendaylight.sfc.provider.api;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.Set;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.service.path.id.rev150804.GenerationAlgorithmEnum;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.service.path.id.rev150804.ServicePathIds;
@@ -190,6 +196,108 @@ public final class SfcServicePathId {
         }
     }
 
+    /**
+     * Allocate a block of contiguous Pathids, reading and writing the
+     * bitarrays once for the whole block.
+     *
+     * <p>
+     *
+     * @param count
+     *            Number of Path Ids to allocate
+     * @return The first Path Id of the block or error if none available
+     */
+    public static long allocatePathIdBlock(int count) {
+        if (count <= 0 || count > NUM_PATH_ID || !SfcConcurrencyAPI.getPathIdLock()) {
+            return -1;
+        }
+        try {
+            PathIdBitmap bitmap = PathIdBitmap.read();
+            long firstPathId = bitmap.findFreeBlock(count);
+            if (firstPathId < 0) {
+                return -1;
+            }
+            for (long pathId = firstPathId; pathId < firstPathId + count; pathId++) {
+                bitmap.allocate(pathId);
+            }
+            return bitmap.write() ? firstPathId : -1;
+        } finally {
+            SfcConcurrencyAPI.releasePathIdLock();
+        }
+    }
+
+    /**
+     * Check and allocate several Pathids, reading and writing the bitarrays
+     * once for all of them.
+     *
+     * <p>
+     *
+     * @param pathIds
+     *            Candidate Path Ids
+     * @return The allocated Path Ids, in the same order, with error for the
+     *         ones not available
+     */
+    public static List<Long> checkAndAllocatePathIds(List<Long> pathIds) {
+        List<Long> allocatedPathIds = new ArrayList<>(pathIds.size());
+        if (!SfcConcurrencyAPI.getPathIdLock()) {
+            pathIds.forEach(pathId -> allocatedPathIds.add(-1L));
+            return allocatedPathIds;
+        }
+        try {
+            PathIdBitmap bitmap = PathIdBitmap.read();
+            pathIds.forEach(pathId -> allocatedPathIds.add(bitmap.allocateIfFree(pathId) ? pathId : -1L));
+            return bitmap.write() ? allocatedPathIds : failed(pathIds.size());
+        } finally {
+            SfcConcurrencyAPI.releasePathIdLock();
+        }
+    }
+
+    /**
+     * Check and allocate the symmetric Pathids of several Pathids, reading
+     * and writing the bitarrays once for all of them. The sequential
+     * generation algorithm allocates them as a block of contiguous Path Ids.
+     *
+     * <p>
+     *
+     * @param pathIds
+     *            Path Ids of the RSPs
+     * @return The allocated symmetric Path Ids, in the same order, with error
+     *         for the ones not available
+     */
+    public static List<Long> checkAndAllocateSymmetricPathIds(List<Long> pathIds) {
+        List<Long> symmetricIds = new ArrayList<>(pathIds.size());
+        if (!SfcConcurrencyAPI.getPathIdLock()) {
+            pathIds.forEach(pathId -> symmetricIds.add(-1L));
+            return symmetricIds;
+        }
+        try {
+            GenerationAlgorithmEnum genAlg = getGenerationAlgorithm();
+            PathIdBitmap bitmap = PathIdBitmap.read();
+            if (genAlg == GenerationAlgorithmEnum.Sequential) {
+                long firstPathId = bitmap.findFreeBlock(pathIds.size());
+                for (int i = 0; i < pathIds.size(); i++) {
+                    symmetricIds.add(firstPathId >= MIN_PATH_ID && bitmap.allocateIfFree(firstPathId + i)
+                            ? firstPathId + i : -1L);
+                }
+            } else {
+                pathIds.forEach(pathId -> {
+                    long symmetricId = pathId ^ 1 << 23;
+                    symmetricIds.add(bitmap.allocateIfFree(symmetricId) ? symmetricId : -1L);
+                });
+            }
+            return bitmap.write() ? symmetricIds : failed(pathIds.size());
+        } finally {
+            SfcConcurrencyAPI.releasePathIdLock();
+        }
+    }
+
+    private static List<Long> failed(int count) {
+        List<Long> pathIds = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            pathIds.add(-1L);
+        }
+        return pathIds;
+    }
+
     /**
      * Check if Pathid is available.
      *
@@ -343,4 +451,67 @@ public final class SfcServicePathId {
         return SfcDataStoreAPI.writeMergeTransactionAPI(spIID, servicePathIdsBuilder.build(),
                 LogicalDatastoreType.OPERATIONAL);
     }
+
+    /**
+     * In memory copy of the path-id bitarrays, so that several Path Ids are
+     * checked and allocated with a single read and a single write.
+     */
+    private static final class PathIdBitmap {
+        private final Map<Long, Long> bitarrays = new HashMap<>();
+        private final Set<Long> modifiedKeys = new HashSet<>();
+
+        static PathIdBitmap read() {
+            PathIdBitmap bitmap = new PathIdBitmap();
+            ServicePathIds servicePathIds = SfcDataStoreAPI.readTransactionAPI(
+                    InstanceIdentifier.create(ServicePathIds.class), LogicalDatastoreType.OPERATIONAL);
+            if (servicePathIds != null && servicePathIds.getServicePathId() != null) {
+                servicePathIds.getServicePathId().forEach(servicePathId -> bitmap.bitarrays.put(
+                        servicePathId.getPathIdKey(),
+                        servicePathId.getPathIdBitarray() != null ? servicePathId.getPathIdBitarray() : 0L));
+            }
+            return bitmap;
+        }
+
+        boolean isFree(long pathid) {
+            Long pathIdBitArray = bitarrays.get(pathid / Long.SIZE);
+            return pathIdBitArray == null || (1L << Long.SIZE - pathid % Long.SIZE & pathIdBitArray) == 0;
+        }
+
+        void allocate(long pathid) {
+            long key = pathid / Long.SIZE;
+            bitarrays.put(key, bitarrays.getOrDefault(key, 0L) | 1L << Long.SIZE - pathid % Long.SIZE);
+            modifiedKeys.add(key);
+        }
+
+        boolean allocateIfFree(long pathid) {
+            if (pathid < MIN_PATH_ID || !isFree(pathid)) {
+                return false;
+            }
+            allocate(pathid);
+            return true;
+        }
+
+        long findFreeBlock(int count) {
+            long blockStart = MIN_PATH_ID;
+            for (long pathid = MIN_PATH_ID; pathid <= MAX_PATH_ID; pathid++) {
+                if (!isFree(pathid)) {
+                    blockStart = pathid + 1;
+                } else if (pathid - blockStart + 1 == count) {
+                    return blockStart;
+                }
+            }
+            return -1;
+        }
+
+        boolean write() {
+            Map<InstanceIdentifier<ServicePathId>, ServicePathId> servicePathIds = new HashMap<>();
+            modifiedKeys.forEach(key -> {
+                ServicePathIdKey servicePathIdKey = new ServicePathIdKey(key);
+                servicePathIds.put(InstanceIdentifier.builder(ServicePathIds.class)
+                        .child(ServicePathId.class, servicePathIdKey).build(), new ServicePathIdBuilder()
+                        .withKey(servicePathIdKey).setPathIdBitarray(bitarrays.get(key)).build());
+            });
+            return SfcDataStoreAPI.writeMergeTransactionsAPI(servicePathIds, LogicalDatastoreType.OPERATIONAL);
+        }
+    }
 }
@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.provider.api;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SffName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfpName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.ServiceFunctionForwardersState;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.state.ServiceFunctionForwarderState;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.state.service.function.forwarder.state.SffServicePath;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * In-memory index of the service paths anchored by each SFF, mirroring the
+ * SFF operational state (service-function-forwarders-state). It answers
+ * "which SFFs does this path traverse" and "has this SFF any path left"
+ * without reading the RSP or the SFF state from the datastore.
+ *
+ * <p>
+ * The index is loaded from the datastore on first use, with a single read of
+ * the whole SFF operational state, and from then on it is kept up to date by
+ * {@link SfcProviderServiceForwarderAPI} after each successful state write.
+ * Since other writers may change the SFF state, the index is only an
+ * optimization hint: a SFF state is read back from the datastore before it is
+ * deleted altogether. The index is dropped whenever a new data broker is set.
+ */
+final class SfcSffStateIndex {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SfcSffStateIndex.class);
+
+    private static final Map<SffName, Set<SfpName>> PATHS_BY_SFF = new HashMap<>();
+
+    private static final Map<SfpName, Set<SffName>> SFFS_BY_PATH = new HashMap<>();
+
+    private static boolean loaded = false;
+
+    private SfcSffStateIndex() {
+    }
+
+    static synchronized void clear() {
+        PATHS_BY_SFF.clear();
+        SFFS_BY_PATH.clear();
+        loaded = false;
+    }
+
+    static synchronized void addPath(SffName sffName, SfpName sfpName) {
+        load();
+        doAddPath(sffName, sfpName);
+    }
+
+    /**
+     * Get the SFFs whose state holds the given path.
+     *
+     * @param sfpName
+     *            the path name
+     * @return the SFF names, empty if the path is unknown
+     */
+    static synchronized Set<SffName> getSffs(SfpName sfpName) {
+        load();
+        Set<SffName> sffNames = SFFS_BY_PATH.get(sfpName);
+        return sffNames == null ? Collections.emptySet() : new LinkedHashSet<>(sffNames);
+    }
+
+    /**
+     * Get the paths held by the state of the given SFF.
+     *
+     * @param sffName
+     *            the SFF name
+     * @return the path names, empty if the SFF has no state
+     */
+    static synchronized Set<SfpName> getPaths(SffName sffName) {
+        load();
+        Set<SfpName> sfpNames = PATHS_BY_SFF.get(sffName);
+        return sfpNames == null ? Collections.emptySet() : new LinkedHashSet<>(sfpNames);
+    }
+
+    /**
+     * Check whether removing the given paths from the state of a SFF would
+     * leave it without any path.
+     *
+     * @param sffName
+     *            the SFF name
+     * @param sfpNames
+     *            the paths to remove
+     * @return true if the SFF would not hold any other path
+     */
+    static synchronized boolean wouldBeEmpty(SffName sffName, Collection<SfpName> sfpNames) {
+        load();
+        Set<SfpName> sfpNamesLeft = PATHS_BY_SFF.get(sffName);
+        return sfpNamesLeft == null || sfpNames.containsAll(sfpNamesLeft);
+    }
+
+    static synchronized void removePaths(SffName sffName, Collection<SfpName> sfpNames) {
+        load();
+        Set<SfpName> sffPaths = PATHS_BY_SFF.get(sffName);
+        if (sffPaths != null) {
+            sffPaths.removeAll(sfpNames);
+            if (sffPaths.isEmpty()) {
+                PATHS_BY_SFF.remove(sffName);
+            }
+        }
+        sfpNames.forEach(sfpName -> {
+            Set<SffName> pathSffs = SFFS_BY_PATH.get(sfpName);
+            if (pathSffs != null) {
+                pathSffs.remove(sffName);
+                if (pathSffs.isEmpty()) {
+                    SFFS_BY_PATH.remove(sfpName);
+                }
+            }
+        });
+    }
+
+    static synchronized void removeSff(SffName sffName) {
+        load();
+        Set<SfpName> sffPaths = PATHS_BY_SFF.get(sffName);
+        if (sffPaths != null) {
+            removePaths(sffName, new HashSet<>(sffPaths));
+        }
+    }
+
+    /**
+     * Replace the paths held by the state of a SFF with the ones actually
+     * read from the datastore.
+     *
+     * @param sffName
+     *            the SFF name
+     * @param sfpNames
+     *            the paths read
+     */
+    static synchronized void setPaths(SffName sffName, Collection<SfpName> sfpNames) {
+        removeSff(sffName);
+        sfpNames.forEach(sfpName -> doAddPath(sffName, sfpName));
+    }
+
+    private static void doAddPath(SffName sffName, SfpName sfpName) {
+        PATHS_BY_SFF.computeIfAbsent(sffName, key -> new LinkedHashSet<>()).add(sfpName);
+        SFFS_BY_PATH.computeIfAbsent(sfpName, key -> new LinkedHashSet<>()).add(sffName);
+    }
+
+    private static void load() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+
+        ServiceFunctionForwardersState sffsState = SfcDataStoreAPI.readTransactionAPI(
+                InstanceIdentifier.create(ServiceFunctionForwardersState.class), LogicalDatastoreType.OPERATIONAL);
+        if (sffsState == null || sffsState.getServiceFunctionForwarderState() == null) {
+            return;
+        }
+
+        for (ServiceFunctionForwarderState sffState : sffsState.getServiceFunctionForwarderState()) {
+            if (sffState.getSffServicePath() != null) {
+                for (SffServicePath sffServicePath : sffState.getSffServicePath()) {
+                    doAddPath(sffState.getName(), sffServicePath.getName());
+                }
+            }
+        }
+        LOG.debug("Loaded SFF state index for {} SFFs", PATHS_BY_SFF.size());
+    }
+}
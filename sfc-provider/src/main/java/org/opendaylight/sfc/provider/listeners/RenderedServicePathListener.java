@@ -55,6 +55,13 @@ public class RenderedServicePathListener extends AbstractSyncDataTreeChangeListe
 
         LOG.info("add: RSP: {}", renderedServicePath.getName().getValue());
 
+        // RSPs created in bulk are written in the Operational Data Store
+        // before the Config Data Store, there is nothing left to do for them
+        if (SfcProviderRenderedPathAPI.isCreatedInBulk(renderedServicePath)) {
+            LOG.debug("add: RSP {} already exists in operational", renderedServicePath.getName().getValue());
+            return;
+        }
+
         ServiceFunctionPath serviceFunctionPath = SfcProviderServicePathAPI
                 .readServiceFunctionPath(renderedServicePath.getParentServiceFunctionPath());
 
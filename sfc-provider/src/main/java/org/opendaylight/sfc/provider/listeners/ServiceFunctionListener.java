@@ -19,7 +19,6 @@ import org.opendaylight.serviceutils.tools.mdsal.listener.AbstractSyncDataTreeCh
 import org.opendaylight.sfc.provider.api.SfcProviderServiceFunctionAPI;
 import org.opendaylight.sfc.provider.api.SfcProviderServicePathAPI;
 import org.opendaylight.sfc.provider.api.SfcProviderServiceTypeAPI;
-import org.opendaylight.sfc.provider.validators.util.SfcDatastoreCache;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.ServiceFunctions;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.service.function.base.SfDataPlaneLocator;
@@ -51,7 +50,6 @@ public class ServiceFunctionListener extends AbstractSyncDataTreeChangeListener<
                     @Nonnull ServiceFunction serviceFunction) {
         LOG.debug("add: storing name [{}] type [{}]", serviceFunction.getName().getValue(),
                   serviceFunction.getType().getValue());
-        SfcDatastoreCache.getSfToSfTypeCache().put(serviceFunction.getName(), serviceFunction.getType().getValue());
         if (!SfcProviderServiceTypeAPI.createServiceFunctionTypeEntry(serviceFunction)) {
             LOG.error("add:Failed to create Service Function: {}", serviceFunction.getName());
         }
@@ -62,9 +60,6 @@ public class ServiceFunctionListener extends AbstractSyncDataTreeChangeListener<
                        @Nonnull ServiceFunction serviceFunction) {
         LOG.debug("remove: Deleting Service Function: {}", serviceFunction.getName());
 
-        // delete cache
-        SfcDatastoreCache.getSfToSfTypeCache().invalidate(serviceFunction.getName());
-
         deleteSfSfps(serviceFunction);
         if (!SfcProviderServiceTypeAPI.deleteServiceFunctionTypeEntry(serviceFunction)) {
             LOG.error("remove: Failed to delete Service Function: {}", serviceFunction.getName());
@@ -81,10 +76,7 @@ public class ServiceFunctionListener extends AbstractSyncDataTreeChangeListener<
             // We only update SF type entry if type has changed
             if (!updatedServiceFunction.getType().equals(originalServiceFunction.getType())) {
                 // We remove the original SF from SF type list
-                SfcDatastoreCache.getSfToSfTypeCache().invalidate(originalServiceFunction.getName());
                 SfcProviderServiceTypeAPI.deleteServiceFunctionTypeEntry(originalServiceFunction);
-                SfcDatastoreCache.getSfToSfTypeCache()
-                        .put(updatedServiceFunction.getName(), updatedServiceFunction.getType().getValue());
                 // We create a independent entry
                 SfcProviderServiceTypeAPI.createServiceFunctionTypeEntry(updatedServiceFunction);
             }
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.provider.listeners;
+
+import java.util.function.Function;
+import javax.annotation.Nonnull;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.serviceutils.tools.mdsal.listener.AbstractSyncDataTreeChangeListener;
+import org.opendaylight.sfc.provider.api.SfcConfigCache;
+import org.opendaylight.yangtools.yang.binding.DataObject;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+
+/**
+ * This class listens to changes in a kind of SFC configuration object, and
+ * invalidates the corresponding entry of its {@link SfcConfigCache}.
+ *
+ * @param <K> the object key
+ * @param <V> the object type
+ */
+public class SfcConfigCacheListener<K, V extends DataObject> extends AbstractSyncDataTreeChangeListener<V> {
+
+    private final SfcConfigCache<K, V> sfcConfigCache;
+
+    private final Function<V, K> keyExtractor;
+
+    public SfcConfigCacheListener(DataBroker dataBroker, InstanceIdentifier<V> wildcardIdentifier,
+                                  SfcConfigCache<K, V> sfcConfigCache, Function<V, K> keyExtractor) {
+        super(dataBroker, LogicalDatastoreType.CONFIGURATION, wildcardIdentifier);
+        this.sfcConfigCache = sfcConfigCache;
+        this.keyExtractor = keyExtractor;
+    }
+
+    @Override
+    public void add(@Nonnull InstanceIdentifier<V> instanceIdentifier, @Nonnull V newDataObject) {
+        // a negative read is never cached, but an entry may have been loaded
+        // by a reader racing with the creation
+        sfcConfigCache.invalidate(keyExtractor.apply(newDataObject));
+    }
+
+    @Override
+    public void remove(@Nonnull InstanceIdentifier<V> instanceIdentifier, @Nonnull V removedDataObject) {
+        sfcConfigCache.invalidate(keyExtractor.apply(removedDataObject));
+    }
+
+    @Override
+    public void update(@Nonnull InstanceIdentifier<V> instanceIdentifier,
+                       @Nonnull V originalDataObject,
+                       @Nonnull V updatedDataObject) {
+        sfcConfigCache.invalidate(keyExtractor.apply(updatedDataObject));
+    }
+}
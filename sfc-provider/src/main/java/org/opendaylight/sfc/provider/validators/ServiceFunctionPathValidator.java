@@ -121,11 +121,9 @@ public class ServiceFunctionPathValidator {
                 String sfChainTypeName = sfChainTypes
                         .get(serviceFunctionPath.getServicePathHop().get(i).getHopNumber());
 
-                String sfTypeNameFromSFP;
-                try {
-                    sfTypeNameFromSFP = SfcDatastoreCache.getSfToSfTypeCache().get(sfName);
-                } catch (ExecutionException e) {
-                    LOG.debug("validateServiceFunctionPath - getSfToSfTypeCache failed", e);
+                String sfTypeNameFromSFP = SfcDatastoreCache.getSfType(sfName);
+                if (sfTypeNameFromSFP == null) {
+                    LOG.debug("validateServiceFunctionPath - SF {} not found", sfName.getValue());
                     throw ValidationConstants.SFP_FAILED_CAN_COMMIT_EXCEPTION_SF_MISSING;
                 }
 
@@ -29,21 +29,6 @@ import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfc.rev1407
  */
 public final class SfcDatastoreCache {
 
-    /**
-     * This cache stores the relationship between SFs and SF types.
-     */
-    private static final LoadingCache<SfName, String> SF_TO_SF_TYPE_CACHE = CacheBuilder.newBuilder().maximumSize(500)
-            .build(new CacheLoader<SfName, String>() {
-                @Override
-                public String load(SfName key) {
-                    ServiceFunction sf = SfcProviderServiceFunctionAPI.readServiceFunction(key);
-                    if (sf == null) {
-                        return null;
-                    }
-                    return sf.getType().getValue();
-                }
-            });
-
     /**
      * This cache holds the relation between SF chains and the list of SF types
      * for the chain.
@@ -69,8 +54,21 @@ public final class SfcDatastoreCache {
     private SfcDatastoreCache() {
     }
 
-    public static LoadingCache<SfName, String> getSfToSfTypeCache() {
-        return SF_TO_SF_TYPE_CACHE;
+    /**
+     * Get the type of a SF. The SF is read through
+     * {@link org.opendaylight.sfc.provider.api.SfcConfigCache}, which is kept
+     * up to date with the SF configuration.
+     *
+     * @param sfName
+     *            the SF name
+     * @return the SF type, or null if the SF does not exist
+     */
+    public static String getSfType(SfName sfName) {
+        ServiceFunction sf = SfcProviderServiceFunctionAPI.readServiceFunction(sfName);
+        if (sf == null) {
+            return null;
+        }
+        return sf.getType().getValue();
     }
 
     public static LoadingCache<SfcName, List<String>> getSfChainToSfTypeList() {
@@ -15,6 +15,7 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
@@ -32,10 +33,14 @@ import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev1
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfDataPlaneLocatorName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfcName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfpName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SftTypeName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.CreateRenderedPathsInputBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.CreateRenderedPathsOutput;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.ReadRenderedServicePathFirstHopInput;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.ReadRenderedServicePathFirstHopInputBuilder;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.ReadRenderedServicePathFirstHopOutput;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.create.rendered.paths.output.RenderedPathResult;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.RenderedServicePath;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.scf.rev140701.ServiceFunctionClassifiers;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.scf.rev140701.service.function.classifiers.ServiceFunctionClassifier;
@@ -154,6 +159,31 @@ public class SfcProviderRpcTest extends AbstractSfcRendererServicePathAPITest {
         assertFalse(result.get().getErrors().isEmpty());
     }
 
+    @Test
+    public void createRenderedPathsTest() throws Exception {
+        init();
+        SfpName unknownSfpName = new SfpName("unittest-unknown-sfp");
+
+        Future<RpcResult<CreateRenderedPathsOutput>> result = sfcProviderRpc.createRenderedPaths(
+                new CreateRenderedPathsInputBuilder()
+                        .setServiceFunctionPath(Arrays.asList(SFP_NAME, unknownSfpName, SFP_NAME)).build());
+        assertNotNull(result);
+        assertTrue(result.get().isSuccessful());
+
+        CreateRenderedPathsOutput output = result.get().getResult();
+        assertEquals(1L, output.getCreatedCount().longValue());
+        List<RenderedPathResult> results = output.getRenderedPathResult();
+        assertEquals(3, results.size());
+        assertTrue(results.get(0).isResult());
+        assertEquals(SFP_NAME, results.get(0).getServiceFunctionPath());
+        assertNotNull(SfcProviderRenderedPathAPI.readRenderedServicePath(results.get(0).getName()));
+        assertEquals(unknownSfpName, results.get(1).getServiceFunctionPath());
+        assertFalse(results.get(1).isResult());
+        assertNotNull(results.get(1).getErrorMessage());
+        assertFalse(results.get(2).isResult());
+        assertNotNull(results.get(2).getErrorMessage());
+    }
+
     @Test
     public void putServiceFunctionChainsTest() {
         PutServiceFunctionChainsInputBuilder putServiceFunctionChainsInputBuilder =
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.provider.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.sfc.provider.AbstractDataStoreManager;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SftTypeName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.ServiceFunctions;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.service.functions.ServiceFunction;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.service.functions.ServiceFunctionBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.service.functions.ServiceFunctionKey;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+
+public class SfcConfigCacheTest extends AbstractDataStoreManager {
+
+    private static final SfName SF_NAME = new SfName("unittest-cached-sf");
+
+    @Before
+    public void before() {
+        setupSfc();
+        SfcConfigCache.enableAll(10);
+    }
+
+    @After
+    public void after() {
+        SfcConfigCache.disableAll();
+    }
+
+    private static ServiceFunction buildServiceFunction(String type) {
+        return new ServiceFunctionBuilder().setName(SF_NAME).withKey(new ServiceFunctionKey(SF_NAME))
+                .setType(new SftTypeName(type)).build();
+    }
+
+    @Test
+    public void readThrough() {
+        AtomicInteger datastoreReads = new AtomicInteger();
+        ServiceFunction sf = buildServiceFunction("firewall");
+
+        for (int i = 0; i < 3; i++) {
+            assertSame(sf, SfcConfigCache.SERVICE_FUNCTIONS.read(SF_NAME, () -> {
+                datastoreReads.incrementAndGet();
+                return sf;
+            }));
+        }
+
+        assertEquals(1, datastoreReads.get());
+        assertEquals(2, SfcConfigCache.SERVICE_FUNCTIONS.getStats().hitCount());
+        assertEquals(1, SfcConfigCache.SERVICE_FUNCTIONS.getStats().missCount());
+    }
+
+    @Test
+    public void readAllBatchReadsOnlyTheMisses() {
+        SfName otherSfName = new SfName("unittest-other-cached-sf");
+        ServiceFunction sf = buildServiceFunction("firewall");
+        ServiceFunction otherSf = new ServiceFunctionBuilder().setName(otherSfName)
+                .withKey(new ServiceFunctionKey(otherSfName)).setType(new SftTypeName("dpi")).build();
+        SfcConfigCache.SERVICE_FUNCTIONS.read(SF_NAME, () -> sf);
+
+        List<Collection<SfName>> datastoreReads = new ArrayList<>();
+        Map<SfName, ServiceFunction> sfs = SfcConfigCache.SERVICE_FUNCTIONS.readAll(
+                Arrays.asList(otherSfName, SF_NAME), sfNames -> {
+                    datastoreReads.add(new ArrayList<>(sfNames));
+                    return Collections.singletonMap(otherSfName, otherSf);
+                });
+
+        assertEquals(Arrays.asList(otherSfName, SF_NAME), new ArrayList<>(sfs.keySet()));
+        assertSame(sf, sfs.get(SF_NAME));
+        assertSame(otherSf, sfs.get(otherSfName));
+        assertEquals(Collections.singletonList(Collections.singletonList(otherSfName)), datastoreReads);
+        // the misses read are cached
+        assertSame(otherSf, SfcConfigCache.SERVICE_FUNCTIONS.read(otherSfName, () -> null));
+    }
+
+    @Test
+    public void readServiceFunctionsIsServedFromTheCache() {
+        assertTrue(SfcProviderServiceFunctionAPI.putServiceFunction(buildServiceFunction("firewall")));
+        assertEquals("firewall", SfcProviderServiceFunctionAPI.readServiceFunction(SF_NAME).getType().getValue());
+        long hits = SfcConfigCache.SERVICE_FUNCTIONS.getStats().hitCount();
+
+        Map<SfName, ServiceFunction> sfs = SfcProviderServiceFunctionAPI.readServiceFunctions(
+                Arrays.asList(SF_NAME, SF_NAME));
+
+        assertEquals(1, sfs.size());
+        assertEquals("firewall", sfs.get(SF_NAME).getType().getValue());
+        assertEquals(hits + 1, SfcConfigCache.SERVICE_FUNCTIONS.getStats().hitCount());
+    }
+
+    @Test
+    public void notFoundIsNotCached() {
+        assertNull(SfcConfigCache.SERVICE_FUNCTIONS.read(SF_NAME, () -> null));
+        assertEquals(0, SfcConfigCache.SERVICE_FUNCTIONS.size());
+    }
+
+    @Test
+    public void readRacingWithInvalidationIsNotCached() {
+        ServiceFunction sf = buildServiceFunction("firewall");
+
+        SfcConfigCache.SERVICE_FUNCTIONS.read(SF_NAME, () -> {
+            SfcConfigCache.SERVICE_FUNCTIONS.invalidate(SF_NAME);
+            return sf;
+        });
+
+        assertEquals(0, SfcConfigCache.SERVICE_FUNCTIONS.size());
+    }
+
+    @Test
+    public void writeInvalidates() {
+        assertTrue(SfcProviderServiceFunctionAPI.putServiceFunction(buildServiceFunction("firewall")));
+        assertEquals("firewall", SfcProviderServiceFunctionAPI.readServiceFunction(SF_NAME).getType().getValue());
+
+        assertTrue(SfcProviderServiceFunctionAPI.putServiceFunction(buildServiceFunction("dpi")));
+        assertEquals("dpi", SfcProviderServiceFunctionAPI.readServiceFunction(SF_NAME).getType().getValue());
+    }
+
+    @Test
+    public void directDatastoreWriteInvalidates() {
+        InstanceIdentifier<ServiceFunction> sfIid = InstanceIdentifier.create(ServiceFunctions.class)
+                .child(ServiceFunction.class, new ServiceFunctionKey(SF_NAME));
+        assertTrue(SfcProviderServiceFunctionAPI.putServiceFunction(buildServiceFunction("firewall")));
+        assertEquals("firewall", SfcProviderServiceFunctionAPI.readServiceFunction(SF_NAME).getType().getValue());
+
+        // written bypassing the SF API
+        assertTrue(SfcDataStoreAPI.writeMergeTransactionAPI(sfIid, buildServiceFunction("dpi"),
+                LogicalDatastoreType.CONFIGURATION));
+        assertEquals("dpi", SfcProviderServiceFunctionAPI.readServiceFunction(SF_NAME).getType().getValue());
+
+        // an ancestor of all the SFs is deleted
+        assertTrue(SfcDataStoreAPI.deleteTransactionAPI(InstanceIdentifier.create(ServiceFunctions.class),
+                LogicalDatastoreType.CONFIGURATION));
+        assertNull(SfcProviderServiceFunctionAPI.readServiceFunction(SF_NAME));
+    }
+
+    @Test
+    public void disabled() {
+        SfcConfigCache.disableAll();
+        assertFalse(SfcConfigCache.SERVICE_FUNCTIONS.isEnabled());
+
+        AtomicInteger datastoreReads = new AtomicInteger();
+        ServiceFunction sf = buildServiceFunction("firewall");
+        for (int i = 0; i < 2; i++) {
+            SfcConfigCache.SERVICE_FUNCTIONS.read(SF_NAME, () -> {
+                datastoreReads.incrementAndGet();
+                return sf;
+            });
+        }
+
+        assertEquals(2, datastoreReads.get());
+    }
+}
@@ -9,21 +9,27 @@
 package org.opendaylight.sfc.provider.api;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfcName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfpName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.path.first.hop.info.RenderedServicePathFirstHop;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.RenderedServicePath;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.rendered.service.path.RenderedServicePathHop;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfp.rev140701.service.function.paths.ServiceFunctionPath;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfp.rev140701.service.function.paths.ServiceFunctionPathBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfp.rev140701.service.function.paths.ServiceFunctionPathKey;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfp.rev140701.service.function.paths.state.service.function.path.state.SfpRenderedServicePath;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sl.rev140701.Mac;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sl.rev140701.Mpls;
@@ -371,4 +377,75 @@ public class SfcProviderRenderedPathAPITest extends AbstractSfcRendererServicePa
                 .createRenderedServicePathInConfig(serviceFunctionPath, RSP2_NAME.getValue());
         assertNotNull(configRsp2);
     }
+    private static ServiceFunctionPath buildServiceFunctionPath(ServiceFunctionPath serviceFunctionPath,
+                                                                String sfpName) {
+        return new ServiceFunctionPathBuilder(serviceFunctionPath).setName(new SfpName(sfpName))
+                .withKey(new ServiceFunctionPathKey(new SfpName(sfpName))).build();
+    }
+
+    /*
+     * Test that the RSPs of several SFPs are created at once, along with their symmetric RSPs and state
+     */
+    @Test
+    public void testCreateRenderedServicePathsInConfig() {
+        init();
+
+        ServiceFunctionPath serviceFunctionPath = SfcProviderServicePathAPI.readServiceFunctionPath(SFP_NAME);
+        assertNotNull(serviceFunctionPath);
+        ServiceFunctionPath serviceFunctionPath2 = buildServiceFunctionPath(serviceFunctionPath, "unittest-sfp-2");
+        ServiceFunctionPath unknownChainPath = new ServiceFunctionPathBuilder(
+                buildServiceFunctionPath(serviceFunctionPath, "unittest-sfp-3"))
+                .setServiceChainName(new SfcName("unittest-unknown-chain")).build();
+
+        List<RenderedServicePath> rsps = SfcProviderRenderedPathAPI.createRenderedServicePathsInConfig(
+                Arrays.asList(serviceFunctionPath, unknownChainPath, serviceFunctionPath2));
+        assertEquals(3, rsps.size());
+        assertNotNull(rsps.get(0));
+        assertNull(rsps.get(1));
+        assertNotNull(rsps.get(2));
+
+        // The path ids are allocated in a block
+        assertEquals(rsps.get(0).getPathId().longValue() + 1, rsps.get(2).getPathId().longValue());
+
+        for (RenderedServicePath rsp : Arrays.asList(rsps.get(0), rsps.get(2))) {
+            assertNotNull(SfcProviderRenderedPathAPI.readRenderedServicePath(rsp.getName(),
+                    LogicalDatastoreType.CONFIGURATION));
+            assertNotNull(SfcProviderRenderedPathAPI.readRenderedServicePath(rsp.getName()));
+            // The RSP listener is told once that the operational RSP exists
+            assertTrue(SfcProviderRenderedPathAPI.isCreatedInBulk(rsp));
+            assertFalse(SfcProviderRenderedPathAPI.isCreatedInBulk(rsp));
+
+            // The SFPs are symmetric
+            RenderedServicePath revRsp = SfcProviderRenderedPathAPI.readRenderedServicePath(
+                    SfcProviderRenderedPathAPI.generateReversedPathName(rsp.getName()));
+            assertNotNull(revRsp);
+            assertEquals(rsp.getSymmetricPathId(), revRsp.getPathId());
+            assertNotNull(SfcProviderRenderedPathAPI.readRenderedServicePath(revRsp.getName(),
+                    LogicalDatastoreType.CONFIGURATION));
+        }
+
+        List<SfpRenderedServicePath> sfpRenderedServicePathList = SfcProviderServicePathAPI
+                .readServicePathState(SFP_NAME);
+        assertNotNull(sfpRenderedServicePathList);
+        assertEquals(2, sfpRenderedServicePathList.size());
+    }
+
+    /*
+     * Test that a Service Function with OneChainOnly set True is only used by one of the RSPs created at once
+     */
+    @Test
+    public void testCreateRenderedServicePathsInConfigOneChainSfTrue() {
+        initSfsOneChainOnly(true);
+        initSffs();
+        initSfcs();
+        initSfps();
+
+        ServiceFunctionPath serviceFunctionPath = SfcProviderServicePathAPI.readServiceFunctionPath(SFP_NAME);
+        assertNotNull(serviceFunctionPath);
+
+        List<RenderedServicePath> rsps = SfcProviderRenderedPathAPI.createRenderedServicePathsInConfig(
+                Arrays.asList(serviceFunctionPath, buildServiceFunctionPath(serviceFunctionPath, "unittest-sfp-2")));
+        assertNotNull(rsps.get(0));
+        assertNull(rsps.get(1));
+    }
 }
@@ -42,6 +42,7 @@ import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev14070
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.service.functions.ServiceFunctionKey;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.Open;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.ServiceFunctionForwarders;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.ServiceFunctionForwardersState;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarder.base.SffDataPlaneLocator;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarder.base.SffDataPlaneLocatorBuilder;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarder.base.SffDataPlaneLocatorKey;
@@ -54,7 +55,11 @@ import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev1407
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.service.function.forwarder.ServiceFunctionDictionaryKey;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.service.function.forwarder.service.function.dictionary.SffSfDataPlaneLocator;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.service.function.forwarder.service.function.dictionary.SffSfDataPlaneLocatorBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.state.ServiceFunctionForwarderState;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.state.ServiceFunctionForwarderStateKey;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.state.service.function.forwarder.state.SffServicePath;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.state.service.function.forwarder.state.SffServicePathBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.state.service.function.forwarder.state.SffServicePathKey;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfp.rev140701.service.function.paths.ServiceFunctionPathBuilder;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sl.rev140701.VxlanGpe;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sl.rev140701.data.plane.locator.locator.type.IpBuilder;
@@ -243,6 +248,11 @@ public class SfcProviderServiceForwarderAPISimpleTest extends AbstractDataStoreM
                 .deletePathFromServiceForwarderState(serviceFunctionPathBuilder.build());
         assertTrue("Must be true", transactionSuccessful);
 
+        // the other paths are kept
+        sffServicePaths = SfcProviderServiceForwarderAPI.readSffState(sff);
+        assertNotNull("Must be not null", sffServicePaths);
+        assertEquals("Must be equal", sffServicePaths.size(), 3);
+
         // remove path 2 via rendered service path name
         transactionSuccessful = SfcProviderServiceForwarderAPI.deletePathFromServiceForwarderState(rsp2);
         assertTrue("Must be true", transactionSuccessful);
@@ -265,6 +275,35 @@ public class SfcProviderServiceForwarderAPISimpleTest extends AbstractDataStoreM
         assertTrue("Must be true", transactionSuccessful);
     }
 
+    /*
+     * a path written to the SFF state by someone else than the SFF API is not
+     * known to the SFF state index, and must survive the deletion of the last
+     * path the index knows
+     */
+    @Test
+    public void testDeletePathKeepsPathsWrittenElsewhere() {
+        SffName sff = new SffName("sff");
+        RspName rsp1 = new RspName("rsp1");
+        SfpName otherPath = new SfpName("other-path");
+
+        assertTrue(SfcProviderServiceForwarderAPI
+                .addPathToServiceForwarderState(createRenderedServicePath(rsp1, sff, (short) 1)));
+        InstanceIdentifier<SffServicePath> otherPathIID = InstanceIdentifier
+                .builder(ServiceFunctionForwardersState.class)
+                .child(ServiceFunctionForwarderState.class, new ServiceFunctionForwarderStateKey(sff))
+                .child(SffServicePath.class, new SffServicePathKey(otherPath)).build();
+        assertTrue(SfcDataStoreAPI.writePutTransactionAPI(otherPathIID,
+                new SffServicePathBuilder().setName(otherPath).withKey(new SffServicePathKey(otherPath)).build(),
+                LogicalDatastoreType.OPERATIONAL));
+
+        assertTrue(SfcProviderServiceForwarderAPI.deletePathFromServiceForwarderState(rsp1));
+
+        List<SffServicePath> sffServicePaths = SfcProviderServiceForwarderAPI.readSffState(sff);
+        assertNotNull(sffServicePaths);
+        assertEquals(1, sffServicePaths.size());
+        assertEquals(otherPath, sffServicePaths.get(0).getName());
+    }
+
     @Test
     public void testPutServiceFunctionForwarderExecutor() {
         ServiceFunctionForwarderBuilder sffBuilder = new ServiceFunctionForwarderBuilder();
@@ -14,6 +14,7 @@ import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ExecutionException;
 import org.junit.Before;
 import org.junit.Test;
@@ -184,6 +185,13 @@ public class SfcProviderServiceFunctionAPITest extends AbstractDataStoreManager
         List<SfDataPlaneLocator> dataPlaneLocatorList2 = new ArrayList<>();
         dataPlaneLocatorList2.add(sfDataPlaneLocator[1]);
         assertEquals("Must be equal", sf2.getSfDataPlaneLocator(), dataPlaneLocatorList2);
+
+        // batched read, including a missing SF
+        List<SfName> sfNamesToRead = new ArrayList<>(sfName);
+        sfNamesToRead.add(new SfName("unittest-missing"));
+        Map<SfName, ServiceFunction> sfs = SfcProviderServiceFunctionAPI.readServiceFunctions(sfNamesToRead);
+        assertEquals("Must be equal", sfName, new ArrayList<>(sfs.keySet()));
+        assertEquals("Must be equal", list, new ArrayList<>(sfs.values()));
     }
 
     /*
@@ -16,6 +16,7 @@ import static org.junit.Assert.assertTrue;
 import java.util.Arrays;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
+import java.util.List;
 import org.junit.Before;
 import org.junit.Test;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.service.path.id.rev150804.GenerationAlgorithmEnum;
@@ -169,4 +170,56 @@ public class SfcServicePathIdTest extends AbstractSfcRendererServicePathAPITest
             assertTrue(SfcServicePathId.freePathId(pathId));
         }
     }
+    @Test
+    public void testAllocatePathIdBlock() throws Exception {
+        final int numPathIds = 100;
+        assertTrue(SfcServicePathId.allocatePathId(2));
+
+        // The block starts after the path-id already allocated
+        final long firstPathId = SfcServicePathId.allocatePathIdBlock(numPathIds);
+        assertEquals(3, firstPathId);
+        for (long pathId = firstPathId; pathId < firstPathId + numPathIds; ++pathId) {
+            assertFalse(SfcServicePathId.checkSuitablePathId(pathId));
+        }
+        assertTrue(SfcServicePathId.checkSuitablePathId(firstPathId + numPathIds));
+
+        // There are not that many path-ids
+        assertEquals(-1, SfcServicePathId.allocatePathIdBlock(5000));
+
+        for (long pathId = firstPathId; pathId < firstPathId + numPathIds; ++pathId) {
+            assertTrue(SfcServicePathId.freePathId(pathId));
+        }
+        assertTrue(SfcServicePathId.freePathId(2));
+    }
+
+    @Test
+    public void testCheckAndAllocatePathIds() throws Exception {
+        List<Long> pathIds = SfcServicePathId.checkAndAllocatePathIds(Arrays.asList(10L, 64L, 10L));
+        assertEquals(Arrays.asList(10L, 64L, -1L), pathIds);
+        assertFalse(SfcServicePathId.checkSuitablePathId(10));
+        assertFalse(SfcServicePathId.checkSuitablePathId(64));
+        assertTrue(SfcServicePathId.freePathId(10));
+        assertTrue(SfcServicePathId.freePathId(64));
+    }
+
+    @Test
+    public void testCheckAndAllocateSymmetricPathIds() throws Exception {
+        SfcServicePathId.setGenerationAlgorithm(GenerationAlgorithmEnum.Random);
+        List<Long> symmetricPathIds = SfcServicePathId.checkAndAllocateSymmetricPathIds(Arrays.asList(0L, 63L));
+        assertEquals(Arrays.asList(8388608L, 8388671L), symmetricPathIds);
+        for (Long pathId : symmetricPathIds) {
+            assertFalse(SfcServicePathId.checkSuitablePathId(pathId));
+            assertTrue(SfcServicePathId.freePathId(pathId));
+        }
+
+        // The sequential algorithm allocates the symmetric path-ids in a block
+        SfcServicePathId.setGenerationAlgorithm(GenerationAlgorithmEnum.Sequential);
+        final long firstPathId = SfcServicePathId.allocatePathIdBlock(2);
+        symmetricPathIds = SfcServicePathId.checkAndAllocateSymmetricPathIds(Arrays.asList(firstPathId,
+                firstPathId + 1));
+        assertEquals(Arrays.asList(firstPathId + 2, firstPathId + 3), symmetricPathIds);
+        for (long pathId = firstPathId; pathId < firstPathId + 4; ++pathId) {
+            assertTrue(SfcServicePathId.freePathId(pathId));
+        }
+    }
 }
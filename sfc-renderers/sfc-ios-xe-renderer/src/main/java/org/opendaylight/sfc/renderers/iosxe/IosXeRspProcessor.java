@@ -13,23 +13,41 @@ import static org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.rsp.manager.r
 import static org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.rsp.manager.rev160421.renderer.path.states.renderer.path.state.configured.rendered.paths.ConfiguredRenderedPath.PathStatus.Success;
 
 import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.sfc.provider.api.SfcProviderRenderedPathAPI;
 import org.opendaylight.sfc.provider.api.SfcProviderServiceForwarderAPI;
 import org.opendaylight.sfc.provider.api.SfcProviderServiceFunctionAPI;
 import org.opendaylight.sfc.renderers.iosxe.utils.IosXeDataStoreAPI;
+import org.opendaylight.sfc.renderers.iosxe.utils.IosXeDeviceWritePipeline;
 import org.opendaylight.sfc.renderers.iosxe.utils.RspStatus;
 import org.opendaylight.sfc.renderers.iosxe.utils.SfcIosXeUtils;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.RspName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SffName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.RenderedServicePath;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.rendered.service.path.RenderedServicePathHop;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.service.functions.ServiceFunction;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.ServiceFunctionForwarder;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.IpAddress;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Ipv4Address;
 import org.opendaylight.yang.gen.v1.urn.ios.rev160308._native.service.chain.ServicePath;
@@ -45,169 +63,271 @@ import org.opendaylight.yang.gen.v1.urn.ios.rev160308._native.service.chain.serv
 import org.opendaylight.yang.gen.v1.urn.ios.rev160308._native.service.chain.service.path.config.service.chain.path.mode.service.index.services.service.type.choice.ServiceFunctionBuilder;
 import org.opendaylight.yang.gen.v1.urn.ios.rev160308._native.service.chain.service.path.config.service.chain.path.mode.service.index.services.service.type.choice.ServiceFunctionForwarderBuilder;
 import org.opendaylight.yang.gen.v1.urn.ios.rev160308._native.service.chain.service.path.config.service.chain.path.mode.service.index.services.service.type.choice.TerminateBuilder;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.NodeId;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 @Singleton
-public class IosXeRspProcessor {
+public class IosXeRspProcessor implements NodeManager.NodeStateListener {
 
     private static final Logger LOG = LoggerFactory.getLogger(IosXeRspProcessor.class);
 
     private final DataBroker dataBroker;
     private final NodeManager nodeManager;
+    private final IosXeDeviceWritePipeline pipeline;
+    // RSPs to render once the device with the management IP connects
+    private final Map<IpAddress, Set<RspName>> waitingRsps = new ConcurrentHashMap<>();
 
     @Inject
     public IosXeRspProcessor(DataBroker dataBroker, NodeManager nodeManager) {
+        this(dataBroker, nodeManager, IosXeDeviceWritePipeline.getInstance());
+    }
+
+    public IosXeRspProcessor(DataBroker dataBroker, NodeManager nodeManager, IosXeDeviceWritePipeline pipeline) {
         this.dataBroker = Preconditions.checkNotNull(dataBroker);
         this.nodeManager = Preconditions.checkNotNull(nodeManager);
+        this.pipeline = Preconditions.checkNotNull(pipeline);
+    }
+
+    /**
+     * Start rendering the waiting RSPs once their devices connect. Not done
+     * by the constructor, so that the node manager never sees a processor
+     * not fully constructed.
+     */
+    @PostConstruct
+    public void init() {
+        nodeManager.registerListener(this);
+    }
+
+    @PreDestroy
+    public void close() {
+        nodeManager.unregisterListener(this);
     }
 
     public void updateRsp(RenderedServicePath renderedServicePath) {
+        Preconditions.checkNotNull(renderedServicePath);
         // Set status
         RspStatus status = new RspStatus(dataBroker, renderedServicePath.getName());
         status.writeStatus(InProgress);
 
-        Preconditions.checkNotNull(renderedServicePath);
+        String rspName = renderedServicePath.getName().getValue();
+        stopWaiting(renderedServicePath.getName());
         Long pathId = renderedServicePath.getPathId();
-
-        DataBroker previousMountPoint;
-        DataBroker currentMountpoint;
-        SffName previousSffName;
-        SffName currentSffName;
-        if (renderedServicePath.getRenderedServicePathHop() == null
-                || renderedServicePath.getRenderedServicePathHop().isEmpty()) {
-            LOG.warn("Rendered path {} does not contain any hop", renderedServicePath.getName().getValue());
+        List<RenderedServicePathHop> hops = renderedServicePath.getRenderedServicePathHop();
+        if (hops == null || hops.isEmpty()) {
+            LOG.warn("Rendered path {} does not contain any hop", rspName);
             status.writeStatus(Failure);
             return;
         }
-        Iterator<RenderedServicePathHop> rspHopIterator = renderedServicePath.getRenderedServicePathHop().iterator();
-        // Proceed first hop in Rsp. Service Type choice for first hop is always
-        // Service Function
-        RenderedServicePathHop hop = rspHopIterator.next();
-        currentSffName = hop.getServiceFunctionForwarder();
-        currentMountpoint = getSffMountpoint(currentSffName);
-        if (currentMountpoint == null) {
-            LOG.error("Resolving of RSP {} failed, mountpoint for SFF {} is null",
-                    renderedServicePath.getName().getValue(), currentSffName.getValue());
-            deleteRsp(renderedServicePath);
-            status.writeStatus(Failure);
-            return;
+
+        // Read all the SFs and SFFs of the path at once
+        Map<SfName, ServiceFunction> serviceFunctions = SfcProviderServiceFunctionAPI.readServiceFunctions(
+                hops.stream().map(RenderedServicePathHop::getServiceFunctionName).collect(Collectors.toList()));
+        for (RenderedServicePathHop hop : hops) {
+            if (!serviceFunctions.containsKey(hop.getServiceFunctionName())) {
+                LOG.error("Service function {} not present in datastore", hop.getServiceFunctionName().getValue());
+                status.writeStatus(Failure);
+                return;
+            }
         }
-        // New list of services has to be created every time new mountpoint is
-        // created
-        List<Services> services = new ArrayList<>();
-        SfName sfName = hop.getServiceFunctionName();
-        ServiceFunction serviceFunction = SfcProviderServiceFunctionAPI.readServiceFunction(sfName);
-        if (serviceFunction == null) {
-            LOG.error("Service function {} not present in datastore", sfName.getValue());
-            return;
+        Map<SffName, ServiceFunctionForwarder> forwarders = readForwarders(hops);
+
+        // Resolve the mountpoint of each SFF once
+        Map<SffName, DataBroker> mountpoints = new HashMap<>();
+        for (Map.Entry<SffName, ServiceFunctionForwarder> forwarder : forwarders.entrySet()) {
+            DataBroker mountpoint = nodeManager.getMountpointFromSffName(forwarder.getKey());
+            IpAddress sffMgmtIp = null;
+            if (mountpoint == null) {
+                sffMgmtIp = getSffMgmtIp(forwarder.getKey(), forwarder.getValue());
+                mountpoint = sffMgmtIp == null ? null : nodeManager.getMountpointFromIpAddress(sffMgmtIp);
+            }
+            if (mountpoint == null) {
+                LOG.error("Resolving of RSP {} failed, mountpoint for SFF {} is null", rspName,
+                        forwarder.getKey().getValue());
+                deleteRsp(renderedServicePath);
+                status.writeStatus(Failure);
+                if (sffMgmtIp != null) {
+                    // Device not connected (yet), render the RSP again once it is
+                    waitFor(sffMgmtIp, renderedServicePath.getName());
+                }
+                return;
+            }
+            mountpoints.put(forwarder.getKey(), mountpoint);
         }
-        ServiceTypeChoice serviceTypeChoice = buildServiceFunctionChoice(serviceFunction);
+
+        // Group the service entries and the remote forwarders of the path by
+        // device. Service Type choice for first hop is always Service Function
+        Map<DataBroker, List<Services>> servicesByDevice = new LinkedHashMap<>();
+        Map<DataBroker, Map<SffName, ServiceFfName>> remoteForwardersByDevice = new HashMap<>();
         short serviceIndex = renderedServicePath.getStartingIndex().shortValue();
-        Services serviceEntry = createServicesEntry(serviceIndex, serviceTypeChoice);
-        services.add(serviceEntry);
-        serviceIndex--;
-        while (rspHopIterator.hasNext()) {
-            hop = rspHopIterator.next();
-            // Find out whether next hop SF is connected to the same SFF
-            previousSffName = currentSffName;
-            currentSffName = hop.getServiceFunctionForwarder();
-            if (previousSffName.equals(currentSffName)) {
-                // Next hop SF is on the same local SFF/node as the previous one
-                sfName = hop.getServiceFunctionName();
-                serviceFunction = SfcProviderServiceFunctionAPI.readServiceFunction(sfName);
-                if (serviceFunction == null) {
-                    LOG.error("Service function {} not present in datastore", sfName.getValue());
-                    return;
-                }
-                serviceTypeChoice = buildServiceFunctionChoice(serviceFunction);
-                serviceEntry = createServicesEntry(serviceIndex, serviceTypeChoice);
-                services.add(serviceEntry);
-                serviceIndex--;
-            } else {
-                // Next hop SF is on different node. Store previous SFF and its
-                // mountpoint
-                previousMountPoint = currentMountpoint;
-                currentSffName = hop.getServiceFunctionForwarder();
-                currentMountpoint = getSffMountpoint(currentSffName);
-                if (currentMountpoint == null) {
-                    LOG.error("Resolving of RSP {} failed, mountpoint for SFF {} is null",
-                            renderedServicePath.getName().getValue(), currentSffName.getValue());
-                    deleteRsp(renderedServicePath);
-                    status.writeStatus(Failure);
-                    return;
-                }
-                // Write current SFF to previous SFF node as remote
-                ServiceFfName currentRemoteForwarder = SfcIosXeUtils.createRemoteForwarder(currentSffName);
+        SffName previousSffName = null;
+        for (RenderedServicePathHop hop : hops) {
+            SffName currentSffName = hop.getServiceFunctionForwarder();
+            if (previousSffName != null && !previousSffName.equals(currentSffName)) {
+                // Next hop SF is on different node. Write current SFF to
+                // previous SFF node as remote
+                DataBroker previousMountpoint = mountpoints.get(previousSffName);
+                ServiceFfName currentRemoteForwarder = SfcIosXeUtils.createRemoteForwarder(currentSffName,
+                        forwarders.get(currentSffName));
                 if (currentRemoteForwarder == null) {
                     LOG.error("SFF {} ip address is null", currentSffName.getValue());
                     deleteRsp(renderedServicePath);
                     status.writeStatus(Failure);
                     return;
                 }
-                new IosXeDataStoreAPI(previousMountPoint, currentRemoteForwarder,
-                                      IosXeDataStoreAPI.Transaction.WRITE_REMOTE, LogicalDatastoreType.CONFIGURATION)
-                        .call();
+                remoteForwardersByDevice.computeIfAbsent(previousMountpoint, device -> new LinkedHashMap<>())
+                        .put(currentSffName, currentRemoteForwarder);
                 // Create last service entry to previous node which sends
                 // traffic to current node
-                serviceTypeChoice = buildServiceFunctionForwarderChoice(currentSffName.getValue());
-                serviceEntry = createServicesEntry(serviceIndex, serviceTypeChoice);
-                services.add(serviceEntry);
-                // List of services completed for last mountpoint, create
-                // service path entries and write it
-                ServicePath servicePath = createServicePath(pathId, services);
-                new IosXeDataStoreAPI(previousMountPoint, servicePath, IosXeDataStoreAPI.Transaction.WRITE_PATH,
-                                      LogicalDatastoreType.CONFIGURATION).call();
-                // Start with new services list
-                services = new ArrayList<>();
-                sfName = hop.getServiceFunctionName();
-                serviceFunction = SfcProviderServiceFunctionAPI.readServiceFunction(sfName);
-                if (serviceFunction == null) {
-                    LOG.error("Service function {} not present in datastore", sfName.getValue());
-                    return;
-                }
-                serviceTypeChoice = buildServiceFunctionChoice(serviceFunction);
-                serviceEntry = createServicesEntry(serviceIndex, serviceTypeChoice);
-                services.add(serviceEntry);
-                serviceIndex--;
+                servicesByDevice.computeIfAbsent(previousMountpoint, device -> new ArrayList<>())
+                        .add(createServicesEntry(serviceIndex,
+                                buildServiceFunctionForwarderChoice(currentSffName.getValue())));
             }
+            ServiceTypeChoice serviceTypeChoice = buildServiceFunctionChoice(
+                    serviceFunctions.get(hop.getServiceFunctionName()));
+            servicesByDevice.computeIfAbsent(mountpoints.get(currentSffName), device -> new ArrayList<>())
+                    .add(createServicesEntry(serviceIndex, serviceTypeChoice));
+            serviceIndex--;
+            previousSffName = currentSffName;
         }
-        // Proceed last entry (it's the same hop as the previous one using same
-        // mountpoint and list of services)
+        // Proceed last entry (it's on the same mountpoint as the last hop)
         // Service Type choice is always Terminate
-        serviceTypeChoice = buildTerminateChoice();
-        serviceEntry = createServicesEntry(serviceIndex, serviceTypeChoice);
-        services.add(serviceEntry);
-        // List of services completed for last mountpoint, create last service
-        // path entries and write it
-        ServicePath servicePath = createServicePath(pathId, services);
-        new IosXeDataStoreAPI(currentMountpoint, servicePath, IosXeDataStoreAPI.Transaction.WRITE_PATH,
-                              LogicalDatastoreType.CONFIGURATION).call();
-        LOG.info("Rendered service path {} successfully processed", renderedServicePath.getName().getValue());
-        status.writeStatus(Success);
+        servicesByDevice.get(mountpoints.get(previousSffName))
+                .add(createServicesEntry(serviceIndex, buildTerminateChoice()));
+
+        // One transaction per device, the devices are written in parallel and
+        // the status once they all completed
+        List<ListenableFuture<Boolean>> writes = new ArrayList<>();
+        servicesByDevice.forEach((mountpoint, services) -> {
+            IosXeDeviceWritePipeline.Batch batch = pipeline.batch(mountpoint);
+            remoteForwardersByDevice.getOrDefault(mountpoint, Collections.emptyMap()).values()
+                    .forEach(remoteForwarder -> batch.merge(LogicalDatastoreType.CONFIGURATION,
+                            SfcIosXeUtils.createRemoteSffIid(remoteForwarder), remoteForwarder));
+            ServicePath servicePath = createServicePath(pathId, services);
+            writes.add(batch.merge(LogicalDatastoreType.CONFIGURATION,
+                    SfcIosXeUtils.createServicePathIid(servicePath.key()), servicePath).submit());
+        });
+        Futures.addCallback(Futures.allAsList(writes), new FutureCallback<List<Boolean>>() {
+            @Override
+            public void onSuccess(List<Boolean> results) {
+                if (results.contains(false)) {
+                    LOG.error("Rendered service path {} could not be written to all its devices", rspName);
+                    status.writeStatus(Failure);
+                } else {
+                    LOG.info("Rendered service path {} successfully processed on {} devices", rspName,
+                            results.size());
+                    status.writeStatus(Success);
+                }
+            }
+
+            @Override
+            public void onFailure(Throwable throwable) {
+                LOG.error("Rendered service path {} could not be written", rspName, throwable);
+                status.writeStatus(Failure);
+            }
+        }, MoreExecutors.directExecutor());
     }
 
     public void deleteRsp(RenderedServicePath renderedServicePath) {
-        boolean success = true;
+        stopWaiting(renderedServicePath.getName());
         long pathId = renderedServicePath.getPathId();
+        List<RenderedServicePathHop> hops = renderedServicePath.getRenderedServicePathHop();
+        if (hops == null || hops.isEmpty()) {
+            return;
+        }
+
+        // The service path is deleted once from each device, however many
+        // hops it has there
+        Set<DataBroker> devices = new LinkedHashSet<>();
+        boolean resolved = true;
+        for (Map.Entry<SffName, ServiceFunctionForwarder> forwarder : readForwarders(hops).entrySet()) {
+            DataBroker mountpoint = getSffMountpoint(forwarder.getKey(), forwarder.getValue());
+            if (mountpoint == null) {
+                resolved = false;
+            } else {
+                devices.add(mountpoint);
+            }
+        }
+
         ServicePathKey servicePathKey = new ServicePathKey(pathId);
-        for (RenderedServicePathHop renderedServicePathHop : renderedServicePath.getRenderedServicePathHop()) {
-            SffName sffName = renderedServicePathHop.getServiceFunctionForwarder();
-            DataBroker sffDataBroker = getSffMountpoint(sffName);
-            boolean transaction = (boolean) new IosXeDataStoreAPI(sffDataBroker, servicePathKey,
-                                                                  IosXeDataStoreAPI.Transaction.DELETE_PATH,
-                                                                  LogicalDatastoreType.CONFIGURATION).call();
-            if (!transaction) {
-                success = false;
+        List<ListenableFuture<Boolean>> deletes = new ArrayList<>();
+        for (DataBroker mountpoint : devices) {
+            deletes.add(new IosXeDataStoreAPI(mountpoint, servicePathKey, IosXeDataStoreAPI.Transaction.DELETE_PATH,
+                                              LogicalDatastoreType.CONFIGURATION, pipeline).submit());
+        }
+        boolean allResolved = resolved;
+        Futures.addCallback(Futures.allAsList(deletes), new FutureCallback<List<Boolean>>() {
+            @Override
+            public void onSuccess(List<Boolean> results) {
+                if (allResolved && !results.contains(false)) {
+                    LOG.info("Service path {} removed", pathId);
+                } else {
+                    LOG.error("Failed to remove service path {}", pathId);
+                }
+            }
+
+            @Override
+            public void onFailure(Throwable throwable) {
+                LOG.error("Failed to remove service path {}", pathId, throwable);
+            }
+        }, MoreExecutors.directExecutor());
+    }
+
+    @Override
+    public void onNodeStateChanged(NodeId nodeId, IpAddress ipAddress, NodeManager.NodeState state) {
+        if (state != NodeManager.NodeState.CONNECTED || ipAddress == null) {
+            return;
+        }
+        renderWaitingRsps(ipAddress, "Node " + nodeId.getValue());
+    }
+
+    /* Render the RSPs waiting for a device, each RSP is taken by a single caller */
+    private void renderWaitingRsps(IpAddress ipAddress, String reason) {
+        Set<RspName> rspNames = waitingRsps.remove(ipAddress);
+        if (rspNames == null) {
+            return;
+        }
+        for (RspName waitingRspName : rspNames) {
+            RenderedServicePath renderedServicePath = SfcProviderRenderedPathAPI
+                    .readRenderedServicePath(waitingRspName, LogicalDatastoreType.CONFIGURATION);
+            if (renderedServicePath != null) {
+                LOG.info("{} connected, rendering waiting RSP {}", reason, waitingRspName.getValue());
+                updateRsp(renderedServicePath);
             }
         }
-        if (success) {
-            LOG.info("Service path {} removed", pathId);
-        } else {
-            LOG.error("Failed to remove service path {}", pathId);
+    }
+
+    private void waitFor(IpAddress ipAddress, RspName rspName) {
+        waitingRsps.compute(ipAddress, (ip, rspNames) -> {
+            Set<RspName> waiting = rspNames == null ? new HashSet<>() : rspNames;
+            waiting.add(rspName);
+            return waiting;
+        });
+        // The device may have connected since its mountpoint was looked up,
+        // before the RSP was waiting for it: check again once it is
+        if (nodeManager.getMountpointFromIpAddress(ipAddress) != null) {
+            renderWaitingRsps(ipAddress, "Device " + ipAddress.getIpv4Address().getValue());
         }
     }
 
+    private void stopWaiting(RspName rspName) {
+        waitingRsps.keySet().forEach(ipAddress -> waitingRsps.computeIfPresent(ipAddress, (ip, rspNames) -> {
+            rspNames.remove(rspName);
+            return rspNames.isEmpty() ? null : rspNames;
+        }));
+    }
+
+    /* Read the SFFs of the hops, in path order, null for the ones not found */
+    private Map<SffName, ServiceFunctionForwarder> readForwarders(List<RenderedServicePathHop> hops) {
+        List<SffName> sffNames = hops.stream().map(RenderedServicePathHop::getServiceFunctionForwarder).distinct()
+                .collect(Collectors.toList());
+        Map<SffName, ServiceFunctionForwarder> found = SfcProviderServiceForwarderAPI
+                .readServiceFunctionForwarders(sffNames);
+        Map<SffName, ServiceFunctionForwarder> forwarders = new LinkedHashMap<>();
+        sffNames.forEach(sffName -> forwarders.put(sffName, found.get(sffName)));
+        return forwarders;
+    }
+
     private ServiceTypeChoice buildServiceFunctionForwarderChoice(String sffName) {
         ServiceFunctionForwarderBuilder serviceFunctionForwarderBuilder = new ServiceFunctionForwarderBuilder();
         serviceFunctionForwarderBuilder.setServiceFunctionForwarder(sffName);
@@ -246,11 +366,16 @@ public class IosXeRspProcessor {
         return servicesBuilder.build();
     }
 
-    private DataBroker getSffMountpoint(SffName sffName) {
-        // Read SFF from Controller CONF
-        org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701
-            .service.function.forwarders.ServiceFunctionForwarder sfcForwarder = SfcProviderServiceForwarderAPI
-                .readServiceFunctionForwarder(sffName);
+    private DataBroker getSffMountpoint(SffName sffName, ServiceFunctionForwarder sfcForwarder) {
+        DataBroker mountpoint = nodeManager.getMountpointFromSffName(sffName);
+        if (mountpoint != null) {
+            return mountpoint;
+        }
+        IpAddress sffMgmtIp = getSffMgmtIp(sffName, sfcForwarder);
+        return sffMgmtIp == null ? null : nodeManager.getMountpointFromIpAddress(sffMgmtIp);
+    }
+
+    private IpAddress getSffMgmtIp(SffName sffName, ServiceFunctionForwarder sfcForwarder) {
         if (sfcForwarder == null) {
             LOG.error("SFF name {} not found in data store", sffName.getValue());
             return null;
@@ -260,7 +385,6 @@ public class IosXeRspProcessor {
             LOG.error("Unable to obtain management IP for SFF {}", sffName.getValue());
             return null;
         }
-        return nodeManager
-                .getMountpointFromIpAddress(new IpAddress(new Ipv4Address(sffMgmtIp.getIpv4Address().getValue())));
+        return new IpAddress(new Ipv4Address(sffMgmtIp.getIpv4Address().getValue()));
     }
 }
@@ -21,7 +21,6 @@ import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev1407
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sl.rev140701.data.plane.locator.LocatorType;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sl.rev140701.data.plane.locator.locator.type.Ip;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.IpAddress;
-import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.Node;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -45,56 +44,49 @@ public class IosXeServiceForwarderMapper {
                         forwarder.getName().getValue());
                 continue;
             }
-            // Find appropriate node for SFF
-            for (Node netconfNode : nodeManager.getConnectedNodes().values()) {
-                IpAddress netconfNodeIp = nodeManager.getNetconfNodeIp(netconfNode);
-                if (netconfNodeIp.equals(forwarderMgmtIp)) {
-                    // Find the right mountpoint
-                    DataBroker mountPoint = nodeManager.getActiveMountPoints()
-                            .get(netconfNode.getNodeId());
-                    if (mountPoint != null) {
-                        for (SffDataPlaneLocator forwarderDpl : forwarder.getSffDataPlaneLocator()) {
-                            DataPlaneLocator dpl = forwarderDpl.getDataPlaneLocator();
-                            LocatorType locatorType = dpl.getLocatorType();
-                            Ip sffIp = null;
-                            if (locatorType instanceof Ip) {
-                                LOG.debug("IP locator found: {} ", locatorType);
-                                sffIp = (Ip) locatorType;
-                            }
-                            if (sffIp != null && sffIp.getIp() != null) {
-                                IpAddress ipAddress = sffIp.getIp();
-                                // Create/remove local SFF
-                                org.opendaylight.yang.gen.v1.urn.ios.rev160308._native.service.chain
-                                    .ServiceFunctionForwarder localForwarder =
-                                    SfcIosXeUtils.createLocalForwarder(ipAddress);
-                                if (localForwarder != null && !delete) {
-                                    IosXeDataStoreAPI writeServiceFunction =
-                                            new IosXeDataStoreAPI(mountPoint, localForwarder.getLocal(),
-                                                                  IosXeDataStoreAPI.Transaction.WRITE_LOCAL,
-                                                                  LogicalDatastoreType.CONFIGURATION);
-                                    Object result = writeServiceFunction.call();
-                                    if (Boolean.TRUE.equals(result)) {
-                                        LOG.info("Local forwarder with ip {} created on node {}",
-                                                forwarder.getIpMgmtAddress().toString(),
-                                                netconfNode.getNodeId().getValue());
-                                    }
-                                }
-                                if (localForwarder != null && delete) {
-                                    IosXeDataStoreAPI writeServiceFunction =
-                                            new IosXeDataStoreAPI(mountPoint, localForwarder.getLocal(),
-                                                                  IosXeDataStoreAPI.Transaction.DELETE_LOCAL,
-                                                                  LogicalDatastoreType.CONFIGURATION);
-                                    Object result = writeServiceFunction.call();
-                                    if (Boolean.TRUE.equals(result)) {
-                                        LOG.info("Local forwarder removed from node {}", netconfNode.getNodeId()
-                                                .getValue());
-                                    }
-                                }
-                            }
-                        }
-                    }
+            if (forwarder.getName() != null) {
+                if (delete) {
+                    nodeManager.unbindForwarder(forwarder.getName());
                 } else {
-                    LOG.warn("Node not found for SFF {}", forwarder.getName());
+                    nodeManager.bindForwarder(forwarder.getName(), forwarderMgmtIp);
+                }
+            }
+            // Find the mountpoint of the node with the management IP
+            DataBroker mountPoint = nodeManager.getMountpointFromIpAddress(forwarderMgmtIp);
+            if (mountPoint == null) {
+                LOG.warn("Node not found for SFF {}", forwarder.getName());
+                continue;
+            }
+            for (SffDataPlaneLocator forwarderDpl : forwarder.getSffDataPlaneLocator()) {
+                DataPlaneLocator dpl = forwarderDpl.getDataPlaneLocator();
+                LocatorType locatorType = dpl.getLocatorType();
+                Ip sffIp = null;
+                if (locatorType instanceof Ip) {
+                    LOG.debug("IP locator found: {} ", locatorType);
+                    sffIp = (Ip) locatorType;
+                }
+                if (sffIp != null && sffIp.getIp() != null) {
+                    IpAddress ipAddress = sffIp.getIp();
+                    // Create/remove local SFF
+                    org.opendaylight.yang.gen.v1.urn.ios.rev160308._native.service.chain
+                        .ServiceFunctionForwarder localForwarder = SfcIosXeUtils.createLocalForwarder(ipAddress);
+                    if (localForwarder != null && !delete) {
+                        IosXeDataStoreAPI writeServiceFunction =
+                                new IosXeDataStoreAPI(mountPoint, localForwarder.getLocal(),
+                                                      IosXeDataStoreAPI.Transaction.WRITE_LOCAL,
+                                                      LogicalDatastoreType.CONFIGURATION);
+                        SfcIosXeUtils.onCommitted(writeServiceFunction.submit(),
+                            () -> LOG.info("Local forwarder with ip {} created on node {}", ipAddress,
+                                    forwarderMgmtIp));
+                    }
+                    if (localForwarder != null && delete) {
+                        IosXeDataStoreAPI writeServiceFunction =
+                                new IosXeDataStoreAPI(mountPoint, localForwarder.getLocal(),
+                                                      IosXeDataStoreAPI.Transaction.DELETE_LOCAL,
+                                                      LogicalDatastoreType.CONFIGURATION);
+                        SfcIosXeUtils.onCommitted(writeServiceFunction.submit(),
+                            () -> LOG.info("Local forwarder removed from node {}", forwarderMgmtIp));
+                    }
                 }
             }
         }
@@ -27,7 +27,6 @@ import org.opendaylight.yang.gen.v1.urn.ios.rev160308._native.service.chain.Serv
 import org.opendaylight.yang.gen.v1.urn.ios.rev160308._native.service.chain.ServiceFunctionKey;
 import org.opendaylight.yang.gen.v1.urn.ios.rev160308._native.service.chain.service.function.ConfigServiceChainSfModeBuilder;
 import org.opendaylight.yang.gen.v1.urn.ios.rev160308._native.service.chain.service.function.config.service.chain.sf.mode.IpBuilder;
-import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.Node;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -51,42 +50,31 @@ public class IosXeServiceFunctionMapper {
                          function.getName().getValue());
                 continue;
             }
-            // Find appropriate node for SFF
-            for (Node netconfNode : nodeManager.getConnectedNodes().values()) {
-                IpAddress netconfNodeIp = nodeManager.getNetconfNodeIp(netconfNode);
-                if (netconfNodeIp.equals(forwarderMgmtIp)) {
-                    // Find the right mountpoint
-                    DataBroker mountPoint = nodeManager.getActiveMountPoints().get(netconfNode.getNodeId());
-                    if (mountPoint != null && !delete) {
-                        org.opendaylight.yang.gen.v1.urn.ios.rev160308._native.service.chain.ServiceFunction
-                                serviceFunction = createNetconfServiceFunction(function);
-                        if (serviceFunction != null) {
-                            IosXeDataStoreAPI writeServiceFunction =
-                                    new IosXeDataStoreAPI(mountPoint, serviceFunction,
-                                                          IosXeDataStoreAPI.Transaction.WRITE_FUNCTION,
-                                                          LogicalDatastoreType.CONFIGURATION);
-                            Object result = writeServiceFunction.call();
-                            if (Boolean.TRUE.equals(result)) {
-                                LOG.info("Service function {} created on node {}", serviceFunction.getName(),
-                                         netconfNode.getNodeId().getValue());
-                            }
-                        }
-                    }
-                    if (mountPoint != null && delete) {
-                        org.opendaylight.yang.gen.v1.urn.ios.rev160308._native.service.chain.ServiceFunction
-                                serviceFunction = createNetconfServiceFunction(function);
-                        if (serviceFunction != null) {
-                            IosXeDataStoreAPI writeServiceFunction =
-                                    new IosXeDataStoreAPI(mountPoint, serviceFunction.key(),
-                                                          IosXeDataStoreAPI.Transaction.DELETE_FUNCTION,
-                                                                                           LogicalDatastoreType
-                                                                                                   .CONFIGURATION);
-                            Object result = writeServiceFunction.call();
-                            if (Boolean.TRUE.equals(result)) {
-                                LOG.info("Service function {} removed", serviceFunction.getName());
-                            }
-                        }
-                    }
+            // Find the mountpoint of the node with the management IP
+            DataBroker mountPoint = nodeManager.getMountpointFromIpAddress(forwarderMgmtIp);
+            if (mountPoint != null && !delete) {
+                org.opendaylight.yang.gen.v1.urn.ios.rev160308._native.service.chain.ServiceFunction
+                        serviceFunction = createNetconfServiceFunction(function);
+                if (serviceFunction != null) {
+                    IosXeDataStoreAPI writeServiceFunction =
+                            new IosXeDataStoreAPI(mountPoint, serviceFunction,
+                                                  IosXeDataStoreAPI.Transaction.WRITE_FUNCTION,
+                                                  LogicalDatastoreType.CONFIGURATION);
+                    SfcIosXeUtils.onCommitted(writeServiceFunction.submit(),
+                        () -> LOG.info("Service function {} created on node {}", serviceFunction.getName(),
+                                       forwarderMgmtIp));
+                }
+            }
+            if (mountPoint != null && delete) {
+                org.opendaylight.yang.gen.v1.urn.ios.rev160308._native.service.chain.ServiceFunction
+                        serviceFunction = createNetconfServiceFunction(function);
+                if (serviceFunction != null) {
+                    IosXeDataStoreAPI writeServiceFunction =
+                            new IosXeDataStoreAPI(mountPoint, serviceFunction.key(),
+                                                  IosXeDataStoreAPI.Transaction.DELETE_FUNCTION,
+                                                  LogicalDatastoreType.CONFIGURATION);
+                    SfcIosXeUtils.onCommitted(writeServiceFunction.submit(),
+                        () -> LOG.info("Service function {} removed", serviceFunction.getName()));
                 }
             }
         }
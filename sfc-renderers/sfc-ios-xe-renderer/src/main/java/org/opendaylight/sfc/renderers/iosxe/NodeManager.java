@@ -12,15 +12,20 @@ import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Collectors;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.md.sal.binding.api.MountPoint;
 import org.opendaylight.controller.md.sal.binding.api.MountPointService;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SffName;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.IpAddress;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.NetconfNode;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.NetconfNodeConnectionStatus.ConnectionStatus;
@@ -37,18 +42,67 @@ import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Registry of the IOS-XE netconf nodes known to SFC.
+ *
+ * <p>
+ * Nodes are written by the node listener while RSP and SF/SFF processing read
+ * them, so the registry is thread safe. Each node moves through explicit
+ * {@link NodeState} transitions, applied atomically per node; the mountpoints
+ * of the connected nodes are indexed by management IP and the SFFs bound to a
+ * management IP can be resolved by name. {@link NodeStateListener}s are told
+ * about every transition, e.g. to render the RSPs waiting on a device once it
+ * connects.
+ */
 @Singleton
 public class NodeManager {
 
     private static final Logger LOG = LoggerFactory.getLogger(NodeManager.class);
 
+    /**
+     * Connection state of a netconf node.
+     */
+    public enum NodeState {
+        /** Reported connected, but its mountpoint is not available yet. */
+        CONNECTING,
+        /** Connected with an active mountpoint. */
+        CONNECTED,
+        /** Disconnected or removed, not registered anymore. */
+        DISCONNECTED
+    }
+
+    /**
+     * Listener of the node state transitions. Called on the thread which
+     * applied the transition, after it was applied.
+     */
+    public interface NodeStateListener {
+        void onNodeStateChanged(NodeId nodeId, IpAddress ipAddress, NodeState state);
+    }
+
+    /* Immutable state of a registered node */
+    private static final class NodeEntry {
+        private final Node node;
+        private final IpAddress ipAddress;
+        private final DataBroker mountpoint;
+        private final NodeState state;
+
+        NodeEntry(Node node, IpAddress ipAddress, DataBroker mountpoint, NodeState state) {
+            this.node = node;
+            this.ipAddress = ipAddress;
+            this.mountpoint = mountpoint;
+            this.state = state;
+        }
+    }
+
     private final MountPointService mountService;
     private final TopologyId topologyId = new TopologyId("topology-netconf");
     private List<String> requiredCapabilities = new ArrayList<>();
 
     // Data
-    private final Map<NodeId, Node> connectedNodes = new HashMap<>();
-    private final Map<NodeId, DataBroker> activeMountPoints = new HashMap<>();
+    private final Map<NodeId, NodeEntry> nodes = new ConcurrentHashMap<>();
+    private final Map<IpAddress, NodeId> nodeIdsByIp = new ConcurrentHashMap<>();
+    private final Map<SffName, IpAddress> forwarderIps = new ConcurrentHashMap<>();
+    private final List<NodeStateListener> listeners = new CopyOnWriteArrayList<>();
 
     @Inject
     public NodeManager(DataBroker dataBroker, MountPointService mountService) {
@@ -63,37 +117,87 @@ public class NodeManager {
         // Check connection status
         ConnectionStatus connectionStatus = netconfNode.getConnectionStatus();
         NodeId netconfNodeId = node.getNodeId();
-        if (connectionStatus.equals(ConnectionStatus.Connected)) {
-            connectedNodes.put(netconfNodeId, node);
+        if (ConnectionStatus.Connected.equals(connectionStatus)) {
             // Get mountpoint
             InstanceIdentifier mountPointIid = getMountPointIid(netconfNodeId);
             DataBroker dataBroker = getNetconfNodeDataBroker(mountPointIid);
             if (dataBroker != null) {
                 LOG.info("Node {} registered by SFC", node.getNodeId().getValue());
-                activeMountPoints.put(netconfNodeId, dataBroker);
+                transition(netconfNodeId, new NodeEntry(node, getHostIp(netconfNode), dataBroker,
+                        NodeState.CONNECTED));
             } else {
                 LOG.debug("Cannot obtain data broker for netconf node {}", netconfNodeId.getValue());
-                connectedNodes.remove(netconfNodeId);
+                transition(netconfNodeId, new NodeEntry(node, getHostIp(netconfNode), null, NodeState.CONNECTING));
             }
+        } else {
+            transition(netconfNodeId, null);
         }
     }
 
     public void removeNode(Node node) {
         NetconfNode netconfNode = node.augmentation(NetconfNode.class);
         Preconditions.checkNotNull(netconfNode);
-        ConnectionStatus connectionStatus = netconfNode.getConnectionStatus();
         NodeId netconfNodeId = node.getNodeId();
-        switch (connectionStatus) {
-            case Connected:
-                connectedNodes.remove(netconfNodeId);
-                activeMountPoints.remove(netconfNodeId);
-                LOG.info("Netconf node {} removed", netconfNodeId.getValue());
-                break;
-            default:
-                break;
+        if (transition(netconfNodeId, null)) {
+            LOG.info("Netconf node {} removed", netconfNodeId.getValue());
+        }
+    }
+
+    /*
+     * Replace the entry of a node, null to unregister it, and keep the IP
+     * index in line. The index is updated within the atomic compute of the
+     * node, so concurrent transitions of a node cannot leave it stale. The
+     * listeners are told once the transition is applied.
+     */
+    private boolean transition(NodeId nodeId, NodeEntry next) {
+        NodeEntry[] previous = new NodeEntry[1];
+        nodes.compute(nodeId, (id, current) -> {
+            previous[0] = current;
+            if (current != null && current.ipAddress != null
+                    && (next == null || !current.ipAddress.equals(next.ipAddress))) {
+                nodeIdsByIp.remove(current.ipAddress, id);
+            }
+            if (next != null && next.ipAddress != null) {
+                if (next.state == NodeState.CONNECTED) {
+                    nodeIdsByIp.put(next.ipAddress, id);
+                } else {
+                    nodeIdsByIp.remove(next.ipAddress, id);
+                }
+            }
+            return next;
+        });
+        NodeState previousState = previous[0] == null ? NodeState.DISCONNECTED : previous[0].state;
+        NodeState nextState = next == null ? NodeState.DISCONNECTED : next.state;
+        if (previousState == nextState && (next == null || previous[0].mountpoint == next.mountpoint
+                && Objects.equals(previous[0].ipAddress, next.ipAddress))) {
+            return false;
+        }
+        IpAddress ipAddress = next != null ? next.ipAddress : previous[0].ipAddress;
+        LOG.debug("Node {} moved from {} to {}", nodeId.getValue(), previousState, nextState);
+        for (NodeStateListener listener : listeners) {
+            notifyListener(listener, nodeId, ipAddress, nextState);
+        }
+        return true;
+    }
+
+    // a failing listener must not prevent the others, nor the node listener, from proceeding
+    @SuppressWarnings("checkstyle:IllegalCatch")
+    private void notifyListener(NodeStateListener listener, NodeId nodeId, IpAddress ipAddress, NodeState state) {
+        try {
+            listener.onNodeStateChanged(nodeId, ipAddress, state);
+        } catch (RuntimeException e) {
+            LOG.warn("Node state listener {} failed on node {}", listener, nodeId.getValue(), e);
         }
     }
 
+    public void registerListener(NodeStateListener listener) {
+        listeners.add(Preconditions.checkNotNull(listener));
+    }
+
+    public void unregisterListener(NodeStateListener listener) {
+        listeners.remove(listener);
+    }
+
     public boolean isCapableNetconfDevice(Node node) {
         NetconfNode netconfAugmentation = node.augmentation(NetconfNode.class);
         if (netconfAugmentation == null) {
@@ -143,12 +247,29 @@ public class NodeManager {
     }
 
     public DataBroker getMountpointFromIpAddress(IpAddress ipAddress) {
-        for (Node node : connectedNodes.values()) {
-            if (ipAddress.equals(getNetconfNodeIp(node))) {
-                return activeMountPoints.get(node.getNodeId());
-            }
-        }
-        return null;
+        NodeId nodeId = ipAddress == null ? null : nodeIdsByIp.get(ipAddress);
+        NodeEntry entry = nodeId == null ? null : nodes.get(nodeId);
+        return entry != null && entry.state == NodeState.CONNECTED ? entry.mountpoint : null;
+    }
+
+    /**
+     * Bind a service function forwarder to the management IP of its node.
+     */
+    public void bindForwarder(SffName sffName, IpAddress ipAddress) {
+        forwarderIps.put(sffName, ipAddress);
+    }
+
+    public void unbindForwarder(SffName sffName) {
+        forwarderIps.remove(sffName);
+    }
+
+    public DataBroker getMountpointFromSffName(SffName sffName) {
+        return getMountpointFromIpAddress(forwarderIps.get(sffName));
+    }
+
+    public NodeState getNodeState(NodeId nodeId) {
+        NodeEntry entry = nodes.get(nodeId);
+        return entry == null ? NodeState.DISCONNECTED : entry.state;
     }
 
     public IpAddress getNetconfNodeIp(Node node) {
@@ -157,11 +278,33 @@ public class NodeManager {
         return netconfNode.getHost().getIpAddress();
     }
 
+    private static IpAddress getHostIp(NetconfNode netconfNode) {
+        return netconfNode.getHost() == null ? null : netconfNode.getHost().getIpAddress();
+    }
+
+    /**
+     * Snapshot of the connected nodes.
+     */
     public Map<NodeId, Node> getConnectedNodes() {
-        return connectedNodes;
+        Map<NodeId, Node> connectedNodes = new HashMap<>();
+        nodes.forEach((nodeId, entry) -> {
+            if (entry.state == NodeState.CONNECTED) {
+                connectedNodes.put(nodeId, entry.node);
+            }
+        });
+        return Collections.unmodifiableMap(connectedNodes);
     }
 
+    /**
+     * Snapshot of the mountpoints of the connected nodes.
+     */
     public Map<NodeId, DataBroker> getActiveMountPoints() {
-        return activeMountPoints;
+        Map<NodeId, DataBroker> activeMountPoints = new HashMap<>();
+        nodes.forEach((nodeId, entry) -> {
+            if (entry.state == NodeState.CONNECTED) {
+                activeMountPoints.put(nodeId, entry.mountpoint);
+            }
+        });
+        return Collections.unmodifiableMap(activeMountPoints);
     }
 }
@@ -8,17 +8,13 @@
 
 package org.opendaylight.sfc.renderers.iosxe.utils;
 
-import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
-import com.google.common.util.concurrent.CheckedFuture;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
-import org.opendaylight.controller.md.sal.binding.api.ReadTransaction;
-import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
-import org.opendaylight.controller.md.sal.common.api.data.ReadFailedException;
-import org.opendaylight.controller.md.sal.common.api.data.TransactionCommitFailedException;
-import org.opendaylight.netconf.api.NetconfDocumentedException;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SffName;
 import org.opendaylight.yang.gen.v1.urn.ios.rev160308._native.service.chain.ServiceFunction;
@@ -32,7 +28,13 @@ import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-
+/**
+ * A read, write or delete of IOS-XE service chain data on a device.
+ *
+ * <p>
+ * {@link #submit()} hands the transaction to the device write pipeline and
+ * returns at once; {@link #call()} waits for it.
+ */
 public class IosXeDataStoreAPI implements Callable {
 
     private static final Logger LOG = LoggerFactory.getLogger(IosXeDataStoreAPI.class);
@@ -41,6 +43,7 @@ public class IosXeDataStoreAPI implements Callable {
     private final Object data;
     private final Transaction currentTransaction;
     private final LogicalDatastoreType datastoreType;
+    private final IosXeDeviceWritePipeline pipeline;
 
     public enum Transaction {
         WRITE_FUNCTION, READ_FUNCTION, DELETE_FUNCTION,
@@ -51,14 +54,51 @@ public class IosXeDataStoreAPI implements Callable {
 
     public IosXeDataStoreAPI(DataBroker mountPoint, Object data, Transaction transaction,
                              LogicalDatastoreType datastoreType) {
+        this(mountPoint, data, transaction, datastoreType, IosXeDeviceWritePipeline.getInstance());
+    }
+
+    public IosXeDataStoreAPI(DataBroker mountPoint, Object data, Transaction transaction,
+                             LogicalDatastoreType datastoreType, IosXeDeviceWritePipeline pipeline) {
         this.mountpoint = mountPoint;
         this.data = data;
         currentTransaction = transaction;
         this.datastoreType = datastoreType;
+        this.pipeline = Preconditions.checkNotNull(pipeline);
     }
 
+    /**
+     * Wait for the transaction.
+     *
+     * @return for a write or delete, whether it was committed; for a read,
+     *         the data read or null.
+     */
     @Override
     public Object call() {
+        try {
+            return submit().get();
+        } catch (InterruptedException e) {
+            LOG.error("Thread interrupted while waiting for {} transaction", currentTransaction, e);
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            LOG.error("{} transaction failed", currentTransaction, e);
+        }
+        return null;
+    }
+
+    /**
+     * Submit the transaction without waiting for it. Writes and deletes to
+     * the same device are merged into the transactions of the device write
+     * pipeline.
+     *
+     * @return future of, for a write or delete, whether it was committed;
+     *         for a read, the data read or null.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> ListenableFuture<T> submit() {
+        return (ListenableFuture<T>) submitTransaction();
+    }
+
+    private ListenableFuture<?> submitTransaction() {
         switch (currentTransaction) {
             case WRITE_FUNCTION: {
                 try {
@@ -185,135 +225,19 @@ public class IosXeDataStoreAPI implements Callable {
             default:
                 break;
         }
-        return null;
+        return Futures.immediateFuture(null);
     }
 
-    @SuppressWarnings("checkstyle:IllegalCatch")
-    private <U extends DataObject> boolean writeMergeTransaction(InstanceIdentifier<U> addIID, U dataObject) {
-        long timeout = 5000L;
-        int attempt = 0;
-        WriteTransaction transaction = null;
-        do {
-            attempt++;
-            try {
-                transaction = mountpoint.newWriteOnlyTransaction();
-            } catch (RuntimeException e) {
-                if (e.getCause().getClass().equals(NetconfDocumentedException.class)) {
-                    LOG.warn("NetconfDocumentedException thrown, retrying ({})...", attempt, e.getCause());
-                    try {
-                        Thread.sleep(timeout);
-                        timeout += 1000L;
-                    } catch (InterruptedException i) {
-                        LOG.error("Thread interrupted while waiting ... {} ", i);
-                    }
-                } else {
-                    LOG.error("Runtime exception ...", e);
-                }
-            }
-        }
-        while (attempt <= 5 && transaction == null);
-        if (transaction == null) {
-            LOG.error("Maximum number of attempts reached");
-            return false;
-        }
-        try {
-            transaction.merge(Preconditions.checkNotNull(datastoreType), addIID, dataObject);
-            CheckedFuture<Void, TransactionCommitFailedException> submitFuture = transaction.submit();
-            submitFuture.checkedGet();
-            return true;
-        } catch (TransactionCommitFailedException e) {
-            LOG.error("Write transaction failed", e);
-            return false;
-        } catch (Exception e) {
-            LOG.error("Write transaction failed", e);
-            return false;
-        }
+    private <U extends DataObject> ListenableFuture<Boolean> writeMergeTransaction(InstanceIdentifier<U> addIID,
+                                                                                   U dataObject) {
+        return pipeline.merge(mountpoint, datastoreType, addIID, dataObject);
     }
 
-    @SuppressWarnings("checkstyle:IllegalCatch")
-    private <U extends DataObject> boolean deleteTransaction(InstanceIdentifier<U> deleteIID) {
-        long timeout = 5000L;
-        int attempt = 0;
-        WriteTransaction transaction = null;
-        do {
-            attempt++;
-            try {
-                transaction = mountpoint.newWriteOnlyTransaction();
-            } catch (RuntimeException e) {
-                if (e.getCause() != null && e.getCause().getClass().equals(NetconfDocumentedException.class)) {
-                    LOG.warn("NetconfDocumentedException thrown, retrying ({})...", attempt, e.getCause());
-                    try {
-                        Thread.sleep(timeout);
-                        timeout += 1000L;
-                    } catch (InterruptedException i) {
-                        LOG.error("Thread interrupted while waiting ... {} ", i);
-                    }
-                } else {
-                    LOG.error("Runtime exception ...", e);
-                }
-            }
-        }
-        while (attempt <= 5 && transaction == null);
-        if (transaction == null) {
-            LOG.error("Maximum number of attempts reached");
-            return false;
-        }
-        try {
-            transaction.delete(Preconditions.checkNotNull(datastoreType), deleteIID);
-            CheckedFuture<Void, TransactionCommitFailedException> submitFuture = transaction.submit();
-            submitFuture.checkedGet();
-            return true;
-        } catch (TransactionCommitFailedException e) {
-            LOG.error("Delete transaction failed", e);
-            return false;
-        } catch (Exception e) {
-            LOG.error("Delete transaction failed", e);
-            return false;
-        }
+    private <U extends DataObject> ListenableFuture<Boolean> deleteTransaction(InstanceIdentifier<U> deleteIID) {
+        return pipeline.delete(mountpoint, datastoreType, deleteIID);
     }
 
-    @SuppressWarnings("checkstyle:IllegalCatch")
-    private <U extends DataObject> U readTransaction(InstanceIdentifier<U> readIID) {
-        long timeout = 5000L;
-        int attempt = 0;
-        ReadTransaction transaction = null;
-        do {
-            attempt++;
-            try {
-                transaction = mountpoint.newReadOnlyTransaction();
-            } catch (RuntimeException e) {
-                if (e.getCause().getClass().equals(NetconfDocumentedException.class)) {
-                    LOG.warn("NetconfDocumentedException thrown, retrying ({})...", attempt, e.getCause());
-                    try {
-                        Thread.sleep(timeout);
-                        timeout += 1000L;
-                    } catch (InterruptedException i) {
-                        LOG.error("Thread interrupted while waiting ... {} ", i);
-                    }
-                } else {
-                    LOG.error("Runtime exception ...", e);
-                }
-            }
-        }
-        while (attempt <= 5 && transaction == null);
-        if (transaction == null) {
-            LOG.error("Maximum number of attempts reached");
-            return null;
-        }
-        try {
-            CheckedFuture<Optional<U>, ReadFailedException> submitFuture =
-                    transaction.read(Preconditions.checkNotNull(datastoreType), readIID);
-            Optional<U> optional = submitFuture.checkedGet();
-            if (optional != null && optional.isPresent()) {
-                return optional.get();
-            } else {
-                LOG.debug("Failed to read. {}", Thread.currentThread().getStackTrace()[1]);
-            }
-        } catch (ReadFailedException e) {
-            LOG.warn("Read transaction failed", e);
-        } catch (Exception e) {
-            LOG.error("Read transaction failed", e);
-        }
-        return null;
+    private <U extends DataObject> ListenableFuture<U> readTransaction(InstanceIdentifier<U> readIID) {
+        return pipeline.read(mountpoint, datastoreType, readIID);
     }
 }
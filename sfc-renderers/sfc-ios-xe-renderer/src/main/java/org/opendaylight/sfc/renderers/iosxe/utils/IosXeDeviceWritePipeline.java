@@ -0,0 +1,438 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.renderers.iosxe.utils;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.binding.api.ReadOnlyTransaction;
+import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.netconf.api.NetconfDocumentedException;
+import org.opendaylight.yangtools.yang.binding.DataObject;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Asynchronous pipeline of the reads and writes to the IOS-XE devices.
+ *
+ * <p>
+ * Each device mountpoint has its own write queue and at most one write
+ * transaction in flight: the writes queued meanwhile are merged into the next
+ * transaction of the device, in order, and succeed or fail together. Callers
+ * get a future and are never blocked: the transactions are written on a
+ * shared scheduler, never on the caller thread.
+ *
+ * <p>
+ * When a mountpoint refuses a new transaction with a NETCONF error, the
+ * transaction is retried later on a shared scheduler, with a backoff growing
+ * each attempt, instead of sleeping in the caller. A flapping device thus
+ * only delays its own queue.
+ */
+public final class IosXeDeviceWritePipeline implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(IosXeDeviceWritePipeline.class);
+
+    public static final long DEFAULT_INITIAL_BACKOFF_MS = 5000L;
+    public static final long DEFAULT_BACKOFF_STEP_MS = 1000L;
+    public static final int DEFAULT_MAX_ATTEMPTS = 6;
+    private static final int SCHEDULER_THREADS = 2;
+
+    private static final IosXeDeviceWritePipeline INSTANCE = new IosXeDeviceWritePipeline(newScheduler(),
+            DEFAULT_INITIAL_BACKOFF_MS, DEFAULT_BACKOFF_STEP_MS, DEFAULT_MAX_ATTEMPTS);
+
+    private final ScheduledExecutorService scheduler;
+    private final long initialBackoffMillis;
+    private final long backoffStepMillis;
+    private final int maxAttempts;
+    private final ConcurrentMap<DataBroker, DeviceQueue> deviceQueues = new ConcurrentHashMap<>();
+    private final LongAdder transactionCount = new LongAdder();
+    private final LongAdder writeCount = new LongAdder();
+    private final LongAdder retryCount = new LongAdder();
+
+    /**
+     * Create a pipeline.
+     *
+     * @param scheduler
+     *            the executor running the retries and the queued
+     *            transactions
+     * @param initialBackoffMillis
+     *            the delay before the first retry of a transaction
+     * @param backoffStepMillis
+     *            the delay added before each further retry
+     * @param maxAttempts
+     *            the maximum number of attempts to get a transaction
+     */
+    public IosXeDeviceWritePipeline(ScheduledExecutorService scheduler, long initialBackoffMillis,
+                                    long backoffStepMillis, int maxAttempts) {
+        this.scheduler = Preconditions.checkNotNull(scheduler);
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.backoffStepMillis = backoffStepMillis;
+        this.maxAttempts = maxAttempts;
+    }
+
+    public static IosXeDeviceWritePipeline getInstance() {
+        return INSTANCE;
+    }
+
+    private static ScheduledExecutorService newScheduler() {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(SCHEDULER_THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "sfc-ios-xe-device-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+
+    /**
+     * Queue a merge to a device.
+     *
+     * @return future of whether the transaction containing the merge was
+     *         committed, never failing.
+     */
+    public <U extends DataObject> ListenableFuture<Boolean> merge(DataBroker mountpoint,
+            LogicalDatastoreType datastoreType, InstanceIdentifier<U> iid, U dataObject) {
+        Preconditions.checkNotNull(datastoreType);
+        return enqueue(mountpoint, transaction -> transaction.merge(datastoreType, iid, dataObject));
+    }
+
+    /**
+     * Queue a delete to a device.
+     *
+     * @return future of whether the transaction containing the delete was
+     *         committed, never failing.
+     */
+    public <U extends DataObject> ListenableFuture<Boolean> delete(DataBroker mountpoint,
+            LogicalDatastoreType datastoreType, InstanceIdentifier<U> iid) {
+        Preconditions.checkNotNull(datastoreType);
+        return enqueue(mountpoint, transaction -> transaction.delete(datastoreType, iid));
+    }
+
+    /**
+     * Start a batch of writes to a device, queued as a whole.
+     *
+     * @param mountpoint
+     *            the device mountpoint
+     * @return an empty batch
+     */
+    public Batch batch(DataBroker mountpoint) {
+        return new Batch(mountpoint);
+    }
+
+    /**
+     * Read from a device. Reads are not queued behind the writes of the
+     * device.
+     *
+     * @return future of the data read, null if not present or the read
+     *         failed; never failing.
+     */
+    public <U extends DataObject> ListenableFuture<U> read(DataBroker mountpoint, LogicalDatastoreType datastoreType,
+                                                           InstanceIdentifier<U> iid) {
+        Preconditions.checkNotNull(datastoreType);
+        if (mountpoint == null) {
+            LOG.error("Read transaction failed, device mountpoint is null");
+            return Futures.immediateFuture(null);
+        }
+        SettableFuture<U> result = SettableFuture.create();
+        read(mountpoint, datastoreType, iid, result, 1, initialBackoffMillis);
+        return result;
+    }
+
+    public int getQueuedCount(DataBroker mountpoint) {
+        DeviceQueue deviceQueue = deviceQueues.get(mountpoint);
+        if (deviceQueue == null) {
+            return 0;
+        }
+        synchronized (deviceQueue) {
+            return deviceQueue.pending.size();
+        }
+    }
+
+    public long getTransactionCount() {
+        return transactionCount.sum();
+    }
+
+    public long getWriteCount() {
+        return writeCount.sum();
+    }
+
+    public long getRetryCount() {
+        return retryCount.sum();
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        LOG.info("{}", this);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("IOS-XE device write pipeline: devices=%d transactions=%d writes=%d retries=%d",
+                deviceQueues.size(), getTransactionCount(), getWriteCount(), getRetryCount());
+    }
+
+    private ListenableFuture<Boolean> enqueue(DataBroker mountpoint, Consumer<WriteTransaction> write) {
+        if (mountpoint == null) {
+            LOG.error("Write transaction failed, device mountpoint is null");
+            return Futures.immediateFuture(false);
+        }
+        Operation operation = new Operation(write);
+        writeCount.increment();
+        while (true) {
+            DeviceQueue deviceQueue = deviceQueues.computeIfAbsent(mountpoint, DeviceQueue::new);
+            boolean idle;
+            synchronized (deviceQueue) {
+                if (deviceQueue.removed) {
+                    continue;
+                }
+                deviceQueue.pending.add(operation);
+                idle = !deviceQueue.busy;
+                deviceQueue.busy = true;
+            }
+            // Nothing in flight for this device, the write is handed to the
+            // scheduler at once rather than written on the caller thread
+            if (idle && !schedule(() -> drain(deviceQueue, 1, initialBackoffMillis), 0)) {
+                complete(deviceQueue, takeBatch(deviceQueue), false);
+            }
+            return operation.result;
+        }
+    }
+
+    /* Write all the queued operations of a device in one transaction */
+    // A write failure fails the batch, whatever it throws
+    @SuppressWarnings("checkstyle:IllegalCatch")
+    private void drain(DeviceQueue deviceQueue, int attempt, long backoffMillis) {
+        WriteTransaction transaction;
+        try {
+            transaction = deviceQueue.mountpoint.newWriteOnlyTransaction();
+        } catch (RuntimeException e) {
+            if (isNetconfException(e) && attempt < maxAttempts) {
+                LOG.warn("NetconfDocumentedException thrown, retrying ({}) in {}ms...", attempt, backoffMillis,
+                        e.getCause());
+                retryCount.increment();
+                if (!schedule(() -> drain(deviceQueue, attempt + 1, backoffMillis + backoffStepMillis),
+                        backoffMillis)) {
+                    complete(deviceQueue, takeBatch(deviceQueue), false);
+                }
+            } else {
+                LOG.error("Unable to get a write transaction after {} attempts", attempt, e);
+                complete(deviceQueue, takeBatch(deviceQueue), false);
+            }
+            return;
+        }
+
+        List<Operation> batch = takeBatch(deviceQueue);
+        ListenableFuture<Void> submitFuture;
+        try {
+            batch.forEach(operation -> operation.write.accept(transaction));
+            submitFuture = Preconditions.checkNotNull(transaction.submit());
+        } catch (RuntimeException e) {
+            LOG.error("Write transaction failed", e);
+            transaction.cancel();
+            complete(deviceQueue, batch, false);
+            return;
+        }
+        transactionCount.increment();
+
+        Futures.addCallback(submitFuture, new FutureCallback<Void>() {
+            @Override
+            public void onSuccess(Void result) {
+                complete(deviceQueue, batch, true);
+            }
+
+            @Override
+            public void onFailure(Throwable throwable) {
+                LOG.error("Write transaction failed", throwable);
+                complete(deviceQueue, batch, false);
+            }
+        }, MoreExecutors.directExecutor());
+    }
+
+    private List<Operation> takeBatch(DeviceQueue deviceQueue) {
+        synchronized (deviceQueue) {
+            List<Operation> batch = new ArrayList<>(deviceQueue.pending);
+            deviceQueue.pending.clear();
+            return batch;
+        }
+    }
+
+    /* Complete a batch and go on with the next one, off the commit thread of the device */
+    private void complete(DeviceQueue deviceQueue, List<Operation> batch, boolean committed) {
+        boolean scheduled = schedule(() -> {
+            batch.forEach(operation -> operation.result.set(committed));
+            if (!release(deviceQueue)) {
+                drain(deviceQueue, 1, initialBackoffMillis);
+            }
+        }, 0);
+        if (!scheduled) {
+            // Closed, the writes still queued for the device are failed
+            batch.forEach(operation -> operation.result.set(committed));
+            do {
+                takeBatch(deviceQueue).forEach(operation -> operation.result.set(false));
+            } while (!release(deviceQueue));
+        }
+    }
+
+    /* Release the queue of a device if no write is queued */
+    private boolean release(DeviceQueue deviceQueue) {
+        synchronized (deviceQueue) {
+            if (!deviceQueue.pending.isEmpty()) {
+                return false;
+            }
+            deviceQueue.busy = false;
+            deviceQueue.removed = true;
+            deviceQueues.remove(deviceQueue.mountpoint, deviceQueue);
+            return true;
+        }
+    }
+
+    // A read failure is logged and read as null, whatever it throws
+    @SuppressWarnings("checkstyle:IllegalCatch")
+    private <U extends DataObject> void read(DataBroker mountpoint, LogicalDatastoreType datastoreType,
+            InstanceIdentifier<U> iid, SettableFuture<U> result, int attempt, long backoffMillis) {
+        ReadOnlyTransaction transaction;
+        try {
+            transaction = mountpoint.newReadOnlyTransaction();
+        } catch (RuntimeException e) {
+            if (isNetconfException(e) && attempt < maxAttempts) {
+                LOG.warn("NetconfDocumentedException thrown, retrying ({}) in {}ms...", attempt, backoffMillis,
+                        e.getCause());
+                retryCount.increment();
+                if (!schedule(() -> read(mountpoint, datastoreType, iid, result, attempt + 1,
+                        backoffMillis + backoffStepMillis), backoffMillis)) {
+                    result.set(null);
+                }
+            } else {
+                LOG.error("Unable to get a read transaction after {} attempts", attempt, e);
+                result.set(null);
+            }
+            return;
+        }
+
+        try {
+            Futures.addCallback(transaction.read(datastoreType, iid), new FutureCallback<Optional<U>>() {
+                @Override
+                public void onSuccess(Optional<U> optional) {
+                    transaction.close();
+                    if (optional != null && optional.isPresent()) {
+                        result.set(optional.get());
+                    } else {
+                        LOG.debug("Failed to read {}", iid);
+                        result.set(null);
+                    }
+                }
+
+                @Override
+                public void onFailure(Throwable throwable) {
+                    transaction.close();
+                    LOG.warn("Read transaction failed", throwable);
+                    result.set(null);
+                }
+            }, MoreExecutors.directExecutor());
+        } catch (RuntimeException e) {
+            transaction.close();
+            LOG.error("Read transaction failed", e);
+            result.set(null);
+        }
+    }
+
+    private boolean schedule(Runnable task, long delayMillis) {
+        try {
+            scheduler.schedule(task, delayMillis, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (RejectedExecutionException e) {
+            LOG.warn("Device write pipeline closed, task not run");
+            return false;
+        }
+    }
+
+    private static boolean isNetconfException(RuntimeException exception) {
+        return exception.getCause() != null
+                && exception.getCause().getClass().equals(NetconfDocumentedException.class);
+    }
+
+    /**
+     * Writes to a device that are always written in the same transaction.
+     */
+    public final class Batch {
+        private final DataBroker mountpoint;
+        private final List<Consumer<WriteTransaction>> writes = new ArrayList<>();
+
+        private Batch(DataBroker mountpoint) {
+            this.mountpoint = mountpoint;
+        }
+
+        public <U extends DataObject> Batch merge(LogicalDatastoreType datastoreType, InstanceIdentifier<U> iid,
+                                                  U dataObject) {
+            Preconditions.checkNotNull(datastoreType);
+            writes.add(transaction -> transaction.merge(datastoreType, iid, dataObject));
+            return this;
+        }
+
+        public <U extends DataObject> Batch delete(LogicalDatastoreType datastoreType, InstanceIdentifier<U> iid) {
+            Preconditions.checkNotNull(datastoreType);
+            writes.add(transaction -> transaction.delete(datastoreType, iid));
+            return this;
+        }
+
+        /**
+         * Queue the batch to its device.
+         *
+         * @return future of whether the transaction containing the batch was
+         *         committed, never failing.
+         */
+        public ListenableFuture<Boolean> submit() {
+            List<Consumer<WriteTransaction>> batchWrites = new ArrayList<>(writes);
+            return enqueue(mountpoint, transaction -> batchWrites.forEach(write -> write.accept(transaction)));
+        }
+    }
+
+    private static final class Operation {
+        private final Consumer<WriteTransaction> write;
+        private final SettableFuture<Boolean> result = SettableFuture.create();
+
+        Operation(Consumer<WriteTransaction> write) {
+            this.write = write;
+        }
+    }
+
+    private static final class DeviceQueue {
+        private final DataBroker mountpoint;
+        // guarded by this
+        private final Queue<Operation> pending = new ArrayDeque<>();
+        // a transaction is being written, or retried, for this device
+        private boolean busy;
+        // the queue was idle and removed, the next write creates a new one
+        private boolean removed;
+
+        DeviceQueue(DataBroker mountpoint) {
+            this.mountpoint = mountpoint;
+        }
+    }
+}
@@ -9,11 +9,12 @@
 package org.opendaylight.sfc.renderers.iosxe.utils;
 
 import com.google.common.base.Preconditions;
-import com.google.common.util.concurrent.CheckedFuture;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.MoreExecutors;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.md.sal.binding.api.ReadWriteTransaction;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
-import org.opendaylight.controller.md.sal.common.api.data.TransactionCommitFailedException;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.rsp.manager.rev160421.RendererPathStates;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.rsp.manager.rev160421.renderer.path.states.RendererPathState;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.rsp.manager.rev160421.renderer.path.states.RendererPathStateKey;
@@ -49,14 +50,20 @@ public class RspStatus {
                 .child(RendererPathState.class, new RendererPathStateKey(new RendererName("ios-xe-renderer")))
                 .child(ConfiguredRenderedPaths.class)
                 .child(ConfiguredRenderedPath.class, configuredRenderedPath.key()).build();
-        // Write new status
+        // Write new status, without waiting for the commit: the status is
+        // also written from the callbacks of the device writes
         final ReadWriteTransaction wtx = dataBroker.newReadWriteTransaction();
         wtx.merge(LogicalDatastoreType.OPERATIONAL, statusIid, configuredRenderedPath, true);
-        CheckedFuture<Void, TransactionCommitFailedException> submitFuture = wtx.submit();
-        try {
-            submitFuture.checkedGet();
-        } catch (TransactionCommitFailedException e) {
-            LOG.error("Write transaction failed", e);
-        }
+        Futures.addCallback(wtx.submit(), new FutureCallback<Void>() {
+            @Override
+            public void onSuccess(Void result) {
+                LOG.debug("Status {} of rendered service path {} written", status, rspName.getValue());
+            }
+
+            @Override
+            public void onFailure(Throwable throwable) {
+                LOG.error("Write transaction failed", throwable);
+            }
+        }, MoreExecutors.directExecutor());
     }
 }
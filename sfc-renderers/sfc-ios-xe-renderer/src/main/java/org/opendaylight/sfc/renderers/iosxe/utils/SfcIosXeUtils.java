@@ -8,6 +8,9 @@
 
 package org.opendaylight.sfc.renderers.iosxe.utils;
 
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
 import java.util.List;
 import javax.annotation.Nonnull;
 import org.opendaylight.sfc.provider.api.SfcProviderServiceForwarderAPI;
@@ -83,9 +86,24 @@ public final class SfcIosXeUtils {
      *         plane locator with IP locator type
      */
     public static ServiceFfName createRemoteForwarder(SffName sffName) {
+        return createRemoteForwarder(sffName, SfcProviderServiceForwarderAPI.readServiceFunctionForwarder(sffName));
+    }
+
+    /**
+     * Creates remote service function forwarder (ios-xe SFC entity)
+     * {@link ServiceFfName} from the configuration of the original entity,
+     * already read from ODL CONF data store.
+     *
+     * @param sffName
+     *            name of the service function forwarder
+     * @param sfcForwarder
+     *            the service function forwarder read, may be null
+     * @return remote SFF (ios-xe SFC entity), null if SFF is null or does not
+     *         contain data plane locator with IP locator type
+     */
+    public static ServiceFfName createRemoteForwarder(SffName sffName, ServiceFunctionForwarder sfcForwarder) {
         // Actually, local forwarder is without name. As a parameter, use
         // SffName of appropriate sfc forwarder
-        ServiceFunctionForwarder sfcForwarder = SfcProviderServiceForwarderAPI.readServiceFunctionForwarder(sffName);
         if (sfcForwarder == null) {
             return null;
         }
@@ -187,4 +205,21 @@ public final class SfcIosXeUtils {
     public static InstanceIdentifier<ServicePath> createServicePathIid(@Nonnull ServicePathKey key) {
         return InstanceIdentifier.builder(Native.class).child(ServiceChain.class).child(ServicePath.class, key).build();
     }
+
+    /**
+     * Runs an action once a device write submitted with
+     * {@link IosXeDataStoreAPI#submit()} is committed.
+     *
+     * @param committed
+     *            future of whether the write was committed, never failing
+     * @param action
+     *            run on the thread completing the write, if committed
+     */
+    public static void onCommitted(ListenableFuture<Boolean> committed, Runnable action) {
+        committed.addListener(() -> {
+            if (Boolean.TRUE.equals(Futures.getUnchecked(committed))) {
+                action.run();
+            }
+        }, MoreExecutors.directExecutor());
+    }
 }
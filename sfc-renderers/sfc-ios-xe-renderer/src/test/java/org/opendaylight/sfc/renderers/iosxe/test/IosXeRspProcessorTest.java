@@ -8,18 +8,28 @@
 
 package org.opendaylight.sfc.renderers.iosxe.test;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.opendaylight.sfc.renderers.iosxe.utils.IosXeDataStoreAPI.Transaction.READ_PATH;
 
+import com.google.common.util.concurrent.Futures;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import org.junit.After;
 import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
 import org.opendaylight.controller.md.sal.binding.test.AbstractDataBrokerTest;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.sfc.provider.api.SfcDataStoreAPI;
@@ -28,10 +38,13 @@ import org.opendaylight.sfc.provider.api.SfcProviderServiceFunctionAPI;
 import org.opendaylight.sfc.renderers.iosxe.IosXeRspProcessor;
 import org.opendaylight.sfc.renderers.iosxe.NodeManager;
 import org.opendaylight.sfc.renderers.iosxe.utils.IosXeDataStoreAPI;
+import org.opendaylight.sfc.renderers.iosxe.utils.IosXeDeviceWritePipeline;
+import org.opendaylight.sfc.renderers.iosxe.utils.SfcIosXeUtils;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.RspName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SffDataPlaneLocatorName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SffName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.RenderedServicePaths;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.RenderedServicePath;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.RenderedServicePathBuilder;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.RenderedServicePathKey;
@@ -43,6 +56,7 @@ import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev1407
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarder.base.SffDataPlaneLocatorBuilder;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarder.base.SffDataPlaneLocatorKey;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarder.base.sff.data.plane.locator.DataPlaneLocatorBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.ServiceFunctionForwarder;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.ServiceFunctionForwarderBuilder;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.ServiceFunctionForwarderKey;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sl.rev140701.data.plane.locator.locator.type.IpBuilder;
@@ -50,7 +64,10 @@ import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Ipv4Address;
 import org.opendaylight.yang.gen.v1.urn.ios.rev160308._native.service.chain.ServicePath;
 import org.opendaylight.yang.gen.v1.urn.ios.rev160308._native.service.chain.ServicePathKey;
+import org.opendaylight.yang.gen.v1.urn.ios.rev160308._native.service.chain.service.function.forwarder.ServiceFfName;
 import org.opendaylight.yang.gen.v1.urn.ios.rev160308._native.service.chain.service.path.ConfigServiceChainPathMode;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.NodeId;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
 
 public class IosXeRspProcessorTest extends AbstractDataBrokerTest {
 
@@ -58,9 +75,13 @@ public class IosXeRspProcessorTest extends AbstractDataBrokerTest {
     private final SfName firstFunctionName = new SfName("firstFunction");
     private final SfName secondFunctionName = new SfName("secondFunction");
     private final SfName thirdFunctionName = new SfName("thirdFunction");
+    private final String secondForwarderName = "secondForwarder";
     private final String mgmtIp = "10.0.0.1";
+    private final String secondMgmtIp = "10.0.0.2";
     private DataBroker dataBroker;
     private NodeManager nodeManager;
+    private ScheduledExecutorService pipelineScheduler;
+    private IosXeDeviceWritePipeline pipeline;
 
     @Before
     public void init() {
@@ -68,9 +89,16 @@ public class IosXeRspProcessorTest extends AbstractDataBrokerTest {
         // odl.setDataProvider(dataBroker);
         SfcDataStoreAPI.setDataProviderAux(dataBroker);
         nodeManager = mock(NodeManager.class);
+        pipelineScheduler = Executors.newSingleThreadScheduledExecutor();
+        pipeline = new IosXeDeviceWritePipeline(pipelineScheduler, 0, 0, 1);
         prepareSfcEntities();
     }
 
+    @After
+    public void tearDown() {
+        pipeline.close();
+    }
+
     //@Test
     // TODO temporarily commented out for version bump emergency patch
     public void updateRsp() {
@@ -89,21 +117,139 @@ public class IosXeRspProcessorTest extends AbstractDataBrokerTest {
         assertTrue(chainPathMode.getServiceIndex().getServices().size() == 4);
     }
 
+    @Test
+    public void updateRspWritesEachDeviceOnce() throws Exception {
+        DataBroker firstDevice = mockDevice(mgmtIp);
+        DataBroker secondDevice = mockDevice(secondMgmtIp);
+
+        IosXeRspProcessor processor = new IosXeRspProcessor(dataBroker, nodeManager, pipeline);
+        processor.updateRsp(createTestRenderedServicePath(forwarderName, secondForwarderName, forwarderName));
+        awaitPipeline();
+
+        // The mountpoint of each SFF is resolved once, however many hops it has
+        verify(nodeManager, times(1)).getMountpointFromIpAddress(new IpAddress(new Ipv4Address(mgmtIp)));
+        verify(nodeManager, times(1)).getMountpointFromIpAddress(new IpAddress(new Ipv4Address(secondMgmtIp)));
+        verify(firstDevice, times(1)).newWriteOnlyTransaction();
+        verify(secondDevice, times(1)).newWriteOnlyTransaction();
+
+        // First device: first SF, second SFF, third SF and terminate
+        WriteTransaction firstTransaction = firstDevice.newWriteOnlyTransaction();
+        assertEquals(4, getWrittenServicePath(firstTransaction).getConfigServiceChainPathMode().getServiceIndex()
+                .getServices().size());
+        verify(firstTransaction).merge(eq(LogicalDatastoreType.CONFIGURATION),
+                eq(SfcIosXeUtils.createRemoteSffIid(new SffName(secondForwarderName))), any(ServiceFfName.class));
+        verify(firstTransaction, times(1)).submit();
+        // Second device: second SF and first SFF
+        WriteTransaction secondTransaction = secondDevice.newWriteOnlyTransaction();
+        assertEquals(2, getWrittenServicePath(secondTransaction).getConfigServiceChainPathMode().getServiceIndex()
+                .getServices().size());
+        verify(secondTransaction).merge(eq(LogicalDatastoreType.CONFIGURATION),
+                eq(SfcIosXeUtils.createRemoteSffIid(new SffName(forwarderName))), any(ServiceFfName.class));
+        verify(secondTransaction, times(1)).submit();
+    }
+
+    @Test
+    public void deleteRspDeletesPathOncePerDevice() throws Exception {
+        DataBroker firstDevice = mockDevice(mgmtIp);
+        DataBroker secondDevice = mockDevice(secondMgmtIp);
+
+        IosXeRspProcessor processor = new IosXeRspProcessor(dataBroker, nodeManager, pipeline);
+        processor.deleteRsp(createTestRenderedServicePath(forwarderName, forwarderName, secondForwarderName));
+        awaitPipeline();
+
+        verify(nodeManager, times(1)).getMountpointFromIpAddress(new IpAddress(new Ipv4Address(mgmtIp)));
+        for (DataBroker device : new DataBroker[] {firstDevice, secondDevice}) {
+            verify(device, times(1)).newWriteOnlyTransaction();
+            verify(device.newWriteOnlyTransaction(), times(1)).delete(LogicalDatastoreType.CONFIGURATION,
+                    SfcIosXeUtils.createServicePathIid(new ServicePathKey(10L)));
+        }
+    }
+
+    @Test
+    public void waitingRspIsRenderedOnceDeviceConnects() throws Exception {
+        mockDevice(mgmtIp);
+        RenderedServicePath renderedServicePath = createTestRenderedServicePath(forwarderName, secondForwarderName);
+        SfcDataStoreAPI.writePutTransactionAPI(InstanceIdentifier.builder(RenderedServicePaths.class)
+                .child(RenderedServicePath.class, renderedServicePath.key()).build(), renderedServicePath,
+                LogicalDatastoreType.CONFIGURATION);
+
+        IosXeRspProcessor processor = new IosXeRspProcessor(dataBroker, nodeManager, pipeline);
+        processor.updateRsp(renderedServicePath);
+
+        // The second device connects
+        IpAddress secondIp = new IpAddress(new Ipv4Address(secondMgmtIp));
+        DataBroker secondDevice = mockDevice(secondMgmtIp);
+        processor.onNodeStateChanged(new NodeId("secondNode"), secondIp, NodeManager.NodeState.CONNECTED);
+        processor.onNodeStateChanged(new NodeId("secondNode"), secondIp, NodeManager.NodeState.CONNECTED);
+        awaitPipeline();
+
+        // Second device: second SF and terminate, rendered once
+        verify(secondDevice, times(1)).newWriteOnlyTransaction();
+        assertEquals(2, getWrittenServicePath(secondDevice.newWriteOnlyTransaction()).getConfigServiceChainPathMode()
+                .getServiceIndex().getServices().size());
+    }
+
+    @Test
+    public void deviceConnectingWhileRspStartsWaitingIsNotMissed() throws Exception {
+        mockDevice(mgmtIp);
+        RenderedServicePath renderedServicePath = createTestRenderedServicePath(forwarderName, secondForwarderName);
+        SfcDataStoreAPI.writePutTransactionAPI(InstanceIdentifier.builder(RenderedServicePaths.class)
+                .child(RenderedServicePath.class, renderedServicePath.key()).build(), renderedServicePath,
+                LogicalDatastoreType.CONFIGURATION);
+        // The second device connects right after its mountpoint was looked up,
+        // its state change is seen before the RSP waits for it
+        IpAddress secondIp = new IpAddress(new Ipv4Address(secondMgmtIp));
+        DataBroker secondDevice = mockDevice(secondMgmtIp);
+        when(nodeManager.getMountpointFromIpAddress(secondIp)).thenReturn(null, secondDevice);
+
+        IosXeRspProcessor processor = new IosXeRspProcessor(dataBroker, nodeManager, pipeline);
+        processor.init();
+        verify(nodeManager).registerListener(processor);
+        processor.updateRsp(renderedServicePath);
+        awaitPipeline();
+
+        verify(secondDevice, times(1)).newWriteOnlyTransaction();
+        assertEquals(2, getWrittenServicePath(secondDevice.newWriteOnlyTransaction()).getConfigServiceChainPathMode()
+                .getServiceIndex().getServices().size());
+        processor.close();
+        verify(nodeManager).unregisterListener(processor);
+    }
+
+    /* Wait for the device transactions handed to the pipeline scheduler so far to be written */
+    private void awaitPipeline() throws Exception {
+        pipelineScheduler.submit(() -> { }).get();
+    }
+
+    /* A device mountpoint always handing out the same transaction, which commits at once */
+    private DataBroker mockDevice(String deviceMgmtIp) {
+        DataBroker device = mock(DataBroker.class);
+        WriteTransaction transaction = mock(WriteTransaction.class);
+        when(transaction.submit()).thenReturn(Futures.immediateCheckedFuture(null));
+        when(device.newWriteOnlyTransaction()).thenReturn(transaction);
+        when(nodeManager.getMountpointFromIpAddress(new IpAddress(new Ipv4Address(deviceMgmtIp))))
+                .thenReturn(device);
+        return device;
+    }
+
+    private ServicePath getWrittenServicePath(WriteTransaction transaction) {
+        ArgumentCaptor<ServicePath> servicePath = ArgumentCaptor.forClass(ServicePath.class);
+        verify(transaction).merge(eq(LogicalDatastoreType.CONFIGURATION),
+                eq(SfcIosXeUtils.createServicePathIid(new ServicePathKey(10L))), servicePath.capture());
+        return servicePath.getValue();
+    }
+
     private RenderedServicePath createTestRenderedServicePath() {
-        // Prepare hops
+        return createTestRenderedServicePath(forwarderName, forwarderName, forwarderName);
+    }
+
+    private RenderedServicePath createTestRenderedServicePath(String... hopForwarderNames) {
+        // Prepare hops, one SF per hop
+        SfName[] functionNames = {firstFunctionName, secondFunctionName, thirdFunctionName};
         final List<RenderedServicePathHop> hops = new ArrayList<>();
-        RenderedServicePathHopBuilder firstHop = new RenderedServicePathHopBuilder();
-        firstHop.setServiceFunctionForwarder(new SffName(forwarderName))
-                .setServiceFunctionName(new SfName(firstFunctionName));
-        RenderedServicePathHopBuilder secondHop = new RenderedServicePathHopBuilder();
-        secondHop.setServiceFunctionForwarder(new SffName(forwarderName))
-                .setServiceFunctionName(new SfName(secondFunctionName));
-        RenderedServicePathHopBuilder thirdHop = new RenderedServicePathHopBuilder();
-        thirdHop.setServiceFunctionForwarder(new SffName(forwarderName))
-                .setServiceFunctionName(new SfName(thirdFunctionName));
-        hops.add(firstHop.build());
-        hops.add(secondHop.build());
-        hops.add(thirdHop.build());
+        for (int i = 0; i < hopForwarderNames.length; i++) {
+            hops.add(new RenderedServicePathHopBuilder().setServiceFunctionForwarder(new SffName(hopForwarderNames[i]))
+                    .setServiceFunctionName(functionNames[i]).build());
+        }
         RenderedServicePathBuilder renderedServicePathBuilder = new RenderedServicePathBuilder();
         renderedServicePathBuilder.setName(new RspName("testRsp"))
                 .withKey(new RenderedServicePathKey(new RspName("testRsp"))).setPathId(10L)
@@ -112,21 +258,9 @@ public class IosXeRspProcessorTest extends AbstractDataBrokerTest {
     }
 
     private void prepareSfcEntities() {
-        // First SFF
-        List<SffDataPlaneLocator> sffDataPlaneLocators = new ArrayList<>();
-        SffDataPlaneLocatorBuilder sffDataPlaneLocatorBuilder = new SffDataPlaneLocatorBuilder();
-        DataPlaneLocatorBuilder dataPlaneLocatorBuilder = new DataPlaneLocatorBuilder();
-        String dplIp = "100.0.0.1";
-        dataPlaneLocatorBuilder.setLocatorType(new IpBuilder().setIp(new IpAddress(new Ipv4Address(dplIp))).build());
-        String sffDpl = "sffDpl";
-        sffDataPlaneLocatorBuilder.setName(new SffDataPlaneLocatorName(sffDpl))
-                .withKey(new SffDataPlaneLocatorKey(new SffDataPlaneLocatorName(sffDpl)))
-                .setDataPlaneLocator(dataPlaneLocatorBuilder.build());
-        sffDataPlaneLocators.add(sffDataPlaneLocatorBuilder.build());
-        ServiceFunctionForwarderBuilder serviceForwarderBuilder = new ServiceFunctionForwarderBuilder();
-        serviceForwarderBuilder.setName(new SffName(forwarderName))
-                .withKey(new ServiceFunctionForwarderKey(new SffName(forwarderName)))
-                .setIpMgmtAddress(new IpAddress(new Ipv4Address(mgmtIp))).setSffDataPlaneLocator(sffDataPlaneLocators);
+        SfcProviderServiceForwarderAPI.putServiceFunctionForwarder(buildForwarder(forwarderName, mgmtIp, "100.0.0.1"));
+        SfcProviderServiceForwarderAPI.putServiceFunctionForwarder(
+                buildForwarder(secondForwarderName, secondMgmtIp, "100.0.0.2"));
 
         // First SF
         ServiceFunctionBuilder firstServiceFunctionBuilder = new ServiceFunctionBuilder();
@@ -138,9 +272,25 @@ public class IosXeRspProcessorTest extends AbstractDataBrokerTest {
         ServiceFunctionBuilder thirdServiceFunctionBuilder = new ServiceFunctionBuilder();
         thirdServiceFunctionBuilder.setName(thirdFunctionName).withKey(new ServiceFunctionKey(thirdFunctionName));
 
-        SfcProviderServiceForwarderAPI.putServiceFunctionForwarder(serviceForwarderBuilder.build());
         SfcProviderServiceFunctionAPI.putServiceFunction(firstServiceFunctionBuilder.build());
         SfcProviderServiceFunctionAPI.putServiceFunction(secondServiceFunctionBuilder.build());
         SfcProviderServiceFunctionAPI.putServiceFunction(thirdServiceFunctionBuilder.build());
     }
+
+    private ServiceFunctionForwarder buildForwarder(String name, String forwarderMgmtIp, String dplIp) {
+        List<SffDataPlaneLocator> sffDataPlaneLocators = new ArrayList<>();
+        SffDataPlaneLocatorBuilder sffDataPlaneLocatorBuilder = new SffDataPlaneLocatorBuilder();
+        DataPlaneLocatorBuilder dataPlaneLocatorBuilder = new DataPlaneLocatorBuilder();
+        dataPlaneLocatorBuilder.setLocatorType(new IpBuilder().setIp(new IpAddress(new Ipv4Address(dplIp))).build());
+        String sffDpl = "sffDpl";
+        sffDataPlaneLocatorBuilder.setName(new SffDataPlaneLocatorName(sffDpl))
+                .withKey(new SffDataPlaneLocatorKey(new SffDataPlaneLocatorName(sffDpl)))
+                .setDataPlaneLocator(dataPlaneLocatorBuilder.build());
+        sffDataPlaneLocators.add(sffDataPlaneLocatorBuilder.build());
+        ServiceFunctionForwarderBuilder serviceForwarderBuilder = new ServiceFunctionForwarderBuilder();
+        serviceForwarderBuilder.setName(new SffName(name)).withKey(new ServiceFunctionForwarderKey(new SffName(name)))
+                .setIpMgmtAddress(new IpAddress(new Ipv4Address(forwarderMgmtIp)))
+                .setSffDataPlaneLocator(sffDataPlaneLocators);
+        return serviceForwarderBuilder.build();
+    }
 }
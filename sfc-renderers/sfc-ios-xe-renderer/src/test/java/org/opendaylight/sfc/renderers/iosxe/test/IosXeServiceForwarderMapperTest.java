@@ -14,9 +14,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import org.junit.Before;
 import org.junit.Test;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
@@ -33,10 +31,6 @@ import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev1407
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sl.rev140701.data.plane.locator.locator.type.IpBuilder;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.IpAddress;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Ipv4Address;
-import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.NodeId;
-import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.Node;
-import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.NodeBuilder;
-import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.NodeKey;
 
 public class IosXeServiceForwarderMapperTest {
 
@@ -44,7 +38,6 @@ public class IosXeServiceForwarderMapperTest {
     private NodeManager nodeManager;
     private WriteTransaction writeTransaction;
     private IosXeServiceForwarderMapper sffMapper;
-    private final String nodeId = "nodeId";
     private final String sffName2 = "forwarder2";
     private final String ipAddress = "10.0.0.1";
 
@@ -78,26 +71,14 @@ public class IosXeServiceForwarderMapperTest {
                 .setIpMgmtAddress(new IpAddress(new Ipv4Address(ipAddress))).setSffDataPlaneLocator(dataPlaneLocators);
         forwarders.add(noMgmtIpForwarder.build());
         forwarders.add(testSff.build());
-        // Node
-        Map<NodeId, Node> nodeMap = new HashMap<>();
-        Map<NodeId, DataBroker> nodeDbMap = new HashMap<>();
-        NodeBuilder nodeBuilder = new NodeBuilder();
-        nodeBuilder.setNodeId(new NodeId(nodeId)).withKey(new NodeKey(new NodeId(nodeId)));
-        Node node = nodeBuilder.build();
-        nodeMap.put(node.getNodeId(), node);
-        nodeDbMap.put(node.getNodeId(), dataBroker);
-
-        when(nodeManager.getConnectedNodes()).thenReturn(nodeMap);
-        when(nodeManager.getNetconfNodeIp(node)).thenReturn(new IpAddress(new Ipv4Address(ipAddress)));
-        when(nodeManager.getActiveMountPoints()).thenReturn(nodeDbMap);
+        // Node with the management IP of the SFF
+        when(nodeManager.getMountpointFromIpAddress(new IpAddress(new Ipv4Address(ipAddress)))).thenReturn(dataBroker);
         when(dataBroker.newWriteOnlyTransaction()).thenReturn(writeTransaction);
 
         sffMapper = new IosXeServiceForwarderMapper(dataBroker, nodeManager);
         sffMapper.syncForwarders(forwarders, false);
 
-        verify(nodeManager, times(1)).getConnectedNodes();
-        verify(nodeManager, times(1)).getNetconfNodeIp(node);
-        verify(nodeManager, times(1)).getActiveMountPoints();
+        verify(nodeManager, times(1)).getMountpointFromIpAddress(new IpAddress(new Ipv4Address(ipAddress)));
         verify(dataBroker, times(1)).newWriteOnlyTransaction();
     }
 
@@ -118,26 +99,14 @@ public class IosXeServiceForwarderMapperTest {
         testSff.setName(new SffName(sffName2)).withKey(new ServiceFunctionForwarderKey(new SffName(sffName2)))
                 .setIpMgmtAddress(new IpAddress(new Ipv4Address(ipAddress))).setSffDataPlaneLocator(dataPlaneLocators);
         forwarders.add(testSff.build());
-        // Node
-        Map<NodeId, Node> nodeMap = new HashMap<>();
-        Map<NodeId, DataBroker> nodeDbMap = new HashMap<>();
-        NodeBuilder nodeBuilder = new NodeBuilder();
-        nodeBuilder.setNodeId(new NodeId(nodeId)).withKey(new NodeKey(new NodeId(nodeId)));
-        Node node = nodeBuilder.build();
-        nodeMap.put(node.getNodeId(), node);
-        nodeDbMap.put(node.getNodeId(), dataBroker);
-
-        when(nodeManager.getConnectedNodes()).thenReturn(nodeMap);
-        when(nodeManager.getNetconfNodeIp(node)).thenReturn(new IpAddress(new Ipv4Address(ipAddress)));
-        when(nodeManager.getActiveMountPoints()).thenReturn(nodeDbMap);
+        // Node with the management IP of the SFF
+        when(nodeManager.getMountpointFromIpAddress(new IpAddress(new Ipv4Address(ipAddress)))).thenReturn(dataBroker);
         when(dataBroker.newWriteOnlyTransaction()).thenReturn(writeTransaction);
 
         sffMapper = new IosXeServiceForwarderMapper(dataBroker, nodeManager);
         sffMapper.syncForwarders(forwarders, true);
 
-        verify(nodeManager, times(1)).getConnectedNodes();
-        verify(nodeManager, times(1)).getNetconfNodeIp(node);
-        verify(nodeManager, times(1)).getActiveMountPoints();
+        verify(nodeManager, times(1)).getMountpointFromIpAddress(new IpAddress(new Ipv4Address(ipAddress)));
         verify(dataBroker, times(1)).newWriteOnlyTransaction();
     }
 }
@@ -15,9 +15,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import org.junit.Before;
 import org.junit.Test;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
@@ -33,18 +31,11 @@ import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev14070
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sl.rev140701.Gre;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sl.rev140701.data.plane.locator.locator.type.IpBuilder;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sl.rev140701.data.plane.locator.locator.type.MacBuilder;
-import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Host;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.IpAddress;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Ipv4Address;
-import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.NetconfNode;
-import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.NetconfNodeBuilder;
-import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.NodeId;
-import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.Node;
-import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.NodeBuilder;
 
 public class IosXeServiceFunctionMapperTest {
 
-    private final String nodeIdString = "nodeId";
     private final String ipAddress = "10.0.0.1";
     private DataBroker dataBroker;
     private NodeManager nodeManager;
@@ -98,30 +89,14 @@ public class IosXeServiceFunctionMapperTest {
         serviceFunctions.add(noDplSfBuilder.build());
         serviceFunctions.add(noIpDplSfBuilder.build());
         serviceFunctions.add(testSfBuilder.build());
-        // Node list
-        Map<NodeId, Node> nodeMap = new HashMap<>();
-        NodeId nodeId = new NodeId(nodeIdString);
-        NodeBuilder nodeBuilder = new NodeBuilder();
-        NetconfNodeBuilder netconfNodeBuilder = new NetconfNodeBuilder();
-        netconfNodeBuilder.setHost(new Host(new IpAddress(new Ipv4Address(ipAddress))));
-        nodeBuilder.setNodeId(nodeId).addAugmentation(NetconfNode.class, netconfNodeBuilder.build());
-        Node node = nodeBuilder.build();
-        nodeMap.put(nodeId, node);
-
-        Map<NodeId, DataBroker> nodeWithDataBrokerMap = new HashMap<>();
-        nodeWithDataBrokerMap.put(nodeId, dataBroker);
-
-        when(nodeManager.getConnectedNodes()).thenReturn(nodeMap);
-        when(nodeManager.getNetconfNodeIp(node)).thenReturn(new IpAddress(new Ipv4Address(ipAddress)));
-        when(nodeManager.getActiveMountPoints()).thenReturn(nodeWithDataBrokerMap);
+        // Node with the management IP of the SFs
+        when(nodeManager.getMountpointFromIpAddress(new IpAddress(new Ipv4Address(ipAddress)))).thenReturn(dataBroker);
         when(dataBroker.newWriteOnlyTransaction()).thenReturn(writeTransaction);
 
         sfMapper = new IosXeServiceFunctionMapper(dataBroker, nodeManager);
         sfMapper.syncFunctions(serviceFunctions, false);
 
-        verify(nodeManager, times(3)).getConnectedNodes();
-        verify(nodeManager, times(3)).getNetconfNodeIp(any(Node.class));
-        verify(nodeManager, times(3)).getActiveMountPoints();
+        verify(nodeManager, times(3)).getMountpointFromIpAddress(any(IpAddress.class));
         verify(dataBroker, times(1)).newWriteOnlyTransaction();
     }
 
@@ -146,29 +121,13 @@ public class IosXeServiceFunctionMapperTest {
                 .setIpMgmtAddress(new IpAddress(new Ipv4Address(ipAddress)))
                 .setSfDataPlaneLocator(dataPlaneLocatorList);
         serviceFunctions.add(testSfBuilder.build());
-        // Node list
-        Map<NodeId, Node> nodeMap = new HashMap<>();
-        NodeId nodeId = new NodeId(nodeIdString);
-        NodeBuilder nodeBuilder = new NodeBuilder();
-        NetconfNodeBuilder netconfNodeBuilder = new NetconfNodeBuilder();
-        netconfNodeBuilder.setHost(new Host(new IpAddress(new Ipv4Address(ipAddress))));
-        nodeBuilder.setNodeId(nodeId).addAugmentation(NetconfNode.class, netconfNodeBuilder.build());
-        Node node = nodeBuilder.build();
-        nodeMap.put(nodeId, node);
-
-        Map<NodeId, DataBroker> nodeWithDataBrokerMap = new HashMap<>();
-        nodeWithDataBrokerMap.put(nodeId, dataBroker);
-
-        when(nodeManager.getConnectedNodes()).thenReturn(nodeMap);
-        when(nodeManager.getNetconfNodeIp(node)).thenReturn(new IpAddress(new Ipv4Address(ipAddress)));
-        when(nodeManager.getActiveMountPoints()).thenReturn(nodeWithDataBrokerMap);
+        // Node with the management IP of the SFs
+        when(nodeManager.getMountpointFromIpAddress(new IpAddress(new Ipv4Address(ipAddress)))).thenReturn(dataBroker);
         when(dataBroker.newWriteOnlyTransaction()).thenReturn(writeTransaction);
 
         sfMapper.syncFunctions(serviceFunctions, true);
 
-        verify(nodeManager, times(1)).getConnectedNodes();
-        verify(nodeManager, times(1)).getNetconfNodeIp(any(Node.class));
-        verify(nodeManager, times(1)).getActiveMountPoints();
+        verify(nodeManager, times(1)).getMountpointFromIpAddress(any(IpAddress.class));
         verify(dataBroker, times(1)).newWriteOnlyTransaction();
     }
 }
@@ -8,7 +8,10 @@
 
 package org.opendaylight.sfc.renderers.iosxe.test;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
@@ -16,12 +19,30 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import com.google.common.base.Optional;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.Before;
 import org.junit.Test;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.md.sal.binding.api.MountPoint;
 import org.opendaylight.controller.md.sal.binding.api.MountPointService;
 import org.opendaylight.sfc.renderers.iosxe.NodeManager;
+import org.opendaylight.sfc.renderers.iosxe.NodeManager.NodeState;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SffName;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Host;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.IpAddress;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Ipv4Address;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.NetconfNode;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.NetconfNodeBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.NetconfNodeConnectionStatus;
@@ -144,4 +165,157 @@ public class NodeManagerTest {
         assertTrue(manager.getActiveMountPoints().isEmpty());
         assertTrue(manager.getConnectedNodes().isEmpty());
     }
+
+    @Test
+    public void connectionStateTransitions() {
+        DataBroker mountpoint = mock(DataBroker.class);
+        List<NodeState> states = new ArrayList<>();
+        manager = new NodeManager(dataBroker, mountPointService);
+        manager.registerListener((id, ipAddress, state) -> states.add(state));
+        NodeId testNodeId = new NodeId(nodeId);
+        IpAddress ipAddress = new IpAddress(new Ipv4Address("10.0.0.1"));
+        Node connected = buildNode(testNodeId, ipAddress, NetconfNodeConnectionStatus.ConnectionStatus.Connected);
+
+        // Connected, but the mountpoint is not there yet
+        when(mountPointService.getMountPoint(any(InstanceIdentifier.class))).thenReturn(Optional.absent());
+        manager.updateNode(connected);
+        assertEquals(NodeState.CONNECTING, manager.getNodeState(testNodeId));
+        assertNull(manager.getMountpointFromIpAddress(ipAddress));
+
+        mockMountPoint(mountpoint);
+        manager.updateNode(connected);
+        manager.updateNode(connected);
+        assertEquals(NodeState.CONNECTED, manager.getNodeState(testNodeId));
+        assertSame(mountpoint, manager.getMountpointFromIpAddress(ipAddress));
+        manager.bindForwarder(new SffName("forwarder"), ipAddress);
+        assertSame(mountpoint, manager.getMountpointFromSffName(new SffName("forwarder")));
+
+        manager.updateNode(buildNode(testNodeId, ipAddress, NetconfNodeConnectionStatus.ConnectionStatus.Connecting));
+        assertEquals(NodeState.DISCONNECTED, manager.getNodeState(testNodeId));
+        assertNull(manager.getMountpointFromIpAddress(ipAddress));
+        assertNull(manager.getMountpointFromSffName(new SffName("forwarder")));
+
+        // Repeated updates do not notify the listeners again
+        assertEquals(Arrays.asList(NodeState.CONNECTING, NodeState.CONNECTED, NodeState.DISCONNECTED),
+                states);
+    }
+
+    @Test
+    public void concurrentTransitionsKeepIndexesConsistent() throws Exception {
+        final int nodeCount = 100;
+        final int writerCount = 8;
+        final int readerCount = 4;
+        final int transitionsPerWriter = 5000;
+
+        List<Node> nodes = new ArrayList<>();
+        List<IpAddress> ipAddresses = new ArrayList<>();
+        Map<NodeId, MountPoint> mountPoints = new ConcurrentHashMap<>();
+        Map<IpAddress, DataBroker> mountpointsByIp = new ConcurrentHashMap<>();
+        for (int i = 0; i < nodeCount; i++) {
+            NodeId id = new NodeId("node-" + i);
+            IpAddress ipAddress = new IpAddress(new Ipv4Address("10.0." + i / 256 + "." + i % 256));
+            DataBroker mountpoint = mock(DataBroker.class);
+            MountPoint nodeMountPoint = mock(MountPoint.class);
+            when(nodeMountPoint.getService(eq(DataBroker.class))).thenReturn(Optional.of(mountpoint));
+            nodes.add(buildNode(id, ipAddress, NetconfNodeConnectionStatus.ConnectionStatus.Connected));
+            ipAddresses.add(ipAddress);
+            mountPoints.put(id, nodeMountPoint);
+            mountpointsByIp.put(ipAddress, mountpoint);
+        }
+        when(mountPointService.getMountPoint(any(InstanceIdentifier.class))).thenAnswer(invocation -> {
+            InstanceIdentifier<?> iid = (InstanceIdentifier<?>) invocation.getArguments()[0];
+            return Optional.of(mountPoints.get(iid.firstKeyOf(Node.class).getNodeId()));
+        });
+
+        manager = new NodeManager(dataBroker, mountPointService);
+        // Connections minus disconnections seen by the listener, per node
+        Map<NodeId, AtomicInteger> balances = new ConcurrentHashMap<>();
+        manager.registerListener((id, ipAddress, state) -> balances.computeIfAbsent(id, key -> new AtomicInteger())
+                .addAndGet(state == NodeState.CONNECTED ? 1 : -1));
+
+        ExecutorService executor = Executors.newFixedThreadPool(writerCount + readerCount);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicBoolean wrongMountpoint = new AtomicBoolean();
+        List<Future<?>> writers = new ArrayList<>();
+        for (int w = 0; w < writerCount; w++) {
+            long seed = w;
+            writers.add(executor.submit(() -> {
+                Random random = new Random(seed);
+                start.await();
+                for (int i = 0; i < transitionsPerWriter; i++) {
+                    Node node = nodes.get(random.nextInt(nodeCount));
+                    if (random.nextBoolean()) {
+                        manager.updateNode(node);
+                    } else {
+                        manager.removeNode(node);
+                    }
+                }
+                return null;
+            }));
+        }
+        for (int r = 0; r < readerCount; r++) {
+            long seed = writerCount + r;
+            executor.submit(() -> {
+                Random random = new Random(seed);
+                start.await();
+                while (writing.get()) {
+                    IpAddress ipAddress = ipAddresses.get(random.nextInt(nodeCount));
+                    DataBroker mountpoint = manager.getMountpointFromIpAddress(ipAddress);
+                    if (mountpoint != null && mountpoint != mountpointsByIp.get(ipAddress)) {
+                        wrongMountpoint.set(true);
+                    }
+                    manager.getConnectedNodes();
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        for (Future<?> writer : writers) {
+            writer.get(30, TimeUnit.SECONDS);
+        }
+        writing.set(false);
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        assertFalse(wrongMountpoint.get());
+
+        // Settle the nodes: even ones connected, odd ones removed
+        for (int i = 0; i < nodeCount; i++) {
+            if (i % 2 == 0) {
+                manager.updateNode(nodes.get(i));
+            } else {
+                manager.removeNode(nodes.get(i));
+            }
+        }
+        assertEquals(nodeCount / 2, manager.getConnectedNodes().size());
+        assertEquals(nodeCount / 2, manager.getActiveMountPoints().size());
+        for (int i = 0; i < nodeCount; i++) {
+            NodeId id = nodes.get(i).getNodeId();
+            IpAddress ipAddress = ipAddresses.get(i);
+            AtomicInteger balance = balances.get(id);
+            if (i % 2 == 0) {
+                assertSame(mountpointsByIp.get(ipAddress), manager.getMountpointFromIpAddress(ipAddress));
+                assertEquals(NodeState.CONNECTED, manager.getNodeState(id));
+                assertEquals(1, balance.get());
+            } else {
+                assertNull(manager.getMountpointFromIpAddress(ipAddress));
+                assertEquals(NodeState.DISCONNECTED, manager.getNodeState(id));
+                assertEquals(0, balance == null ? 0 : balance.get());
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void mockMountPoint(DataBroker mountpoint) {
+        when(mountPointService.getMountPoint(any(InstanceIdentifier.class))).thenReturn(Optional.of(mountPoint));
+        when(mountPoint.getService(eq(DataBroker.class))).thenReturn(Optional.of(mountpoint));
+    }
+
+    private static Node buildNode(NodeId id, IpAddress ipAddress,
+                                  NetconfNodeConnectionStatus.ConnectionStatus connectionStatus) {
+        NetconfNodeBuilder netconfNodeBuilder = new NetconfNodeBuilder();
+        netconfNodeBuilder.setConnectionStatus(connectionStatus).setHost(new Host(ipAddress));
+        return new NodeBuilder().setNodeId(id).addAugmentation(NetconfNode.class, netconfNodeBuilder.build())
+                .build();
+    }
 }
@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.renderers.iosxe.test.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.controller.md.sal.common.api.data.TransactionCommitFailedException;
+import org.opendaylight.netconf.api.NetconfDocumentedException;
+import org.opendaylight.sfc.renderers.iosxe.utils.IosXeDeviceWritePipeline;
+import org.opendaylight.sfc.renderers.iosxe.utils.SfcIosXeUtils;
+import org.opendaylight.yang.gen.v1.urn.ios.rev160308._native.service.chain.ServicePath;
+import org.opendaylight.yang.gen.v1.urn.ios.rev160308._native.service.chain.ServicePathBuilder;
+import org.opendaylight.yang.gen.v1.urn.ios.rev160308._native.service.chain.ServicePathKey;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+
+public class IosXeDeviceWritePipelineTest {
+
+    private static final LogicalDatastoreType CONF = LogicalDatastoreType.CONFIGURATION;
+    private static final long BACKOFF_MS = 200;
+    private static final int MAX_ATTEMPTS = 6;
+    private static final int HEALTHY_DEVICES = 10;
+    private static final int WRITES_PER_DEVICE = 20;
+    private static final long COMMIT_LATENCY_MS = 5;
+    private static final long MANUAL_COMMIT = -1;
+    private static final long TIMEOUT_MS = 5000;
+
+    private ScheduledExecutorService deviceExecutor;
+    private IosXeDeviceWritePipeline pipeline;
+
+    /* A fake device mountpoint, committing its transactions after a latency or when told to */
+    private final class FakeMountpoint {
+        private final DataBroker mountpoint = mock(DataBroker.class);
+        private final List<WriteTransaction> transactions = Collections.synchronizedList(new ArrayList<>());
+        private final Queue<SettableFuture<Void>> commits = new ConcurrentLinkedQueue<>();
+        private final long commitLatencyMillis;
+
+        FakeMountpoint(long commitLatencyMillis) {
+            this.commitLatencyMillis = commitLatencyMillis;
+            when(mountpoint.newWriteOnlyTransaction()).thenAnswer(invocation -> newTransaction());
+        }
+
+        private WriteTransaction newTransaction() {
+            WriteTransaction transaction = mock(WriteTransaction.class);
+            SettableFuture<Void> commit = SettableFuture.create();
+            when(transaction.submit()).thenReturn(Futures.makeChecked(commit,
+                exception -> new TransactionCommitFailedException("Commit failed", exception)));
+            transactions.add(transaction);
+            if (commitLatencyMillis == MANUAL_COMMIT) {
+                commits.add(commit);
+            } else {
+                deviceExecutor.schedule(() -> commit.set(null), commitLatencyMillis, TimeUnit.MILLISECONDS);
+            }
+            return transaction;
+        }
+
+        SettableFuture<Void> awaitCommit() throws InterruptedException {
+            long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+            SettableFuture<Void> commit = commits.poll();
+            while (commit == null && System.currentTimeMillis() < deadline) {
+                Thread.sleep(1);
+                commit = commits.poll();
+            }
+            assertNotNull(commit);
+            return commit;
+        }
+    }
+
+    @Before
+    public void init() {
+        deviceExecutor = Executors.newScheduledThreadPool(2);
+        pipeline = new IosXeDeviceWritePipeline(Executors.newSingleThreadScheduledExecutor(), BACKOFF_MS,
+                BACKOFF_MS / 2, MAX_ATTEMPTS);
+    }
+
+    @After
+    public void tearDown() {
+        pipeline.close();
+        deviceExecutor.shutdownNow();
+    }
+
+    @Test
+    public void otherDevicesProgressWhileOneFails() throws Exception {
+        DataBroker flapping = mock(DataBroker.class);
+        doThrow(new IllegalStateException(new NetconfDocumentedException("Device flapping"))).when(flapping)
+                .newWriteOnlyTransaction();
+        List<FakeMountpoint> devices = new ArrayList<>();
+        for (int i = 0; i < HEALTHY_DEVICES; i++) {
+            devices.add(new FakeMountpoint(COMMIT_LATENCY_MS));
+        }
+
+        ListenableFuture<Boolean> flappingWrite = pipeline.merge(flapping, CONF, servicePathIid(0), servicePath(0));
+        List<ListenableFuture<Boolean>> writes = new ArrayList<>();
+        for (FakeMountpoint device : devices) {
+            for (long i = 0; i < WRITES_PER_DEVICE; i++) {
+                writes.add(pipeline.merge(device.mountpoint, CONF, servicePathIid(i), servicePath(i)));
+            }
+        }
+
+        List<Boolean> results = Futures.allAsList(writes).get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        assertFalse(results.contains(false));
+        // the flapping device is still backing off
+        assertFalse(flappingWrite.isDone());
+        for (FakeMountpoint device : devices) {
+            // writes queued while a transaction of the device was in flight were merged
+            assertTrue(device.transactions.size() < WRITES_PER_DEVICE);
+        }
+
+        assertFalse(flappingWrite.get(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        verify(flapping, times(MAX_ATTEMPTS)).newWriteOnlyTransaction();
+        assertEquals(MAX_ATTEMPTS - 1, pipeline.getRetryCount());
+    }
+
+    @Test
+    public void mergesQueuedWritesIntoOneTransaction() throws Exception {
+        FakeMountpoint device = new FakeMountpoint(MANUAL_COMMIT);
+
+        ListenableFuture<Boolean> first = pipeline.merge(device.mountpoint, CONF, servicePathIid(1), servicePath(1));
+        // the transaction of the first write is in flight once its commit is awaited
+        SettableFuture<Void> firstCommit = device.awaitCommit();
+        List<ListenableFuture<Boolean>> queued = Arrays.asList(
+                pipeline.merge(device.mountpoint, CONF, servicePathIid(2), servicePath(2)),
+                pipeline.delete(device.mountpoint, CONF, servicePathIid(3)),
+                pipeline.merge(device.mountpoint, CONF, servicePathIid(4), servicePath(4)));
+        assertEquals(1, device.transactions.size());
+        assertEquals(3, pipeline.getQueuedCount(device.mountpoint));
+
+        firstCommit.set(null);
+        assertTrue(first.get(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        device.awaitCommit().set(null);
+        assertEquals(Arrays.asList(true, true, true),
+                Futures.allAsList(queued).get(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+
+        assertEquals(2, device.transactions.size());
+        WriteTransaction transaction = device.transactions.get(1);
+        InOrder inOrder = inOrder(transaction);
+        inOrder.verify(transaction).merge(CONF, servicePathIid(2), servicePath(2));
+        inOrder.verify(transaction).delete(CONF, servicePathIid(3));
+        inOrder.verify(transaction).merge(CONF, servicePathIid(4), servicePath(4));
+        inOrder.verify(transaction).submit();
+        assertEquals(2, pipeline.getTransactionCount());
+        assertEquals(4, pipeline.getWriteCount());
+    }
+
+    @Test
+    public void failedCommitFailsItsBatchOnly() throws Exception {
+        FakeMountpoint device = new FakeMountpoint(MANUAL_COMMIT);
+
+        ListenableFuture<Boolean> failed = pipeline.merge(device.mountpoint, CONF, servicePathIid(1), servicePath(1));
+        device.awaitCommit().setException(new IllegalStateException("Commit refused"));
+        assertFalse(failed.get(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+
+        ListenableFuture<Boolean> next = pipeline.merge(device.mountpoint, CONF, servicePathIid(1), servicePath(1));
+        device.awaitCommit().set(null);
+        assertTrue(next.get(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        assertEquals(0, pipeline.getQueuedCount(device.mountpoint));
+    }
+
+    @Test
+    public void writesAreNotDoneOnTheCallerThread() throws Exception {
+        DataBroker mountpoint = mock(DataBroker.class);
+        WriteTransaction transaction = mock(WriteTransaction.class);
+        when(transaction.submit()).thenReturn(Futures.immediateCheckedFuture(null));
+        List<Thread> writerThreads = Collections.synchronizedList(new ArrayList<>());
+        when(mountpoint.newWriteOnlyTransaction()).thenAnswer(invocation -> {
+            writerThreads.add(Thread.currentThread());
+            return transaction;
+        });
+
+        assertTrue(pipeline.merge(mountpoint, CONF, servicePathIid(1), servicePath(1))
+                .get(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        assertEquals(1, writerThreads.size());
+        assertFalse(writerThreads.contains(Thread.currentThread()));
+    }
+
+    @Test
+    public void missingMountpointFailsWrite() throws Exception {
+        assertFalse(pipeline.merge(null, CONF, servicePathIid(1), servicePath(1)).get());
+        assertNull(pipeline.read(null, CONF, servicePathIid(1)).get());
+    }
+
+    private static InstanceIdentifier<ServicePath> servicePathIid(long pathId) {
+        return SfcIosXeUtils.createServicePathIid(new ServicePathKey(pathId));
+    }
+
+    private static ServicePath servicePath(long pathId) {
+        return new ServicePathBuilder().withKey(new ServicePathKey(pathId)).setServicePathId(pathId).build();
+    }
+}
@@ -8,23 +8,33 @@
 
 package org.opendaylight.sfc.renderers.openflow;
 
+import java.util.concurrent.ForkJoinPool;
 import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.sal.binding.api.NotificationProviderService;
 import org.opendaylight.mdsal.binding.api.RpcConsumerRegistry;
+import org.opendaylight.sfc.provider.api.SfcInstanceIdentifiers;
+import org.opendaylight.sfc.renderers.openflow.listeners.SfcOfFlowReconciliationDataListener;
+import org.opendaylight.sfc.renderers.openflow.listeners.SfcOfRenderPlanCacheDataListener;
 import org.opendaylight.sfc.renderers.openflow.listeners.SfcOfRendererDataListener;
 import org.opendaylight.sfc.renderers.openflow.listeners.SfcOfRspDataListener;
 import org.opendaylight.sfc.renderers.openflow.listeners.SfcOfSfgDataListener;
 import org.opendaylight.sfc.renderers.openflow.openflow.SfcIpv4PacketInHandler;
 import org.opendaylight.sfc.renderers.openflow.openflow.SfcOfFlowProgrammerImpl;
 import org.opendaylight.sfc.renderers.openflow.openflow.SfcOfFlowProgrammerInterface;
+import org.opendaylight.sfc.renderers.openflow.processors.SfcOfRenderPlanCache;
 import org.opendaylight.sfc.renderers.openflow.processors.SfcOfRspProcessor;
 import org.opendaylight.sfc.renderers.openflow.utils.SfcOfBaseProviderUtils;
 import org.opendaylight.sfc.renderers.openflow.utils.SfcOfProviderUtils;
+import org.opendaylight.sfc.renderers.openflow.utils.SfcOfRenderScheduler;
 import org.opendaylight.sfc.renderers.openflow.utils.SfcSynchronizer;
 import org.opendaylight.sfc.util.openflow.writer.SfcOfFlowWriterImpl;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.service.functions.ServiceFunction;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.ServiceFunctionForwarder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfg.rev150214.service.function.groups.ServiceFunctionGroup;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flat.batch.service.rev160321.SalFlatBatchService;
 import org.opendaylight.yangtools.concepts.Registration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -35,16 +45,24 @@ import org.slf4j.LoggerFactory;
 @Singleton
 public final class SfcOfRenderer implements AutoCloseable {
     private static final Logger LOG = LoggerFactory.getLogger(SfcOfRenderer.class);
+    private static final long RENDER_PLAN_CACHE_SIZE = 10000;
+    private static final int RENDER_SCHEDULER_LANE_CAPACITY = 1000;
 
     private final SfcOfRspProcessor sfcOfRspProcessor;
     private final SfcOfFlowProgrammerInterface sfcOfFlowProgrammer;
     private final Registration pktInRegistration;
     private final SfcSynchronizer sfcSynchronizer;
+    private final ForkJoinPool flowGenerationPool;
+    private final SfcOfRenderScheduler renderScheduler;
 
     private SfcOfRspDataListener openflowRspDataListener;
     private SfcOfSfgDataListener sfcOfSfgDataListener;
     private SfcIpv4PacketInHandler packetInHandler;
     private SfcOfRendererDataListener sfcOfRendererListener;
+    private SfcOfRenderPlanCacheDataListener<ServiceFunction> renderPlanSfListener;
+    private SfcOfRenderPlanCacheDataListener<ServiceFunctionForwarder> renderPlanSffListener;
+    private SfcOfRenderPlanCacheDataListener<ServiceFunctionGroup> renderPlanSfgListener;
+    private SfcOfFlowReconciliationDataListener flowReconciliationListener;
 
     @Inject
     public SfcOfRenderer(DataBroker dataBroker, NotificationProviderService notificationService,
@@ -54,16 +72,36 @@ public final class SfcOfRenderer implements AutoCloseable {
         this.sfcSynchronizer = new SfcSynchronizer();
         SfcOfFlowWriterImpl sfcofflowwriterimpl = new SfcOfFlowWriterImpl();
         sfcofflowwriterimpl.setDataProvider(dataBroker);
+        sfcofflowwriterimpl.setSalFlatBatchService(rpcRegistry.getRpcService(SalFlatBatchService.class));
         this.sfcOfFlowProgrammer = new SfcOfFlowProgrammerImpl(sfcofflowwriterimpl);
         SfcOfBaseProviderUtils sfcOfProviderUtils = new SfcOfProviderUtils();
         this.sfcOfRspProcessor = new SfcOfRspProcessor(sfcOfFlowProgrammer, sfcOfProviderUtils, sfcSynchronizer,
                 rpcRegistry, dataBroker);
 
-        this.openflowRspDataListener = new SfcOfRspDataListener(dataBroker, sfcOfRspProcessor);
+        // The render plan cache is kept fresh by listening to the SFs, SFFs and SFGs
+        SfcOfRenderPlanCache renderPlanCache = sfcOfRspProcessor.getRenderPlanCache();
+        this.renderPlanSfListener = new SfcOfRenderPlanCacheDataListener<>(dataBroker,
+                SfcInstanceIdentifiers.SF_ENTRY_IID, sf -> renderPlanCache.invalidateSf(sf.getName()));
+        this.renderPlanSffListener = new SfcOfRenderPlanCacheDataListener<>(dataBroker,
+                SfcInstanceIdentifiers.SFF_ENTRY_IID, sff -> renderPlanCache.invalidateSff(sff.getName()));
+        this.renderPlanSfgListener = new SfcOfRenderPlanCacheDataListener<>(dataBroker,
+                SfcInstanceIdentifiers.SFG_ENTRY_IID, sfg -> renderPlanCache.invalidateSfg(sfg.getName()));
+        renderPlanCache.enable(RENDER_PLAN_CACHE_SIZE);
+
+        // The flows of the SFFs of long RSPs are created concurrently
+        this.flowGenerationPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        sfcOfRspProcessor.setFlowGenerationPool(flowGenerationPool);
+
+        // The RSP events and packet-ins are run by priority, off the notification threads
+        this.renderScheduler = new SfcOfRenderScheduler(RENDER_SCHEDULER_LANE_CAPACITY);
+
+        this.openflowRspDataListener = new SfcOfRspDataListener(dataBroker, sfcOfRspProcessor, renderScheduler);
         this.sfcOfSfgDataListener = new SfcOfSfgDataListener(dataBroker, sfcOfFlowProgrammer, sfcOfProviderUtils);
         this.sfcOfRendererListener = new SfcOfRendererDataListener(dataBroker, sfcOfFlowProgrammer, sfcSynchronizer);
+        this.flowReconciliationListener = new SfcOfFlowReconciliationDataListener(dataBroker, sfcofflowwriterimpl);
 
-        this.packetInHandler = new SfcIpv4PacketInHandler((SfcOfFlowProgrammerImpl) sfcOfFlowProgrammer);
+        this.packetInHandler = new SfcIpv4PacketInHandler((SfcOfFlowProgrammerImpl) sfcOfFlowProgrammer,
+                renderScheduler);
         this.pktInRegistration = notificationService.registerNotificationListener(packetInHandler);
 
         LOG.info("SfcOfRenderer successfully started the SfcOfRenderer plugin");
@@ -77,13 +115,23 @@ public final class SfcOfRenderer implements AutoCloseable {
     public void close() throws Exception {
         LOG.info("SfcOfRenderer auto-closed");
         try {
-            if (sfcOfFlowProgrammer != null) {
-                sfcOfFlowProgrammer.shutdown();
-            }
             if (pktInRegistration != null) {
                 pktInRegistration.close();
             }
             openflowRspDataListener.close();
+            renderScheduler.close();
+            sfcOfRspProcessor.close();
+            flowReconciliationListener.close();
+            if (sfcOfFlowProgrammer != null) {
+                sfcOfFlowProgrammer.shutdown();
+            }
+            renderPlanSfListener.closeDataChangeListener();
+            renderPlanSffListener.closeDataChangeListener();
+            renderPlanSfgListener.closeDataChangeListener();
+            sfcOfRspProcessor.getRenderPlanCache().disable();
+            sfcOfRspProcessor.setFlowGenerationPool(null);
+            flowGenerationPool.shutdown();
+            LOG.info("{}", sfcOfRspProcessor.getRenderPlanCache());
         } finally {
             openflowRspDataListener = null;
         }
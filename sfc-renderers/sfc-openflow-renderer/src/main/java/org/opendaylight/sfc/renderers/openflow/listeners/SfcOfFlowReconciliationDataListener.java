@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.renderers.openflow.listeners;
+
+import com.google.common.base.Optional;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.binding.api.DataObjectModification;
+import org.opendaylight.controller.md.sal.binding.api.DataTreeModification;
+import org.opendaylight.controller.md.sal.binding.api.ReadOnlyTransaction;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.controller.md.sal.common.api.data.ReadFailedException;
+import org.opendaylight.sfc.util.openflow.writer.SfcOfFlowWriterImpl;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowCapableNode;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.flow.node.SwitchFeatures;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.NodeId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.Nodes;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.Node;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.NodeKey;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class will be notified when OpenFlow nodes connect, so that the flows
+ * written to them by the renderer are reconciled with their flow tables.
+ *
+ * <p>
+ * The switch features of a flow capable node are only set when the node
+ * connects, so listening to them, rather than to the whole node whose flow
+ * statistics are updated all the time, is enough to catch the reconnections.
+ * The flow tables of a reconnected node are only known once its flow
+ * statistics are collected, so the reconciliation is delayed, and retried
+ * while the node has no flow table.
+ *
+ * @see SfcOfFlowWriterImpl#reconcileFlows(String, FlowCapableNode)
+ */
+public class SfcOfFlowReconciliationDataListener extends SfcOfAbstractDataListener<SwitchFeatures>
+        implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SfcOfFlowReconciliationDataListener.class);
+    private static final long DEFAULT_RECONCILIATION_DELAY_SECONDS = 10;
+    private static final int RECONCILIATION_ATTEMPTS = 3;
+
+    private final DataBroker dataBroker;
+    private final SfcOfFlowWriterImpl sfcOfFlowWriter;
+    private final long reconciliationDelaySeconds;
+    private final ScheduledExecutorService reconciliationExecutor;
+    private final Map<String, ScheduledFuture<?>> pendingReconciliations = new ConcurrentHashMap<>();
+
+    public SfcOfFlowReconciliationDataListener(DataBroker dataBroker, SfcOfFlowWriterImpl sfcOfFlowWriter) {
+        this(dataBroker, sfcOfFlowWriter, DEFAULT_RECONCILIATION_DELAY_SECONDS);
+    }
+
+    public SfcOfFlowReconciliationDataListener(DataBroker dataBroker, SfcOfFlowWriterImpl sfcOfFlowWriter,
+            long reconciliationDelaySeconds) {
+        this.dataBroker = dataBroker;
+        this.sfcOfFlowWriter = sfcOfFlowWriter;
+        this.reconciliationDelaySeconds = reconciliationDelaySeconds;
+        this.reconciliationExecutor = Executors.newSingleThreadScheduledExecutor();
+
+        registerAsDataChangeListener(dataBroker, LogicalDatastoreType.OPERATIONAL, InstanceIdentifier
+                .create(Nodes.class).child(Node.class).augmentation(FlowCapableNode.class)
+                .child(SwitchFeatures.class));
+    }
+
+    @Override
+    public void onDataTreeChanged(Collection<DataTreeModification<SwitchFeatures>> changes) {
+        for (DataTreeModification<SwitchFeatures> change : changes) {
+            DataObjectModification<SwitchFeatures> rootNode = change.getRootNode();
+            String nodeName = change.getRootPath().getRootIdentifier().firstKeyOf(Node.class).getId().getValue();
+
+            if (rootNode.getDataBefore() == null && rootNode.getDataAfter() != null) {
+                LOG.info("SfcOfFlowReconciliationDataListener.onDataTreeChanged node {} connected", nodeName);
+                scheduleReconciliation(nodeName, RECONCILIATION_ATTEMPTS);
+            } else if (rootNode.getDataAfter() == null) {
+                LOG.info("SfcOfFlowReconciliationDataListener.onDataTreeChanged node {} disconnected", nodeName);
+                ScheduledFuture<?> pending = pendingReconciliations.remove(nodeName);
+                if (pending != null) {
+                    pending.cancel(false);
+                }
+            }
+        }
+    }
+
+    private void scheduleReconciliation(String nodeName, int attemptsLeft) {
+        try {
+            ScheduledFuture<?> previous = pendingReconciliations.put(nodeName, reconciliationExecutor.schedule(
+                () -> reconcile(nodeName, attemptsLeft), reconciliationDelaySeconds, TimeUnit.SECONDS));
+            if (previous != null) {
+                previous.cancel(false);
+            }
+        } catch (RejectedExecutionException e) {
+            LOG.warn("scheduleReconciliation: listener closed, node {} not reconciled", nodeName);
+        }
+    }
+
+    /**
+     * Reconcile the flows of a node with the flow tables read from the
+     * operational data store.
+     *
+     * @param nodeName
+     *            the node name
+     * @param attemptsLeft
+     *            number of attempts left, should the node have no flow table
+     *            yet
+     */
+    void reconcile(String nodeName, int attemptsLeft) {
+        InstanceIdentifier<FlowCapableNode> nodeIid = InstanceIdentifier.builder(Nodes.class)
+                .child(Node.class, new NodeKey(new NodeId(nodeName))).augmentation(FlowCapableNode.class).build();
+
+        Optional<FlowCapableNode> flowCapableNode;
+        try (ReadOnlyTransaction readTx = dataBroker.newReadOnlyTransaction()) {
+            flowCapableNode = readTx.read(LogicalDatastoreType.OPERATIONAL, nodeIid).checkedGet();
+        } catch (ReadFailedException e) {
+            LOG.error("reconcile: failed to read node {}, not reconciled", nodeName, e);
+            return;
+        }
+
+        if (!flowCapableNode.isPresent()) {
+            LOG.info("reconcile: node {} is gone, not reconciled", nodeName);
+            pendingReconciliations.remove(nodeName);
+            return;
+        }
+        if (flowCapableNode.get().getTable() == null || flowCapableNode.get().getTable().isEmpty()) {
+            if (attemptsLeft > 1) {
+                LOG.info("reconcile: no flow table known for node {} yet, retrying", nodeName);
+                scheduleReconciliation(nodeName, attemptsLeft - 1);
+            } else {
+                LOG.warn("reconcile: no flow table known for node {}, not reconciled", nodeName);
+                pendingReconciliations.remove(nodeName);
+            }
+            return;
+        }
+
+        pendingReconciliations.remove(nodeName);
+        sfcOfFlowWriter.reconcileFlows(nodeName, flowCapableNode.get());
+    }
+
+    @Override
+    public void close() {
+        closeDataChangeListener();
+        reconciliationExecutor.shutdownNow();
+        pendingReconciliations.clear();
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.renderers.openflow.listeners;
+
+import java.util.Collection;
+import java.util.function.Consumer;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.binding.api.DataObjectModification;
+import org.opendaylight.controller.md.sal.binding.api.DataTreeModification;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.yangtools.yang.binding.DataObject;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class will be notified when changes are made to the SFC configuration
+ * that RSP render plans depend on, so that the affected plans are invalidated.
+ *
+ * @see org.opendaylight.sfc.renderers.openflow.processors.SfcOfRenderPlanCache
+ */
+public class SfcOfRenderPlanCacheDataListener<T extends DataObject> extends SfcOfAbstractDataListener<T> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SfcOfRenderPlanCacheDataListener.class);
+
+    private final Consumer<T> invalidator;
+
+    public SfcOfRenderPlanCacheDataListener(DataBroker dataBroker, InstanceIdentifier<T> instanceIdentifier,
+            Consumer<T> invalidator) {
+        this.invalidator = invalidator;
+
+        registerAsDataChangeListener(dataBroker, LogicalDatastoreType.CONFIGURATION, instanceIdentifier);
+    }
+
+    @Override
+    public void onDataTreeChanged(Collection<DataTreeModification<T>> changes) {
+        for (DataTreeModification<T> change : changes) {
+            DataObjectModification<T> rootNode = change.getRootNode();
+            LOG.debug("SfcOfRenderPlanCacheDataListener.onDataTreeChanged {} {}", rootNode.getModificationType(),
+                    change.getRootPath().getRootIdentifier());
+            if (rootNode.getDataBefore() != null) {
+                invalidator.accept(rootNode.getDataBefore());
+            }
+            if (rootNode.getDataAfter() != null) {
+                invalidator.accept(rootNode.getDataAfter());
+            }
+        }
+    }
+}
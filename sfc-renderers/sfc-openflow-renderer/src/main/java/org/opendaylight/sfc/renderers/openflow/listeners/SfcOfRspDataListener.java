@@ -18,6 +18,8 @@ import org.opendaylight.controller.md.sal.binding.api.DataTreeModification;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.sfc.provider.api.SfcInstanceIdentifiers;
 import org.opendaylight.sfc.renderers.openflow.processors.SfcOfRspProcessor;
+import org.opendaylight.sfc.renderers.openflow.utils.SfcOfRenderScheduler;
+import org.opendaylight.sfc.renderers.openflow.utils.SfcOfRenderScheduler.Lane;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.RenderedServicePath;
 import org.opendaylight.yangtools.concepts.ListenerRegistration;
 import org.slf4j.Logger;
@@ -27,6 +29,11 @@ import org.slf4j.LoggerFactory;
  * This class has will be notified when changes are mad to Rendered Service
  * Paths.
  *
+ * <p>
+ * When given a {@link SfcOfRenderScheduler}, the RSP deletions, updates and
+ * creations are run by the scheduler in their respective lanes. Otherwise,
+ * they are run by the notification thread.
+ *
  * @author Brady Johnson (brady.allen.johnson@ericsson.com)
  * @version 0.1
  * @since 2015-01-27
@@ -34,12 +41,19 @@ import org.slf4j.LoggerFactory;
 public class SfcOfRspDataListener implements DataTreeChangeListener<RenderedServicePath>, AutoCloseable {
     private static final Logger LOG = LoggerFactory.getLogger(SfcOfRspDataListener.class);
     private final SfcOfRspProcessor sfcOfRspProcessor;
+    private final SfcOfRenderScheduler renderScheduler;
     private final ListenerRegistration<SfcOfRspDataListener> rspListenerRegistration;
 
     public SfcOfRspDataListener(DataBroker dataBroker, SfcOfRspProcessor sfcOfRspProcessor) {
+        this(dataBroker, sfcOfRspProcessor, null);
+    }
+
+    public SfcOfRspDataListener(DataBroker dataBroker, SfcOfRspProcessor sfcOfRspProcessor,
+                                SfcOfRenderScheduler renderScheduler) {
+        this.sfcOfRspProcessor = sfcOfRspProcessor;
+        this.renderScheduler = renderScheduler;
         rspListenerRegistration = dataBroker.registerDataTreeChangeListener(
                 new DataTreeIdentifier<>(LogicalDatastoreType.OPERATIONAL, SfcInstanceIdentifiers.RSP_ENTRY_IID), this);
-        this.sfcOfRspProcessor = sfcOfRspProcessor;
     }
 
     @Override
@@ -52,19 +66,27 @@ public class SfcOfRspDataListener implements DataTreeChangeListener<RenderedServ
                 case SUBTREE_MODIFIED:
                     if (rootNode.getDataBefore() == null && rootNode.getDataAfter() != null) {
                         LOG.info("SfcOfRspDataListener.onDataTreeChanged create RSP {}", rootNode.getDataAfter());
-                        sfcOfRspProcessor.processRenderedServicePath(rootNode.getDataAfter());
+                        RenderedServicePath createdRsp = rootNode.getDataAfter();
+                        schedule(Lane.CREATE, createdRsp, () -> sfcOfRspProcessor.processRenderedServicePath(
+                                createdRsp));
                     } else if (rootNode.getDataAfter().equals(rootNode.getDataBefore())) {
                         LOG.info("SfcOfRspDataListener.onDataTreeChanged update RSP Before:{} After:{}",
                                 rootNode.getDataAfter(), rootNode.getDataBefore());
                         // This clause supports re-rendering of unmodified RSPs
-                        sfcOfRspProcessor.deleteRenderedServicePath(rootNode.getDataBefore());
-                        sfcOfRspProcessor.processRenderedServicePath(rootNode.getDataAfter());
+                        RenderedServicePath rspBefore = rootNode.getDataBefore();
+                        RenderedServicePath rspAfter = rootNode.getDataAfter();
+                        schedule(Lane.UPDATE, rspAfter, () -> {
+                            sfcOfRspProcessor.deleteRenderedServicePath(rspBefore);
+                            sfcOfRspProcessor.processRenderedServicePath(rspAfter);
+                        });
                     }
                     break;
                 case DELETE:
                     if (rootNode.getDataBefore() != null) {
                         LOG.info("SfcOfRspDataListener.onDataTreeChanged delete RSP {}", rootNode.getDataBefore());
-                        sfcOfRspProcessor.deleteRenderedServicePath(rootNode.getDataBefore());
+                        RenderedServicePath deletedRsp = rootNode.getDataBefore();
+                        schedule(Lane.DELETE, deletedRsp, () -> sfcOfRspProcessor.deleteRenderedServicePath(
+                                deletedRsp));
                     }
                     break;
                 default:
@@ -73,6 +95,24 @@ public class SfcOfRspDataListener implements DataTreeChangeListener<RenderedServ
         }
     }
 
+    /**
+     * Run the processing of a RSP event, through the render scheduler if
+     * there is one. The RSP events are never dropped: when the lane is full,
+     * the notification thread waits for room in it.
+     */
+    private void schedule(Lane lane, RenderedServicePath rsp, Runnable task) {
+        if (renderScheduler == null) {
+            task.run();
+            return;
+        }
+        try {
+            renderScheduler.submit(lane, rsp.getName(), task);
+        } catch (InterruptedException e) {
+            LOG.error("SfcOfRspDataListener interrupted, {} RSP {} not processed", lane, rsp.getName());
+            Thread.currentThread().interrupt();
+        }
+    }
+
     @Override
     public void close() throws Exception {
         rspListenerRegistration.close();
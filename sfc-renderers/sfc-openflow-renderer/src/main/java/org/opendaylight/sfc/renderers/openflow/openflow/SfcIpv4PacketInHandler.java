@@ -16,6 +16,8 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Map.Entry;
+import org.opendaylight.sfc.renderers.openflow.utils.SfcOfRenderScheduler;
+import org.opendaylight.sfc.renderers.openflow.utils.SfcOfRenderScheduler.Lane;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.Node;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.model.match.types.rev131026.match.Metadata;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.packet.service.rev130709.PacketProcessingListener;
@@ -38,6 +40,13 @@ import org.slf4j.LoggerFactory;
  * the SF will establish a connection with the client (send TCP SynAck to
  * client), and then establish a separate connection with the server (send TCP
  * Syn to server).
+ *
+ * <p>
+ * When given a {@link SfcOfRenderScheduler}, the PathMapperAcl rules are
+ * programmed by the scheduler in its packet-in lane, so that they are not
+ * mixed up with the flows of the RSPs being rendered. A packet that is not
+ * admitted to the lane is not buffered, so that the rules are programmed on
+ * a later packet of the same connection.
  */
 
 public class SfcIpv4PacketInHandler implements PacketProcessingListener, AutoCloseable {
@@ -52,13 +61,19 @@ public class SfcIpv4PacketInHandler implements PacketProcessingListener, AutoClo
     private static final int DEFAULT_PACKET_COUNT_PURGE = 100;
 
     private final SfcOfFlowProgrammerImpl flowProgrammer;
+    private final SfcOfRenderScheduler renderScheduler;
     private final Map<String, Long> pktInBuffer;
     private int maxBufferTime;
     private int packetCountPurge;
     private int packetCount;
 
     public SfcIpv4PacketInHandler(SfcOfFlowProgrammerImpl flowProgrammer) {
+        this(flowProgrammer, null);
+    }
+
+    public SfcIpv4PacketInHandler(SfcOfFlowProgrammerImpl flowProgrammer, SfcOfRenderScheduler renderScheduler) {
         this.flowProgrammer = flowProgrammer;
+        this.renderScheduler = renderScheduler;
         pktInBuffer = new HashMap<>();
         maxBufferTime = DEFAULT_MAX_BUFFER_TIME;
         packetCountPurge = DEFAULT_PACKET_COUNT_PURGE;
@@ -168,6 +183,17 @@ public class SfcIpv4PacketInHandler implements PacketProcessingListener, AutoClo
         // - instance identifier for the nodeConnectorRef
         final String nodeName = packetIn.getIngress().getValue().firstKeyOf(Node.class).getId().getValue();
 
+        if (renderScheduler == null) {
+            configurePathMapperAclFlows(nodeName, pktSrcIpStr, pktDstIpStr, ulPathId, dlPathId);
+        } else if (!renderScheduler.trySubmit(Lane.PACKET_IN, null,
+                () -> configurePathMapperAclFlows(nodeName, pktSrcIpStr, pktDstIpStr, ulPathId, dlPathId))) {
+            LOG.warn("SfcIpv4PacketInHandler packet-in lane full, discarding packet");
+            pktInBuffer.remove(pktSrcIpStr + pktDstIpStr);
+        }
+    }
+
+    private void configurePathMapperAclFlows(String nodeName, String pktSrcIpStr, String pktDstIpStr, short ulPathId,
+                                             short dlPathId) {
         // Configure the uplink packet
         if (ulPathId >= 0) {
             this.flowProgrammer.setFlowRspId((long) ulPathId);
@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.renderers.openflow.openflow;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.opendaylight.sfc.util.openflow.writer.FlowDetails;
+import org.opendaylight.sfc.util.openflow.writer.SfcOfFlowCollector;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.TableKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.FlowBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.group.types.rev131018.groups.GroupBuilder;
+
+/**
+ * Flow collector of a render context (see
+ * {@link SfcOfFlowProgrammerInterface#newRenderContext()}), which only buffers
+ * the flows collected, in order, so that they are later handed over to the
+ * flow writer of the renderer. Groups are not buffered but handed over
+ * straight away to the flow writer of the renderer.
+ */
+class SfcOfFlowBuffer implements SfcOfFlowCollector {
+
+    private final SfcOfFlowCollector sfcOfFlowWriter;
+    private final List<FlowDetails> flows = new ArrayList<>();
+
+    SfcOfFlowBuffer(SfcOfFlowCollector sfcOfFlowWriter) {
+        this.sfcOfFlowWriter = sfcOfFlowWriter;
+    }
+
+    /**
+     * Get the flows collected by this buffer.
+     *
+     * @return the flows, in the order they were collected
+     */
+    List<FlowDetails> getFlows() {
+        return Collections.unmodifiableList(flows);
+    }
+
+    @Override
+    public void writeFlow(Long rspId, String sffNodeName, FlowBuilder flow) {
+        flows.add(new FlowDetails(sffNodeName, flow.key(), new TableKey(flow.getTableId()), flow.build(), rspId));
+    }
+
+    @Override
+    public void writeGroupToDataStore(String sffNodeName, GroupBuilder gb, boolean isAdd) {
+        sfcOfFlowWriter.writeGroupToDataStore(sffNodeName, gb, isAdd);
+    }
+}
@@ -23,6 +23,7 @@ import org.opendaylight.sfc.ovs.provider.SfcOvsUtil;
 import org.opendaylight.sfc.renderers.openflow.sfg.GroupBucketInfo;
 import org.opendaylight.sfc.util.openflow.OpenflowConstants;
 import org.opendaylight.sfc.util.openflow.SfcOpenflowUtils;
+import org.opendaylight.sfc.util.openflow.writer.SfcOfFlowCollector;
 import org.opendaylight.sfc.util.openflow.writer.SfcOfFlowWriterInterface;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.IpAddress;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Ipv4Address;
@@ -136,6 +137,9 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
     private short tableEgress;
     private Long flowRspId;
     private SfcOfFlowWriterInterface sfcOfFlowWriter = null;
+    // Collects the flows created, the flow writer itself unless this is a
+    // render context
+    private SfcOfFlowCollector flowCollector = null;
 
     private SfcTableIndexMapper tableIndexMapper = null;
 
@@ -150,11 +154,13 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         this.tableEgress = APP_COEXISTENCE_NOT_SET;
         this.flowRspId = 0L;
         this.sfcOfFlowWriter = sfcOfFlowWriter;
+        this.flowCollector = sfcOfFlowWriter;
     }
 
     @Override
     public void setFlowWriter(SfcOfFlowWriterInterface writer) {
         this.sfcOfFlowWriter = writer;
+        this.flowCollector = writer;
     }
 
     // This method should only be called by SfcOfRenderer.close()
@@ -197,6 +203,27 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         this.flowRspId = rspId;
     }
 
+    @Override
+    public Optional<SfcOfFlowProgrammerInterface> newRenderContext() {
+        SfcOfFlowProgrammerImpl renderContext = new SfcOfFlowProgrammerImpl(sfcOfFlowWriter);
+        renderContext.flowCollector = new SfcOfFlowBuffer(sfcOfFlowWriter);
+        renderContext.tableBase = tableBase;
+        renderContext.tableEgress = tableEgress;
+        renderContext.flowRspId = flowRspId;
+        renderContext.tableIndexMapper = tableIndexMapper;
+        return Optional.of(renderContext);
+    }
+
+    @Override
+    public void mergeRenderContext(SfcOfFlowProgrammerInterface renderContext) {
+        if (!(renderContext instanceof SfcOfFlowProgrammerImpl)
+                || !(((SfcOfFlowProgrammerImpl) renderContext).flowCollector instanceof SfcOfFlowBuffer)) {
+            throw new IllegalArgumentException("Not a render context: " + renderContext);
+        }
+        SfcOfFlowBuffer flowBuffer = (SfcOfFlowBuffer) ((SfcOfFlowProgrammerImpl) renderContext).flowCollector;
+        sfcOfFlowWriter.writeFlows(flowBuffer.getFlows());
+    }
+
     @Override
     public Set<NodeId> deleteRspFlows(final long rspId) {
         sfcOfFlowWriter.deleteRspFlows(rspId);
@@ -256,7 +283,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
 
         FlowBuilder flowBuilder = configureTableMatchAnyFlow(getTableId(TABLE_INDEX_CLASSIFIER),
                 getTableId(TABLE_INDEX_TRANSPORT_INGRESS));
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, flowBuilder);
+        flowCollector.writeFlow(flowRspId, sffNodeName, flowBuilder);
     }
 
     /**
@@ -292,7 +319,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         FlowBuilder classifierDpdkOutputFlow = SfcOpenflowUtils.createFlowBuilder(getTableId(TABLE_INDEX_CLASSIFIER),
                 OF_PRIORITY_CLASSIFIER, flowName.toString(), match, isb);
 
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, classifierDpdkOutputFlow);
+        flowCollector.writeFlow(flowRspId, sffNodeName, classifierDpdkOutputFlow);
     }
 
     /**
@@ -327,7 +354,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         FlowBuilder classifierDpdkInputFlow = SfcOpenflowUtils.createFlowBuilder(getTableId(TABLE_INDEX_CLASSIFIER),
                 OF_PRIORITY_CLASSIFIER, flowName.toString(), match, isb);
 
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, classifierDpdkInputFlow);
+        flowCollector.writeFlow(flowRspId, sffNodeName, classifierDpdkInputFlow);
     }
 
     /**
@@ -344,7 +371,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         }
 
         FlowBuilder flowBuilder = configureTableMatchAnyDropFlow(getTableId(TABLE_INDEX_TRANSPORT_INGRESS));
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, flowBuilder);
+        flowCollector.writeFlow(flowRspId, sffNodeName, flowBuilder);
     }
 
     /**
@@ -364,7 +391,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
 
         FlowBuilder flowBuilder = configureTableMatchAnyFlowResubmit(getTableId(TABLE_INDEX_TRANSPORT_INGRESS),
                  nextTableId);
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, flowBuilder);
+        flowCollector.writeFlow(flowRspId, sffNodeName, flowBuilder);
     }
 
     /**
@@ -378,7 +405,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
     public void configurePathMapperTableMatchAny(final String sffNodeName) {
         FlowBuilder flowBuilder = configureTableMatchAnyFlow(getTableId(TABLE_INDEX_PATH_MAPPER),
                 getTableId(TABLE_INDEX_PATH_MAPPER_ACL));
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, flowBuilder);
+        flowCollector.writeFlow(flowRspId, sffNodeName, flowBuilder);
     }
 
     /**
@@ -392,7 +419,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
     public void configurePathMapperAclTableMatchAny(final String sffNodeName) {
         FlowBuilder flowBuilder = configureTableMatchAnyFlow(getTableId(TABLE_INDEX_PATH_MAPPER_ACL),
                 getTableId(TABLE_INDEX_NEXT_HOP));
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, flowBuilder);
+        flowCollector.writeFlow(flowRspId, sffNodeName, flowBuilder);
     }
 
     /**
@@ -406,7 +433,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
     public void configureNextHopTableMatchAny(final String sffNodeName) {
         FlowBuilder flowBuilder = configureTableMatchAnyFlow(getTableId(TABLE_INDEX_NEXT_HOP),
                 getTableId(TABLE_INDEX_TRANSPORT_EGRESS));
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, flowBuilder);
+        flowCollector.writeFlow(flowRspId, sffNodeName, flowBuilder);
     }
 
     /**
@@ -420,7 +447,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         // This is the last table, can't set next table AND doDrop should be
         // false
         FlowBuilder flowBuilder = configureTableMatchAnyDropFlow(getTableId(TABLE_INDEX_TRANSPORT_EGRESS));
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, flowBuilder);
+        flowCollector.writeFlow(flowRspId, sffNodeName, flowBuilder);
     }
 
     @Override
@@ -428,7 +455,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
 
         FlowBuilder flowBuilder = configureTableMatchAnyFlowResubmit(getTableId(TABLE_INDEX_TRANSPORT_EGRESS),
                 nextTableId);
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, flowBuilder);
+        flowCollector.writeFlow(flowRspId, sffNodeName, flowBuilder);
     }
 
     /**
@@ -537,11 +564,11 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
     public void configureIpv4TransportIngressFlow(final String sffNodeName) {
         FlowBuilder transportIngressFlowTcp = configureTransportIngressFlow(SfcOpenflowUtils.ETHERTYPE_IPV4,
                 SfcOpenflowUtils.IP_PROTOCOL_TCP, OpenflowConstants.OF_NAME_TRANSPORT_INGRESS_TCP);
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, transportIngressFlowTcp);
+        flowCollector.writeFlow(flowRspId, sffNodeName, transportIngressFlowTcp);
 
         FlowBuilder transportIngressFlowUdp = configureTransportIngressFlow(SfcOpenflowUtils.ETHERTYPE_IPV4,
                 SfcOpenflowUtils.IP_PROTOCOL_UDP, OpenflowConstants.OF_NAME_TRANSPORT_INGRESS_UDP);
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, transportIngressFlowUdp);
+        flowCollector.writeFlow(flowRspId, sffNodeName, transportIngressFlowUdp);
     }
 
     /**
@@ -564,7 +591,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
 
         FlowBuilder transportIngressFlow =
                 configureTransportIngressFlow(match, OpenflowConstants.OF_NAME_TRANSPORT_INGRESS_VLAN);
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, transportIngressFlow);
+        flowCollector.writeFlow(flowRspId, sffNodeName, transportIngressFlow);
     }
 
     /**
@@ -579,7 +606,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
 
         FlowBuilder transportIngressFlow =
                 configureTransportIngressFlow(match, OpenflowConstants.OF_NAME_TRANSPORT_INGRESS_MAC);
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, transportIngressFlow);
+        flowCollector.writeFlow(flowRspId, sffNodeName, transportIngressFlow);
     }
 
     /**
@@ -595,7 +622,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
                 (short) -1,
                 getTableId(TABLE_INDEX_NEXT_HOP),
                 OpenflowConstants.OF_NAME_TRANSPORT_INGRESS_ETH_NSH);
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, transportIngressFlow);
+        flowCollector.writeFlow(flowRspId, sffNodeName, transportIngressFlow);
     }
 
     /**
@@ -619,7 +646,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
                 getTableId(TABLE_INDEX_NEXT_HOP),
                 OpenflowConstants.OF_NAME_TRANSPORT_INGRESS_NSH,
                 actionList);
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, transportIngressFlow);
+        flowCollector.writeFlow(flowRspId, sffNodeName, transportIngressFlow);
     }
 
     /**
@@ -633,7 +660,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
     public void configureMplsTransportIngressFlow(final String sffNodeName) {
         FlowBuilder transportIngressFlow = configureTransportIngressFlow(
                 SfcOpenflowUtils.ETHERTYPE_MPLS_UCAST, OpenflowConstants.OF_NAME_TRANSPORT_INGRESS_MPLS);
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, transportIngressFlow);
+        flowCollector.writeFlow(flowRspId, sffNodeName, transportIngressFlow);
     }
 
     /**
@@ -758,7 +785,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
                 getTableId(TABLE_INDEX_TRANSPORT_INGRESS), OF_PRIORITY_ARP_TRANSPORT_INGRESS,
                 flowName.toString(), match, isb);
 
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, arpTransportIngressFlow);
+        flowCollector.writeFlow(flowRspId, sffNodeName, arpTransportIngressFlow);
     }
 
     @Override
@@ -786,7 +813,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         FlowBuilder sfFlow = SfcOpenflowUtils.createFlowBuilder(getTableId(TABLE_INDEX_TRANSPORT_INGRESS),
                 OF_PRIORITY_ARP_TRANSPORT_INGRESS, flowName.toString(), match, isb);
 
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, sfFlow);
+        flowCollector.writeFlow(flowRspId, sffNodeName, sfFlow);
     }
 
     @Override
@@ -813,7 +840,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         FlowBuilder sfFlow = SfcOpenflowUtils.createFlowBuilder(getTableId(TABLE_INDEX_TRANSPORT_INGRESS),
                 OF_PRIORITY_ARP_TRANSPORT_INGRESS, flowName.toString(), match, isb);
 
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, sfFlow);
+        flowCollector.writeFlow(flowRspId, sffNodeName, sfFlow);
     }
 
     //
@@ -847,7 +874,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         } else {
             pathMapperFlow = configurePathMapperFlow(pathId, match, actionList);
         }
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, pathMapperFlow);
+        flowCollector.writeFlow(flowRspId, sffNodeName, pathMapperFlow);
     }
 
     /**
@@ -877,7 +904,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         } else {
             pathMapperFlow = configurePathMapperFlow(pathId, match, actionList);
         }
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, pathMapperFlow);
+        flowCollector.writeFlow(flowRspId, sffNodeName, pathMapperFlow);
     }
 
     /**
@@ -986,7 +1013,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         // Set an idle timeout on this flow
         ingressFlow.setIdleTimeout(PKTIN_IDLE_TIMEOUT);
 
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, ingressFlow);
+        flowCollector.writeFlow(flowRspId, sffNodeName, ingressFlow);
     }
 
     //
@@ -1032,7 +1059,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         flowName.add(OpenflowConstants.OF_NAME_NEXT_HOP).add(String.valueOf(pathId)).add(srcMac).add(dstMac);
 
         FlowBuilder nextHopFlow = configureNextHopFlow(match, actionList, flowPriority, flowName.toString());
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, nextHopFlow);
+        flowCollector.writeFlow(flowRspId, sffNodeName, nextHopFlow);
     }
 
     /**
@@ -1077,7 +1104,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         flowName.add(OpenflowConstants.OF_NAME_NEXT_HOP).add(vmac).add(nextVMac).add(dstSfMac);
 
         FlowBuilder nextHopFlow = configureNextHopFlow(match, actionList, OF_PRIORITY_NEXT_HOP, flowName.toString());
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, nextHopFlow);
+        flowCollector.writeFlow(flowRspId, sffNodeName, nextHopFlow);
     }
 
     /**
@@ -1118,7 +1145,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         flowName.add(OpenflowConstants.OF_NAME_NEXT_HOP).add(String.valueOf(nshNsi)).add(String.valueOf(nshNsp));
 
         FlowBuilder nextHopFlow = configureNextHopFlow(match, actionList, flowName.toString());
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, nextHopFlow);
+        flowCollector.writeFlow(flowRspId, sffNodeName, nextHopFlow);
     }
 
     /**
@@ -1149,7 +1176,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         MatchBuilder match = SfcOpenflowUtils.getNshMatches(nsp, nsi);
 
         FlowBuilder nextHopFlow = configureNextHopFlow(match, actionList, flowName.toString());
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, nextHopFlow);
+        flowCollector.writeFlow(flowRspId, sffNodeName, nextHopFlow);
     }
 
     /**
@@ -1218,7 +1245,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
                                                                        OF_PRIORITY_TRANSPORT_EGRESS,
                                                                        TRANSPORT_EGRESS_MAC_CHAINING_COOKIE,
                                                                        flowName.toString());
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, transportEgressFlow);
+        flowCollector.writeFlow(flowRspId, sffNodeName, transportEgressFlow);
     }
 
     @Override
@@ -1244,7 +1271,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
 
         FlowBuilder transportEgressFlow = configureMacTransportEgressFlow(match, actionList, port, pathId, srcMac,
                 dstMac, TRANSPORT_EGRESS_VLAN_SF_COOKIE);
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, transportEgressFlow);
+        flowCollector.writeFlow(flowRspId, sffNodeName, transportEgressFlow);
     }
 
     /**
@@ -1335,7 +1362,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
 
         FlowBuilder transportEgressFlow = configureMacTransportEgressFlow(match, actionList, port, pathId, srcMac,
                 dstMac, cookieStr);
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, transportEgressFlow);
+        flowCollector.writeFlow(flowRspId, sffNodeName, transportEgressFlow);
     }
 
     /**
@@ -1425,7 +1452,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
 
         FlowBuilder transportEgressFlow = configureMacTransportEgressFlow(match, actionList, port, pathId, srcMac,
                 dstMac, cookieStr);
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, transportEgressFlow);
+        flowCollector.writeFlow(flowRspId, sffNodeName, transportEgressFlow);
     }
 
     /**
@@ -1493,7 +1520,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
 
         FlowBuilder transportEgressFlow = configureTransportEgressFlow(match, actionList, theOutPortToSet, flowPriority,
                 TRANSPORT_EGRESS_NSH_VXGPE_LASTHOP_COOKIE, flowName.toString());
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, transportEgressFlow);
+        flowCollector.writeFlow(flowRspId, sffNodeName, transportEgressFlow);
     }
 
     /**
@@ -1554,7 +1581,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         FlowBuilder fb = SfcOpenflowUtils.createFlowBuilder(getTableId(TABLE_INDEX_TRANSPORT_EGRESS),
                 OF_PRIORITY_TRANSPORT_EGRESS_PIPELINE, cookie, flowName.toString(), match, isb);
 
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, fb);
+        flowCollector.writeFlow(flowRspId, sffNodeName, fb);
     }
 
     @Override
@@ -1643,7 +1670,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         FlowBuilder fb = SfcOpenflowUtils.createFlowBuilder(getTableId(TABLE_INDEX_TRANSPORT_EGRESS),
                 OF_PRIORITY_TRANSPORT_EGRESS_TUNNEL_REMOTE, cookie, flowName.toString(), match, isb);
 
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, fb);
+        flowCollector.writeFlow(flowRspId, sffNodeName, fb);
     }
 
     /**
@@ -1711,7 +1738,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         FlowBuilder fb = SfcOpenflowUtils.createFlowBuilder(getTableId(TABLE_INDEX_TRANSPORT_EGRESS),
                 OF_PRIORITY_TRANSPORT_EGRESS_TUNNEL_LOCAL, cookie, flowName.toString(), match, isb);
 
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, fb);
+        flowCollector.writeFlow(flowRspId, sffNodeName, fb);
     }
 
     /**
@@ -1765,7 +1792,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         FlowBuilder fb = SfcOpenflowUtils.createFlowBuilder(getTableId(TABLE_INDEX_TRANSPORT_EGRESS),
                 OF_PRIORITY_TRANSPORT_EGRESS_NSH_LOCAL, cookie, flowName.toString(), match, isb);
 
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, fb);
+        flowCollector.writeFlow(flowRspId, sffNodeName, fb);
     }
 
     /**
@@ -1822,7 +1849,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         FlowBuilder fb = SfcOpenflowUtils.createFlowBuilder(getTableId(TABLE_INDEX_TRANSPORT_EGRESS),
                 OF_PRIORITY_TRANSPORT_EGRESS_NSH_REMOTE, cookie, flowName.toString(), match, isb);
 
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, fb);
+        flowCollector.writeFlow(flowRspId, sffNodeName, fb);
     }
 
     @Override
@@ -1877,7 +1904,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
 
         FlowBuilder transportEgressFlow = configureTransportEgressFlow(match, actionList, theOutPortToSet, flowPriority,
                 TRANSPORT_EGRESS_NSH_VXGPE_COOKIE, flowName.toString());
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, transportEgressFlow);
+        flowCollector.writeFlow(flowRspId, sffNodeName, transportEgressFlow);
     }
 
     /**
@@ -1915,7 +1942,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
 
         FlowBuilder transportEgressFlow = configureTransportEgressFlow(match, actionList, port,
                 OF_PRIORITY_TRANSPORT_EGRESS + 10, TRANSPORT_EGRESS_NSH_VXGPE_NSC_COOKIE, flowName.toString());
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, transportEgressFlow);
+        flowCollector.writeFlow(flowRspId, sffNodeName, transportEgressFlow);
     }
 
     @Override
@@ -1948,7 +1975,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
 
         FlowBuilder transportEgressFlow = configureTransportEgressFlow(match, actionList, EMPTY_SWITCH_PORT,
                 OF_PRIORITY_TRANSPORT_EGRESS + 10, TRANSPORT_EGRESS_NSH_VXGPE_APPCOEXIST_COOKIE, flowName.toString());
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, transportEgressFlow);
+        flowCollector.writeFlow(flowRspId, sffNodeName, transportEgressFlow);
     }
 
     /**
@@ -1975,7 +2002,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         List<Action> actionList = new ArrayList<>();
         FlowBuilder transportEgressFlow = configureTransportEgressFlow(match, actionList, port,
                 OF_PRIORITY_TRANSPORT_EGRESS, TRANSPORT_EGRESS_NSH_ETH_COOKIE, flowName.toString());
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, transportEgressFlow);
+        flowCollector.writeFlow(flowRspId, sffNodeName, transportEgressFlow);
     }
 
     @Override
@@ -2086,7 +2113,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
 
         FlowBuilder transportEgressFlowBuilder = SfcOpenflowUtils.createFlowBuilder(
                 getTableId(TABLE_INDEX_TRANSPORT_EGRESS), flowPriority, cookie, flowName, match, isb);
-        sfcOfFlowWriter.writeFlow(flowRspId, openflowName, transportEgressFlowBuilder);
+        flowCollector.writeFlow(flowRspId, openflowName, transportEgressFlowBuilder);
     }
 
     @Override
@@ -2111,7 +2138,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         bbs.setBucket(buckets);
         gb.setBuckets(bbs.build());
         String nodeName = openflowNodeId != null ? openflowNodeId : sffNodeName;
-        sfcOfFlowWriter.writeGroupToDataStore(nodeName, gb, isAddGroup);
+        flowCollector.writeGroupToDataStore(nodeName, gb, isAddGroup);
     }
 
     private Bucket buildBucket(BucketBuilder bb, GroupBucketInfo bucketInfo) {
@@ -2190,7 +2217,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         // Create and configure the FlowBuilder
         FlowBuilder nextHopFlow = SfcOpenflowUtils.createFlowBuilder(getTableId(TABLE_INDEX_NEXT_HOP), flowPriority,
                 OpenflowConstants.OF_NAME_NEXT_HOP, match, isb);
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, nextHopFlow);
+        flowCollector.writeFlow(flowRspId, sffNodeName, nextHopFlow);
     }
 
     private static BigInteger getMetadataSFP(long sfpId) {
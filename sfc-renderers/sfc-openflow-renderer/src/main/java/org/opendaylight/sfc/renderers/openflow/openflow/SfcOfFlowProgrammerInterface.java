@@ -9,6 +9,7 @@
 package org.opendaylight.sfc.renderers.openflow.openflow;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import org.opendaylight.sfc.genius.util.appcoexistence.SfcTableIndexMapper;
@@ -66,6 +67,31 @@ public interface SfcOfFlowProgrammerInterface {
     // Set FlowWriter implementation
     void setFlowWriter(SfcOfFlowWriterInterface sfcOfFlowWriter);
 
+    /**
+     * Create a render context: a flow programmer with the current table
+     * configuration, flow RSP id and table index mapper of this one, which
+     * buffers the flows it creates on its own. Render contexts are
+     * independent of each other and of this flow programmer, so the flows of
+     * a RSP can be created concurrently, each render context being used by a
+     * single thread. Only the flow creation methods of a render context are
+     * meant to be used.
+     *
+     * @return the render context, or empty if this flow programmer does not
+     *         support concurrent flow creation
+     */
+    Optional<SfcOfFlowProgrammerInterface> newRenderContext();
+
+    /**
+     * Hand the flows buffered by a render context over to this flow
+     * programmer, to be written on the next {@link #flushFlows()}.
+     *
+     * @param renderContext
+     *            a render context created by this flow programmer
+     * @throws IllegalArgumentException
+     *             if renderContext was not created by this flow programmer
+     */
+    void mergeRenderContext(SfcOfFlowProgrammerInterface renderContext);
+
     //
     // Configure Table 1, Transport Ingress
     //
@@ -0,0 +1,315 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.renderers.openflow.processors;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+import org.opendaylight.sfc.provider.api.SfcLatencyHistogram;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SffName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.RenderedServicePath;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.rendered.service.path.RenderedServicePathHop;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sl.rev140701.DataPlaneLocator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Cache of RSP render plans, used by {@link SfcOfRspProcessor}.
+ *
+ * <p>
+ * A render plan holds the outcome of the SFF data plane locator selection
+ * and, for the transports where they only depend on the hops, of the RSP
+ * transport calculation. Many RSPs go through the same SF/SFF hops, and only
+ * differ in their path id and service indexes: such RSPs share a render plan,
+ * which is keyed by the transport, the encapsulation and the SFF, SF and SFG
+ * of each hop. Rendering an RSP over a known hop sequence then only sets the
+ * planned data plane locators in the SFF graph of the RSP under its own path
+ * id.
+ *
+ * <p>
+ * The cache is disabled - every RSP is planned from scratch - until
+ * {@link #enable(long)} is called by the component that also keeps it fresh,
+ * invalidating the plans through any changed SF, SFF or SFG. A RSP is planned
+ * against the generation taken with {@link #getGeneration()} beforehand, and
+ * {@link #put(RenderedServicePath, RenderPlan, long)} drops the plan if a SF,
+ * SFF or SFG changed since then, as it may rely on their former locators.
+ */
+public class SfcOfRenderPlanCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SfcOfRenderPlanCache.class);
+
+    private final SfcLatencyHistogram hitRenderLatency = new SfcLatencyHistogram("rsp-render-plan-hit");
+    private final SfcLatencyHistogram missRenderLatency = new SfcLatencyHistogram("rsp-render-plan-miss");
+    private final Object generationLock = new Object();
+    private long generation;
+    private volatile Cache<Key, RenderPlan> cache;
+
+    /**
+     * Enable the cache.
+     *
+     * @param maximumSize
+     *            maximum number of render plans held by the cache
+     */
+    public void enable(long maximumSize) {
+        synchronized (generationLock) {
+            generation++;
+            cache = CacheBuilder.newBuilder().maximumSize(maximumSize).build();
+        }
+        LOG.info("RSP render plan cache enabled, maximum size {}", maximumSize);
+    }
+
+    /**
+     * Disable the cache, dropping its contents.
+     */
+    public void disable() {
+        synchronized (generationLock) {
+            generation++;
+            cache = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    /**
+     * Get the render plan for the hops of a RSP.
+     *
+     * @param rsp
+     *            the RSP
+     * @return the render plan, or null if there is none
+     */
+    public RenderPlan get(RenderedServicePath rsp) {
+        Cache<Key, RenderPlan> theCache = cache;
+        return theCache == null ? null : theCache.getIfPresent(new Key(rsp));
+    }
+
+    /**
+     * Get the current generation of the cache, to be passed on to
+     * {@link #put(RenderedServicePath, RenderPlan, long)} for a plan computed
+     * afterwards.
+     *
+     * @return the current generation
+     */
+    public long getGeneration() {
+        synchronized (generationLock) {
+            return generation;
+        }
+    }
+
+    /**
+     * Cache the render plan for the hops of a RSP, unless the cache was
+     * invalidated since the plan computation started.
+     *
+     * @param rsp
+     *            the RSP
+     * @param renderPlan
+     *            the render plan
+     * @param planGeneration
+     *            the generation of the cache when the plan computation
+     *            started
+     */
+    public void put(RenderedServicePath rsp, RenderPlan renderPlan, long planGeneration) {
+        synchronized (generationLock) {
+            Cache<Key, RenderPlan> theCache = cache;
+            if (theCache != null && planGeneration == generation) {
+                theCache.put(new Key(rsp), renderPlan);
+            }
+        }
+    }
+
+    /**
+     * Invalidate the render plans of the hop sequences going through a SF.
+     *
+     * @param sfName
+     *            the SF name
+     */
+    public void invalidateSf(SfName sfName) {
+        invalidateIf(key -> key.sfNames.contains(sfName));
+    }
+
+    /**
+     * Invalidate the render plans of the hop sequences going through a SFF.
+     *
+     * @param sffName
+     *            the SFF name
+     */
+    public void invalidateSff(SffName sffName) {
+        invalidateIf(key -> key.sffNames.contains(sffName));
+    }
+
+    /**
+     * Invalidate the render plans of the hop sequences going through a SFG.
+     *
+     * @param sfgName
+     *            the SFG name
+     */
+    public void invalidateSfg(String sfgName) {
+        invalidateIf(key -> key.sfgNames.contains(sfgName));
+    }
+
+    public void invalidateAll() {
+        invalidateIf(key -> true);
+    }
+
+    private void invalidateIf(Predicate<Key> predicate) {
+        synchronized (generationLock) {
+            generation++;
+            Cache<Key, RenderPlan> theCache = cache;
+            if (theCache != null) {
+                theCache.asMap().keySet().removeIf(predicate);
+            }
+        }
+    }
+
+    public long size() {
+        Cache<Key, RenderPlan> theCache = cache;
+        return theCache == null ? 0 : theCache.size();
+    }
+
+    /**
+     * Record the time taken to render a RSP.
+     *
+     * @param planHit
+     *            whether the RSP was rendered with a cached render plan
+     * @param startNanos
+     *            the {@link System#nanoTime()} when rendering started
+     */
+    public void recordRenderTime(boolean planHit, long startNanos) {
+        (planHit ? hitRenderLatency : missRenderLatency).recordSince(startNanos);
+    }
+
+    public SfcLatencyHistogram getHitRenderLatency() {
+        return hitRenderLatency;
+    }
+
+    public SfcLatencyHistogram getMissRenderLatency() {
+        return missRenderLatency;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("RSP render plans: size=%d renderWithPlan=%s renderWithoutPlan=%s", size(),
+                hitRenderLatency, missRenderLatency);
+    }
+
+    /**
+     * Planned data plane locators of the SFFs of a hop sequence.
+     */
+    public static final class RenderPlan {
+        private final List<SffGraph.SffDataPlaneLocators> sffDpls;
+        private final DataPlaneLocator pathEgressDpl;
+        private final boolean includesRspTransports;
+
+        private RenderPlan(List<SffGraph.SffDataPlaneLocators> sffDpls, DataPlaneLocator pathEgressDpl,
+                           boolean includesRspTransports) {
+            this.sffDpls = sffDpls;
+            this.pathEgressDpl = pathEgressDpl;
+            this.includesRspTransports = includesRspTransports;
+        }
+
+        /**
+         * Build a render plan from the SFF graph of a RSP whose data plane
+         * locators have been processed.
+         *
+         * @param sffGraph
+         *            the SFF graph
+         * @param pathId
+         *            the RSP path id
+         * @param includesRspTransports
+         *            whether the RSP transports, namely the hop ingress and
+         *            path egress data plane locators, are to be part of the
+         *            plan
+         * @return the render plan
+         */
+        public static RenderPlan of(SffGraph sffGraph, long pathId, boolean includesRspTransports) {
+            List<SffGraph.SffDataPlaneLocators> sffDpls = new ArrayList<>();
+            Map<SffName, SffGraph.SffDataPlaneLocators> pathSffDpls = sffGraph.getSffDplsForPath(pathId);
+            if (pathSffDpls != null) {
+                // copy, the graph entries are changed in place
+                pathSffDpls.values().forEach(sffDpl -> sffDpls.add(new SffGraph.SffDataPlaneLocators(
+                        sffDpl.getSffName(), pathId, sffDpl.getIngressDplName(), sffDpl.getEgressDplName(),
+                        includesRspTransports ? sffDpl.getIngressHopDpl() : null)));
+            }
+            return new RenderPlan(Collections.unmodifiableList(sffDpls),
+                    includesRspTransports ? sffGraph.getPathEgressDpl(pathId) : null, includesRspTransports);
+        }
+
+        /**
+         * Set the planned data plane locators in the SFF graph of a RSP.
+         *
+         * @param sffGraph
+         *            the SFF graph
+         * @param pathId
+         *            the RSP path id
+         */
+        public void applyTo(SffGraph sffGraph, long pathId) {
+            for (SffGraph.SffDataPlaneLocators sffDpl : sffDpls) {
+                sffGraph.setSffIngressDpl(sffDpl.getSffName(), pathId, sffDpl.getIngressDplName());
+                sffGraph.setSffEgressDpl(sffDpl.getSffName(), pathId, sffDpl.getEgressDplName());
+                if (includesRspTransports) {
+                    sffGraph.setHopIngressDpl(sffDpl.getSffName(), pathId, sffDpl.getIngressHopDpl());
+                }
+            }
+            if (includesRspTransports && pathEgressDpl != null) {
+                sffGraph.setPathEgressDpl(pathId, pathEgressDpl);
+            }
+        }
+
+        public boolean includesRspTransports() {
+            return includesRspTransports;
+        }
+    }
+
+    /**
+     * Hop sequence of a RSP.
+     */
+    private static final class Key {
+        private final String transport;
+        private final String encapsulation;
+        private final List<SffName> sffNames = new ArrayList<>();
+        private final List<SfName> sfNames = new ArrayList<>();
+        private final List<String> sfgNames = new ArrayList<>();
+
+        Key(RenderedServicePath rsp) {
+            this.transport = rsp.getTransportType() == null ? null : rsp.getTransportType().getName();
+            this.encapsulation = rsp.getSfcEncapsulation() == null ? null : rsp.getSfcEncapsulation().getName();
+            for (RenderedServicePathHop hop : rsp.getRenderedServicePathHop()) {
+                sffNames.add(hop.getServiceFunctionForwarder());
+                sfNames.add(hop.getServiceFunctionName());
+                sfgNames.add(hop.getServiceFunctionGroupName());
+            }
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return Objects.equals(transport, other.transport) && Objects.equals(encapsulation, other.encapsulation)
+                    && sffNames.equals(other.sffNames) && sfNames.equals(other.sfNames)
+                    && sfgNames.equals(other.sfgNames);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(transport, encapsulation, sffNames, sfNames, sfgNames);
+        }
+    }
+}
@@ -8,12 +8,15 @@
 
 package org.opendaylight.sfc.renderers.openflow.processors;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.stream.Collectors;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.genius.mdsalutil.NwConstants;
@@ -58,7 +61,12 @@ public class SfcOfRspProcessor {
     private final OperDsUpdateHandlerInterface operDsHandler;
     private final Map<String, SfcRspTransportProcessorBase> rspTransportProcessors;
     private final SfcGeniusRpcClient theGeniusRpcClient;
+    private final SfcOfRenderPlanCache renderPlanCache = new SfcOfRenderPlanCache();
+    private volatile ForkJoinPool flowGenerationPool;
     private static final String TRANSPORT_ENCAP_SEPARATOR_STRING = "//";
+    // Below this number of SFF graph entries, creating the flows concurrently
+    // is not worth it
+    private static final int PARALLEL_FLOW_GENERATION_MIN_ENTRIES = 4;
 
     /*
      * Logical SFF always assumes vxlan-gpe tunnels for inter-sff transport, and
@@ -108,6 +116,7 @@ public class SfcOfRspProcessor {
         try {
             // This call blocks until the lock is obtained
             sfcSynchronizer.lock();
+            long startNanos = System.nanoTime();
 
             sfcOfProviderUtils.addRsp(rsp.getPathId());
 
@@ -118,37 +127,21 @@ public class SfcOfRspProcessor {
             SfcRspTransportProcessorBase transportProcessor = getTransportProcessor(sffGraph, rsp);
 
             //
-            // Populate the SFF ingress and egress DPLs from the sffGraph
+            // Populate the SFF ingress and egress DPLs and the RSP transport
+            // values, from the render plan of the RSP hops if already known
             //
-            transportProcessor.processSffDpls();
-
-            //
-            // Internally calculate and set the RSP transport values
-            //
-            transportProcessor.setRspTransports();
+            boolean renderPlanHit = processRenderPlan(sffGraph, rsp, transportProcessor);
 
             //
             // Now process the entries in the SFF Graph and populate the flow
             // tables
             //
-            SffGraph.SffGraphEntry entry;
-            Iterator<SffGraph.SffGraphEntry> sffGraphIter = sffGraph.getGraphEntryIterator();
+            List<SffGraph.SffGraphEntry> entries = new ArrayList<>();
+            sffGraph.getGraphEntryIterator().forEachRemaining(entries::add);
             sfcOfFlowProgrammer.setTableIndexMapper(transportProcessor.getTableIndexMapper().isPresent()
                     ? transportProcessor.getTableIndexMapper().get()
                     : null);
-            while (sffGraphIter.hasNext()) {
-                entry = sffGraphIter.next();
-                LOG.debug("build flows of entry: {}", entry);
-                // The flows created by initializeSff dont belong to any
-                // particular RSP
-                sfcOfFlowProgrammer.setFlowRspId(OpenflowConstants.SFC_FLOWS);
-                initializeSff(entry, transportProcessor);
-                sfcOfFlowProgrammer.setFlowRspId(rsp.getPathId());
-                configureTransportIngressFlows(entry, sffGraph, transportProcessor);
-                configurePathMapperFlows(entry, sffGraph, transportProcessor);
-                configureNextHopFlows(entry, sffGraph, transportProcessor);
-                configureTransportEgressFlows(entry, sffGraph, transportProcessor);
-            }
+            configureEntryFlows(entries, sffGraph, transportProcessor, rsp.getPathId());
 
             // Flush the flows to the data store
             this.sfcOfFlowProgrammer.flushFlows();
@@ -156,6 +149,7 @@ public class SfcOfRspProcessor {
             // Update the operational datastore if necessary (without blocking)
             transportProcessor.updateOperationalDSInfo(sffGraph, rsp);
 
+            renderPlanCache.recordRenderTime(renderPlanHit, startNanos);
             LOG.info("Processing complete for RSP: name [{}] Id [{}]", rsp.getName(), rsp.getPathId());
 
         } catch (SfcRenderingException e) {
@@ -191,6 +185,70 @@ public class SfcOfRspProcessor {
         return operDsHandler;
     }
 
+    /**
+     * Writes the operational datastore updates still pending.
+     */
+    public void close() {
+        operDsHandler.close();
+    }
+
+    public SfcOfRenderPlanCache getRenderPlanCache() {
+        return renderPlanCache;
+    }
+
+    /**
+     * Set the pool used to create the flows of the SFF graph entries of a RSP
+     * concurrently.
+     *
+     * @param flowGenerationPool
+     *            the pool, or null to create the flows sequentially
+     */
+    public void setFlowGenerationPool(ForkJoinPool flowGenerationPool) {
+        this.flowGenerationPool = flowGenerationPool;
+    }
+
+    /**
+     * Populate the SFF ingress and egress DPLs from the sffGraph, and
+     * internally calculate and set the RSP transport values. When the render
+     * plan of the RSP hops is cached, the DPLs, and the transport values if
+     * they only depend on the hops, are taken from the plan instead.
+     *
+     * @param sffGraph
+     *            - sffGraph generated for the RSP
+     * @param rsp
+     *            - the RSP being rendered
+     * @param transportProcessor
+     *            - the transport processor of the RSP
+     * @return true if the cached render plan was used, false otherwise
+     */
+    private boolean processRenderPlan(SffGraph sffGraph, RenderedServicePath rsp,
+            SfcRspTransportProcessorBase transportProcessor) {
+        // The logical SFF plan depends on the current location of the SFs,
+        // which may change without any SF configuration change
+        if (!renderPlanCache.isEnabled() || sffGraph.isUsingLogicalSFF()) {
+            transportProcessor.processSffDpls();
+            transportProcessor.setRspTransports();
+            return false;
+        }
+
+        SfcOfRenderPlanCache.RenderPlan renderPlan = renderPlanCache.get(rsp);
+        if (renderPlan != null) {
+            LOG.debug("processRenderPlan: using cached render plan for RSP {}", rsp.getName());
+            renderPlan.applyTo(sffGraph, rsp.getPathId());
+            if (!renderPlan.includesRspTransports()) {
+                transportProcessor.setRspTransports();
+            }
+            return true;
+        }
+
+        long planGeneration = renderPlanCache.getGeneration();
+        transportProcessor.processSffDpls();
+        transportProcessor.setRspTransports();
+        renderPlanCache.put(rsp, SfcOfRenderPlanCache.RenderPlan.of(sffGraph, rsp.getPathId(),
+                transportProcessor.isRspTransportReusable()), planGeneration);
+        return false;
+    }
+
     /**
      * Given the RSP transport type + encapsulation (and the rsp graph, for
      * lsff), return a RSP Transport Processor that will call the appropriate
@@ -288,6 +346,87 @@ public class SfcOfRspProcessor {
         return sffGraph;
     }
 
+    /**
+     * Create the flows of the SFF graph entries: for each entry, the SFF
+     * initialization flows if needed, then the RSP flows. If a flow
+     * generation pool is set, and both the flow programmer and the transport
+     * processor support it, each entry gets its own render context of the
+     * flow programmer. The SFF initialization flows are still created
+     * sequentially, since they update the shared SFF initialized state, but
+     * the RSP flows of the entries are created concurrently. The flows of all
+     * the render contexts are then merged in the flow programmer in the order
+     * of the entries, as they would have been created sequentially.
+     *
+     * @param entries
+     *            - the SFF graph entries, in order
+     * @param sffGraph
+     *            - contains data for the RSP
+     * @param transportProcessor
+     *            - specific TransportProcessor to call into
+     * @param rspId
+     *            - the path id of the RSP
+     */
+    private void configureEntryFlows(List<SffGraph.SffGraphEntry> entries, SffGraph sffGraph,
+            SfcRspTransportProcessorBase transportProcessor, long rspId) {
+        ForkJoinPool pool = flowGenerationPool;
+        if (pool == null || entries.size() < PARALLEL_FLOW_GENERATION_MIN_ENTRIES) {
+            configureEntryFlows(entries, sffGraph, transportProcessor, sfcOfFlowProgrammer, rspId);
+            return;
+        }
+
+        List<SfcOfFlowProgrammerInterface> renderContexts = new ArrayList<>();
+        List<SfcRspTransportProcessorBase> entryTransportProcessors = new ArrayList<>();
+        for (int i = 0; i < entries.size(); i++) {
+            Optional<SfcOfFlowProgrammerInterface> renderContext = sfcOfFlowProgrammer.newRenderContext();
+            Optional<SfcRspTransportProcessorBase> entryTransportProcessor = renderContext.flatMap(
+                    transportProcessor::fork);
+            if (!entryTransportProcessor.isPresent()) {
+                LOG.debug("configureEntryFlows: concurrent flow creation not supported, creating flows sequentially");
+                configureEntryFlows(entries, sffGraph, transportProcessor, sfcOfFlowProgrammer, rspId);
+                return;
+            }
+            renderContexts.add(renderContext.get());
+            entryTransportProcessors.add(entryTransportProcessor.get());
+        }
+
+        for (int i = 0; i < entries.size(); i++) {
+            initializeSff(entries.get(i), entryTransportProcessors.get(i), renderContexts.get(i));
+            renderContexts.get(i).setFlowRspId(rspId);
+        }
+
+        List<ForkJoinTask<?>> tasks = new ArrayList<>();
+        for (int i = 0; i < entries.size(); i++) {
+            SffGraph.SffGraphEntry entry = entries.get(i);
+            SfcRspTransportProcessorBase entryTransportProcessor = entryTransportProcessors.get(i);
+            tasks.add(pool.submit(() -> configureRspFlows(entry, sffGraph, entryTransportProcessor)));
+        }
+
+        // Wait for all the entries before failing on any of them, so that
+        // nothing is left running once the RSP is done with
+        tasks.forEach(ForkJoinTask::quietlyJoin);
+        tasks.forEach(ForkJoinTask::join);
+        renderContexts.forEach(sfcOfFlowProgrammer::mergeRenderContext);
+    }
+
+    private void configureEntryFlows(List<SffGraph.SffGraphEntry> entries, SffGraph sffGraph,
+            SfcRspTransportProcessorBase transportProcessor, SfcOfFlowProgrammerInterface flowProgrammer,
+            long rspId) {
+        for (SffGraph.SffGraphEntry entry : entries) {
+            initializeSff(entry, transportProcessor, flowProgrammer);
+            flowProgrammer.setFlowRspId(rspId);
+            configureRspFlows(entry, sffGraph, transportProcessor);
+        }
+    }
+
+    private void configureRspFlows(SffGraph.SffGraphEntry entry, SffGraph sffGraph,
+            SfcRspTransportProcessorBase transportProcessor) {
+        LOG.debug("build flows of entry: {}", entry);
+        configureTransportIngressFlows(entry, sffGraph, transportProcessor);
+        configurePathMapperFlows(entry, sffGraph, transportProcessor);
+        configureNextHopFlows(entry, sffGraph, transportProcessor);
+        configureTransportEgressFlows(entry, sffGraph, transportProcessor);
+    }
+
     /**
      * Call the appropriate flow creation methods on the TransportProcessor for
      * the TransportIngress table.
@@ -521,8 +660,11 @@ public class SfcOfRspProcessor {
      * @param transportProcessor
      *            the transport processor to use when initialization flows are
      *            transport-dependent
+     * @param flowProgrammer
+     *            the flow programmer of the transport processor
      */
-    private void initializeSff(SffGraph.SffGraphEntry entry, SfcRspTransportProcessorBase transportProcessor) {
+    private void initializeSff(SffGraph.SffGraphEntry entry, SfcRspTransportProcessorBase transportProcessor,
+            SfcOfFlowProgrammerInterface flowProgrammer) {
         if (entry.getDstSff().equals(SffGraph.EGRESS)) {
             return;
         }
@@ -535,30 +677,33 @@ public class SfcOfRspProcessor {
 
         NodeId sffNodeId = new NodeId(sffNodeName);
         if (!getSffInitialized(sffNodeId)) {
+            // The flows created by initializeSff dont belong to any
+            // particular RSP
+            flowProgrammer.setFlowRspId(OpenflowConstants.SFC_FLOWS);
             LOG.debug("Initializing SFF [{}] node [{}]", entry.getDstSff().getValue(), sffNodeName);
 
             /* For OVS DPDK, add default NORMAL action flows */
             Long outputPort = SfcOvsUtil.getDpdkOfPort(sffNodeName, null);
             if (outputPort != null) {
-                this.sfcOfFlowProgrammer.configureClassifierTableDpdkOutput(sffNodeName, outputPort);
-                this.sfcOfFlowProgrammer.configureClassifierTableDpdkInput(sffNodeName, outputPort);
+                flowProgrammer.configureClassifierTableDpdkOutput(sffNodeName, outputPort);
+                flowProgrammer.configureClassifierTableDpdkInput(sffNodeName, outputPort);
             }
 
             transportProcessor.configureClassifierTableMatchAny(sffNodeName);
             if (entry.usesLogicalSFF()) {
                 this.sfcOfProviderUtils.setTableOffsets(entry.getDstSff(), NwConstants.SFC_TRANSPORT_CLASSIFIER_TABLE);
-                this.sfcOfFlowProgrammer.configureTransportIngressTableMatchAnyResubmit(sffNodeName,
+                flowProgrammer.configureTransportIngressTableMatchAnyResubmit(sffNodeName,
                         NwConstants.LPORT_DISPATCHER_TABLE);
-                this.sfcOfFlowProgrammer.configureTransportEgressTableMatchAnyResubmit(sffNodeName,
+                flowProgrammer.configureTransportEgressTableMatchAnyResubmit(sffNodeName,
                         NwConstants.LPORT_DISPATCHER_TABLE);
             } else {
-                this.sfcOfProviderUtils.setTableOffsets(entry.getDstSff(), sfcOfFlowProgrammer.getTableBase());
-                this.sfcOfFlowProgrammer.configureTransportIngressTableMatchAny(sffNodeName);
-                this.sfcOfFlowProgrammer.configureTransportEgressTableMatchAny(sffNodeName);
+                this.sfcOfProviderUtils.setTableOffsets(entry.getDstSff(), flowProgrammer.getTableBase());
+                flowProgrammer.configureTransportIngressTableMatchAny(sffNodeName);
+                flowProgrammer.configureTransportEgressTableMatchAny(sffNodeName);
             }
-            this.sfcOfFlowProgrammer.configurePathMapperTableMatchAny(sffNodeName);
-            this.sfcOfFlowProgrammer.configurePathMapperAclTableMatchAny(sffNodeName);
-            this.sfcOfFlowProgrammer.configureNextHopTableMatchAny(sffNodeName);
+            flowProgrammer.configurePathMapperTableMatchAny(sffNodeName);
+            flowProgrammer.configurePathMapperAclTableMatchAny(sffNodeName);
+            flowProgrammer.configureNextHopTableMatchAny(sffNodeName);
 
             setSffInitialized(sffNodeId, true);
         }
@@ -324,6 +324,11 @@ public class SfcRspProcessorLogicalSff extends SfcRspTransportProcessorBase {
     public void setRspTransports() {
     }
 
+    @Override
+    protected SfcRspTransportProcessorBase newInstance() {
+        return new SfcRspProcessorLogicalSff(sfcGeniusRpcClient, operDsHandler);
+    }
+
     /**
      * Given a {@link SfDataPlaneLocator} for a SF which uses a logical
      * interface locator, the method returns the SF mac address (local end) or
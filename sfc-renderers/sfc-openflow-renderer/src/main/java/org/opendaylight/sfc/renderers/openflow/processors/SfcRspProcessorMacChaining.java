@@ -88,6 +88,16 @@ public class SfcRspProcessorMacChaining extends SfcRspTransportProcessorBase {
         }
     }
 
+    @Override
+    protected SfcRspTransportProcessorBase newInstance() {
+        return new SfcRspProcessorMacChaining();
+    }
+
+    @Override
+    public boolean isRspTransportReusable() {
+        return true;
+    }
+
     @Override
     public void configureSfTransportIngressFlow(SffGraph.SffGraphEntry entry, SfDataPlaneLocator sfDpl) {
         LOG.debug("SfcRspProcessorMacChaining - "
@@ -65,6 +65,11 @@ public class SfcRspProcessorMpls extends SfcRspTransportProcessorBase {
 
     }
 
+    @Override
+    protected SfcRspTransportProcessorBase newInstance() {
+        return new SfcRspProcessorMpls();
+    }
+
     //
     // TransportIngress methods
     //
@@ -293,4 +293,14 @@ public class SfcRspProcessorNshEth extends SfcRspTransportProcessorBase {
         }
     }
 
+    @Override
+    protected SfcRspTransportProcessorBase newInstance() {
+        return new SfcRspProcessorNshEth();
+    }
+
+    @Override
+    public boolean isRspTransportReusable() {
+        return true;
+    }
+
 }
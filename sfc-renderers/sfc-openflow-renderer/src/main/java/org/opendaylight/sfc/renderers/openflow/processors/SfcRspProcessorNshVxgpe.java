@@ -91,6 +91,16 @@ public class SfcRspProcessorNshVxgpe extends SfcRspTransportProcessorBase {
         }
     }
 
+    @Override
+    protected SfcRspTransportProcessorBase newInstance() {
+        return new SfcRspProcessorNshVxgpe();
+    }
+
+    @Override
+    public boolean isRspTransportReusable() {
+        return true;
+    }
+
     //
     // TransportIngress methods
     //
@@ -62,6 +62,11 @@ public class SfcRspProcessorVlan extends SfcRspTransportProcessorBase {
         }
     }
 
+    @Override
+    protected SfcRspTransportProcessorBase newInstance() {
+        return new SfcRspProcessorVlan();
+    }
+
     //
     // TransportIngress methods
     //
@@ -78,6 +78,40 @@ public abstract class SfcRspTransportProcessorBase {
         this.sffGraph = sffGraph;
     }
 
+    /**
+     * Create a new processor for the same transport, with no dependencies
+     * injected. Transport processors keep the RSP being rendered as state, so
+     * a new processor is needed for each thread creating flows concurrently.
+     *
+     * @return the new processor, or null if the flows of this transport cannot
+     *         be created concurrently
+     */
+    protected SfcRspTransportProcessorBase newInstance() {
+        return null;
+    }
+
+    /**
+     * Create a new processor for the same transport and RSP, creating its
+     * flows with the given flow programmer.
+     *
+     * @param flowProgrammer
+     *            the flow programmer of the new processor, typically a render
+     *            context of the flow programmer of this processor
+     * @return the new processor, or empty if the flows of this transport
+     *         cannot be created concurrently
+     */
+    public Optional<SfcRspTransportProcessorBase> fork(SfcOfFlowProgrammerInterface flowProgrammer) {
+        SfcRspTransportProcessorBase transportProcessor = newInstance();
+        if (transportProcessor == null) {
+            return Optional.empty();
+        }
+        transportProcessor.setRsp(rsp);
+        transportProcessor.setSffGraph(sffGraph);
+        transportProcessor.setSfcProviderUtils(sfcProviderUtils);
+        transportProcessor.setFlowProgrammer(flowProgrammer);
+        return Optional.of(transportProcessor);
+    }
+
     //
     // Abstract Flow programming methods
     //
@@ -110,6 +144,18 @@ public abstract class SfcRspTransportProcessorBase {
 
     public abstract void setRspTransports();
 
+    /**
+     * Whether the transport values calculated by {@link #setRspTransports()}
+     * only depend on the RSP hops, in which case they can be reused for any
+     * other RSP going through the same hops.
+     *
+     * @return true if the RSP transports can be reused, false if they have
+     *         to be calculated for every RSP
+     */
+    public boolean isRspTransportReusable() {
+        return false;
+    }
+
     /**
      * A renderer can provide a @{link SfcTableIndexMapper} class in order to
      * use Genius-based application coexistence (i.e. let Genius decide which
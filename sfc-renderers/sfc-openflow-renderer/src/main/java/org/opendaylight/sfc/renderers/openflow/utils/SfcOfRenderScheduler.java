@@ -0,0 +1,458 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.renderers.openflow.utils;
+
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import org.opendaylight.sfc.provider.api.SfcLatencyHistogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Scheduler of the OpenFlow renderer work, which runs the RSP deletions,
+ * updates and creations and the packet-in flow programming one at a time on
+ * a single worker thread, as the flow programmer and the flow writer they
+ * share are not thread safe.
+ *
+ * <p>
+ * Each kind of work is queued in its own bounded {@link Lane}. The worker
+ * drains the lanes by rounds: in each round, it takes at most
+ * {@link Lane#getWeight()} tasks from each lane, always looking at the lanes
+ * in priority order first. Deletes are therefore run before updates, and
+ * updates before creates, while a burst of RSP creations does not starve the
+ * other lanes, nor the other way round.
+ *
+ * <p>
+ * Tasks may be submitted with a key, typically the RSP name. The tasks with
+ * the same key are run in the order they were submitted, whatever their
+ * lanes: a task is not taken while an earlier task with its key is pending,
+ * the next tasks of its lane being taken in the meantime. A task submitted
+ * with a key also supersedes the pending tasks with the same key in the lanes
+ * whose tasks are {@link Lane#isSupersedable() supersedable}: a RSP creation
+ * or update still waiting when the RSP is updated again or deleted is never
+ * run.
+ *
+ * <p>
+ * Admission control is done by the callers: {@link #trySubmit} does not
+ * admit a task to a full lane, {@link #submit} blocks until it can be
+ * admitted. A task only supersedes the pending ones once admitted, the room
+ * it frees in its own lane being accounted for. The depth and wait time of
+ * each lane are reported periodically.
+ */
+public class SfcOfRenderScheduler implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SfcOfRenderScheduler.class);
+    private static final long REPORT_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    /**
+     * The scheduler lanes, in priority order.
+     */
+    public enum Lane {
+        DELETE(8, false),
+        UPDATE(4, true),
+        CREATE(2, true),
+        PACKET_IN(4, false);
+
+        private final int weight;
+        private final boolean supersedable;
+
+        Lane(int weight, boolean supersedable) {
+            this.weight = weight;
+            this.supersedable = supersedable;
+        }
+
+        /**
+         * Get the maximum number of tasks taken from this lane in a round.
+         *
+         * @return the lane weight
+         */
+        public int getWeight() {
+            return weight;
+        }
+
+        /**
+         * Whether the pending tasks of this lane are dropped when a task with
+         * the same key is submitted.
+         *
+         * @return true if the tasks of this lane can be superseded
+         */
+        public boolean isSupersedable() {
+            return supersedable;
+        }
+    }
+
+    private final int laneCapacity;
+    private final Map<Lane, LaneQueue> laneQueues = new EnumMap<>(Lane.class);
+    // The pending tasks of each key, in submission order
+    private final Map<Object, ArrayDeque<Task>> keyTasks = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Thread worker;
+    private volatile boolean running = true;
+    private long lastReportNanos = System.nanoTime();
+
+    /**
+     * Create the scheduler, starting its worker thread.
+     *
+     * @param laneCapacity
+     *            maximum number of pending tasks of each lane
+     */
+    public SfcOfRenderScheduler(int laneCapacity) {
+        if (laneCapacity <= 0) {
+            throw new IllegalArgumentException("Lane capacity must be positive: " + laneCapacity);
+        }
+        this.laneCapacity = laneCapacity;
+        for (Lane lane : Lane.values()) {
+            laneQueues.put(lane, new LaneQueue(lane, lock.newCondition()));
+        }
+        worker = new Thread(this::drain, "sfc-of-render-scheduler");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Submit a task if its lane is not full.
+     *
+     * @param lane
+     *            the lane of the task
+     * @param key
+     *            the key of the task, or null if it does not supersede other
+     *            tasks
+     * @param task
+     *            the task
+     * @return true if the task was admitted, false if its lane is full
+     * @throws RejectedExecutionException
+     *             if the scheduler is closed
+     */
+    public boolean trySubmit(Lane lane, Object key, Runnable task) {
+        lock.lock();
+        try {
+            checkRunning();
+            LaneQueue laneQueue = laneQueues.get(lane);
+            if (isFull(laneQueue, key)) {
+                laneQueue.rejected++;
+                LOG.warn("trySubmit: {} lane full, task {} not admitted", lane, key);
+                return false;
+            }
+            supersede(key);
+            enqueue(laneQueue, key, task);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Submit a task, waiting for room in its lane if it is full.
+     *
+     * @param lane
+     *            the lane of the task
+     * @param key
+     *            the key of the task, or null if it does not supersede other
+     *            tasks
+     * @param task
+     *            the task
+     * @throws InterruptedException
+     *             if interrupted while waiting for room in the lane
+     * @throws RejectedExecutionException
+     *             if the scheduler is closed
+     */
+    public void submit(Lane lane, Object key, Runnable task) throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            checkRunning();
+            LaneQueue laneQueue = laneQueues.get(lane);
+            if (isFull(laneQueue, key)) {
+                laneQueue.blocked++;
+                LOG.info("submit: {} lane full, waiting to admit task {}", lane, key);
+                while (isFull(laneQueue, key)) {
+                    laneQueue.notFull.await();
+                    checkRunning();
+                }
+            }
+            supersede(key);
+            enqueue(laneQueue, key, task);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Check whether a task would currently be admitted to a lane.
+     *
+     * @param lane
+     *            the lane
+     * @return true if the lane is not full
+     */
+    public boolean canAdmit(Lane lane) {
+        return getDepth(lane) < laneCapacity;
+    }
+
+    /**
+     * Get the number of pending tasks of a lane.
+     *
+     * @param lane
+     *            the lane
+     * @return the lane depth
+     */
+    public int getDepth(Lane lane) {
+        lock.lock();
+        try {
+            return laneQueues.get(lane).tasks.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the time spent by the tasks of a lane waiting to be run.
+     *
+     * @param lane
+     *            the lane
+     * @return the wait time histogram of the lane
+     */
+    public SfcLatencyHistogram getWaitLatency(Lane lane) {
+        return laneQueues.get(lane).waitLatency;
+    }
+
+    public int getLaneCapacity() {
+        return laneCapacity;
+    }
+
+    /**
+     * Stop the worker thread once the running task, if any, is done. The
+     * pending tasks are dropped.
+     */
+    @Override
+    public void close() throws InterruptedException {
+        lock.lock();
+        try {
+            running = false;
+            int dropped = 0;
+            for (LaneQueue laneQueue : laneQueues.values()) {
+                dropped += laneQueue.tasks.size();
+                laneQueue.tasks.clear();
+                laneQueue.notFull.signalAll();
+            }
+            keyTasks.clear();
+            notEmpty.signalAll();
+            if (dropped > 0) {
+                LOG.warn("close: dropped {} pending tasks", dropped);
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (Thread.currentThread() != worker) {
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        LOG.info("{}", this);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("OpenFlow render scheduler:");
+        lock.lock();
+        try {
+            laneQueues.values().forEach(laneQueue -> sb.append(' ').append(laneQueue));
+        } finally {
+            lock.unlock();
+        }
+        return sb.toString();
+    }
+
+    private void checkRunning() {
+        if (!running) {
+            throw new RejectedExecutionException("The OpenFlow render scheduler is closed");
+        }
+    }
+
+    /**
+     * Check whether a lane has no room for a task, not counting the pending
+     * tasks of the lane the task would supersede.
+     */
+    private boolean isFull(LaneQueue laneQueue, Object key) {
+        int depth = laneQueue.tasks.size();
+        ArrayDeque<Task> pending = key == null ? null : keyTasks.get(key);
+        if (pending != null && laneQueue.lane.isSupersedable()) {
+            depth -= (int) pending.stream().filter(task -> task.laneQueue == laneQueue).count();
+        }
+        return depth >= laneCapacity;
+    }
+
+    private void supersede(Object key) {
+        ArrayDeque<Task> pending = key == null ? null : keyTasks.get(key);
+        if (pending == null) {
+            return;
+        }
+        Iterator<Task> iterator = pending.iterator();
+        while (iterator.hasNext()) {
+            Task task = iterator.next();
+            LaneQueue laneQueue = task.laneQueue;
+            if (laneQueue.lane.isSupersedable()) {
+                iterator.remove();
+                laneQueue.tasks.remove(task);
+                laneQueue.superseded++;
+                laneQueue.notFull.signalAll();
+                LOG.debug("supersede: pending {} task {} superseded", laneQueue.lane, key);
+            }
+        }
+        if (pending.isEmpty()) {
+            keyTasks.remove(key);
+        }
+    }
+
+    private void enqueue(LaneQueue laneQueue, Object key, Runnable task) {
+        Task newTask = new Task(laneQueue, key, task);
+        laneQueue.tasks.add(newTask);
+        if (key != null) {
+            keyTasks.computeIfAbsent(key, k -> new ArrayDeque<>()).add(newTask);
+        }
+        laneQueue.submitted++;
+        notEmpty.signal();
+    }
+
+    /**
+     * Take the next task, waiting for one if all the lanes are empty.
+     *
+     * @return the next task, or null if the scheduler is closed
+     */
+    private Task take() throws InterruptedException {
+        lock.lock();
+        try {
+            while (running) {
+                Task task = poll();
+                if (task != null) {
+                    return task;
+                }
+                notEmpty.await();
+            }
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Task poll() {
+        for (int attempt = 0; attempt < 2; attempt++) {
+            boolean pending = false;
+            for (LaneQueue laneQueue : laneQueues.values()) {
+                Iterator<Task> iterator = laneQueue.tasks.iterator();
+                while (iterator.hasNext()) {
+                    Task task = iterator.next();
+                    if (!isNextOfKey(task)) {
+                        continue;
+                    }
+                    pending = true;
+                    if (laneQueue.takenInRound < laneQueue.lane.getWeight()) {
+                        laneQueue.takenInRound++;
+                        iterator.remove();
+                        removeKeyTask(task);
+                        laneQueue.notFull.signal();
+                        return task;
+                    }
+                    break;
+                }
+            }
+            if (!pending) {
+                return null;
+            }
+            // every lane with tasks to run used up its weight, new round
+            laneQueues.values().forEach(laneQueue -> laneQueue.takenInRound = 0);
+        }
+        return null;
+    }
+
+    private boolean isNextOfKey(Task task) {
+        return task.key == null || keyTasks.get(task.key).peek() == task;
+    }
+
+    private void removeKeyTask(Task task) {
+        if (task.key == null) {
+            return;
+        }
+        ArrayDeque<Task> pending = keyTasks.get(task.key);
+        pending.poll();
+        if (pending.isEmpty()) {
+            keyTasks.remove(task.key);
+        }
+    }
+
+    // The tasks are run on the worker thread, whatever they throw must not stop it
+    @SuppressWarnings("checkstyle:IllegalCatch")
+    private void drain() {
+        try {
+            Task task;
+            while ((task = take()) != null) {
+                task.laneQueue.waitLatency.recordSince(task.submittedNanos);
+                try {
+                    task.runnable.run();
+                } catch (RuntimeException e) {
+                    LOG.error("drain: task {} failed", task.key, e);
+                }
+                report();
+            }
+        } catch (InterruptedException e) {
+            LOG.warn("drain: worker interrupted, no more tasks are run");
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void report() {
+        long now = System.nanoTime();
+        if (now - lastReportNanos >= REPORT_INTERVAL_NANOS) {
+            lastReportNanos = now;
+            LOG.info("{}", this);
+        }
+    }
+
+    private static final class Task {
+        private final LaneQueue laneQueue;
+        private final Object key;
+        private final Runnable runnable;
+        private final long submittedNanos = System.nanoTime();
+
+        Task(LaneQueue laneQueue, Object key, Runnable runnable) {
+            this.laneQueue = laneQueue;
+            this.key = key;
+            this.runnable = runnable;
+        }
+    }
+
+    private static final class LaneQueue {
+        private final Lane lane;
+        private final Condition notFull;
+        private final ArrayDeque<Task> tasks = new ArrayDeque<>();
+        private final SfcLatencyHistogram waitLatency;
+        private int takenInRound;
+        private long submitted;
+        private long rejected;
+        private long blocked;
+        private long superseded;
+
+        LaneQueue(Lane lane, Condition notFull) {
+            this.lane = lane;
+            this.notFull = notFull;
+            this.waitLatency = new SfcLatencyHistogram("render-wait-" + lane.name().toLowerCase(Locale.ENGLISH));
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s[depth=%d submitted=%d rejected=%d blocked=%d superseded=%d wait=%s]", lane,
+                    tasks.size(), submitted, rejected, blocked, superseded, waitLatency);
+        }
+    }
+}
@@ -15,7 +15,7 @@ import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev1407
  *
  * @author Diego Granados (diego.jesus.granados.lopez@ericsson.com).
  */
-public interface OperDsUpdateHandlerInterface {
+public interface OperDsUpdateHandlerInterface extends AutoCloseable {
 
     /**
      * This method is invoked by the renderer in order to request the update of
@@ -36,4 +36,11 @@ public interface OperDsUpdateHandlerInterface {
      *            The just-deleted rendered service path
      */
     void onRspDeletion(RenderedServicePath rsp);
+
+    /**
+     * This method is invoked when the renderer is closed, in order to write
+     * the operational datastore updates still pending.
+     */
+    @Override
+    void close();
 }
@@ -7,20 +7,22 @@
  */
 package org.opendaylight.sfc.renderers.openflow.utils.operdsupdate;
 
-import com.google.common.util.concurrent.ListenableFuture;
-import java.math.BigInteger;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.sfc.provider.api.SfcLatencyHistogram;
 import org.opendaylight.sfc.renderers.openflow.processors.SffGraph;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.RspName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SffName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfpName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.RenderedServicePaths;
@@ -51,176 +53,348 @@ import org.slf4j.LoggerFactory;
 /**
  * Implementation of {@link OperDsUpdateHandlerInterface} for the Logical SFF.
  *
+ * <p>
+ * The updates requested on RSP creation and deletion are not written right
+ * away. They are accumulated as RSP hop data plane node ids and as
+ * dpnid-RSP membership deltas, across RSPs, and written in a single
+ * transaction per flush interval, where all the RSPs added to the same
+ * SFF/dpnid are merged at once. When a RSP is changed more than once before
+ * a flush, only its latest change is written. The number of pending deltas
+ * is bounded: once the bound is reached, the caller writes the pending
+ * deltas itself before going on. On close, the pending deltas are written
+ * before the flush timer stops.
+ *
  * @author Diego Granados (diego.jesus.granados.lopez@ericsson.com)
  *
  */
 public class OperDsUpdateHandlerLSFFImpl implements OperDsUpdateHandlerInterface {
     private static final Logger LOG = LoggerFactory.getLogger(OperDsUpdateHandlerLSFFImpl.class);
 
-    private final ExecutorService threadPoolExecutorService;
+    public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 100;
+    public static final int DEFAULT_MAX_PENDING_DELTAS = 10000;
+
+    private final ScheduledExecutorService flushExecutorService;
     private final DataBroker dataBroker;
+    private final long flushIntervalMillis;
+    private final int maxPendingDeltas;
+    private final SfcLatencyHistogram commitLatencyHistogram =
+            new SfcLatencyHistogram("logical-sff-oper-ds-commit");
+
+    // flushes, from the timer or from a back-pressured caller, commit one at a time
+    private final Object flushLock = new Object();
+
+    // guarded by this: RSP hop dpnids pending to be written, by RSP
+    private Map<RspName, List<DpnIdType>> pendingRspHopDpnIds = new LinkedHashMap<>();
+
+    // guarded by this: dpnid-RSP membership deltas pending to be written,
+    // true to add the RSP to the dpnid, false to remove it
+    private Map<SffName, Map<DpnIdType, Map<SfpName, Boolean>>> pendingSffDpnRsps = new LinkedHashMap<>();
+
+    // guarded by this: the SFF dpnids each RSP is pending to be added to, so
+    // that they can be dropped if the RSP is deleted before they are written,
+    // mapped to true when the addition replaced a pending removal of the RSP
+    private Map<RspName, Map<SffName, Map<DpnIdType, Boolean>>> pendingSffDpnAdditions = new LinkedHashMap<>();
+
+    // guarded by this
+    private int pendingDeltas = 0;
+    private boolean flushScheduled = false;
 
     public OperDsUpdateHandlerLSFFImpl(DataBroker dataBroker) {
+        this(dataBroker, DEFAULT_FLUSH_INTERVAL_MILLIS, DEFAULT_MAX_PENDING_DELTAS);
+    }
+
+    public OperDsUpdateHandlerLSFFImpl(DataBroker dataBroker, long flushIntervalMillis, int maxPendingDeltas) {
         this.dataBroker = dataBroker;
-        this.threadPoolExecutorService = Executors.newSingleThreadExecutor();
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.maxPendingDeltas = maxPendingDeltas;
+        this.flushExecutorService = Executors.newSingleThreadScheduledExecutor();
     }
 
     /**
-     * Updates dpnid information in the SFF state part of the operational data
-     * model (this method performs the addition of dpnids/RSPs for logical SFFs)
-     * The changes are added only to the passed transaction; it will be
-     * committed in a latter phase, after all datastore changes have been added.
+     * Adds the dpnid information of a just created RSP to the pending
+     * deltas, both for the RSP state and for the SFF state (addition of
+     * dpnids/RSPs for logical SFFs). Must be called holding the instance
+     * lock.
      *
      * @param theGraph
      *            The graph used for rendering
      * @param rsp
      *            The rendered service path
-     * @param trans
-     *            The write transaction to which the datastore operations will
-     *            be added
      */
-    private void updateSffStateWithDpnIds(SffGraph theGraph, RenderedServicePath rsp, WriteTransaction trans) {
-        LOG.debug("updateSffStateWithDpnIds: starting addition of dpnids-rsps to RSP state");
+    private void addRspToBatch(SffGraph theGraph, RenderedServicePath rsp) {
+        LOG.debug("addRspToBatch: starting addition of dpnids-rsps for RSP {}", rsp.getName());
+        SfpName sfpName = new SfpName(rsp.getName().getValue());
+        List<DpnIdType> hopDpnIds = new ArrayList<>();
         Iterator<SffGraph.SffGraphEntry> graphEntries = theGraph.getGraphEntryIterator();
-        Map<BigInteger, List<Rsps>> valuesMap = new HashMap<>();
         SffGraph.SffGraphEntry graphEntry;
         while (graphEntries.hasNext()) {
             graphEntry = graphEntries.next();
-            if (graphEntry.getDstSff().equals(SffGraph.EGRESS) || graphEntry.getDstDpnId() == null) {
+            if (graphEntry.getDstSff().equals(SffGraph.EGRESS)) {
                 continue;
             }
-            RspsForDpnidBuilder builder = new RspsForDpnidBuilder();
-            List<Rsps> values = valuesMap.get(graphEntry.getDstDpnId().getValue());
-            if (values == null) {
-                values = new ArrayList<>();
-                LOG.debug("updateSffStateWithDpnIds: new rsp list for dpnid {}", graphEntry.getDstDpnId().getValue());
-                valuesMap.put(graphEntry.getDstDpnId().getValue(), values);
-            } else {
-                LOG.debug("updateSffStateWithDpnIds: rsp list already existing for dpnid {}",
-                        graphEntry.getDstDpnId().getValue());
+            hopDpnIds.add(graphEntry.getDstDpnId());
+            if (graphEntry.getDstDpnId() != null) {
+                Boolean former = putSffDpnRspDelta(graphEntry.getDstSff(), graphEntry.getDstDpnId(), sfpName, true);
+                pendingSffDpnAdditions.computeIfAbsent(rsp.getName(), key -> new LinkedHashMap<>())
+                        .computeIfAbsent(graphEntry.getDstSff(), key -> new LinkedHashMap<>())
+                        .merge(graphEntry.getDstDpnId(), Boolean.FALSE.equals(former), Boolean::logicalOr);
             }
-            values.add(new RspsBuilder().withKey(new RspsKey(new SfpName(rsp.getName().getValue()))).build());
-            builder.setRsps(values);
-            RspsForDpnid dpnRsps = builder.build();
-            Dpn dpnidInfo = new DpnBuilder().withKey(new DpnKey(graphEntry.getDstDpnId())).setRspsForDpnid(dpnRsps)
-                    .build();
-            ServiceFunctionForwarderStateKey sffKey = new ServiceFunctionForwarderStateKey(graphEntry.getDstSff());
-            InstanceIdentifier<Dpn> dpnidIif = InstanceIdentifier.builder(ServiceFunctionForwardersState.class)
-                    .child(ServiceFunctionForwarderState.class, sffKey).augmentation(SffLogicalSffAugmentation.class)
-                    .child(DpnRsps.class).child(Dpn.class, new DpnKey(graphEntry.getDstDpnId())).build();
-            LOG.debug("updateSffStateWithDpnIds: iid: {}; info: {}", dpnidIif, dpnidInfo);
-            trans.merge(LogicalDatastoreType.OPERATIONAL, dpnidIif, dpnidInfo, true);
+        }
+        if (pendingRspHopDpnIds.put(rsp.getName(), hopDpnIds) == null) {
+            pendingDeltas++;
         }
     }
 
     /**
-     * Updates dpnid information in the SFF state part of the operational data
-     * model (this method performs the removal of dpnids/RSPs from logical SFFs)
-     * The changes are added only to the passed transaction; it will be
-     * committed in a latter phase, after all datastore changes have been added.
+     * Adds the removal of a just deleted RSP from the SFF state (removal of
+     * dpnids/RSPs from logical SFFs) to the pending deltas, and drops any
+     * pending update of its RSP state and any pending addition of the RSP to
+     * a SFF dpnid, whether the RSP hops already have a dpnid or not. A
+     * dropped addition that had replaced a pending removal of the RSP, as
+     * when a RSP is deleted and created again before a flush, restores that
+     * removal. Must be called holding the instance lock.
      *
      * @param rsp
      *            The rendered service path that is being deleted
-     * @param transaction
-     *            The write transaction to which the datastore operations will
-     *            be added
      */
-    private void deleteRspFromSffState(RenderedServicePath rsp, WriteTransaction transaction) {
-        LOG.debug("deleteRspFromSffState: starting deletion in dpnids-rsps");
-
-        Iterator<RenderedServicePathHop> hops = rsp.getRenderedServicePathHop().iterator();
-        RenderedServicePathHop rspHop;
-
-        while (hops.hasNext()) {
-            rspHop = hops.next();
-            SffName sffName = rspHop.getServiceFunctionForwarder();
+    private void removeRspFromBatch(RenderedServicePath rsp) {
+        LOG.debug("removeRspFromBatch: starting deletion in dpnids-rsps for RSP {}", rsp.getName());
+        if (pendingRspHopDpnIds.remove(rsp.getName()) != null) {
+            pendingDeltas--;
+        }
+        SfpName sfpName = new SfpName(rsp.getName().getValue());
+        Map<SffName, Map<DpnIdType, Boolean>> pendingAdditions = pendingSffDpnAdditions.remove(rsp.getName());
+        if (pendingAdditions != null) {
+            pendingAdditions.forEach((sffName, dpnIds) -> dpnIds.forEach(
+                (dpnId, removalPending) -> dropSffDpnRspAddition(sffName, dpnId, sfpName, removalPending)));
+        }
+        if (rsp.getRenderedServicePathHop() == null) {
+            return;
+        }
+        for (RenderedServicePathHop rspHop : rsp.getRenderedServicePathHop()) {
             RspLogicalSffAugmentation lsffAugmentation = rspHop.augmentation(RspLogicalSffAugmentation.class);
-            if (lsffAugmentation == null) {
-                continue;
-            }
-            DpnIdType dpnid = lsffAugmentation.getDpnId();
-            if (dpnid == null) {
+            if (lsffAugmentation == null || lsffAugmentation.getDpnId() == null) {
                 continue;
             }
-            ServiceFunctionForwarderStateKey sffKey = new ServiceFunctionForwarderStateKey(sffName);
+            putSffDpnRspDelta(rspHop.getServiceFunctionForwarder(), lsffAugmentation.getDpnId(), sfpName, false);
+        }
+    }
 
-            InstanceIdentifier<Rsps> dpnidIif = InstanceIdentifier.builder(ServiceFunctionForwardersState.class)
-                    .child(ServiceFunctionForwarderState.class, sffKey).augmentation(SffLogicalSffAugmentation.class)
-                    .child(DpnRsps.class).child(Dpn.class, new DpnKey(dpnid)).child(RspsForDpnid.class)
-                    .child(Rsps.class, new RspsKey(new SfpName(rsp.getName().getValue()))).build();
+    private Boolean putSffDpnRspDelta(SffName sffName, DpnIdType dpnId, SfpName sfpName, boolean add) {
+        Boolean former = pendingSffDpnRsps.computeIfAbsent(sffName, key -> new LinkedHashMap<>())
+                .computeIfAbsent(dpnId, key -> new LinkedHashMap<>())
+                .put(sfpName, add);
+        if (former == null) {
+            pendingDeltas++;
+        }
+        return former;
+    }
 
-            LOG.debug("deleteRspFromSffState: iid: {}; ", dpnidIif);
-            transaction.delete(LogicalDatastoreType.OPERATIONAL, dpnidIif);
+    private void dropSffDpnRspAddition(SffName sffName, DpnIdType dpnId, SfpName sfpName, boolean removalPending) {
+        Map<DpnIdType, Map<SfpName, Boolean>> dpnRsps = pendingSffDpnRsps.get(sffName);
+        Map<SfpName, Boolean> rspDeltas = dpnRsps == null ? null : dpnRsps.get(dpnId);
+        if (rspDeltas == null || !Boolean.TRUE.equals(rspDeltas.get(sfpName))) {
+            return;
+        }
+        if (removalPending) {
+            rspDeltas.put(sfpName, false);
+            return;
+        }
+        rspDeltas.remove(sfpName);
+        pendingDeltas--;
+        if (rspDeltas.isEmpty()) {
+            dpnRsps.remove(dpnId);
+            if (dpnRsps.isEmpty()) {
+                pendingSffDpnRsps.remove(sffName);
+            }
         }
     }
 
     /**
-     * Updates dpnid information in the RSP state part of the operational data
-     * model. This method just adds the changes to the passed transaction; the
-     * transaction will later be committed after all datastore changes have been
-     * added
+     * Writes the dpnid information of a RSP in the RSP state part of the
+     * operational data model.
      *
-     * @param theGraph
-     *            The graph used for rendering
-     * @param rsp
-     *            The rendered service path
+     * @param rspName
+     *            The rendered service path name
+     * @param hopDpnIds
+     *            The dpnid of each of the RSP hops
      * @param transaction
      *            The write transaction to which the datastore operations will
      *            be added
      */
-    private void updateRenderedServicePathOperationalStateWithDpnIds(SffGraph theGraph, RenderedServicePath rsp,
-            WriteTransaction transaction) {
-        LOG.debug("updateRenderedServicePathOperationalStateWithDpnIds: " + "starting addition of dpnids to the RSP");
-        Iterator<SffGraph.SffGraphEntry> graphEntries = theGraph.getGraphEntryIterator();
-        SffGraph.SffGraphEntry graphEntry;
-        RenderedServicePathKey rspKey = new RenderedServicePathKey(rsp.getName());
+    private static void writeRspHopDpnIds(RspName rspName, List<DpnIdType> hopDpnIds, WriteTransaction transaction) {
+        RenderedServicePathKey rspKey = new RenderedServicePathKey(rspName);
         short hopIndex = 0;
-        while (graphEntries.hasNext()) {
-            graphEntry = graphEntries.next();
-            if (graphEntry.getDstSff().equals(SffGraph.EGRESS)) {
-                continue;
-            }
+        for (DpnIdType dpnId : hopDpnIds) {
             InstanceIdentifier<RspLogicalSffAugmentation> iidRspHop = InstanceIdentifier
                     .builder(RenderedServicePaths.class).child(RenderedServicePath.class, rspKey)
                     .child(RenderedServicePathHop.class, new RenderedServicePathHopKey(hopIndex++))
                     .augmentation(RspLogicalSffAugmentation.class).build();
-            RspLogicalSffAugmentation augm = new RspLogicalSffAugmentationBuilder().setDpnId(graphEntry.getDstDpnId())
-                    .build();
-            LOG.debug("updateRenderedServicePathOperationalStateWithDpnIds: iid: {}; agumentation: {}", iidRspHop,
-                    augm);
+            RspLogicalSffAugmentation augm = new RspLogicalSffAugmentationBuilder().setDpnId(dpnId).build();
+            LOG.debug("writeRspHopDpnIds: iid: {}; augmentation: {}", iidRspHop, augm);
             transaction.put(LogicalDatastoreType.OPERATIONAL, iidRspHop, augm, true);
         }
     }
 
     /**
-     * Asynchronous commit of the passed transaction.
+     * Writes the dpnid-RSP membership deltas of a SFF dpnid in the SFF state
+     * part of the operational data model: all the added RSPs are merged at
+     * once, the removed ones are deleted.
      *
-     * @param trans
-     *            The transaction to submit
+     * @param sffName
+     *            The SFF name
+     * @param dpnId
+     *            The dpnid
+     * @param rspDeltas
+     *            The deltas, true to add the RSP to the dpnid, false to
+     *            remove it
+     * @param transaction
+     *            The write transaction to which the datastore operations will
+     *            be added
      */
-    private void commitChangesAsync(WriteTransaction trans) {
-        threadPoolExecutorService.execute(() -> {
-            ListenableFuture<Void> submitFuture = trans.submit();
-            try {
-                submitFuture.get();
-            } catch (ExecutionException | InterruptedException e) {
-                LOG.error("commitChangesAsync: Transaction failed. Message: ", e);
+    private static void writeSffDpnRsps(SffName sffName, DpnIdType dpnId, Map<SfpName, Boolean> rspDeltas,
+                                        WriteTransaction transaction) {
+        InstanceIdentifier<Dpn> dpnidIif = InstanceIdentifier.builder(ServiceFunctionForwardersState.class)
+                .child(ServiceFunctionForwarderState.class, new ServiceFunctionForwarderStateKey(sffName))
+                .augmentation(SffLogicalSffAugmentation.class)
+                .child(DpnRsps.class).child(Dpn.class, new DpnKey(dpnId)).build();
+        List<Rsps> addedRsps = new ArrayList<>();
+        rspDeltas.forEach((sfpName, add) -> {
+            if (add) {
+                addedRsps.add(new RspsBuilder().withKey(new RspsKey(sfpName)).build());
+            } else {
+                InstanceIdentifier<Rsps> rspsIid = dpnidIif.child(RspsForDpnid.class)
+                        .child(Rsps.class, new RspsKey(sfpName));
+                LOG.debug("writeSffDpnRsps: delete iid: {}", rspsIid);
+                transaction.delete(LogicalDatastoreType.OPERATIONAL, rspsIid);
             }
         });
+        if (!addedRsps.isEmpty()) {
+            Dpn dpnidInfo = new DpnBuilder().withKey(new DpnKey(dpnId))
+                    .setRspsForDpnid(new RspsForDpnidBuilder().setRsps(addedRsps).build()).build();
+            LOG.debug("writeSffDpnRsps: merge iid: {}; info: {}", dpnidIif, dpnidInfo);
+            transaction.merge(LogicalDatastoreType.OPERATIONAL, dpnidIif, dpnidInfo, true);
+        }
+    }
+
+    /**
+     * Schedules the pending deltas to be written at the end of the flush
+     * interval, or writes them right away in the calling thread when there
+     * are too many of them.
+     */
+    private void onDeltasAdded() {
+        boolean mustFlush;
+        synchronized (this) {
+            if (pendingDeltas == 0) {
+                return;
+            }
+            mustFlush = pendingDeltas >= maxPendingDeltas;
+            if (!mustFlush) {
+                if (flushScheduled) {
+                    return;
+                }
+                flushScheduled = true;
+            }
+        }
+        if (mustFlush) {
+            LOG.debug("onDeltasAdded: too many pending deltas, flushing");
+            flush();
+            return;
+        }
+        try {
+            flushExecutorService.schedule(this::flush, flushIntervalMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            LOG.warn("onDeltasAdded: flush could not be scheduled, flushing", e);
+            flush();
+        }
+    }
+
+    /**
+     * Writes all the pending deltas in a single transaction, and waits for
+     * its commit.
+     */
+    void flush() {
+        synchronized (flushLock) {
+            Map<RspName, List<DpnIdType>> rspHopDpnIds;
+            Map<SffName, Map<DpnIdType, Map<SfpName, Boolean>>> sffDpnRsps;
+            int deltas;
+            synchronized (this) {
+                flushScheduled = false;
+                if (pendingDeltas == 0) {
+                    return;
+                }
+                rspHopDpnIds = pendingRspHopDpnIds;
+                sffDpnRsps = pendingSffDpnRsps;
+                deltas = pendingDeltas;
+                pendingRspHopDpnIds = new LinkedHashMap<>();
+                pendingSffDpnRsps = new LinkedHashMap<>();
+                pendingSffDpnAdditions = new LinkedHashMap<>();
+                pendingDeltas = 0;
+            }
+
+            LOG.debug("flush: writing {} deltas", deltas);
+            WriteTransaction trans = dataBroker.newWriteOnlyTransaction();
+            rspHopDpnIds.forEach((rspName, hopDpnIds) -> writeRspHopDpnIds(rspName, hopDpnIds, trans));
+            sffDpnRsps.forEach((sffName, dpnRsps) -> dpnRsps.forEach(
+                (dpnId, rspDeltas) -> writeSffDpnRsps(sffName, dpnId, rspDeltas, trans)));
+            commitChanges(trans);
+        }
+    }
+
+    /**
+     * Synchronous commit of the passed transaction.
+     *
+     * @param trans
+     *            The transaction to submit
+     */
+    private void commitChanges(WriteTransaction trans) {
+        long startNanos = System.nanoTime();
+        try {
+            trans.submit().get();
+        } catch (ExecutionException | InterruptedException e) {
+            LOG.error("commitChanges: Transaction failed. Message: ", e);
+        } finally {
+            commitLatencyHistogram.recordSince(startNanos);
+        }
+    }
+
+    /**
+     * Get the number of deltas waiting to be written.
+     *
+     * @return the number of pending deltas
+     */
+    public synchronized int getPendingDeltaCount() {
+        return pendingDeltas;
+    }
+
+    public SfcLatencyHistogram getCommitLatencyHistogram() {
+        return commitLatencyHistogram;
+    }
+
+    /**
+     * Writes the pending deltas and stops the flush timer. A flush already
+     * scheduled still runs, and deltas added afterwards are written by their
+     * caller.
+     */
+    @Override
+    public void close() {
+        flush();
+        flushExecutorService.shutdown();
     }
 
     @Override
     public void onRspCreation(SffGraph theGraph, RenderedServicePath rsp) {
-        WriteTransaction trans = dataBroker.newWriteOnlyTransaction();
-        updateRenderedServicePathOperationalStateWithDpnIds(theGraph, rsp, trans);
-        updateSffStateWithDpnIds(theGraph, rsp, trans);
-        commitChangesAsync(trans);
+        synchronized (this) {
+            addRspToBatch(theGraph, rsp);
+        }
+        onDeltasAdded();
     }
 
     @Override
     public void onRspDeletion(RenderedServicePath rsp) {
-        WriteTransaction trans = dataBroker.newWriteOnlyTransaction();
-        deleteRspFromSffState(rsp, trans);
-        commitChangesAsync(trans);
+        synchronized (this) {
+            removeRspFromBatch(rsp);
+        }
+        onDeltasAdded();
     }
 }
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.renderers.openflow.listeners;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.base.Optional;
+import com.google.common.util.concurrent.Futures;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.binding.api.ReadOnlyTransaction;
+import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
+import org.mockito.ArgumentCaptor;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.sfc.util.openflow.writer.SfcOfFlowWriterImpl;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flat.batch.service.rev160321.ProcessFlatBatchInput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flat.batch.service.rev160321.ProcessFlatBatchOutput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flat.batch.service.rev160321.SalFlatBatchService;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flat.batch.service.rev160321.process.flat.batch.input.Batch;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flat.batch.service.rev160321.process.flat.batch.input.batch.batch.choice.FlatBatchAddFlowCase;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flat.batch.service.rev160321.process.flat.batch.input.batch.batch.choice.FlatBatchRemoveFlowCase;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flat.batch.service.rev160321.process.flat.batch.input.batch.batch.choice.flat.batch.remove.flow._case.FlatBatchRemoveFlow;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowCapableNode;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowCapableNodeBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.TableBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.TableKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.FlowBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.FlowKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.NodeId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.NodeRef;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.Nodes;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.Node;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.NodeKey;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+import org.opendaylight.yangtools.yang.common.RpcResultBuilder;
+
+public class SfcOfFlowReconciliationDataListenerTest {
+
+    private static final String NODE = "openflow:1";
+    private static final short TABLE = 4;
+
+    private DataBroker dataBroker;
+    private WriteTransaction writeTransaction;
+    private ReadOnlyTransaction readTransaction;
+    private SalFlatBatchService salFlatBatchService;
+    private SfcOfFlowWriterImpl sfcOfFlowWriter;
+    private SfcOfFlowReconciliationDataListener flowReconciliationListener;
+
+    @Before
+    public void setUp() {
+        dataBroker = mock(DataBroker.class);
+        writeTransaction = mock(WriteTransaction.class);
+        readTransaction = mock(ReadOnlyTransaction.class);
+        salFlatBatchService = mock(SalFlatBatchService.class);
+        when(dataBroker.newWriteOnlyTransaction()).thenReturn(writeTransaction);
+        when(dataBroker.newReadOnlyTransaction()).thenReturn(readTransaction);
+        when(writeTransaction.submit()).thenReturn(Futures.immediateCheckedFuture(null));
+        when(salFlatBatchService.processFlatBatch(any())).thenReturn(
+                Futures.immediateFuture(RpcResultBuilder.<ProcessFlatBatchOutput>success().build()));
+
+        sfcOfFlowWriter = new SfcOfFlowWriterImpl();
+        sfcOfFlowWriter.setDataProvider(dataBroker);
+        sfcOfFlowWriter.setSalFlatBatchService(salFlatBatchService);
+        sfcOfFlowWriter.injectTransaction(writeTransaction);
+        flowReconciliationListener = new SfcOfFlowReconciliationDataListener(dataBroker, sfcOfFlowWriter);
+    }
+
+    private static FlowBuilder buildFlow(String flowId) {
+        return new FlowBuilder().setId(new FlowId(flowId)).withKey(new FlowKey(new FlowId(flowId)))
+                .setTableId(TABLE).setPriority(1);
+    }
+
+    private static List<String> addedFlowIds(Batch batch) {
+        return ((FlatBatchAddFlowCase) batch.getBatchChoice()).getFlatBatchAddFlow().stream()
+                .map(flow -> flow.getFlowId().getValue()).collect(Collectors.toList());
+    }
+
+    /**
+     * Reconcile the node, and wait for the flat batch to be sent.
+     */
+    private void reconcile() throws Exception {
+        flowReconciliationListener.reconcile(NODE, 1);
+        sfcOfFlowWriter.shutdown();
+    }
+
+    private void setOperationalNode(FlowCapableNode flowCapableNode) {
+        InstanceIdentifier<FlowCapableNode> nodeIid = InstanceIdentifier.builder(Nodes.class)
+                .child(Node.class, new NodeKey(new NodeId(NODE))).augmentation(FlowCapableNode.class).build();
+        when(readTransaction.read(LogicalDatastoreType.OPERATIONAL, nodeIid))
+                .thenReturn(Futures.immediateCheckedFuture(Optional.of(flowCapableNode)));
+    }
+
+    @Test
+    public void onlyMissingAndStaleFlowsAreReconciled() throws Exception {
+        sfcOfFlowWriter.writeFlow(1L, NODE, buildFlow("missing"));
+        sfcOfFlowWriter.writeFlow(1L, NODE, buildFlow("present"));
+        sfcOfFlowWriter.writeFlow(2L, NODE, buildFlow("stale"));
+        sfcOfFlowWriter.flushFlows();
+        sfcOfFlowWriter.removeFlow(NODE, new FlowKey(new FlowId("stale")), new TableKey(TABLE));
+        sfcOfFlowWriter.deleteFlowSet();
+
+        // the flow tables of the reconnected node, with a flow of another application
+        setOperationalNode(new FlowCapableNodeBuilder().setTable(Collections.singletonList(new TableBuilder()
+                .setId(TABLE).setFlow(Arrays.asList(buildFlow("present").build(), buildFlow("stale").build(),
+                        buildFlow("#UF$TABLE*4-1").build())).build())).build());
+
+        reconcile();
+
+        // a single batch for the node, removing the stale flows then adding the missing flows
+        ArgumentCaptor<ProcessFlatBatchInput> inputCaptor = ArgumentCaptor.forClass(ProcessFlatBatchInput.class);
+        verify(salFlatBatchService).processFlatBatch(inputCaptor.capture());
+        ProcessFlatBatchInput input = inputCaptor.getValue();
+        assertEquals(new NodeRef(InstanceIdentifier.builder(Nodes.class)
+                .child(Node.class, new NodeKey(new NodeId(NODE))).build()), input.getNode());
+        assertEquals(2, input.getBatch().size());
+        // the stale flow is removed from the node with its content as read
+        List<FlatBatchRemoveFlow> removedFlows =
+                ((FlatBatchRemoveFlowCase) input.getBatch().get(0).getBatchChoice()).getFlatBatchRemoveFlow();
+        assertEquals(1, removedFlows.size());
+        assertEquals("stale", removedFlows.get(0).getFlowId().getValue());
+        assertEquals(Integer.valueOf(1), removedFlows.get(0).getPriority());
+        assertTrue(removedFlows.get(0).isStrict());
+        assertEquals(Collections.singletonList("missing"), addedFlowIds(input.getBatch().get(1)));
+        flowReconciliationListener.close();
+    }
+
+    @Test
+    public void nodeWithoutFlowTablesIsNotReconciled() throws Exception {
+        sfcOfFlowWriter.writeFlow(1L, NODE, buildFlow("missing"));
+        sfcOfFlowWriter.flushFlows();
+        setOperationalNode(new FlowCapableNodeBuilder().build());
+
+        reconcile();
+
+        verify(salFlatBatchService, never()).processFlatBatch(any());
+        flowReconciliationListener.close();
+    }
+}
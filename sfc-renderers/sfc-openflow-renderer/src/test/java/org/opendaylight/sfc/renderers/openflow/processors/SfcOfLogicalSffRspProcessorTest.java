@@ -212,13 +212,10 @@ public class SfcOfLogicalSffRspProcessorTest {
 
         // Disable the execution of private methods interacting with the
         // datastore
-        suppress(method(OperDsUpdateHandlerLSFFImpl.class, "updateRenderedServicePathOperationalStateWithDpnIds",
-                SffGraph.class, RenderedServicePath.class, WriteTransaction.class));
-        suppress(method(OperDsUpdateHandlerLSFFImpl.class, "updateSffStateWithDpnIds", SffGraph.class,
-                RenderedServicePath.class, WriteTransaction.class));
-        suppress(method(OperDsUpdateHandlerLSFFImpl.class, "deleteRspFromSffState", RenderedServicePath.class,
-                WriteTransaction.class));
-        suppress(method(OperDsUpdateHandlerLSFFImpl.class, "commitChangesAsync", WriteTransaction.class));
+        suppress(method(OperDsUpdateHandlerLSFFImpl.class, "addRspToBatch", SffGraph.class,
+                RenderedServicePath.class));
+        suppress(method(OperDsUpdateHandlerLSFFImpl.class, "removeRspFromBatch", RenderedServicePath.class));
+        suppress(method(OperDsUpdateHandlerLSFFImpl.class, "commitChanges", WriteTransaction.class));
     }
 
     @Before
@@ -597,10 +594,7 @@ public class SfcOfLogicalSffRspProcessorTest {
     private void checkOperationalDatastoreUpdateOnRSPCreation() throws Exception {
         Mockito.verify(operDsUpdateHandler).onRspCreation(any(), any());
         // verifyPrivate() is no longer supported, and really shouldnt be called anyways
-        //PowerMockito.verifyPrivate(operDsUpdateHandler)
-        //        .invoke("updateRenderedServicePathOperationalStateWithDpnIds");
-        //PowerMockito.verifyPrivate(operDsUpdateHandler).invoke("updateSffStateWithDpnIds");
-        //PowerMockito.verifyPrivate(operDsUpdateHandler).invoke("commitChangesAsync");
+        //PowerMockito.verifyPrivate(operDsUpdateHandler).invoke("addRspToBatch");
         PowerMockito.verifyNoMoreInteractions(operDsUpdateHandler);
     }
 
@@ -614,8 +608,7 @@ public class SfcOfLogicalSffRspProcessorTest {
     private void checkOperationalDatastoreUpdateOnRSPDeletion() throws Exception {
         Mockito.verify(operDsUpdateHandler).onRspDeletion(any());
         // verifyPrivate() is no longer supported, and really shouldnt be called anyways
-        //PowerMockito.verifyPrivate(operDsUpdateHandler).invoke("deleteRspFromSffState");
-        //PowerMockito.verifyPrivate(operDsUpdateHandler).invoke("commitChangesAsync");
+        //PowerMockito.verifyPrivate(operDsUpdateHandler).invoke("removeRspFromBatch");
         PowerMockito.verifyNoMoreInteractions(operDsUpdateHandler);
     }
 
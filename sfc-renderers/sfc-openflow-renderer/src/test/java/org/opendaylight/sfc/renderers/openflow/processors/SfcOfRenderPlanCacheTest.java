@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.renderers.openflow.processors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.sfc.renderers.openflow.processors.SfcOfRenderPlanCache.RenderPlan;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.RspName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SffDataPlaneLocatorName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SffName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.RenderedServicePath;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.RenderedServicePathBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.rendered.service.path.RenderedServicePathHop;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.rendered.service.path.RenderedServicePathHopBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarder.base.sff.data.plane.locator.DataPlaneLocatorBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sl.rev140701.DataPlaneLocator;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sl.rev140701.Nsh;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sl.rev140701.VxlanGpe;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sl.rev140701.data.plane.locator.LocatorType;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sl.rev140701.data.plane.locator.locator.type.IpBuilder;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.IpAddress;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Ipv4Address;
+
+public class SfcOfRenderPlanCacheTest {
+
+    private static final SffName SFF_1 = new SffName("sff1");
+    private static final SffName SFF_2 = new SffName("sff2");
+    private static final SfName SF_1 = new SfName("sf1");
+    private static final SfName SF_2 = new SfName("sf2");
+
+    private SfcOfRenderPlanCache renderPlanCache;
+
+    @Before
+    public void setUp() {
+        renderPlanCache = new SfcOfRenderPlanCache();
+        renderPlanCache.enable(100);
+    }
+
+    private static RenderedServicePath buildRsp(String name, long pathId, SfName... sfNames) {
+        List<RenderedServicePathHop> hops = new ArrayList<>();
+        short hopNumber = 0;
+        for (SfName sfName : sfNames) {
+            hops.add(new RenderedServicePathHopBuilder().setHopNumber(hopNumber)
+                    .setServiceFunctionForwarder(hopNumber == 0 ? SFF_1 : SFF_2).setServiceFunctionName(sfName)
+                    .build());
+            hopNumber++;
+        }
+        return new RenderedServicePathBuilder().setName(new RspName(name)).setPathId(pathId)
+                .setTransportType(VxlanGpe.class).setSfcEncapsulation(Nsh.class).setRenderedServicePathHop(hops)
+                .build();
+    }
+
+    private static DataPlaneLocator buildDpl(String ip) {
+        LocatorType locatorType = new IpBuilder().setIp(new IpAddress(new Ipv4Address(ip))).build();
+        return new DataPlaneLocatorBuilder().setTransport(VxlanGpe.class).setLocatorType(locatorType).build();
+    }
+
+    @Test
+    public void renderPlanIsSharedByRspsOnTheSameHops() {
+        SffGraph sffGraph = new SffGraph();
+        sffGraph.addSffDpls(SFF_1, 1, new SffDataPlaneLocatorName("sff1-in"), new SffDataPlaneLocatorName("sff1-out"),
+                buildDpl("10.0.0.1"));
+        sffGraph.addSffDpls(SFF_2, 1, new SffDataPlaneLocatorName("sff2-in"), new SffDataPlaneLocatorName("sff2-out"),
+                buildDpl("10.0.0.2"));
+        sffGraph.setPathEgressDpl(1, buildDpl("10.0.0.3"));
+
+        long generation = renderPlanCache.getGeneration();
+        renderPlanCache.put(buildRsp("RSP1", 1, SF_1, SF_2), RenderPlan.of(sffGraph, 1, true), generation);
+        assertEquals(1, renderPlanCache.size());
+
+        // same hops, different path
+        RenderPlan renderPlan = renderPlanCache.get(buildRsp("RSP2", 2, SF_1, SF_2));
+        assertNotNull(renderPlan);
+        assertTrue(renderPlan.includesRspTransports());
+        assertNull(renderPlanCache.get(buildRsp("RSP3", 3, SF_2, SF_1)));
+
+        SffGraph otherSffGraph = new SffGraph();
+        renderPlan.applyTo(otherSffGraph, 2);
+        assertEquals("sff1-in", otherSffGraph.getSffIngressDpl(SFF_1, 2).getValue());
+        assertEquals("sff2-out", otherSffGraph.getSffEgressDpl(SFF_2, 2).getValue());
+        assertEquals(buildDpl("10.0.0.2"), otherSffGraph.getHopIngressDpl(SFF_2, 2));
+        assertEquals(buildDpl("10.0.0.3"), otherSffGraph.getPathEgressDpl(2));
+
+        // the plan is not affected by changes of the graph it was built from
+        sffGraph.setSffIngressDpl(SFF_1, 1, new SffDataPlaneLocatorName("other"));
+        assertSame(renderPlan, renderPlanCache.get(buildRsp("RSP2", 2, SF_1, SF_2)));
+        renderPlan.applyTo(otherSffGraph, 3);
+        assertEquals("sff1-in", otherSffGraph.getSffIngressDpl(SFF_1, 3).getValue());
+    }
+
+    @Test
+    public void renderPlanWithoutTransports() {
+        SffGraph sffGraph = new SffGraph();
+        sffGraph.addSffDpls(SFF_1, 1, new SffDataPlaneLocatorName("sff1-in"), new SffDataPlaneLocatorName("sff1-out"),
+                buildDpl("10.0.0.1"));
+        sffGraph.setPathEgressDpl(1, buildDpl("10.0.0.3"));
+
+        RenderPlan renderPlan = RenderPlan.of(sffGraph, 1, false);
+        assertFalse(renderPlan.includesRspTransports());
+
+        SffGraph otherSffGraph = new SffGraph();
+        renderPlan.applyTo(otherSffGraph, 2);
+        assertEquals("sff1-out", otherSffGraph.getSffEgressDpl(SFF_1, 2).getValue());
+        assertNull(otherSffGraph.getHopIngressDpl(SFF_1, 2));
+        assertNull(otherSffGraph.getPathEgressDpl(2));
+    }
+
+    @Test
+    public void invalidation() {
+        RenderPlan renderPlan = RenderPlan.of(new SffGraph(), 1, false);
+        renderPlanCache.put(buildRsp("RSP1", 1, SF_1, SF_2), renderPlan, renderPlanCache.getGeneration());
+        renderPlanCache.put(buildRsp("RSP2", 2, SF_1), renderPlan, renderPlanCache.getGeneration());
+        assertEquals(2, renderPlanCache.size());
+
+        renderPlanCache.invalidateSf(SF_2);
+        assertNull(renderPlanCache.get(buildRsp("RSP1", 1, SF_1, SF_2)));
+        assertNotNull(renderPlanCache.get(buildRsp("RSP2", 2, SF_1)));
+
+        renderPlanCache.invalidateSff(SFF_1);
+        assertEquals(0, renderPlanCache.size());
+    }
+
+    @Test
+    public void sfgInvalidation() {
+        RenderedServicePath sfgRsp = new RenderedServicePathBuilder(buildRsp("RSP1", 1, SF_1))
+                .setRenderedServicePathHop(Collections.singletonList(new RenderedServicePathHopBuilder()
+                        .setHopNumber((short) 0).setServiceFunctionForwarder(SFF_1)
+                        .setServiceFunctionGroupName("sfg1").build()))
+                .build();
+        renderPlanCache.put(sfgRsp, RenderPlan.of(new SffGraph(), 1, false), renderPlanCache.getGeneration());
+        renderPlanCache.put(buildRsp("RSP2", 2, SF_1), RenderPlan.of(new SffGraph(), 2, false),
+                renderPlanCache.getGeneration());
+
+        renderPlanCache.invalidateSfg("sfg1");
+        assertNull(renderPlanCache.get(sfgRsp));
+        assertNotNull(renderPlanCache.get(buildRsp("RSP2", 2, SF_1)));
+    }
+
+    @Test
+    public void racingPlanIsNotCached() {
+        long generation = renderPlanCache.getGeneration();
+        renderPlanCache.invalidateSf(SF_1);
+        renderPlanCache.put(buildRsp("RSP1", 1, SF_1), RenderPlan.of(new SffGraph(), 1, false), generation);
+        assertEquals(0, renderPlanCache.size());
+    }
+
+    @Test
+    public void disabledCache() {
+        renderPlanCache.disable();
+        assertFalse(renderPlanCache.isEnabled());
+        renderPlanCache.put(buildRsp("RSP1", 1, SF_1), RenderPlan.of(new SffGraph(), 1, false),
+                renderPlanCache.getGeneration());
+        assertNull(renderPlanCache.get(buildRsp("RSP1", 1, SF_1)));
+    }
+}
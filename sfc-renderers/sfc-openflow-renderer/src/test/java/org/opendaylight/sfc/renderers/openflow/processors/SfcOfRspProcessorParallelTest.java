@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.renderers.openflow.processors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.mdsal.binding.api.RpcConsumerRegistry;
+import org.opendaylight.sfc.renderers.openflow.RspBuilder;
+import org.opendaylight.sfc.renderers.openflow.openflow.SfcOfFlowProgrammerImpl;
+import org.opendaylight.sfc.renderers.openflow.utils.SfcOfProviderUtilsTestMock;
+import org.opendaylight.sfc.renderers.openflow.utils.SfcSynchronizer;
+import org.opendaylight.sfc.util.openflow.OpenflowConstants;
+import org.opendaylight.sfc.util.openflow.writer.FlowDetails;
+import org.opendaylight.sfc.util.openflow.writer.SfcOfFlowWriterInterface;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SftTypeName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.RenderedServicePath;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sl.rev140701.Nsh;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sl.rev140701.VxlanGpe;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.FlowBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Checks that creating the flows of the SFF graph entries concurrently writes
+ * the same flows, in the same order, as creating them sequentially, and
+ * measures both on long chains.
+ */
+public class SfcOfRspProcessorParallelTest {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SfcOfRspProcessorParallelTest.class);
+    private static final int CHAIN_LENGTH = 32;
+    private static final int BENCHMARK_ITERATIONS = 50;
+
+    private ForkJoinPool flowGenerationPool;
+    private SfcOfProviderUtilsTestMock sfcUtilsTestMock;
+    private RspBuilder rspBuilder;
+
+    @Before
+    public void setUp() {
+        flowGenerationPool = new ForkJoinPool(4);
+        sfcUtilsTestMock = new SfcOfProviderUtilsTestMock();
+        rspBuilder = new RspBuilder(sfcUtilsTestMock);
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        flowGenerationPool.shutdown();
+        flowGenerationPool.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private RenderedServicePath buildChain(int length) {
+        List<SftTypeName> sfTypes = new ArrayList<>();
+        for (int i = 0; i < length; i++) {
+            sfTypes.add(new SftTypeName(i % 2 == 0 ? "firewall" : "http-header-enrichment"));
+        }
+        return rspBuilder.createRspFromSfTypes(sfTypes, VxlanGpe.class, Nsh.class);
+    }
+
+    /**
+     * Render a RSP with a new processor, returning the flows written.
+     */
+    private List<String> render(RenderedServicePath rsp, ForkJoinPool pool) {
+        List<String> writtenFlows = Collections.synchronizedList(new ArrayList<>());
+        SfcOfFlowWriterInterface flowWriter = mock(SfcOfFlowWriterInterface.class);
+        doAnswer(invocation -> {
+            FlowBuilder flow = invocation.getArgument(2);
+            writtenFlows.add(invocation.getArgument(0) + "/" + invocation.getArgument(1) + "/" + flow.build());
+            return null;
+        }).when(flowWriter).writeFlow(anyLong(), anyString(), any(FlowBuilder.class));
+        doAnswer(invocation -> {
+            Collection<FlowDetails> flows = invocation.getArgument(0);
+            flows.forEach(flow -> writtenFlows.add(flow.getRspId() + "/" + flow.getSffNodeName() + "/"
+                    + flow.getFlow()));
+            return true;
+        }).when(flowWriter).writeFlows(any());
+        doAnswer(invocation -> null).when(flowWriter).writeGroupToDataStore(anyString(), any(), anyBoolean());
+
+        SfcOfRspProcessor sfcOfRspProcessor = new SfcOfRspProcessor(new SfcOfFlowProgrammerImpl(flowWriter),
+                sfcUtilsTestMock, new SfcSynchronizer(), mock(RpcConsumerRegistry.class), null);
+        sfcOfRspProcessor.setFlowGenerationPool(pool);
+        sfcOfRspProcessor.processRenderedServicePath(rsp);
+        return writtenFlows;
+    }
+
+    @Test
+    public void parallelFlowsMatchSequentialFlows() {
+        RenderedServicePath rsp = buildChain(CHAIN_LENGTH);
+
+        List<String> sequentialFlows = render(rsp, null);
+        List<String> parallelFlows = render(rsp, flowGenerationPool);
+
+        assertFalse(sequentialFlows.isEmpty());
+        assertEquals(sequentialFlows, parallelFlows);
+        // the flows are merged in the same order on every render
+        assertEquals(parallelFlows, render(rsp, flowGenerationPool));
+    }
+
+    @Test
+    public void sffInitializationFlowsPrecedeTheFlowsOfTheirEntry() {
+        RenderedServicePath rsp = buildChain(CHAIN_LENGTH);
+        String initFlowPrefix = OpenflowConstants.SFC_FLOWS + "/";
+
+        for (ForkJoinPool pool : new ForkJoinPool[] {null, flowGenerationPool}) {
+            List<String> flows = render(rsp, pool);
+            int firstRspFlow = 0;
+            while (flows.get(firstRspFlow).startsWith(initFlowPrefix)) {
+                firstRspFlow++;
+            }
+            int lastInitFlow = flows.size() - 1;
+            while (!flows.get(lastInitFlow).startsWith(initFlowPrefix)) {
+                lastInitFlow--;
+            }
+            // each SFF of the chain is initialized right before the flows of
+            // its entry, not all of them up front
+            assertTrue(flows.get(0).startsWith(initFlowPrefix));
+            assertTrue(lastInitFlow > firstRspFlow);
+        }
+    }
+
+    @Test
+    public void shortChainsAreRenderedSequentially() {
+        RenderedServicePath rsp = buildChain(2);
+        assertEquals(render(rsp, null), render(rsp, flowGenerationPool));
+    }
+
+    @Test
+    public void benchmarkLongChains() {
+        List<RenderedServicePath> rsps = new ArrayList<>();
+        for (int i = 0; i < BENCHMARK_ITERATIONS; i++) {
+            rsps.add(buildChain(CHAIN_LENGTH));
+        }
+
+        // warm up
+        rsps.forEach(rsp -> render(rsp, null));
+        rsps.forEach(rsp -> render(rsp, flowGenerationPool));
+
+        long startNanos = System.nanoTime();
+        rsps.forEach(rsp -> render(rsp, null));
+        long sequentialNanos = System.nanoTime() - startNanos;
+
+        startNanos = System.nanoTime();
+        rsps.forEach(rsp -> render(rsp, flowGenerationPool));
+        long parallelNanos = System.nanoTime() - startNanos;
+
+        LOG.info("Rendering {} RSPs of {} hops: sequential {} ms, parallel {} ms ({} threads)",
+                BENCHMARK_ITERATIONS, CHAIN_LENGTH, TimeUnit.NANOSECONDS.toMillis(sequentialNanos),
+                TimeUnit.NANOSECONDS.toMillis(parallelNanos), flowGenerationPool.getParallelism());
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.renderers.openflow.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.sfc.renderers.openflow.utils.SfcOfRenderScheduler.Lane;
+
+public class SfcOfRenderSchedulerTest {
+
+    private SfcOfRenderScheduler renderScheduler;
+    private List<String> runTasks;
+    private CountDownLatch workerBlocked;
+    private CountDownLatch workerReleased;
+
+    @Before
+    public void setUp() {
+        renderScheduler = new SfcOfRenderScheduler(100);
+        runTasks = Collections.synchronizedList(new ArrayList<>());
+        workerBlocked = new CountDownLatch(1);
+        workerReleased = new CountDownLatch(1);
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        workerReleased.countDown();
+        renderScheduler.close();
+    }
+
+    /**
+     * Keep the worker busy, so that the tasks submitted afterwards are
+     * pending until {@link #runPendingTasks(int)} is called.
+     */
+    private void blockWorker() throws InterruptedException {
+        assertTrue(renderScheduler.trySubmit(Lane.PACKET_IN, null, () -> {
+            workerBlocked.countDown();
+            try {
+                workerReleased.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        assertTrue(workerBlocked.await(5, TimeUnit.SECONDS));
+    }
+
+    private void runPendingTasks(int count) throws InterruptedException {
+        workerReleased.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (runTasks.size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(count, runTasks.size());
+    }
+
+    private void submit(Lane lane, String key) throws InterruptedException {
+        renderScheduler.submit(lane, key, () -> runTasks.add(lane + ":" + key));
+    }
+
+    @Test
+    public void lanesAreDrainedByPriority() throws InterruptedException {
+        blockWorker();
+        submit(Lane.CREATE, "RSP1");
+        submit(Lane.UPDATE, "RSP2");
+        submit(Lane.DELETE, "RSP3");
+        assertEquals(1, renderScheduler.getDepth(Lane.CREATE));
+
+        runPendingTasks(3);
+        assertEquals(Arrays.asList("DELETE:RSP3", "UPDATE:RSP2", "CREATE:RSP1"), runTasks);
+        assertEquals(0, renderScheduler.getDepth(Lane.CREATE));
+        assertEquals(1, renderScheduler.getWaitLatency(Lane.CREATE).getCount());
+    }
+
+    @Test
+    public void lowPriorityLanesAreNotStarved() throws InterruptedException {
+        blockWorker();
+        for (int i = 0; i < 20; i++) {
+            submit(Lane.DELETE, "DEL" + i);
+        }
+        submit(Lane.CREATE, "RSP1");
+
+        runPendingTasks(21);
+        // the create is run once the deletes used up their weight
+        assertEquals("CREATE:RSP1", runTasks.get(Lane.DELETE.getWeight()));
+    }
+
+    @Test
+    public void tasksWithTheSameKeyKeepTheirOrderAcrossLanes() throws InterruptedException {
+        blockWorker();
+        for (int i = 0; i < 20; i++) {
+            submit(Lane.DELETE, "DEL" + i);
+        }
+        submit(Lane.DELETE, "RSP1");
+        submit(Lane.CREATE, "RSP1");
+        submit(Lane.CREATE, "RSP2");
+
+        runPendingTasks(23);
+        // the other creates are run once the deletes used up their weight,
+        // but the create of RSP1 waits for its delete
+        assertEquals("CREATE:RSP2", runTasks.get(Lane.DELETE.getWeight()));
+        assertTrue(runTasks.indexOf("DELETE:RSP1") < runTasks.indexOf("CREATE:RSP1"));
+    }
+
+    @Test
+    public void pendingTasksAreSuperseded() throws InterruptedException {
+        blockWorker();
+        submit(Lane.CREATE, "RSP1");
+        submit(Lane.UPDATE, "RSP1");
+        submit(Lane.CREATE, "RSP2");
+        submit(Lane.DELETE, "RSP1");
+
+        runPendingTasks(2);
+        assertEquals(Arrays.asList("DELETE:RSP1", "CREATE:RSP2"), runTasks);
+    }
+
+    @Test
+    public void fullLanesDoNotAdmitTasks() throws InterruptedException {
+        renderScheduler.close();
+        renderScheduler = new SfcOfRenderScheduler(2);
+        blockWorker();
+        assertTrue(renderScheduler.trySubmit(Lane.CREATE, "RSP1", () -> runTasks.add("RSP1")));
+        assertTrue(renderScheduler.trySubmit(Lane.CREATE, "RSP2", () -> runTasks.add("RSP2")));
+        assertFalse(renderScheduler.canAdmit(Lane.CREATE));
+        assertFalse(renderScheduler.trySubmit(Lane.CREATE, "RSP3", () -> runTasks.add("RSP3")));
+        assertTrue(renderScheduler.canAdmit(Lane.DELETE));
+
+        runPendingTasks(2);
+        assertEquals(Arrays.asList("RSP1", "RSP2"), runTasks);
+    }
+
+    @Test
+    public void tasksNotAdmittedDoNotSupersede() throws InterruptedException {
+        renderScheduler.close();
+        renderScheduler = new SfcOfRenderScheduler(2);
+        blockWorker();
+        assertTrue(renderScheduler.trySubmit(Lane.CREATE, "RSP1", () -> runTasks.add("CREATE:RSP1")));
+        assertTrue(renderScheduler.trySubmit(Lane.UPDATE, "RSP2", () -> runTasks.add("UPDATE:RSP2")));
+        assertTrue(renderScheduler.trySubmit(Lane.UPDATE, "RSP3", () -> runTasks.add("UPDATE:RSP3")));
+        // the update lane is full, the pending create is kept
+        assertFalse(renderScheduler.trySubmit(Lane.UPDATE, "RSP1", () -> runTasks.add("UPDATE:RSP1")));
+        // the pending update superseded makes room for its successor
+        assertTrue(renderScheduler.trySubmit(Lane.UPDATE, "RSP2", () -> runTasks.add("UPDATE:RSP2")));
+
+        runPendingTasks(3);
+        assertEquals(Arrays.asList("UPDATE:RSP3", "UPDATE:RSP2", "CREATE:RSP1"), runTasks);
+    }
+
+    @Test(expected = RejectedExecutionException.class)
+    public void closedSchedulerRejectsTasks() throws InterruptedException {
+        renderScheduler.close();
+        renderScheduler.trySubmit(Lane.DELETE, "RSP1", () -> runTasks.add("RSP1"));
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.renderers.openflow.utils.operdsupdate;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.util.concurrent.Futures;
+import java.math.BigInteger;
+import java.util.Collections;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.sfc.renderers.openflow.processors.SffGraph;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.RspName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SffName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.RenderedServicePath;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.RenderedServicePathBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.rendered.service.path.RenderedServicePathHopBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.rendered.service.path.RenderedServicePathHopKey;
+import org.opendaylight.yang.gen.v1.urn.ericsson.params.xml.ns.yang.sfc.sff.logical.rev160620.DpnIdType;
+import org.opendaylight.yang.gen.v1.urn.ericsson.params.xml.ns.yang.sfc.sff.logical.rev160620.RspLogicalSffAugmentation;
+import org.opendaylight.yang.gen.v1.urn.ericsson.params.xml.ns.yang.sfc.sff.logical.rev160620.RspLogicalSffAugmentationBuilder;
+import org.opendaylight.yang.gen.v1.urn.ericsson.params.xml.ns.yang.sfc.sff.logical.rev160620.dpnid.rsps.dpn.rsps.Dpn;
+
+@RunWith(MockitoJUnitRunner.class)
+public class OperDsUpdateHandlerLSFFImplTest {
+
+    // long enough for the scheduled flush not to happen during a test
+    private static final long FLUSH_INTERVAL_MILLIS = 60000;
+
+    private static final SffName SFF = new SffName("sff1");
+    private static final DpnIdType DPN = new DpnIdType(BigInteger.ONE);
+
+    @Mock
+    DataBroker dataBroker;
+
+    @Mock
+    WriteTransaction writeTransaction;
+
+    @Before
+    public void setUp() {
+        when(dataBroker.newWriteOnlyTransaction()).thenReturn(writeTransaction);
+        when(writeTransaction.submit()).thenReturn(Futures.immediateCheckedFuture(null));
+    }
+
+    private static SffGraph buildGraph() {
+        SffGraph graph = new SffGraph();
+        graph.addGraphEntry(SffGraph.INGRESS, SFF, new SfName("sf1"), null, 1, true, (short) 255)
+                .setDstDpnId(DPN);
+        graph.addGraphEntry(SFF, SffGraph.EGRESS, null, null, 1, true, (short) 254);
+        return graph;
+    }
+
+    // a RSP deleted before its hop dpnids were written
+    private static RenderedServicePath buildRspWithoutAugmentations(String name) {
+        return new RenderedServicePathBuilder().setName(new RspName(name))
+                .setRenderedServicePathHop(Collections.singletonList(new RenderedServicePathHopBuilder()
+                        .withKey(new RenderedServicePathHopKey((short) 0)).setHopNumber((short) 0)
+                        .setServiceFunctionForwarder(SFF).build()))
+                .build();
+    }
+
+    private static RenderedServicePath buildRsp(String name) {
+        return new RenderedServicePathBuilder().setName(new RspName(name))
+                .setRenderedServicePathHop(Collections.singletonList(new RenderedServicePathHopBuilder()
+                        .withKey(new RenderedServicePathHopKey((short) 0)).setHopNumber((short) 0)
+                        .setServiceFunctionForwarder(SFF)
+                        .addAugmentation(RspLogicalSffAugmentation.class,
+                                new RspLogicalSffAugmentationBuilder().setDpnId(DPN).build())
+                        .build()))
+                .build();
+    }
+
+    @Test
+    public void rspCreationsAreMergedInOneTransaction() {
+        OperDsUpdateHandlerLSFFImpl handler = new OperDsUpdateHandlerLSFFImpl(dataBroker, FLUSH_INTERVAL_MILLIS,
+                OperDsUpdateHandlerLSFFImpl.DEFAULT_MAX_PENDING_DELTAS);
+        SffGraph graph = buildGraph();
+        for (int i = 0; i < 3; i++) {
+            handler.onRspCreation(graph, buildRsp("RSP" + i));
+        }
+        // one RSP hop update and one dpnid membership per RSP
+        assertEquals(6, handler.getPendingDeltaCount());
+        verify(dataBroker, never()).newWriteOnlyTransaction();
+
+        handler.flush();
+
+        ArgumentCaptor<Dpn> dpnCaptor = ArgumentCaptor.forClass(Dpn.class);
+        verify(dataBroker).newWriteOnlyTransaction();
+        verify(writeTransaction).merge(eq(LogicalDatastoreType.OPERATIONAL), any(), dpnCaptor.capture(), eq(true));
+        assertEquals(3, dpnCaptor.getValue().getRspsForDpnid().getRsps().size());
+        verify(writeTransaction, times(3))
+                .put(eq(LogicalDatastoreType.OPERATIONAL), any(), any(RspLogicalSffAugmentation.class), eq(true));
+        verify(writeTransaction).submit();
+        assertEquals(0, handler.getPendingDeltaCount());
+        assertEquals(1, handler.getCommitLatencyHistogram().getCount());
+    }
+
+    @Test
+    public void rspDeletionOverridesPendingCreation() {
+        OperDsUpdateHandlerLSFFImpl handler = new OperDsUpdateHandlerLSFFImpl(dataBroker, FLUSH_INTERVAL_MILLIS,
+                OperDsUpdateHandlerLSFFImpl.DEFAULT_MAX_PENDING_DELTAS);
+        RenderedServicePath rsp = buildRsp("RSP1");
+        handler.onRspCreation(buildGraph(), rsp);
+        handler.onRspDeletion(rsp);
+        assertEquals(1, handler.getPendingDeltaCount());
+
+        handler.flush();
+
+        verify(writeTransaction).delete(eq(LogicalDatastoreType.OPERATIONAL), any());
+        verify(writeTransaction, never()).merge(any(), any(), any(), eq(true));
+        verify(writeTransaction, never()).put(any(), any(), any(), eq(true));
+        verify(writeTransaction).submit();
+    }
+
+    @Test
+    public void rspDeletionWithoutAugmentationsDropsPendingCreation() {
+        OperDsUpdateHandlerLSFFImpl handler = new OperDsUpdateHandlerLSFFImpl(dataBroker, FLUSH_INTERVAL_MILLIS,
+                OperDsUpdateHandlerLSFFImpl.DEFAULT_MAX_PENDING_DELTAS);
+        SffGraph graph = buildGraph();
+        handler.onRspCreation(graph, buildRsp("RSP1"));
+        handler.onRspCreation(graph, buildRsp("RSP2"));
+        handler.onRspDeletion(buildRspWithoutAugmentations("RSP1"));
+        // only the RSP hop update and the dpnid membership of RSP2 are left
+        assertEquals(2, handler.getPendingDeltaCount());
+
+        handler.flush();
+
+        ArgumentCaptor<Dpn> dpnCaptor = ArgumentCaptor.forClass(Dpn.class);
+        verify(writeTransaction).merge(eq(LogicalDatastoreType.OPERATIONAL), any(), dpnCaptor.capture(), eq(true));
+        assertEquals(1, dpnCaptor.getValue().getRspsForDpnid().getRsps().size());
+        assertEquals("RSP2", dpnCaptor.getValue().getRspsForDpnid().getRsps().get(0).getName().getValue());
+        verify(writeTransaction).put(eq(LogicalDatastoreType.OPERATIONAL), any(),
+                any(RspLogicalSffAugmentation.class), eq(true));
+        verify(writeTransaction, never()).delete(any(), any());
+    }
+
+    @Test
+    public void rspDeletionOfRecreatedRspKeepsPendingRemoval() {
+        OperDsUpdateHandlerLSFFImpl handler = new OperDsUpdateHandlerLSFFImpl(dataBroker, FLUSH_INTERVAL_MILLIS,
+                OperDsUpdateHandlerLSFFImpl.DEFAULT_MAX_PENDING_DELTAS);
+        SffGraph graph = buildGraph();
+        handler.onRspCreation(graph, buildRsp("RSP1"));
+        handler.flush();
+        verify(writeTransaction).merge(eq(LogicalDatastoreType.OPERATIONAL), any(), any(Dpn.class), eq(true));
+
+        // deleted, created again and deleted again before the next flush
+        handler.onRspDeletion(buildRsp("RSP1"));
+        handler.onRspCreation(graph, buildRsp("RSP1"));
+        handler.onRspDeletion(buildRspWithoutAugmentations("RSP1"));
+        // the removal of the written dpnid membership is left
+        assertEquals(1, handler.getPendingDeltaCount());
+
+        handler.flush();
+
+        verify(writeTransaction).delete(eq(LogicalDatastoreType.OPERATIONAL), any());
+        verify(writeTransaction).merge(any(), any(), any(), eq(true));
+        verify(writeTransaction).put(any(), any(), any(), eq(true));
+        verify(writeTransaction, times(2)).submit();
+    }
+
+    @Test
+    public void closeWritesPendingDeltas() {
+        OperDsUpdateHandlerLSFFImpl handler = new OperDsUpdateHandlerLSFFImpl(dataBroker, FLUSH_INTERVAL_MILLIS,
+                OperDsUpdateHandlerLSFFImpl.DEFAULT_MAX_PENDING_DELTAS);
+        handler.onRspCreation(buildGraph(), buildRsp("RSP1"));
+
+        handler.close();
+
+        verify(writeTransaction).submit();
+        assertEquals(0, handler.getPendingDeltaCount());
+
+        // once closed, the caller writes the deltas itself
+        handler.onRspCreation(buildGraph(), buildRsp("RSP2"));
+        verify(writeTransaction, times(2)).submit();
+        assertEquals(0, handler.getPendingDeltaCount());
+    }
+
+    @Test
+    public void callerFlushesWhenTooManyDeltasArePending() {
+        OperDsUpdateHandlerLSFFImpl handler = new OperDsUpdateHandlerLSFFImpl(dataBroker, FLUSH_INTERVAL_MILLIS, 2);
+        SffGraph graph = buildGraph();
+        handler.onRspCreation(graph, buildRsp("RSP1"));
+        handler.onRspCreation(graph, buildRsp("RSP2"));
+
+        verify(writeTransaction, times(2)).submit();
+        assertEquals(0, handler.getPendingDeltaCount());
+    }
+}
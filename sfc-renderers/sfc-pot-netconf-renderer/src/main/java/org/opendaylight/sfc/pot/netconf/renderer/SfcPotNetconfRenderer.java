@@ -13,8 +13,7 @@ import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import org.opendaylight.sfc.pot.netconf.renderer.provider.SfcPotNetconfIoam;
-import org.opendaylight.sfc.pot.netconf.renderer.provider.SfcPotTimerQueue;
-import org.opendaylight.sfc.pot.netconf.renderer.provider.SfcPotTimerThread;
+import org.opendaylight.sfc.pot.netconf.renderer.provider.SfcPotRefreshScheduler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -40,21 +39,18 @@ public class SfcPotNetconfRenderer {
 
     @PostConstruct
     public void initialize() {
-        /* kick off a thread for periodic SB configuration refresh handling */
-        SfcPotTimerThread sfcPotTimerThread = SfcPotTimerThread.getInstance();
-        sfcPotTimerThread.setSfcPotRspProcessor(sfcPotNetconfIoam);
-        sfcPotTimerThread.triggerConfigRefresher();
+        /* kick off the scheduler for periodic SB configuration refresh handling */
+        SfcPotRefreshScheduler sfcPotRefreshScheduler = SfcPotRefreshScheduler.getInstance();
+        sfcPotRefreshScheduler.setSfcPotRspProcessor(sfcPotNetconfIoam);
+        sfcPotRefreshScheduler.start();
 
         LOG.info("iOAM:PoT:SB:Netconf renderer started.");
     }
 
     @PreDestroy
     public void unregisterListeners() {
-        SfcPotTimerQueue queue = SfcPotTimerQueue.getInstance();
-        queue.clearTimerQueue();
-
-        SfcPotTimerThread sfcPotTimerThread = SfcPotTimerThread.getInstance();
-        sfcPotTimerThread.stopConfigRefresher();
+        SfcPotRefreshScheduler sfcPotRefreshScheduler = SfcPotRefreshScheduler.getInstance();
+        sfcPotRefreshScheduler.stop();
 
         LOG.info("iOAM:PoT:SB:Netconf renderer stopped.");
     }
@@ -0,0 +1,348 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.pot.netconf.renderer.provider;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.sfc.provider.api.SfcLatencyHistogram;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.ioam.sb.pot.rev170112.PotProfiles;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.NodeId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class is used to push the iOAM PoT profiles of a RSP to its nodes via
+ * Netconf.
+ *
+ * <p>
+ * The profiles of the RSP nodes are pushed in parallel, the profiles of a
+ * node being pushed in order. Each push attempt times out on its own, and a
+ * failed or timed out push is retried with an exponential backoff, up to a
+ * maximum number of attempts. The profile with the new active index is only
+ * pushed to the activation node once all the nodes have acknowledged their
+ * profiles, so that the nodes never switch to a profile that some of them
+ * do not have.
+ */
+public class SfcPotNetconfConfigPusher implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(SfcPotNetconfConfigPusher.class);
+
+    public static final long DEF_NODE_PUSH_TIMEOUT_MS = 5000;
+    public static final int DEF_MAX_PUSH_ATTEMPTS = 3;
+    public static final long DEF_INITIAL_BACKOFF_MS = 200;
+
+    /**
+     * Writes a PoT profile to a node.
+     */
+    @FunctionalInterface
+    public interface NodeWriter {
+        /**
+         * Write a profile to a node.
+         *
+         * @return the future acknowledgement of the node.
+         */
+        ListenableFuture<?> put(NodeId nodeId, DataBroker broker, PotProfiles profile);
+    }
+
+    private final NodeWriter nodeWriter;
+    private final ScheduledExecutorService scheduler;
+    private final long timeoutMillis;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final LongAdder retryCount = new LongAdder();
+    private final LongAdder timeoutCount = new LongAdder();
+    private final SfcLatencyHistogram pushLatency = new SfcLatencyHistogram("pot-netconf-push");
+
+    public SfcPotNetconfConfigPusher(NodeWriter nodeWriter) {
+        this(nodeWriter, newScheduler(), DEF_NODE_PUSH_TIMEOUT_MS, DEF_MAX_PUSH_ATTEMPTS, DEF_INITIAL_BACKOFF_MS);
+    }
+
+    /**
+     * Create a pusher.
+     *
+     * @param nodeWriter
+     *            writes the profiles to the nodes
+     * @param scheduler
+     *            schedules the push timeouts and retries
+     * @param timeoutMillis
+     *            time after which a push attempt is failed, in milliseconds
+     * @param maxAttempts
+     *            maximum number of push attempts of a profile
+     * @param initialBackoffMillis
+     *            time before the first retry, in milliseconds, doubled for
+     *            each other retry
+     */
+    public SfcPotNetconfConfigPusher(NodeWriter nodeWriter, ScheduledExecutorService scheduler, long timeoutMillis,
+            int maxAttempts, long initialBackoffMillis) {
+        Preconditions.checkArgument(maxAttempts > 0, "The maximum number of attempts must be positive");
+        this.nodeWriter = Preconditions.checkNotNull(nodeWriter);
+        this.scheduler = Preconditions.checkNotNull(scheduler);
+        this.timeoutMillis = timeoutMillis;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMillis = initialBackoffMillis;
+    }
+
+    private static ScheduledExecutorService newScheduler() {
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "sfc-pot-netconf-pusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.setRemoveOnCancelPolicy(true);
+        return scheduler;
+    }
+
+    /**
+     * Push the profiles of the nodes of a RSP, then, if all of them were
+     * acknowledged, the profile with the new active index to the activation
+     * node.
+     *
+     * @param nodeProfiles
+     *            the profiles of the nodes
+     * @param activation
+     *            the profile with the new active index
+     * @return the future push result, which never fails.
+     */
+    public ListenableFuture<PushResult> push(List<NodeProfile> nodeProfiles, NodeProfile activation) {
+        Preconditions.checkNotNull(activation);
+        long startNanos = System.nanoTime();
+
+        /* Different nodes in parallel, each node in order */
+        Map<NodeId, ListenableFuture<Boolean>> nodeAcks = new LinkedHashMap<>();
+        for (NodeProfile nodeProfile : nodeProfiles) {
+            ListenableFuture<Boolean> previous = nodeAcks.get(nodeProfile.getNodeId());
+            nodeAcks.put(nodeProfile.getNodeId(), previous == null ? pushNode(nodeProfile)
+                    : Futures.transformAsync(previous,
+                        acked -> acked ? pushNode(nodeProfile) : Futures.immediateFuture(false),
+                        MoreExecutors.directExecutor()));
+        }
+
+        List<NodeId> nodeIds = new ArrayList<>(nodeAcks.keySet());
+        return Futures.transformAsync(Futures.allAsList(nodeAcks.values()), acks -> {
+            List<NodeId> ackedNodes = new ArrayList<>();
+            List<NodeId> failedNodes = new ArrayList<>();
+            for (int i = 0; i < nodeIds.size(); i++) {
+                (Boolean.TRUE.equals(acks.get(i)) ? ackedNodes : failedNodes).add(nodeIds.get(i));
+            }
+            if (!failedNodes.isEmpty()) {
+                LOG.warn("iOAM:PoT:SB:Profiles not acknowledged by nodes {}, active index not changed", failedNodes);
+                return Futures.immediateFuture(new PushResult(ackedNodes, failedNodes, false, startNanos));
+            }
+            return Futures.transform(pushNode(activation), activated -> {
+                if (!activated) {
+                    failedNodes.add(activation.getNodeId());
+                }
+                return new PushResult(ackedNodes, failedNodes, activated, startNanos);
+            }, MoreExecutors.directExecutor());
+        }, MoreExecutors.directExecutor());
+    }
+
+    private ListenableFuture<Boolean> pushNode(NodeProfile nodeProfile) {
+        SettableFuture<Boolean> acked = SettableFuture.create();
+        attempt(nodeProfile, 1, initialBackoffMillis, acked);
+        return acked;
+    }
+
+    // A node writer failure is a failed attempt, whatever it throws
+    @SuppressWarnings("checkstyle:IllegalCatch")
+    private void attempt(NodeProfile nodeProfile, int attempt, long backoffMillis, SettableFuture<Boolean> acked) {
+        NodeId nodeId = nodeProfile.getNodeId();
+        long startNanos = System.nanoTime();
+        ListenableFuture<?> write;
+        try {
+            write = nodeWriter.put(nodeId, nodeProfile.getBroker(), nodeProfile.getProfile());
+        } catch (RuntimeException e) {
+            write = Futures.immediateFailedFuture(e);
+        }
+
+        ListenableFuture<?> attemptWrite = write;
+        AtomicBoolean attemptDone = new AtomicBoolean();
+        ScheduledFuture<?> timeout;
+        try {
+            timeout = scheduler.schedule(() -> {
+                if (attemptDone.compareAndSet(false, true)) {
+                    timeoutCount.increment();
+                    attemptWrite.cancel(false);
+                    retryOrFail(nodeProfile, attempt, backoffMillis, acked,
+                            new TimeoutException("No acknowledgement after " + timeoutMillis + "ms"));
+                }
+            }, timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            LOG.warn("iOAM:PoT:SB:Pusher closed, profile not pushed to node {}", nodeId.getValue());
+            acked.set(false);
+            return;
+        }
+
+        Futures.addCallback(attemptWrite, new FutureCallback<Object>() {
+            @Override
+            public void onSuccess(Object result) {
+                if (attemptDone.compareAndSet(false, true)) {
+                    timeout.cancel(false);
+                    pushLatency.recordSince(startNanos);
+                    LOG.info("iOAM:SB:PoT:Successfully configured SF node {}", nodeId.getValue());
+                    acked.set(true);
+                }
+            }
+
+            @Override
+            public void onFailure(Throwable throwable) {
+                if (attemptDone.compareAndSet(false, true)) {
+                    timeout.cancel(false);
+                    retryOrFail(nodeProfile, attempt, backoffMillis, acked, throwable);
+                }
+            }
+        }, MoreExecutors.directExecutor());
+    }
+
+    private void retryOrFail(NodeProfile nodeProfile, int attempt, long backoffMillis, SettableFuture<Boolean> acked,
+            Throwable cause) {
+        NodeId nodeId = nodeProfile.getNodeId();
+        if (attempt >= maxAttempts) {
+            LOG.warn("iOAM:SB:PoT:Error configuring SF node {} via NETCONF after {} attempts", nodeId.getValue(),
+                    attempt, cause);
+            acked.set(false);
+            return;
+        }
+
+        LOG.info("iOAM:SB:PoT:Attempt {} to configure SF node {} failed, retrying in {}ms: {}", attempt,
+                nodeId.getValue(), backoffMillis, cause.toString());
+        retryCount.increment();
+        try {
+            scheduler.schedule(() -> attempt(nodeProfile, attempt + 1, backoffMillis * 2, acked), backoffMillis,
+                    TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            LOG.warn("iOAM:PoT:SB:Pusher closed, profile not pushed to node {}", nodeId.getValue());
+            acked.set(false);
+        }
+    }
+
+    public long getRetryCount() {
+        return retryCount.sum();
+    }
+
+    public long getTimeoutCount() {
+        return timeoutCount.sum();
+    }
+
+    public SfcLatencyHistogram getPushLatency() {
+        return pushLatency;
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        LOG.info("iOAM:PoT:SB:{}", this);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("PoT Netconf pusher: retries=%d timeouts=%d latency=%s", getRetryCount(),
+                getTimeoutCount(), pushLatency);
+    }
+
+    /**
+     * A profile to push to a node.
+     */
+    public static final class NodeProfile {
+        private final NodeId nodeId;
+        private final DataBroker broker;
+        private final PotProfiles profile;
+
+        public NodeProfile(NodeId nodeId, DataBroker broker, PotProfiles profile) {
+            this.nodeId = nodeId;
+            this.broker = broker;
+            this.profile = profile;
+        }
+
+        public NodeId getNodeId() {
+            return nodeId;
+        }
+
+        public DataBroker getBroker() {
+            return broker;
+        }
+
+        public PotProfiles getProfile() {
+            return profile;
+        }
+    }
+
+    /**
+     * The aggregate result of the push of the profiles of a RSP.
+     */
+    public static final class PushResult {
+        private final List<NodeId> ackedNodes;
+        private final List<NodeId> failedNodes;
+        private final boolean activated;
+        private final long elapsedMillis;
+
+        PushResult(List<NodeId> ackedNodes, List<NodeId> failedNodes, boolean activated, long startNanos) {
+            this.ackedNodes = Collections.unmodifiableList(ackedNodes);
+            this.failedNodes = Collections.unmodifiableList(failedNodes);
+            this.activated = activated;
+            this.elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        }
+
+        /**
+         * Get the nodes that acknowledged all their profiles.
+         *
+         * @return the acknowledging nodes.
+         */
+        public List<NodeId> getAckedNodes() {
+            return ackedNodes;
+        }
+
+        /**
+         * Get the nodes that did not acknowledge one of their profiles, or
+         * the activation node if it did not acknowledge the new active index.
+         *
+         * @return the failed nodes.
+         */
+        public List<NodeId> getFailedNodes() {
+            return failedNodes;
+        }
+
+        /**
+         * Whether the new active index was pushed to the activation node.
+         *
+         * @return true if all the nodes acknowledged their profiles and the
+         *         new active index.
+         */
+        public boolean isActivated() {
+            return activated;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("acked=%d failed=%s activated=%s elapsed=%dms", ackedNodes.size(), failedNodes,
+                    activated, elapsedMillis);
+        }
+    }
+}
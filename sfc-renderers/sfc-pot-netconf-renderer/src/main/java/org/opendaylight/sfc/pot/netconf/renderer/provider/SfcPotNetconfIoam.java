@@ -8,18 +8,19 @@
 
 package org.opendaylight.sfc.pot.netconf.renderer.provider;
 
-import io.netty.util.Timeout;
 import java.math.BigInteger;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.sfc.pot.netconf.renderer.provider.SfcPotNetconfConfigPusher.NodeProfile;
+import org.opendaylight.sfc.pot.netconf.renderer.provider.SfcPotNetconfConfigPusher.PushResult;
 import org.opendaylight.sfc.pot.netconf.renderer.provider.api.SfcPotPolyAPI;
 import org.opendaylight.sfc.pot.netconf.renderer.utils.SfcPotNetconfReaderWriterAPI;
 import org.opendaylight.sfc.provider.api.SfcProviderRenderedPathAPI;
@@ -95,10 +96,20 @@ public class SfcPotNetconfIoam {
 
     private final SfcPotNetconfNodeManager nodeManager;
 
+    private final SfcPotNetconfConfigPusher configPusher;
+
     @Inject
     public SfcPotNetconfIoam(SfcPotNetconfNodeManager sfcPotNetconfNodeManager) {
+        this(sfcPotNetconfNodeManager, new SfcPotNetconfConfigPusher((nodeId, broker, profile) ->
+            SfcPotNetconfReaderWriterAPI.putAsync(broker, LogicalDatastoreType.CONFIGURATION, POT_PROFILES_IID,
+                    profile)));
+    }
+
+    public SfcPotNetconfIoam(SfcPotNetconfNodeManager sfcPotNetconfNodeManager,
+            SfcPotNetconfConfigPusher configPusher) {
         this.nodeManager = sfcPotNetconfNodeManager;
-        this.pathConfig = new HashMap<>();
+        this.configPusher = configPusher;
+        this.pathConfig = new ConcurrentHashMap<>();
     }
 
     /* Utility functions */
@@ -140,33 +151,34 @@ public class SfcPotNetconfIoam {
      * Utility function that handles common processing to send configuration to
      * nodes.
      *
-     * @return current active index.
+     * @return the aggregate push result, null if the configuration could not
+     *         be built.
      */
-    private int sendIoamPotConfig(RenderedServicePath rsp, SfcPotPolyAPI potApi, HashSet<Config> configHash,
-            int newActiveIndex) {
+    private PushResult sendIoamPotConfig(RenderedServicePath rsp, PolyParameters ioamPotParams,
+            List<PolySecrets> ioamPotHopParamsList, HashSet<Config> configHash, int newActiveIndex) {
         int posIndex = 0;
         String rspName = rsp.getName().getValue();
         SffName sffName;
 
-        PolyParameters ioamPotParams = potApi.getIoamPotParameters();
         if (ioamPotParams == null) {
             LOG.warn("iOAM:PoT:SB:profile parameters not present in RSP:{}", rsp.getName());
-            return -1;
+            return null;
         }
 
+        List<NodeProfile> nodeProfiles = new ArrayList<>();
         List<RenderedServicePathHop> hopList = rsp.getRenderedServicePathHop();
         for (RenderedServicePathHop h : hopList) {
             sffName = h.getServiceFunctionForwarder();
             NodeId sffNode = getSffNodeId(sffName);
             if (sffNode == null) {
                 LOG.warn("iOAM:PoT:SB:sffNode is null for sffName: {}", sffName);
-                return -1;
+                return null;
             }
 
-            PolySecrets ioamPotHopParams = potApi.getIoamPotHopParameters(posIndex);
+            PolySecrets ioamPotHopParams = ioamPotHopParamsList.get(posIndex);
             if (ioamPotHopParams == null) {
                 LOG.warn("iOAM:PoT:SB:Hop parameters not available for RSP:{}", rsp.getName());
-                return -1;
+                return null;
             }
 
             /*
@@ -174,10 +186,12 @@ public class SfcPotNetconfIoam {
              */
             PotProfiles profile = buildProfile(rspName + '-' + h.getServiceIndex(), ioamPotParams, ioamPotHopParams,
                     posIndex, -1);
-            if (!configSF(configHash, sffNode, profile)) {
+            NodeProfile nodeProfile = getNodeProfile(sffNode, profile);
+            if (nodeProfile == null) {
                 /* Error already logged */
-                return -1;
+                return null;
             }
+            nodeProfiles.add(nodeProfile);
             posIndex++;
         }
 
@@ -189,29 +203,33 @@ public class SfcPotNetconfIoam {
         posIndex = 0;
 
         RenderedServicePathHop hop = hopList.iterator().next();
-        NodeId sffNode;
-        sffName = hop.getServiceFunctionForwarder();
-        sffNode = getSffNodeId(sffName);
-        if (sffNode == null) {
-            LOG.warn("iOAM:PoT:SB:sffNode is null for sffName: {}", sffName);
-            return -1;
-        }
+        NodeProfile firstNodeProfile = nodeProfiles.get(posIndex);
 
-        PolySecrets ioamPotHopParams = potApi.getIoamPotHopParameters(posIndex);
-        if (ioamPotHopParams == null) {
-            LOG.warn("iOAM:PoT:SB: Hop parameters cannot be got for RSP:{}", rsp.getName());
-            return -1;
+        /* profiles are updated at the first node */
+        PotProfiles profile = buildProfile(rspName + '-' + hop.getServiceIndex(), ioamPotParams,
+                ioamPotHopParamsList.get(posIndex), posIndex, newActiveIndex);
+        NodeProfile activation = new NodeProfile(firstNodeProfile.getNodeId(), firstNodeProfile.getBroker(), profile);
+
+        /* The nodes are configured in parallel, the activeIndex once they all are */
+        PushResult pushResult;
+        try {
+            pushResult = configPusher.push(nodeProfiles, activation).get();
+        } catch (InterruptedException | ExecutionException e) {
+            LOG.warn("iOAM:PoT:SB:profile push interrupted for RSP:{}", rsp.getName(), e);
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
         }
 
-        /* profiles are updated at the first node */
-        PotProfiles profile = buildProfile(rspName + '-' + hop.getServiceIndex(), ioamPotParams, ioamPotHopParams,
-                posIndex, newActiveIndex);
-        if (!configSF(configHash, sffNode, profile)) {
-            /* Error already logged */
-            return -1;
+        for (NodeProfile nodeProfile : nodeProfiles) {
+            if (pushResult.getAckedNodes().contains(nodeProfile.getNodeId())) {
+                configHash.add(new Config(nodeProfile.getNodeId(), POT_PROFILES_IID, nodeProfile.getBroker()));
+            }
         }
+        LOG.debug("iOAM:PoT:SB:profile push for RSP:{}: {}", rsp.getName(), pushResult);
 
-        return newActiveIndex;
+        return pushResult;
     }
 
     /**
@@ -235,32 +253,49 @@ public class SfcPotNetconfIoam {
             return -1;
         }
 
-        if (!flagRenew) {
-            if (!potApi.init(rsp.getName().getValue(), sfcSize, refreshPeriodTimeUnits, refreshPeriodValue,
-                    ioamPotProfileBitMask, ioamPotNumProfiles)) {
-                LOG.warn("iOAM:PoT:SB: Profile not initialized for RSP:{}", rsp.getName());
-                return -1;
+        /*
+         * The PoT API keeps the profiles it generates in its state: the
+         * profiles of the RSPs refreshed concurrently are generated one at a
+         * time, and then sent to the nodes concurrently.
+         */
+        PolyParameters ioamPotParams;
+        List<PolySecrets> ioamPotHopParamsList = new ArrayList<>();
+        synchronized (potApi) {
+            if (!flagRenew) {
+                if (!potApi.init(rsp.getName().getValue(), sfcSize, refreshPeriodTimeUnits, refreshPeriodValue,
+                        ioamPotProfileBitMask, ioamPotNumProfiles)) {
+                    LOG.warn("iOAM:PoT:SB: Profile not initialized for RSP:{}", rsp.getName());
+                    return -1;
+                }
+            } else {
+                newActiveIndex = potApi.initRenew(rsp.getName().getValue(), sfcSize, currActiveIndex);
+                if (newActiveIndex == -1) {
+                    LOG.warn("iOAM:PoT:SB: Profile could not be renewed for RSP:{}", rsp.getName());
+                    return -1;
+                }
             }
-        } else {
-            newActiveIndex = potApi.initRenew(rsp.getName().getValue(), sfcSize, currActiveIndex);
-            if (newActiveIndex == -1) {
-                LOG.warn("iOAM:PoT:SB: Profile could not be renewed for RSP:{}", rsp.getName());
-                return -1;
+
+            ioamPotParams = potApi.getIoamPotParameters();
+            for (int posIndex = 0; posIndex < rsp.getRenderedServicePathHop().size(); posIndex++) {
+                ioamPotHopParamsList.add(potApi.getIoamPotHopParameters(posIndex));
             }
         }
 
-        int ret = sendIoamPotConfig(rsp, potApi, configHash, newActiveIndex);
-        if (ret == -1) {
+        SfcPotTimerData potTimerData = SfcPotTimerData.getInstance();
+        PushResult pushResult = sendIoamPotConfig(rsp, ioamPotParams, ioamPotHopParamsList, configHash,
+                newActiveIndex);
+        if (pushResult == null || !pushResult.isActivated()) {
             LOG.warn("iOAM:PoT:SB:profile could not be sent for RSP:{}", rsp.getName());
+            if (pushResult != null) {
+                potTimerData.setRspDataPushResult(rsp.getName(), pushResult);
+            }
             return -1;
         }
 
         /* Initial config send: Set up timer for periodic config regeneration */
         if (!flagRenew) {
             /* Set up timer for periodic config regeneration */
-            SfcPotTimerTask potTimerTask = new SfcPotTimerTask(rsp.getName());
-            SfcPotTimerWheel potTimerWheel = SfcPotTimerWheel.getInstance();
-            SfcPotTimerData potTimerData = SfcPotTimerData.getInstance();
+            SfcPotRefreshScheduler potRefreshScheduler = SfcPotRefreshScheduler.getInstance();
 
             /*
              * NOTE: This is done to start a timer for a period a bit before the
@@ -270,11 +305,10 @@ public class SfcPotNetconfIoam {
             /* NOTE:TODO: support other time units. Currently assume ms */
             adjRefreshPeriodValue = refreshPeriodValue - CFG_REFRESH_INTERVAL_FUZZ_MS;
 
-            Timeout potTimeout = potTimerWheel.setTimerContext(potTimerTask, adjRefreshPeriodValue,
-                    TimeUnit.MILLISECONDS);
             /* Start off with active cfg index 0 */
-            potTimerData.addRspData(rsp.getName(), adjRefreshPeriodValue, refreshPeriodTimeUnits, 0, sfcSize,
-                    potTimerTask, potTimeout);
+            potTimerData.addRspData(rsp.getName(), adjRefreshPeriodValue, refreshPeriodTimeUnits, 0, sfcSize);
+            potTimerData.setRspDataPushResult(rsp.getName(), pushResult);
+            potRefreshScheduler.arm(rsp.getName(), adjRefreshPeriodValue);
 
             LOG.debug("iOAM:PoT:SB:Started timer for RSP:{}, sfc:{}", rsp.getName(), sfcSize);
 
@@ -283,6 +317,7 @@ public class SfcPotNetconfIoam {
             return 0;
         }
 
+        potTimerData.setRspDataPushResult(rsp.getName(), pushResult);
         return newActiveIndex;
     }
 
@@ -340,32 +375,18 @@ public class SfcPotNetconfIoam {
     }
 
     /**
-     * Sends out configuration to the SB node via Netconf.
+     * Returns the configuration to send out to the SB node via Netconf.
      *
-     * @return Success or Failure.
+     * @return the node profile, null if the node is not mounted.
      */
-    private boolean configSF(HashSet<Config> configHash, final NodeId nodeId, PotProfiles profile) {
-        InstanceIdentifier<PotProfiles> iid = POT_PROFILES_IID;
-
+    private NodeProfile getNodeProfile(final NodeId nodeId, PotProfiles profile) {
         DataBroker broker = nodeManager.getMountPointFromNodeId(nodeId);
         if (broker == null) {
             LOG.warn("iOAM:SB:PoT:Error configuring SF node. Broker invalid.");
-            return false;
-        }
-
-        if (SfcPotNetconfReaderWriterAPI.put(broker, LogicalDatastoreType.CONFIGURATION, iid, profile)) {
-            LOG.info("iOAM:SB:PoT:Successfully configured SF node {}", nodeId.getValue());
-            /*
-             * Duplicates not added, as configSF could be called more than once
-             * for first node
-             */
-            configHash.add(new Config(nodeId, iid, broker));
-        } else {
-            LOG.warn("iOAM:SB:PoT:Error configuring SF node {} via NETCONF", nodeId.getValue());
-            return false;
+            return null;
         }
 
-        return true;
+        return new NodeProfile(nodeId, broker, profile);
     }
 
     /* This function returns NodeId given the IP address of the node */
@@ -440,8 +461,7 @@ public class SfcPotNetconfIoam {
             LOG.info("iOAM:PoT:SB:RSP {}:iOAM Proof of Transit disabled.", rsp.getName());
 
             /* Disable timers to handle case of PoT disable */
-            SfcPotTimerWheel timer = SfcPotTimerWheel.getInstance();
-            timer.clearTimerContext(potTimerData.getRspDataTimeout(rsp.getName()));
+            SfcPotRefreshScheduler.getInstance().cancel(rsp.getName());
             potTimerData.delRspData(rsp.getName());
 
             /*
@@ -514,8 +534,7 @@ public class SfcPotNetconfIoam {
         SfcPotTimerData potTimerData = SfcPotTimerData.getInstance();
 
         /* Disable timers */
-        SfcPotTimerWheel timer = SfcPotTimerWheel.getInstance();
-        timer.clearTimerContext(potTimerData.getRspDataTimeout(rsp.getName()));
+        SfcPotRefreshScheduler.getInstance().cancel(rsp.getName());
         potTimerData.delRspData(rsp.getName());
 
         if (configHash != null) {
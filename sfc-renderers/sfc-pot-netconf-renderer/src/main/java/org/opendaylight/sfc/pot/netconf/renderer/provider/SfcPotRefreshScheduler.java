@@ -0,0 +1,349 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.pot.netconf.renderer.provider;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import org.opendaylight.sfc.provider.api.SfcLatencyHistogram;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.RspName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Scheduler of the periodic iOAM PoT configuration refresh of the RSPs.
+ *
+ * <p>
+ * Each RSP with PoT enabled is armed with the time its configuration is due
+ * to be refreshed. Arming and cancelling are lock free: the armed refreshes
+ * are kept in a skip list ordered by due time, and the refresh currently
+ * armed for each RSP in a concurrent map, so that a refresh superseded by a
+ * later arming or by a cancellation is just dropped when it is due.
+ *
+ * <p>
+ * On each tick, all the refreshes due are drained from the skip list and run
+ * on a bounded pool of workers, which renew the configuration of the RSP,
+ * store its new active profile index and arm its next refresh. A RSP has at
+ * most one refresh pending or running at a time. The lag of each refresh,
+ * the time between its due time and the time it is actually started, is
+ * recorded per RSP and in a global histogram.
+ */
+public final class SfcPotRefreshScheduler {
+    private static final Logger LOG = LoggerFactory.getLogger(SfcPotRefreshScheduler.class);
+
+    public static final long TICK_INTERVAL_MS = 100;
+    public static final int MAX_REFRESH_WORKERS = 8;
+
+    private static final SfcPotRefreshScheduler SFC_POT_REFRESH_SCHEDULER = new SfcPotRefreshScheduler(
+            System::currentTimeMillis, newWorkerPool(MAX_REFRESH_WORKERS));
+
+    private final LongSupplier clockMillis;
+    private final Executor workers;
+    private final ConcurrentSkipListSet<Refresh> dueRefreshes = new ConcurrentSkipListSet<>();
+    private final ConcurrentMap<RspName, Refresh> armedRefreshes = new ConcurrentHashMap<>();
+    private final ConcurrentMap<RspName, RefreshLag> refreshLags = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final LongAdder refreshCount = new LongAdder();
+    private final LongAdder failedCount = new LongAdder();
+    private final SfcLatencyHistogram lagHistogram = new SfcLatencyHistogram("pot-refresh-lag");
+    private volatile SfcPotNetconfIoam sfcPotNetconfIoam;
+    private ScheduledExecutorService ticker;
+
+    /**
+     * Create a scheduler.
+     *
+     * @param clockMillis
+     *            the clock of the due times, in milliseconds
+     * @param workers
+     *            the executor running the refreshes
+     */
+    SfcPotRefreshScheduler(LongSupplier clockMillis, Executor workers) {
+        this.clockMillis = clockMillis;
+        this.workers = workers;
+    }
+
+    public static SfcPotRefreshScheduler getInstance() {
+        return SFC_POT_REFRESH_SCHEDULER;
+    }
+
+    private static Executor newWorkerPool(int size) {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(size, size, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), newThreadFactory("sfc-pot-refresh-worker-"));
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    private static ThreadFactory newThreadFactory(String prefix) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    public void setSfcPotRspProcessor(SfcPotNetconfIoam netconfIoam) {
+        this.sfcPotNetconfIoam = netconfIoam;
+    }
+
+    /**
+     * Start ticking, every {@link #TICK_INTERVAL_MS} milliseconds.
+     */
+    public synchronized void start() {
+        if (ticker != null) {
+            return;
+        }
+        ticker = Executors.newSingleThreadScheduledExecutor(newThreadFactory("sfc-pot-refresh-ticker-"));
+        ticker.scheduleWithFixedDelay(this::safeTick, TICK_INTERVAL_MS, TICK_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop ticking and drop the armed refreshes. The refreshes already
+     * running are completed, but not armed again.
+     */
+    public synchronized void stop() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+            ticker = null;
+        }
+        armedRefreshes.clear();
+        dueRefreshes.clear();
+        LOG.info("iOAM:PoT:SB:{}", this);
+    }
+
+    /**
+     * Arm the refresh of a RSP, replacing the refresh already armed for it, if
+     * any.
+     *
+     * @param rspName
+     *            the RSP name
+     * @param delayMillis
+     *            the time until the refresh is due, in milliseconds
+     */
+    public void arm(RspName rspName, long delayMillis) {
+        Refresh refresh = new Refresh(rspName, clockMillis.getAsLong() + delayMillis, sequence.incrementAndGet());
+        Refresh previous = armedRefreshes.put(rspName, refresh);
+        if (previous != null) {
+            dueRefreshes.remove(previous);
+        }
+        dueRefreshes.add(refresh);
+    }
+
+    /**
+     * Cancel the refresh of a RSP. A refresh of the RSP already running is
+     * completed, but not armed again if the RSP data was deleted meanwhile.
+     *
+     * @param rspName
+     *            the RSP name
+     */
+    public void cancel(RspName rspName) {
+        Refresh refresh = armedRefreshes.remove(rspName);
+        if (refresh != null) {
+            dueRefreshes.remove(refresh);
+        }
+        refreshLags.remove(rspName);
+    }
+
+    public boolean isArmed(RspName rspName) {
+        return armedRefreshes.containsKey(rspName);
+    }
+
+    public int getArmedCount() {
+        return armedRefreshes.size();
+    }
+
+    /**
+     * Submit all the refreshes due to the workers.
+     *
+     * @return the number of refreshes submitted
+     */
+    public int tick() {
+        long nowMillis = clockMillis.getAsLong();
+        int submitted = 0;
+        // the refreshes due up to now, whatever their sequence number
+        Iterator<Refresh> due = dueRefreshes.headSet(new Refresh(null, nowMillis, Long.MAX_VALUE), true)
+                .iterator();
+        while (due.hasNext()) {
+            Refresh refresh = due.next();
+            if (!dueRefreshes.remove(refresh) || !armedRefreshes.remove(refresh.rspName, refresh)) {
+                // superseded or cancelled
+                continue;
+            }
+            try {
+                workers.execute(() -> refresh(refresh));
+                submitted++;
+            } catch (RejectedExecutionException e) {
+                LOG.warn("iOAM:PoT:SB:Refresh of RSP {} rejected", refresh.rspName, e);
+            }
+        }
+        return submitted;
+    }
+
+    // The ticker must keep on ticking whatever a tick throws
+    @SuppressWarnings("checkstyle:IllegalCatch")
+    private void safeTick() {
+        try {
+            tick();
+        } catch (RuntimeException e) {
+            LOG.error("iOAM:PoT:SB:Refresh tick failed", e);
+        }
+    }
+
+    // A failed refresh is not armed again, whatever it throws
+    @SuppressWarnings("checkstyle:IllegalCatch")
+    private void refresh(Refresh refresh) {
+        RspName rspName = refresh.rspName;
+        long startMillis = clockMillis.getAsLong();
+        SfcPotTimerData potTimerData = SfcPotTimerData.getInstance();
+        SfcPotNetconfIoam netconfIoam = sfcPotNetconfIoam;
+        if (netconfIoam == null || !potTimerData.isRspDataPresent(rspName)) {
+            return;
+        }
+
+        long lagMillis = Math.max(0L, startMillis - refresh.dueMillis);
+        lagHistogram.record(TimeUnit.MILLISECONDS.toNanos(lagMillis));
+        refreshLags.computeIfAbsent(rspName, name -> new RefreshLag()).record(startMillis, lagMillis);
+        refreshCount.increment();
+
+        /*
+         * Do configuration regeneration for the non-active config, then
+         * store the new active index and arm the next refresh.
+         */
+        Long refreshTimerValue = potTimerData.getRspDataConfigRefreshValue(rspName);
+        int newActiveIndex;
+        try {
+            newActiveIndex = netconfIoam.refreshSfcPot(rspName, potTimerData.getRspDataConfigActiveIndex(rspName),
+                    potTimerData.getRspDataSfcSize(rspName), refreshTimerValue);
+        } catch (RuntimeException e) {
+            LOG.error("iOAM:PoT:SB:Refresh of RSP {} failed", rspName, e);
+            newActiveIndex = -1;
+        }
+
+        if (newActiveIndex < 0) {
+            failedCount.increment();
+            LOG.warn("iOAM:PoT:SB:Refresh of RSP {} failed, not rearmed", rspName);
+        } else if (potTimerData.setRspDataConfigActiveIndex(rspName, newActiveIndex)) {
+            arm(rspName, refreshTimerValue);
+        }
+    }
+
+    /**
+     * Get the refresh lag of a RSP.
+     *
+     * @param rspName
+     *            the RSP name
+     * @return the refresh lag of the RSP, null if it was never refreshed
+     */
+    public RefreshLag getRefreshLag(RspName rspName) {
+        return refreshLags.get(rspName);
+    }
+
+    /**
+     * Get the lag of all the refreshes.
+     *
+     * @return the refresh lag histogram
+     */
+    public SfcLatencyHistogram getLagHistogram() {
+        return lagHistogram;
+    }
+
+    public long getRefreshCount() {
+        return refreshCount.sum();
+    }
+
+    public long getFailedCount() {
+        return failedCount.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("PoT refresh scheduler: armed=%d refreshed=%d failed=%d lag=%s", getArmedCount(),
+                getRefreshCount(), getFailedCount(), lagHistogram);
+    }
+
+    /**
+     * The lag of the refreshes of a RSP.
+     */
+    public static final class RefreshLag {
+        private final LongAdder count = new LongAdder();
+        private final LongAccumulator maxLagMillis = new LongAccumulator(Long::max, 0L);
+        private volatile long lastLagMillis;
+        private volatile long lastRefreshMillis;
+
+        void record(long refreshMillis, long lagMillis) {
+            lastRefreshMillis = refreshMillis;
+            lastLagMillis = lagMillis;
+            maxLagMillis.accumulate(lagMillis);
+            count.increment();
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getLastLagMillis() {
+            return lastLagMillis;
+        }
+
+        public long getMaxLagMillis() {
+            return maxLagMillis.get();
+        }
+
+        public long getLastRefreshMillis() {
+            return lastRefreshMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("count=%d lastLag=%dms maxLag=%dms", getCount(), lastLagMillis, getMaxLagMillis());
+        }
+    }
+
+    private static final class Refresh implements Comparable<Refresh> {
+        private final RspName rspName;
+        private final long dueMillis;
+        private final long sequence;
+
+        Refresh(RspName rspName, long dueMillis, long sequence) {
+            this.rspName = rspName;
+            this.dueMillis = dueMillis;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(Refresh other) {
+            int byDue = Long.compare(dueMillis, other.dueMillis);
+            return byDue != 0 ? byDue : Long.compare(sequence, other.sequence);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Refresh && compareTo((Refresh) obj) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(sequence);
+        }
+    }
+}
@@ -8,9 +8,8 @@
 
 package org.opendaylight.sfc.pot.netconf.renderer.provider;
 
-import io.netty.util.Timeout;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.RspName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.ioam.nb.pot.rev161122.TimeResolution;
 
@@ -18,6 +17,8 @@ import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.ioam.nb.pot
  * This class is used to store iOAM PoT and RSP meta data in the timer context.
  *
  * <p>
+ * The data is read and updated by the refresh workers of
+ * {@link SfcPotRefreshScheduler} concurrently with the RSP listener.
  *
  * @author Srihari Raghavan (srihari@cisco.com)
  * @version 0.1
@@ -27,26 +28,22 @@ public final class SfcPotTimerData {
     private static final SfcPotTimerData SFC_POT_TIMER_DATA_INSTANCE = new SfcPotTimerData();
 
     private static class SfcPotRspInfo {
-        Long configSendTimerValue;
-        int currActiveIndex;
-        SfcPotTimerTask potTimerTask;
-        Timeout potTimeout;
-        int sfcSize;
-
-        SfcPotRspInfo(Long configVal, int currActiveIndex, int sfcSize, SfcPotTimerTask potTimerTask,
-                Timeout potTimeout) {
+        final Long configSendTimerValue;
+        volatile int currActiveIndex;
+        final int sfcSize;
+        volatile SfcPotNetconfConfigPusher.PushResult lastPushResult;
+
+        SfcPotRspInfo(Long configVal, int currActiveIndex, int sfcSize) {
             this.configSendTimerValue = configVal;
             this.currActiveIndex = currActiveIndex;
             this.sfcSize = sfcSize;
-            this.potTimerTask = potTimerTask;
-            this.potTimeout = potTimeout;
         }
     }
 
     private final Map<String, SfcPotRspInfo> potRspInfoStore;
 
     private SfcPotTimerData() {
-        potRspInfoStore = new HashMap<>();
+        potRspInfoStore = new ConcurrentHashMap<>();
     }
 
     public static SfcPotTimerData getInstance() {
@@ -58,15 +55,14 @@ public final class SfcPotTimerData {
     }
 
     public boolean addRspData(RspName rspName, Long refreshPeriodValue,
-            final Class<? extends TimeResolution> refreshPeriodTimeUnits, int currActiveIndex, int sfcSize,
-            SfcPotTimerTask potTimerTask, Timeout potTimeout) {
+            final Class<? extends TimeResolution> refreshPeriodTimeUnits, int currActiveIndex, int sfcSize) {
         SfcPotRspInfo potRspInfo;
 
         if (potRspInfoStore == null) {
             return false;
         }
 
-        potRspInfo = new SfcPotRspInfo(refreshPeriodValue, currActiveIndex, sfcSize, potTimerTask, potTimeout);
+        potRspInfo = new SfcPotRspInfo(refreshPeriodValue, currActiveIndex, sfcSize);
 
         potRspInfoStore.put(rspName.getValue(), potRspInfo);
 
@@ -137,29 +133,33 @@ public final class SfcPotTimerData {
         potRspInfo = potRspInfoStore.get(rspName.getValue());
         if (potRspInfo != null) {
             potRspInfo.currActiveIndex = newActiveIndex;
-            potRspInfoStore.put(rspName.getValue(), potRspInfo);
             return true;
         }
 
         return false;
     }
 
-    public SfcPotTimerTask getRspDataTimerTask(RspName rspName) {
+    /*
+     * Stores the aggregate result of the last push of the RSP profiles to
+     * its nodes.
+     */
+    public boolean setRspDataPushResult(RspName rspName, SfcPotNetconfConfigPusher.PushResult pushResult) {
         SfcPotRspInfo potRspInfo;
 
         if (potRspInfoStore == null) {
-            return null;
+            return false;
         }
 
         potRspInfo = potRspInfoStore.get(rspName.getValue());
         if (potRspInfo != null) {
-            return potRspInfo.potTimerTask;
+            potRspInfo.lastPushResult = pushResult;
+            return true;
         }
 
-        return null;
+        return false;
     }
 
-    public Timeout getRspDataTimeout(RspName rspName) {
+    public SfcPotNetconfConfigPusher.PushResult getRspDataPushResult(RspName rspName) {
         SfcPotRspInfo potRspInfo;
 
         if (potRspInfoStore == null) {
@@ -168,23 +168,9 @@ public final class SfcPotTimerData {
 
         potRspInfo = potRspInfoStore.get(rspName.getValue());
         if (potRspInfo != null) {
-            return potRspInfo.potTimeout;
+            return potRspInfo.lastPushResult;
         }
 
         return null;
     }
-
-    public void setRspDataTimeout(RspName rspName, Timeout potTimeout) {
-        SfcPotRspInfo potRspInfo;
-
-        if (potRspInfoStore == null) {
-            return;
-        }
-
-        potRspInfo = potRspInfoStore.get(rspName.getValue());
-        if (potRspInfo != null) {
-            potRspInfo.potTimeout = potTimeout;
-            potRspInfoStore.put(rspName.getValue(), potRspInfo);
-        }
-    }
 }
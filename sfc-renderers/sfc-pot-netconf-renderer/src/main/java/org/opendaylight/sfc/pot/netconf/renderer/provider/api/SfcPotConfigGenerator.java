@@ -8,11 +8,19 @@
 package org.opendaylight.sfc.pot.netconf.renderer.provider.api;
 
 import java.math.BigInteger;
-import java.util.Random;
+import java.security.SecureRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * This class is used for configuration generation for SFC Proof of Transit.
  *
+ * <p>
+ * The polynomials are evaluated with the Horner scheme modulo the prime, and
+ * the Lagrange basis of the service indices, which only depends on the
+ * number of services, is computed once per number of services. The random
+ * numbers are drawn from a shared {@link SecureRandom}.
+ *
  * @author Sagar Srivastav (sagsriva@cisco.com)
  * @version 0.2
  * @since 2016-05-01
@@ -21,6 +29,8 @@ public class SfcPotConfigGenerator {
     private static final String VERSION = "0.5";
     private static final int MAX_SERVICE_NODES = 100;
     private static final short DEFAULT_NUM_BITS = 60;
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final ConcurrentMap<Integer, LagrangeBasis> LAGRANGE_BASES = new ConcurrentHashMap<>();
 
     private short noOfBits;
     private int noOfServices = -1;
@@ -49,85 +59,54 @@ public class SfcPotConfigGenerator {
         coeffOfPoly1 = new long[noOfServices];
         coeffOfPoly2 = new long[noOfServices];
         for (int i = 0; i < noOfServices; i++) {
-            coeffOfPoly1[i] = 0;
-            coeffOfPoly2[i] = 0;
-            Random randomNumber = new Random();
-            coeffOfPoly1[i] = absLong(randomNumber.nextLong()) % numLimit + 1;
-            coeffOfPoly2[i] = absLong(randomNumber.nextLong()) % numLimit + 1;
-            if (coeffOfPoly1[i] > largestCoeff) {
+            coeffOfPoly1[i] = absLong(RANDOM.nextLong()) % numLimit + 1;
+            coeffOfPoly2[i] = absLong(RANDOM.nextLong()) % numLimit + 1;
+            if (Long.compareUnsigned(coeffOfPoly1[i], largestCoeff) > 0) {
                 largestCoeff = coeffOfPoly1[i];
             }
-            if (coeffOfPoly2[i] > largestCoeff) {
+            if (Long.compareUnsigned(coeffOfPoly2[i], largestCoeff) > 0) {
                 largestCoeff = coeffOfPoly2[i];
             }
         }
-        bigPrime = new BigInteger(Long.toUnsignedString(largestCoeff)).nextProbablePrime();
+        bigPrime = toUnsignedBigInteger(largestCoeff).nextProbablePrime();
+    }
+
+    private static BigInteger toUnsignedBigInteger(long value) {
+        BigInteger bigValue = BigInteger.valueOf(value);
+        return value >= 0 ? bigValue : bigValue.add(BigInteger.ONE.shiftLeft(Long.SIZE));
     }
 
     /*
      * Function to evaluate a polynomial without the constant part given the
-     * value and coefficients.
+     * value and coefficients, with the Horner scheme modulo the prime.
      */
     @SuppressWarnings("checkstyle:ParameterName")
     private BigInteger evaluatePoly(int x, long[] coefficients) {
-        BigInteger term;
-        BigInteger precomputeShare = new BigInteger("0");
-        BigInteger powX = new BigInteger("1");
-        for (int exp = 1; exp < noOfServices; exp++) {
-            powX = powX.multiply(new BigInteger("" + x));
-            term = powX.multiply(new BigInteger(Long.toUnsignedString(coefficients[exp])));
-            precomputeShare = precomputeShare.add(term);
+        BigInteger bigX = BigInteger.valueOf(x);
+        BigInteger precomputeShare = BigInteger.ZERO;
+        for (int exp = noOfServices - 1; exp >= 1; exp--) {
+            precomputeShare = precomputeShare.add(toUnsignedBigInteger(coefficients[exp])).multiply(bigX)
+                    .mod(bigPrime);
         }
-        precomputeShare = precomputeShare.mod(bigPrime);
         return precomputeShare;
     }
 
     /* Add secret-key to the evaluated polynomial and prime mod it. */
     private long splitShareIndex(int index) {
         BigInteger bigShare = evaluatePoly(index, coeffOfPoly1);
-        bigShare = bigShare.add(new BigInteger(Long.toUnsignedString(coeffOfPoly1[0])));
+        bigShare = bigShare.add(toUnsignedBigInteger(coeffOfPoly1[0]));
         bigShare = bigShare.remainder(bigPrime);
         return bigShare.longValue();
     }
 
-    /* calculate Lpc */
-    private BigInteger calculateLpc(int index) {
-        int count;
-        long startPosition;
-        long nextPosition;
-        BigInteger bigNumerator;
-
-        BigInteger bigDenom = new BigInteger("1");
-        bigNumerator = new BigInteger("1");
-        for (count = 0; count < noOfServices; count++) {
-            if (index == count) {
-                continue;
-            }
-            startPosition = serviceIndices[index];
-            nextPosition = serviceIndices[count];
-            bigNumerator = bigNumerator.multiply(new BigInteger(Long.toString(-1 * nextPosition)));
-            bigNumerator = bigNumerator.mod(bigPrime);
-            bigDenom = bigDenom.multiply(new BigInteger(Long.toString(startPosition - nextPosition)));
-            bigDenom = bigDenom.mod(bigPrime);
-        }
-        bigDenom = bigDenom.modInverse(bigPrime);
-        BigInteger bigLpc;
-        bigLpc = bigNumerator.multiply(bigDenom);
-        bigLpc = bigLpc.mod(bigPrime);
-
-        return bigLpc;
-    }
-
-    /* setup service indices */
+    /* setup service indices: a shuffle of 2, 4, ... 2 * noOfServices */
     private void setupServiceIndices() {
         for (int i = 0; i < noOfServices; i++) {
             serviceIndices[i] = (short) ((i + 1) * 2);
         }
-        // shuffle indices
-        Random randomNumber = new Random();
-        for (int i = 0; i < noOfServices; i++) {
-            int index = randomNumber.nextInt(noOfServices);
-            Short temp = serviceIndices[i];
+        for (int i = noOfServices - 1; i > 0; i--) {
+            int index = RANDOM.nextInt(i + 1);
+            short temp = serviceIndices[i];
             serviceIndices[i] = serviceIndices[index];
             serviceIndices[index] = temp;
         }
@@ -140,10 +119,12 @@ public class SfcPotConfigGenerator {
         }
     }
 
-    /* setup Lpc */
+    /* setup Lpc: the Lpc of a service only depends on its service index */
     private void setupLpcs() {
+        BigInteger[] lpcsByServiceIndex = LAGRANGE_BASES.computeIfAbsent(noOfServices, LagrangeBasis::new)
+                .getLpcs(bigPrime);
         for (int i = 0; i < noOfServices; i++) {
-            lpcs[i] = calculateLpc(i);
+            lpcs[i] = lpcsByServiceIndex[serviceIndices[i] / 2 - 1];
         }
     }
 
@@ -242,4 +223,45 @@ public class SfcPotConfigGenerator {
     public BigInteger getLpc(int index) {
         return lpcs[index];
     }
+
+    /*
+     * The Lagrange basis at 0 of the service indices 2, 4, ... 2 * n: the Lpc
+     * of service index x_i is the product, over the other indices x_j, of
+     * -x_j / (x_i - x_j) modulo the prime. The numerators and denominators
+     * are computed once, exactly, so that only their reduction and the
+     * inverse of the denominators are left to do for each prime.
+     */
+    private static final class LagrangeBasis {
+        private final BigInteger[] numerators;
+        private final BigInteger[] denominators;
+
+        LagrangeBasis(int noOfServices) {
+            numerators = new BigInteger[noOfServices];
+            denominators = new BigInteger[noOfServices];
+            for (int i = 0; i < noOfServices; i++) {
+                long startPosition = (i + 1) * 2L;
+                BigInteger bigNumerator = BigInteger.ONE;
+                BigInteger bigDenom = BigInteger.ONE;
+                for (int j = 0; j < noOfServices; j++) {
+                    if (i == j) {
+                        continue;
+                    }
+                    long nextPosition = (j + 1) * 2L;
+                    bigNumerator = bigNumerator.multiply(BigInteger.valueOf(-nextPosition));
+                    bigDenom = bigDenom.multiply(BigInteger.valueOf(startPosition - nextPosition));
+                }
+                numerators[i] = bigNumerator;
+                denominators[i] = bigDenom;
+            }
+        }
+
+        BigInteger[] getLpcs(BigInteger bigPrime) {
+            BigInteger[] basisLpcs = new BigInteger[numerators.length];
+            for (int i = 0; i < numerators.length; i++) {
+                basisLpcs[i] = numerators[i].mod(bigPrime).multiply(denominators[i].mod(bigPrime).modInverse(bigPrime))
+                        .mod(bigPrime);
+            }
+            return basisLpcs;
+        }
+    }
 }
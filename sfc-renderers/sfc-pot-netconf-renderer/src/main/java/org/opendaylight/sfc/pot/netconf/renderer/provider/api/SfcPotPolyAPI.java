@@ -23,9 +23,7 @@ import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.ioam.sb.pot
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.ioam.sb.pot.params.rev161205.poly.parameters.PolyParameterBuilder;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.ioam.sb.pot.params.rev161205.poly.parameters.PolyParameterKey;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.ioam.sb.pot.params.rev161205.poly.parameters.poly.parameter.Coeffs;
-import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.ioam.sb.pot.params.rev161205.poly.parameters.poly.parameter.CoeffsBuilder;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.ioam.sb.pot.params.rev161205.poly.parameters.poly.parameter.Lpcs;
-import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.ioam.sb.pot.params.rev161205.poly.parameters.poly.parameter.LpcsBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -45,6 +43,7 @@ public final class SfcPotPolyAPI {
     private Long ioamPotNumProfiles;
 
     private final SfcPotPolyClassAPI sfcPotPolyClassAPI;
+    private final SfcPotProfilePool sfcPotProfilePool;
 
     private List<SfcPotPolyClass> polyClassList;
 
@@ -52,6 +51,7 @@ public final class SfcPotPolyAPI {
 
     private SfcPotPolyAPI() {
         sfcPotPolyClassAPI = new SfcPotPolyClassAPI();
+        sfcPotProfilePool = SfcPotProfilePool.getInstance();
     }
 
     public static SfcPotPolyAPI getInstance() {
@@ -71,21 +71,11 @@ public final class SfcPotPolyAPI {
      */
     public boolean init(String rspName, int sfSize, final Class<? extends TimeResolution> newRefreshPeriodTimeUnits,
             Long newRefreshPeriodValue, BitMaskOptions newIoamPotProfileBitMask, Long newIoamPotNumProfiles) {
-        long prime;
-        long secret;
-        List<Coeffs> coeffs = new ArrayList<>();
-        List<Long> shares = new ArrayList<>();
-        List<Lpcs> lpcs = new ArrayList<>();
-
         /*
-         * Lookup polylist for this rsp and if not present, create one.
+         * Create the polylist for this rsp, the profiles of a RSP are all
+         * generated on initial configuration.
          */
-        if (polyClassList == null) {
-            polyClassList = sfcPotPolyClassAPI.getPolyClassList(rspName);
-            if (polyClassList == null) {
-                polyClassList = new ArrayList<>();
-            }
-        }
+        polyClassList = new ArrayList<>();
 
         this.refreshPeriodTimeUnits = newRefreshPeriodTimeUnits;
         this.refreshPeriodValue = newRefreshPeriodValue;
@@ -94,26 +84,9 @@ public final class SfcPotPolyAPI {
 
         sfcPotPolyClassAPI.setNumProfiles(newIoamPotNumProfiles);
 
-        /* Also set the SB profiles information appropriately. */
-        SfcPotConfigGenerator configGenerator = new SfcPotConfigGenerator(sfSize);
-        configGenerator.generateScvConfig();
-
+        /* Also set the SB profiles information appropriately, one profile per index. */
         for (long j = 0; j < newIoamPotNumProfiles; j++) {
-            prime = configGenerator.getPrime();
-            secret = configGenerator.getSecret();
-            for (int i = 1; i < sfSize; i++) {
-                coeffs.add(new CoeffsBuilder().setCoeff(configGenerator.getCoeff(i)).build());
-                lpcs.add(new LpcsBuilder().setLpc(configGenerator.getLpc(i).longValue()).build());
-            }
-            for (int i = 0; i < sfSize; i++) {
-                shares.add(configGenerator.getSecretShare(i));
-            }
-            polyClassList.add(new SfcPotPolyClass(prime, secret, coeffs, shares, lpcs, sfSize));
-
-            /* Re-Initialize containers.... */
-            coeffs = new ArrayList<>();
-            shares = new ArrayList<>();
-            lpcs = new ArrayList<>();
+            polyClassList.add(sfcPotProfilePool.take(sfSize));
         }
 
         /* add/update it in a separate memory store */
@@ -127,22 +100,15 @@ public final class SfcPotPolyAPI {
      * then make the nodes use the updated configuration.
      */
     public int initRenew(String rspName, int sfSize, int currActiveIndex) {
-        List<Coeffs> coeffs = new ArrayList<>();
-        List<Long> shares = new ArrayList<>();
-        List<Lpcs> lpcs = new ArrayList<>();
         List<SfcPotPolyClass> polyClassListCopy = new ArrayList<>();
 
+        /* Lookup polylist for this rsp, the last one used may be another RSP's */
+        polyClassList = sfcPotPolyClassAPI.getPolyClassList(rspName);
         if (polyClassList == null) {
-            polyClassList = sfcPotPolyClassAPI.getPolyClassList(rspName);
-            if (polyClassList == null) {
-                LOG.warn("iOAM:PoT:SB:initRenew:Error in getting parameters for renew:RSP:{}", rspName);
-                return -1;
-            }
+            LOG.warn("iOAM:PoT:SB:initRenew:Error in getting parameters for renew:RSP:{}", rspName);
+            return -1;
         }
 
-        SfcPotConfigGenerator configGenerator = new SfcPotConfigGenerator(sfSize);
-        configGenerator.generateScvConfig();
-
         boolean ret = polyClassListCopy.addAll(0, polyClassList);
         if (!ret) {
             LOG.warn("iOAM:PoT:SB:initRenew:Internal error...");
@@ -155,20 +121,12 @@ public final class SfcPotPolyAPI {
          */
         int newActiveIndex = getNewActiveIndex(currActiveIndex);
 
-        /* Generate the cfg at the renew index */
-        long prime = configGenerator.getPrime();
-        long secret = configGenerator.getSecret();
-        for (int i = 1; i < sfSize; i++) {
-            coeffs.add(new CoeffsBuilder().setCoeff(configGenerator.getCoeff(i)).build());
-            lpcs.add(new LpcsBuilder().setLpc(configGenerator.getLpc(i).longValue()).build());
-        }
-        for (int i = 0; i < sfSize; i++) {
-            shares.add(configGenerator.getSecretShare(i));
-        }
+        /* Take the cfg at the renew index from the pre-generated ones */
+        SfcPotPolyClass renewedPolyClass = sfcPotProfilePool.take(sfSize);
 
         /* set: overwrites the existing element */
         try {
-            polyClassListCopy.set(newActiveIndex, new SfcPotPolyClass(prime, secret, coeffs, shares, lpcs, sfSize));
+            polyClassListCopy.set(newActiveIndex, renewedPolyClass);
         } catch (IndexOutOfBoundsException err) {
             LOG.warn("iOAM:PoT:SB:Index out of bounds: {} ", newActiveIndex, err);
         }
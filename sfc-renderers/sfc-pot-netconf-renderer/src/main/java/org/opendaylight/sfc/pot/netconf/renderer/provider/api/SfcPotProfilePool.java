@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.pot.netconf.renderer.provider.api;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.ioam.sb.pot.params.rev161205.poly.parameters.poly.parameter.Coeffs;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.ioam.sb.pot.params.rev161205.poly.parameters.poly.parameter.CoeffsBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.ioam.sb.pot.params.rev161205.poly.parameters.poly.parameter.Lpcs;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.ioam.sb.pot.params.rev161205.poly.parameters.poly.parameter.LpcsBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Pool of PoT profiles generated ahead of time, per SFC size.
+ *
+ * <p>
+ * Generating a profile draws random coefficients, looks for a prime and
+ * computes the secret shares and Lpcs of the SFC. Taking a profile from the
+ * pool is just a queue poll: the pool of the SFC size is then refilled in
+ * the background, by a single thread, up to its capacity. When the pool of a
+ * SFC size is empty, the profile is generated by the caller.
+ */
+public final class SfcPotProfilePool {
+    private static final Logger LOG = LoggerFactory.getLogger(SfcPotProfilePool.class);
+
+    public static final int DEFAULT_CAPACITY = 16;
+
+    private static final SfcPotProfilePool SFC_POT_PROFILE_POOL_INSTANCE = new SfcPotProfilePool(DEFAULT_CAPACITY,
+            newRefiller());
+
+    private final int capacity;
+    private final Executor refiller;
+    private final ConcurrentMap<Integer, Profiles> profilesBySfcSize = new ConcurrentHashMap<>();
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+
+    /**
+     * Create a pool.
+     *
+     * @param capacity
+     *            maximum number of profiles kept per SFC size
+     * @param refiller
+     *            the executor refilling the pools
+     */
+    SfcPotProfilePool(int capacity, Executor refiller) {
+        this.capacity = capacity;
+        this.refiller = refiller;
+    }
+
+    public static SfcPotProfilePool getInstance() {
+        return SFC_POT_PROFILE_POOL_INSTANCE;
+    }
+
+    private static Executor newRefiller() {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+            runnable -> {
+                Thread thread = new Thread(runnable, "sfc-pot-profile-pool");
+                thread.setDaemon(true);
+                return thread;
+            });
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    /**
+     * Generate a profile.
+     *
+     * @param sfcSize
+     *            the SFC size
+     * @return a new profile
+     */
+    public static SfcPotPolyClass generate(int sfcSize) {
+        List<Coeffs> coeffs = new ArrayList<>();
+        List<Long> shares = new ArrayList<>();
+        List<Lpcs> lpcs = new ArrayList<>();
+
+        SfcPotConfigGenerator configGenerator = new SfcPotConfigGenerator(sfcSize);
+        configGenerator.generateScvConfig();
+
+        for (int i = 1; i < sfcSize; i++) {
+            coeffs.add(new CoeffsBuilder().setCoeff(configGenerator.getCoeff(i)).build());
+            lpcs.add(new LpcsBuilder().setLpc(configGenerator.getLpc(i).longValue()).build());
+        }
+        for (int i = 0; i < sfcSize; i++) {
+            shares.add(configGenerator.getSecretShare(i));
+        }
+        return new SfcPotPolyClass(configGenerator.getPrime(), configGenerator.getSecret(), coeffs, shares, lpcs,
+                sfcSize);
+    }
+
+    /**
+     * Take a profile from the pool of a SFC size, or generate it if the pool
+     * is empty. The pool is refilled in the background.
+     *
+     * @param sfcSize
+     *            the SFC size
+     * @return a profile never taken before
+     */
+    public SfcPotPolyClass take(int sfcSize) {
+        Profiles profiles = profilesBySfcSize.computeIfAbsent(sfcSize, size -> new Profiles());
+        SfcPotPolyClass profile = profiles.queue.poll();
+        if (profile != null) {
+            hitCount.increment();
+        } else {
+            missCount.increment();
+            profile = generate(sfcSize);
+        }
+        refill(sfcSize, profiles);
+        return profile;
+    }
+
+    /**
+     * Fill the pool of a SFC size in the background, so that the profiles
+     * of a new SFC are ready when it is refreshed.
+     *
+     * @param sfcSize
+     *            the SFC size
+     */
+    public void prefill(int sfcSize) {
+        refill(sfcSize, profilesBySfcSize.computeIfAbsent(sfcSize, size -> new Profiles()));
+    }
+
+    public int size(int sfcSize) {
+        Profiles profiles = profilesBySfcSize.get(sfcSize);
+        return profiles == null ? 0 : profiles.queue.size();
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("PoT profile pool: sizes=%d hits=%d misses=%d", profilesBySfcSize.size(),
+                getHitCount(), getMissCount());
+    }
+
+    private void refill(int sfcSize, Profiles profiles) {
+        if (profiles.queue.remainingCapacity() == 0 || !profiles.refilling.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refiller.execute(() -> {
+                try {
+                    while (profiles.queue.remainingCapacity() > 0) {
+                        profiles.queue.offer(generate(sfcSize));
+                    }
+                } finally {
+                    profiles.refilling.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            profiles.refilling.set(false);
+            LOG.warn("iOAM:PoT:SB:Profile pool refill of SFC size {} rejected", sfcSize, e);
+        }
+    }
+
+    private final class Profiles {
+        private final BlockingQueue<SfcPotPolyClass> queue = new ArrayBlockingQueue<>(capacity);
+        private final AtomicBoolean refilling = new AtomicBoolean();
+    }
+}
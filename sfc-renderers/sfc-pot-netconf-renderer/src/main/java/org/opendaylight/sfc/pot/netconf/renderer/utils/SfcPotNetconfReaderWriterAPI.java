@@ -39,6 +39,18 @@ public final class SfcPotNetconfReaderWriterAPI {
         }
     }
 
+    /**
+     * Put a data object, without waiting for the transaction to be committed.
+     *
+     * @return the future commit of the transaction.
+     */
+    public static <T extends DataObject> ListenableFuture<Void> putAsync(DataBroker broker,
+            LogicalDatastoreType logicalDatastoreType, InstanceIdentifier<T> iid, T dataObject) {
+        WriteTransaction tx = broker.newWriteOnlyTransaction();
+        tx.put(logicalDatastoreType, iid, dataObject);
+        return tx.submit();
+    }
+
     public static <T extends DataObject> boolean delete(DataBroker broker, LogicalDatastoreType logicalDatastoreType,
             InstanceIdentifier<T> iid) {
         try {
@@ -0,0 +1,272 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.pot.netconf.renderer.provider;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.sfc.pot.netconf.renderer.provider.SfcPotNetconfConfigPusher.NodeProfile;
+import org.opendaylight.sfc.pot.netconf.renderer.provider.SfcPotNetconfConfigPusher.PushResult;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.ioam.sb.pot.rev170112.PotProfiles;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.ioam.sb.pot.rev170112.PotProfilesBuilder;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.NodeId;
+
+public class SfcPotNetconfConfigPusherTest {
+
+    private static final int NODE_COUNT = 20;
+    private static final long NODE_LATENCY_MS = 100;
+    private static final long TIMEOUT_MS = 1000;
+    private static final long BACKOFF_MS = 10;
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final DataBroker broker = mock(DataBroker.class);
+    private ScheduledExecutorService mountPointExecutor;
+    private FakeMountPoints mountPoints;
+
+    /* A write to a fake node */
+    private static final class Write {
+        private final NodeId nodeId;
+        private final PotProfiles profile;
+        private final long startNanos = System.nanoTime();
+        private volatile long doneNanos;
+
+        Write(NodeId nodeId, PotProfiles profile) {
+            this.nodeId = nodeId;
+            this.profile = profile;
+        }
+    }
+
+    /* Fake Netconf mount points, acknowledging writes after a latency or failing them */
+    private final class FakeMountPoints implements SfcPotNetconfConfigPusher.NodeWriter {
+        private final Map<NodeId, Deque<Long>> latencies = new ConcurrentHashMap<>();
+        private final Map<NodeId, AtomicInteger> failures = new ConcurrentHashMap<>();
+        private final List<PotProfiles> failingProfiles = Collections.synchronizedList(new ArrayList<>());
+        private final List<Write> writes = Collections.synchronizedList(new ArrayList<>());
+        private final Map<NodeId, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+        private final AtomicInteger maxInFlightPerNode = new AtomicInteger();
+        private volatile long defaultLatencyMillis;
+
+        void setLatencies(NodeId nodeId, Long... latencyMillis) {
+            latencies.put(nodeId, new ArrayDeque<>(Arrays.asList(latencyMillis)));
+        }
+
+        void setFailures(NodeId nodeId, int count) {
+            failures.put(nodeId, new AtomicInteger(count));
+        }
+
+        @Override
+        public ListenableFuture<?> put(NodeId nodeId, DataBroker nodeBroker, PotProfiles profile) {
+            Write write = new Write(nodeId, profile);
+            writes.add(write);
+            AtomicInteger nodeInFlight = inFlight.computeIfAbsent(nodeId, id -> new AtomicInteger());
+            maxInFlightPerNode.accumulateAndGet(nodeInFlight.incrementAndGet(), Math::max);
+
+            Deque<Long> nodeLatencies = latencies.get(nodeId);
+            Long latency = nodeLatencies == null ? null : nodeLatencies.poll();
+            AtomicInteger nodeFailures = failures.get(nodeId);
+            boolean fail = failingProfiles.stream().anyMatch(failing -> failing == profile)
+                    || nodeFailures != null && nodeFailures.getAndDecrement() > 0;
+
+            SettableFuture<Void> ack = SettableFuture.create();
+            mountPointExecutor.schedule(() -> {
+                write.doneNanos = System.nanoTime();
+                nodeInFlight.decrementAndGet();
+                if (fail) {
+                    ack.setException(new IllegalStateException("Injected failure"));
+                } else {
+                    ack.set(null);
+                }
+            }, latency == null ? defaultLatencyMillis : latency, TimeUnit.MILLISECONDS);
+            return ack;
+        }
+
+        List<Write> getWrites(NodeId nodeId) {
+            synchronized (writes) {
+                List<Write> nodeWrites = new ArrayList<>();
+                writes.stream().filter(write -> write.nodeId.equals(nodeId)).forEach(nodeWrites::add);
+                return nodeWrites;
+            }
+        }
+    }
+
+    @Before
+    public void setUp() {
+        mountPointExecutor = Executors.newScheduledThreadPool(4);
+        mountPoints = new FakeMountPoints();
+    }
+
+    @After
+    public void tearDown() {
+        mountPointExecutor.shutdownNow();
+    }
+
+    private SfcPotNetconfConfigPusher newPusher(long timeoutMillis) {
+        return new SfcPotNetconfConfigPusher(mountPoints, Executors.newSingleThreadScheduledExecutor(), timeoutMillis,
+                MAX_ATTEMPTS, BACKOFF_MS);
+    }
+
+    private static NodeId nodeId(int index) {
+        return new NodeId("pot-node-" + index);
+    }
+
+    private List<NodeProfile> buildNodeProfiles(int count) {
+        List<NodeProfile> nodeProfiles = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            nodeProfiles.add(new NodeProfile(nodeId(i), broker, new PotProfilesBuilder().build()));
+        }
+        return nodeProfiles;
+    }
+
+    private NodeProfile buildActivation() {
+        return new NodeProfile(nodeId(0), broker, new PotProfilesBuilder().build());
+    }
+
+    private Write getActivationWrite(NodeProfile activation) {
+        return mountPoints.getWrites(activation.getNodeId()).stream()
+                .filter(write -> write.profile == activation.getProfile()).findFirst().orElse(null);
+    }
+
+    @Test
+    public void pushesNodesInParallelThenActivates() throws Exception {
+        mountPoints.defaultLatencyMillis = NODE_LATENCY_MS;
+        List<NodeProfile> nodeProfiles = buildNodeProfiles(NODE_COUNT);
+        NodeProfile activation = buildActivation();
+
+        try (SfcPotNetconfConfigPusher pusher = newPusher(TIMEOUT_MS)) {
+            PushResult result = pusher.push(nodeProfiles, activation).get();
+
+            assertTrue(result.isActivated());
+            assertEquals(NODE_COUNT, result.getAckedNodes().size());
+            assertTrue(result.getFailedNodes().isEmpty());
+            // in turn, the nodes would take NODE_COUNT * NODE_LATENCY_MS
+            assertTrue(result.toString(), result.getElapsedMillis() < NODE_COUNT * NODE_LATENCY_MS / 2);
+            assertEquals(0, pusher.getRetryCount());
+            assertEquals(NODE_COUNT + 1, pusher.getPushLatency().getCount());
+        }
+
+        // the new active index is only pushed once all the nodes acknowledged their profiles
+        Write activationWrite = getActivationWrite(activation);
+        for (NodeProfile nodeProfile : nodeProfiles) {
+            Write write = mountPoints.getWrites(nodeProfile.getNodeId()).get(0);
+            assertTrue(write.doneNanos <= activationWrite.startNanos);
+        }
+    }
+
+    @Test
+    public void retriesFailedPushWithBackoff() throws Exception {
+        List<NodeProfile> nodeProfiles = buildNodeProfiles(3);
+        mountPoints.setFailures(nodeId(2), MAX_ATTEMPTS - 1);
+
+        try (SfcPotNetconfConfigPusher pusher = newPusher(TIMEOUT_MS)) {
+            PushResult result = pusher.push(nodeProfiles, buildActivation()).get();
+
+            assertTrue(result.isActivated());
+            assertEquals(MAX_ATTEMPTS - 1, pusher.getRetryCount());
+        }
+
+        List<Write> writes = mountPoints.getWrites(nodeId(2));
+        assertEquals(MAX_ATTEMPTS, writes.size());
+        // the backoff doubles between attempts
+        long firstRetryDelay = writes.get(1).startNanos - writes.get(0).doneNanos;
+        long secondRetryDelay = writes.get(2).startNanos - writes.get(1).doneNanos;
+        assertTrue(firstRetryDelay >= TimeUnit.MILLISECONDS.toNanos(BACKOFF_MS));
+        assertTrue(secondRetryDelay >= TimeUnit.MILLISECONDS.toNanos(BACKOFF_MS * 2));
+    }
+
+    @Test
+    public void retriesTimedOutPush() throws Exception {
+        List<NodeProfile> nodeProfiles = buildNodeProfiles(3);
+        mountPoints.setLatencies(nodeId(1), TIMEOUT_MS * 10, 0L);
+
+        try (SfcPotNetconfConfigPusher pusher = newPusher(TIMEOUT_MS / 10)) {
+            PushResult result = pusher.push(nodeProfiles, buildActivation()).get();
+
+            assertTrue(result.isActivated());
+            assertEquals(1, pusher.getTimeoutCount());
+            assertEquals(1, pusher.getRetryCount());
+            assertTrue(result.getElapsedMillis() < TIMEOUT_MS * 10);
+        }
+        assertEquals(2, mountPoints.getWrites(nodeId(1)).size());
+    }
+
+    @Test
+    public void failedNodeBlocksActivation() throws Exception {
+        List<NodeProfile> nodeProfiles = buildNodeProfiles(NODE_COUNT);
+        NodeProfile activation = buildActivation();
+        mountPoints.setFailures(nodeId(5), Integer.MAX_VALUE);
+
+        try (SfcPotNetconfConfigPusher pusher = newPusher(TIMEOUT_MS)) {
+            PushResult result = pusher.push(nodeProfiles, activation).get();
+
+            assertFalse(result.isActivated());
+            assertEquals(Collections.singletonList(nodeId(5)), result.getFailedNodes());
+            assertEquals(NODE_COUNT - 1, result.getAckedNodes().size());
+        }
+        assertEquals(MAX_ATTEMPTS, mountPoints.getWrites(nodeId(5)).size());
+        assertNull(getActivationWrite(activation));
+    }
+
+    @Test
+    public void failedActivationIsReported() throws Exception {
+        NodeProfile activation = buildActivation();
+        mountPoints.failingProfiles.add(activation.getProfile());
+
+        try (SfcPotNetconfConfigPusher pusher = newPusher(TIMEOUT_MS)) {
+            PushResult result = pusher.push(buildNodeProfiles(3), activation).get();
+
+            assertFalse(result.isActivated());
+            assertEquals(3, result.getAckedNodes().size());
+            assertEquals(Collections.singletonList(nodeId(0)), result.getFailedNodes());
+        }
+    }
+
+    @Test
+    public void pushesProfilesOfANodeInOrder() throws Exception {
+        mountPoints.defaultLatencyMillis = BACKOFF_MS;
+        List<NodeProfile> nodeProfiles = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            nodeProfiles.add(new NodeProfile(nodeId(0), broker, new PotProfilesBuilder().build()));
+        }
+
+        try (SfcPotNetconfConfigPusher pusher = newPusher(TIMEOUT_MS)) {
+            PushResult result = pusher.push(nodeProfiles, buildActivation()).get();
+
+            assertTrue(result.isActivated());
+            assertEquals(Collections.singletonList(nodeId(0)), result.getAckedNodes());
+        }
+
+        List<Write> writes = mountPoints.getWrites(nodeId(0));
+        for (int i = 0; i < nodeProfiles.size(); i++) {
+            assertSame(nodeProfiles.get(i).getProfile(), writes.get(i).profile);
+        }
+        assertEquals(1, mountPoints.maxInFlightPerNode.get());
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.pot.netconf.renderer.provider;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.RspName;
+
+public class SfcPotRefreshSchedulerTest {
+
+    private static final int RSP_COUNT = 10000;
+    private static final long MIN_REFRESH_PERIOD_MS = 500;
+    private static final long MAX_REFRESH_PERIOD_MS = 5000;
+    private static final long SIMULATED_TIME_MS = 60000;
+
+    private final AtomicLong clock = new AtomicLong();
+    private final Map<RspName, Integer> refreshes = new ConcurrentHashMap<>();
+    private final List<RspName> rspNames = new ArrayList<>();
+    private SfcPotRefreshScheduler scheduler;
+    private boolean failRefreshes;
+
+    /* Refreshes run inline, flipping the active index between 2 profiles */
+    private class RefreshingNetconfIoam extends SfcPotNetconfIoam {
+        RefreshingNetconfIoam() {
+            super(mock(SfcPotNetconfNodeManager.class));
+        }
+
+        @Override
+        public int refreshSfcPot(RspName rspName, int currActiveIndex, int sfcSize, Long refreshPeriodValue) {
+            refreshes.merge(rspName, 1, Integer::sum);
+            return failRefreshes ? -1 : (currActiveIndex + 1) % 2;
+        }
+    }
+
+    @Before
+    public void setUp() {
+        scheduler = new SfcPotRefreshScheduler(clock::get, Runnable::run);
+        scheduler.setSfcPotRspProcessor(new RefreshingNetconfIoam());
+    }
+
+    @After
+    public void tearDown() {
+        rspNames.forEach(SfcPotTimerData.getInstance()::delRspData);
+    }
+
+    private RspName addRsp(String name, long refreshPeriodMillis) {
+        RspName rspName = new RspName(name);
+        rspNames.add(rspName);
+        SfcPotTimerData.getInstance().addRspData(rspName, refreshPeriodMillis, null, 0, 3);
+        return rspName;
+    }
+
+    private void advance(long millis) {
+        long end = clock.get() + millis;
+        while (clock.get() < end) {
+            clock.addAndGet(SfcPotRefreshScheduler.TICK_INTERVAL_MS);
+            scheduler.tick();
+        }
+    }
+
+    @Test
+    public void refreshesManyRspsWithinOneTick() {
+        Random random = new Random(20180701L);
+        Map<RspName, Long> periods = new ConcurrentHashMap<>();
+        for (int i = 0; i < RSP_COUNT; i++) {
+            long period = MIN_REFRESH_PERIOD_MS + random.nextInt((int) (MAX_REFRESH_PERIOD_MS - MIN_REFRESH_PERIOD_MS));
+            RspName rspName = addRsp("pot-rsp-" + i, period);
+            periods.put(rspName, period);
+            scheduler.arm(rspName, period);
+        }
+        assertEquals(RSP_COUNT, scheduler.getArmedCount());
+
+        advance(SIMULATED_TIME_MS);
+
+        for (RspName rspName : rspNames) {
+            long period = periods.get(rspName);
+            SfcPotRefreshScheduler.RefreshLag lag = scheduler.getRefreshLag(rspName);
+            // each refresh is started at most one tick late, so it is never skipped
+            long minRefreshes = SIMULATED_TIME_MS / (period + SfcPotRefreshScheduler.TICK_INTERVAL_MS);
+            assertTrue(rspName.getValue(), refreshes.get(rspName) >= minRefreshes);
+            assertEquals(refreshes.get(rspName).longValue(), lag.getCount());
+            assertTrue(lag.getMaxLagMillis() < SfcPotRefreshScheduler.TICK_INTERVAL_MS);
+            assertEquals(refreshes.get(rspName) % 2,
+                    SfcPotTimerData.getInstance().getRspDataConfigActiveIndex(rspName));
+            assertTrue(scheduler.isArmed(rspName));
+        }
+        assertEquals(RSP_COUNT, scheduler.getArmedCount());
+        assertEquals(0, scheduler.getFailedCount());
+        assertTrue(scheduler.getLagHistogram().getMaxMicros() < SfcPotRefreshScheduler.TICK_INTERVAL_MS * 1000);
+    }
+
+    @Test
+    public void drainsAllDueRspsInOneTick() {
+        for (int i = 0; i < RSP_COUNT; i++) {
+            scheduler.arm(addRsp("pot-rsp-" + i, MAX_REFRESH_PERIOD_MS), MIN_REFRESH_PERIOD_MS);
+        }
+
+        clock.set(MIN_REFRESH_PERIOD_MS - 1);
+        assertEquals(0, scheduler.tick());
+        clock.set(MIN_REFRESH_PERIOD_MS);
+        assertEquals(RSP_COUNT, scheduler.tick());
+        assertEquals(0, scheduler.tick());
+        assertEquals(RSP_COUNT, refreshes.size());
+        assertEquals(RSP_COUNT, scheduler.getRefreshCount());
+    }
+
+    @Test
+    public void recordsLateRefreshLag() {
+        RspName rspName = addRsp("pot-rsp-late", MAX_REFRESH_PERIOD_MS);
+        scheduler.arm(rspName, MIN_REFRESH_PERIOD_MS);
+
+        clock.set(MIN_REFRESH_PERIOD_MS + 3000);
+        assertEquals(1, scheduler.tick());
+
+        assertEquals(3000, scheduler.getRefreshLag(rspName).getLastLagMillis());
+        assertEquals(3000, scheduler.getRefreshLag(rspName).getMaxLagMillis());
+        assertEquals(clock.get(), scheduler.getRefreshLag(rspName).getLastRefreshMillis());
+        assertEquals(3000, scheduler.getLagHistogram().getMaxMicros() / 1000);
+    }
+
+    @Test
+    public void armingSupersedesArmedRefresh() {
+        RspName rspName = addRsp("pot-rsp-rearmed", MAX_REFRESH_PERIOD_MS);
+        scheduler.arm(rspName, MIN_REFRESH_PERIOD_MS);
+        scheduler.arm(rspName, MIN_REFRESH_PERIOD_MS * 2);
+
+        clock.set(MIN_REFRESH_PERIOD_MS);
+        assertEquals(0, scheduler.tick());
+        clock.set(MIN_REFRESH_PERIOD_MS * 2);
+        assertEquals(1, scheduler.tick());
+        assertEquals(1, refreshes.get(rspName).intValue());
+        assertEquals(1, scheduler.getArmedCount());
+    }
+
+    @Test
+    public void cancelledRefreshIsDropped() {
+        RspName rspName = addRsp("pot-rsp-cancelled", MAX_REFRESH_PERIOD_MS);
+        scheduler.arm(rspName, MIN_REFRESH_PERIOD_MS);
+        scheduler.cancel(rspName);
+
+        advance(MAX_REFRESH_PERIOD_MS);
+        assertFalse(scheduler.isArmed(rspName));
+        assertNull(refreshes.get(rspName));
+        assertNull(scheduler.getRefreshLag(rspName));
+    }
+
+    @Test
+    public void deletedRspIsNotRearmed() {
+        RspName rspName = addRsp("pot-rsp-deleted", MAX_REFRESH_PERIOD_MS);
+        scheduler.arm(rspName, MIN_REFRESH_PERIOD_MS);
+        SfcPotTimerData.getInstance().delRspData(rspName);
+
+        advance(MAX_REFRESH_PERIOD_MS);
+        assertFalse(scheduler.isArmed(rspName));
+        assertNull(refreshes.get(rspName));
+    }
+
+    @Test
+    public void failedRefreshIsNotRearmed() {
+        RspName rspName = addRsp("pot-rsp-failed", MAX_REFRESH_PERIOD_MS);
+        scheduler.arm(rspName, MIN_REFRESH_PERIOD_MS);
+        failRefreshes = true;
+
+        advance(MAX_REFRESH_PERIOD_MS * 2);
+        assertEquals(1, refreshes.get(rspName).intValue());
+        assertEquals(1, scheduler.getFailedCount());
+        assertFalse(scheduler.isArmed(rspName));
+        assertEquals(0, SfcPotTimerData.getInstance().getRspDataConfigActiveIndex(rspName));
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.pot.netconf.renderer.provider.api;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import org.junit.Test;
+
+public class SfcPotConfigGeneratorTest {
+
+    private static final int MAX_SFC_SIZE = 40;
+    private static final int ITERATIONS = 20;
+
+    /* Evaluate the secret polynomial at x, the naive way */
+    private static BigInteger evaluateSecretPoly(SfcPotConfigGenerator generator, int noOfServices, long x,
+            BigInteger prime) {
+        BigInteger value = BigInteger.ZERO;
+        for (int exp = 0; exp < noOfServices; exp++) {
+            value = value.add(BigInteger.valueOf(generator.getCoeff(exp)).multiply(BigInteger.valueOf(x).pow(exp)));
+        }
+        return value.mod(prime);
+    }
+
+    private static void assertValidConfig(int noOfServices) {
+        SfcPotConfigGenerator generator = new SfcPotConfigGenerator(noOfServices);
+        generator.generateScvConfig();
+
+        BigInteger prime = BigInteger.valueOf(generator.getPrime());
+        BigInteger secret = BigInteger.valueOf(generator.getSecret());
+        assertTrue(prime.isProbablePrime(64));
+        assertTrue(secret.signum() > 0 && secret.compareTo(prime) < 0);
+
+        // the service indices are a shuffle of 2, 4, ... 2n
+        short[] serviceIndices = generator.getServiceIndices();
+        short[] sortedIndices = Arrays.copyOf(serviceIndices, noOfServices);
+        Arrays.sort(sortedIndices);
+        short[] expectedIndices = new short[noOfServices];
+        for (int i = 0; i < noOfServices; i++) {
+            expectedIndices[i] = (short) ((i + 1) * 2);
+        }
+        assertArrayEquals(expectedIndices, sortedIndices);
+
+        // each share is the secret polynomial at the service index, and the
+        // shares and Lpcs of all the services give back the secret
+        BigInteger reconstructed = BigInteger.ZERO;
+        for (int i = 0; i < noOfServices; i++) {
+            BigInteger share = BigInteger.valueOf(generator.getSecretShare(i));
+            assertEquals(evaluateSecretPoly(generator, noOfServices, serviceIndices[i], prime), share);
+            reconstructed = reconstructed.add(share.multiply(generator.getLpc(i)));
+        }
+        assertEquals(secret, reconstructed.mod(prime));
+    }
+
+    @Test
+    public void sharesReconstructTheSecret() {
+        for (int noOfServices = 1; noOfServices <= MAX_SFC_SIZE; noOfServices++) {
+            for (int iteration = 0; iteration < ITERATIONS; iteration++) {
+                assertValidConfig(noOfServices);
+            }
+        }
+    }
+
+    @Test
+    public void sharesReconstructTheSecretForMaxServiceNodes() {
+        int maxServiceNodes = new SfcPotConfigGenerator(1).getMaxServiceNodes();
+        for (int iteration = 0; iteration < ITERATIONS; iteration++) {
+            assertValidConfig(maxServiceNodes);
+        }
+    }
+
+    @Test
+    public void lpcsOnlyDependOnServiceIndices() {
+        SfcPotConfigGenerator generator = new SfcPotConfigGenerator(5);
+        generator.generateScvConfig();
+        BigInteger prime = BigInteger.valueOf(generator.getPrime());
+
+        for (int i = 0; i < 5; i++) {
+            // product over the other indices of -x_j / (x_i - x_j)
+            BigInteger numerator = BigInteger.ONE;
+            BigInteger denominator = BigInteger.ONE;
+            for (int j = 0; j < 5; j++) {
+                if (i != j) {
+                    numerator = numerator.multiply(BigInteger.valueOf(-generator.getServiceIndices(j)));
+                    denominator = denominator.multiply(BigInteger.valueOf(generator.getServiceIndices(i)
+                            - generator.getServiceIndices(j)));
+                }
+            }
+            assertEquals(numerator.multiply(denominator.modInverse(prime)).mod(prime), generator.getLpc(i));
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.pot.netconf.renderer.provider.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class SfcPotProfilePoolTest {
+
+    private static final int CAPACITY = 4;
+    private static final int SFC_SIZE = 5;
+
+    @Test
+    public void takeRefillsThePool() {
+        SfcPotProfilePool pool = new SfcPotProfilePool(CAPACITY, Runnable::run);
+
+        SfcPotPolyClass generated = pool.take(SFC_SIZE);
+        assertEquals(1, pool.getMissCount());
+        assertEquals(CAPACITY, pool.size(SFC_SIZE));
+
+        SfcPotPolyClass pooled = pool.take(SFC_SIZE);
+        assertEquals(1, pool.getHitCount());
+        assertEquals(CAPACITY, pool.size(SFC_SIZE));
+        assertNotSame(generated, pooled);
+        assertEquals(SFC_SIZE, pooled.getSfcSize());
+        assertEquals(SFC_SIZE, pooled.getShares().size());
+        assertEquals(SFC_SIZE - 1, pooled.getCoeffs().size());
+        assertEquals(SFC_SIZE - 1, pooled.getLpcs().size());
+        assertEquals(0, pool.size(SFC_SIZE + 1));
+    }
+
+    @Test
+    public void poolIsRefilledOnceAtATime() {
+        List<Runnable> refills = new ArrayList<>();
+        SfcPotProfilePool pool = new SfcPotProfilePool(CAPACITY, refills::add);
+
+        pool.prefill(SFC_SIZE);
+        pool.take(SFC_SIZE);
+        pool.take(SFC_SIZE);
+        assertEquals(2, pool.getMissCount());
+        assertEquals(1, refills.size());
+
+        refills.remove(0).run();
+        assertEquals(CAPACITY, pool.size(SFC_SIZE));
+        for (int i = 0; i < CAPACITY; i++) {
+            pool.take(SFC_SIZE);
+        }
+        assertEquals(CAPACITY, pool.getHitCount());
+        assertEquals(0, pool.size(SFC_SIZE));
+        assertEquals(1, refills.size());
+    }
+}
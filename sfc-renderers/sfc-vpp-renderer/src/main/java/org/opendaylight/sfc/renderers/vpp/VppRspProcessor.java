@@ -11,6 +11,7 @@ import com.google.common.base.Preconditions;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
@@ -60,6 +61,7 @@ public class VppRspProcessor {
             return;
         }
 
+        Map<SfName, ServiceFunction> hopServiceFunctions = readHopServiceFunctions(renderedServicePath);
         for (RenderedServicePathHop renderedServicePathHop : renderedServicePath.getRenderedServicePathHop()) {
             previousSffName = currentSffName;
             previousMountPoint = currentMountpoint;
@@ -75,7 +77,7 @@ public class VppRspProcessor {
 
             sfName = hop.getServiceFunctionName();
             final Short serviceIndex = hop.getServiceIndex();
-            ServiceFunction serviceFunction = SfcProviderServiceFunctionAPI.readServiceFunction(sfName);
+            ServiceFunction serviceFunction = hopServiceFunctions.get(sfName);
             if (serviceFunction == null) {
                 LOG.error("Service function {} not present in datastore", sfName.getValue());
                 return;
@@ -144,6 +146,7 @@ public class VppRspProcessor {
             return;
         }
 
+        Map<SfName, ServiceFunction> hopServiceFunctions = readHopServiceFunctions(renderedServicePath);
         for (RenderedServicePathHop renderedServicePathHop : renderedServicePath.getRenderedServicePathHop()) {
             previousSffName = currentSffName;
             previousMountPoint = currentMountpoint;
@@ -159,7 +162,7 @@ public class VppRspProcessor {
 
             sfName = hop.getServiceFunctionName();
             final Short serviceIndex = hop.getServiceIndex();
-            ServiceFunction serviceFunction = SfcProviderServiceFunctionAPI.readServiceFunction(sfName);
+            ServiceFunction serviceFunction = hopServiceFunctions.get(sfName);
             if (serviceFunction == null) {
                 LOG.error("Service function {} not present in datastore", sfName.getValue());
                 return;
@@ -194,4 +197,12 @@ public class VppRspProcessor {
         }
         /* vpp classifier will remove VxlanGpeNsh for last hop to classifier */
     }
+
+    private static Map<SfName, ServiceFunction> readHopServiceFunctions(RenderedServicePath renderedServicePath) {
+        // one datastore transaction for all the hops instead of one per hop
+        return SfcProviderServiceFunctionAPI.readServiceFunctions(renderedServicePath.getRenderedServicePathHop()
+                .stream()
+                .map(RenderedServicePathHop::getServiceFunctionName)
+                .collect(Collectors.toList()));
+    }
 }
@@ -8,12 +8,15 @@
 
 package org.opendaylight.sfc.statistics.handlers;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.opendaylight.sfc.provider.api.SfcProviderServiceForwarderAPI;
 import org.opendaylight.sfc.statistics.readers.SfcStatisticsReaderBase;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SffName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.RenderedServicePath;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.rendered.service.path.RenderedServicePathHop;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.ServiceFunctionForwarder;
@@ -48,21 +51,24 @@ public class RspStatisticsHandler extends SfcStatisticsHandlerBase {
             return Collections.emptyList();
         }
 
-        ServiceFunctionForwarder firstHopSff = SfcProviderServiceForwarderAPI.readServiceFunctionForwarder(
-                firstHop.get().getServiceFunctionForwarder());
-        if (firstHopSff == null) {
-            LOG.warn("RspStatisticsHandler cant get firstHopSff for RSP [{}]", rsp.getPathId());
-            return Collections.emptyList();
-        }
-
         Optional<RenderedServicePathHop> lastHop = getRspHop(rsp, false);
         if (!lastHop.isPresent()) {
             LOG.warn("RspStatisticsHandler cant get lastHop for RSP [{}]", rsp.getPathId());
             return Collections.emptyList();
         }
 
-        ServiceFunctionForwarder lastHopSff = SfcProviderServiceForwarderAPI.readServiceFunctionForwarder(
-                lastHop.get().getServiceFunctionForwarder());
+        // Read both SFFs in a single datastore transaction
+        Map<SffName, ServiceFunctionForwarder> hopSffs = SfcProviderServiceForwarderAPI.readServiceFunctionForwarders(
+                Arrays.asList(firstHop.get().getServiceFunctionForwarder(),
+                        lastHop.get().getServiceFunctionForwarder()));
+
+        ServiceFunctionForwarder firstHopSff = hopSffs.get(firstHop.get().getServiceFunctionForwarder());
+        if (firstHopSff == null) {
+            LOG.warn("RspStatisticsHandler cant get firstHopSff for RSP [{}]", rsp.getPathId());
+            return Collections.emptyList();
+        }
+
+        ServiceFunctionForwarder lastHopSff = hopSffs.get(lastHop.get().getServiceFunctionForwarder());
         if (lastHopSff == null) {
             LOG.warn("RspStatisticsHandler cant get lastHopSff for RSP [{}]", rsp.getPathId());
             return Collections.emptyList();
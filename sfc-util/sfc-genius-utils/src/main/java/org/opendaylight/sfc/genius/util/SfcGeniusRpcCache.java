@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.genius.util;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.opendaylight.sfc.provider.api.AbstractSfcCache;
+import org.opendaylight.sfc.provider.api.SfcLatencyHistogram;
+import org.opendaylight.yang.gen.v1.urn.ericsson.params.xml.ns.yang.sfc.sff.logical.rev160620.DpnIdType;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.IpAddress;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.action.types.rev131112.action.list.Action;
+
+/**
+ * Cache of the results of a Genius RPC, used by {@link SfcGeniusRpcClient}.
+ * The cache is disabled - every call goes to Genius - until
+ * {@link #enableAll(long)} is called by the component that also keeps it fresh
+ * through data tree change listeners (see {@link SfcGeniusRpcCacheManager}).
+ *
+ * <p>
+ * Concurrent calls for the same key are coalesced into a single RPC. The
+ * result of a RPC is not kept if an interface or tunnel change invalidated
+ * the cache while the RPC was in flight, since Genius may have answered from
+ * the former state. Failed or empty results are not kept either. The latency
+ * of the RPCs actually invoked is recorded whether the cache is enabled or
+ * not.
+ *
+ * @param <K> the RPC input key
+ * @param <V> the RPC result
+ */
+public final class SfcGeniusRpcCache<K, V> extends AbstractSfcCache<K, V> {
+
+    public static final SfcGeniusRpcCache<EgressActionsKey, List<Action>> EGRESS_ACTIONS =
+            new SfcGeniusRpcCache<>("get-egress-actions-for-interface");
+    public static final SfcGeniusRpcCache<List<DpnIdType>, String> TUNNEL_INTERFACES =
+            new SfcGeniusRpcCache<>("get-tunnel-interface-name");
+    public static final SfcGeniusRpcCache<String, DpnIdType> DPN_IDS =
+            new SfcGeniusRpcCache<>("get-dpid-from-interface");
+    public static final SfcGeniusRpcCache<BigInteger, List<IpAddress>> DPN_IPS =
+            new SfcGeniusRpcCache<>("get-endpoint-ip-for-dpn");
+
+    private final SfcLatencyHistogram latencyHistogram;
+    private final ConcurrentMap<K, CompletableFuture<Optional<V>>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong coalescedCount = new AtomicLong();
+
+    private SfcGeniusRpcCache(String name) {
+        super(name);
+        this.latencyHistogram = new SfcLatencyHistogram(name);
+    }
+
+    public static List<SfcGeniusRpcCache<?, ?>> getAll() {
+        return Arrays.asList(EGRESS_ACTIONS, TUNNEL_INTERFACES, DPN_IDS, DPN_IPS);
+    }
+
+    /**
+     * Enable all the Genius RPC caches.
+     *
+     * @param maximumSize
+     *            maximum number of results held by each cache
+     */
+    public static void enableAll(long maximumSize) {
+        enableAll(getAll(), maximumSize);
+    }
+
+    /**
+     * Disable all the Genius RPC caches, dropping their contents.
+     */
+    public static void disableAll() {
+        disableAll(getAll());
+    }
+
+    /**
+     * Get the result of a RPC, from the cache if present, or else from an
+     * already in-flight call for the same key, or else by calling the RPC.
+     *
+     * @param key
+     *            the RPC input key
+     * @param rpc
+     *            invokes the RPC, returning empty if it failed
+     * @return the RPC result, or empty if the RPC failed
+     */
+    public Optional<V> get(K key, Supplier<Optional<V>> rpc) {
+        if (!isEnabled() || key == null) {
+            return call(rpc);
+        }
+
+        V value = getIfPresent(key);
+        if (value != null) {
+            return Optional.of(value);
+        }
+
+        CompletableFuture<Optional<V>> future = new CompletableFuture<>();
+        CompletableFuture<Optional<V>> inFlightFuture = inFlight.putIfAbsent(key, future);
+        if (inFlightFuture != null) {
+            coalescedCount.incrementAndGet();
+            return join(inFlightFuture);
+        }
+
+        try {
+            long callGeneration = getGeneration();
+            Optional<V> result = call(rpc);
+            result.ifPresent(resultValue -> putIfCurrent(key, resultValue, callGeneration));
+            future.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    private Optional<V> call(Supplier<Optional<V>> rpc) {
+        long startNanos = System.nanoTime();
+        try {
+            return rpc.get();
+        } finally {
+            latencyHistogram.recordSince(startNanos);
+        }
+    }
+
+    private static <V> Optional<V> join(CompletableFuture<Optional<V>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Get the number of calls served by waiting on an in-flight RPC for the
+     * same key.
+     *
+     * @return the number of coalesced calls
+     */
+    public long getCoalescedCount() {
+        return coalescedCount.get();
+    }
+
+    public SfcLatencyHistogram getLatencyHistogram() {
+        return latencyHistogram;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s coalesced=%d latency=%s", super.toString(), getCoalescedCount(), latencyHistogram);
+    }
+
+    /**
+     * Input key of the egress actions RPC.
+     */
+    public static final class EgressActionsKey {
+        private final String interfaceName;
+        private final boolean interfaceIsPartOfTheTransportZone;
+        private final int actionOffset;
+
+        public EgressActionsKey(String interfaceName, boolean interfaceIsPartOfTheTransportZone, int actionOffset) {
+            this.interfaceName = interfaceName;
+            this.interfaceIsPartOfTheTransportZone = interfaceIsPartOfTheTransportZone;
+            this.actionOffset = actionOffset;
+        }
+
+        public String getInterfaceName() {
+            return interfaceName;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof EgressActionsKey)) {
+                return false;
+            }
+            EgressActionsKey other = (EgressActionsKey) obj;
+            return interfaceIsPartOfTheTransportZone == other.interfaceIsPartOfTheTransportZone
+                    && actionOffset == other.actionOffset && Objects.equals(interfaceName, other.interfaceName);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(interfaceName, interfaceIsPartOfTheTransportZone, actionOffset);
+        }
+    }
+}
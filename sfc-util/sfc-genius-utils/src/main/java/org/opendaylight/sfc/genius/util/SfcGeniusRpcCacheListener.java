@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.genius.util;
+
+import java.util.function.Consumer;
+import javax.annotation.Nonnull;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.serviceutils.tools.mdsal.listener.AbstractSyncDataTreeChangeListener;
+import org.opendaylight.yangtools.yang.binding.DataObject;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+
+/**
+ * This class listens to changes in a kind of Genius operational object, and
+ * invalidates the {@link SfcGeniusRpcCache} results derived from it.
+ *
+ * @param <T> the Genius operational object type
+ */
+public class SfcGeniusRpcCacheListener<T extends DataObject> extends AbstractSyncDataTreeChangeListener<T> {
+
+    private final Consumer<T> invalidator;
+
+    public SfcGeniusRpcCacheListener(DataBroker dataBroker, InstanceIdentifier<T> wildcardIdentifier,
+                                     Consumer<T> invalidator) {
+        super(dataBroker, LogicalDatastoreType.OPERATIONAL, wildcardIdentifier);
+        this.invalidator = invalidator;
+    }
+
+    @Override
+    public void add(@Nonnull InstanceIdentifier<T> instanceIdentifier, @Nonnull T newDataObject) {
+        invalidator.accept(newDataObject);
+    }
+
+    @Override
+    public void remove(@Nonnull InstanceIdentifier<T> instanceIdentifier, @Nonnull T removedDataObject) {
+        invalidator.accept(removedDataObject);
+    }
+
+    @Override
+    public void update(@Nonnull InstanceIdentifier<T> instanceIdentifier,
+                       @Nonnull T originalDataObject,
+                       @Nonnull T updatedDataObject) {
+        invalidator.accept(originalDataObject);
+        invalidator.accept(updatedDataObject);
+    }
+}
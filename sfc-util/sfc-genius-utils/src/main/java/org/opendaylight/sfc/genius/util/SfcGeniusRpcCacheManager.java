@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.genius.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.sfc.provider.AbstractSfcCacheManager;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.interfaces.rev140508.InterfacesState;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.interfaces.rev140508.interfaces.state.Interface;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.genius.itm.op.rev160406.TunnelsState;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.genius.itm.op.rev160406.tunnels_state.StateTunnelList;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+
+/**
+ * Enables the Genius RPC caches ({@link SfcGeniusRpcCache}) and keeps them
+ * consistent with Genius operational state:
+ * <ul>
+ * <li>an interface state change invalidates the DPN and the egress actions
+ * of that interface;</li>
+ * <li>an ITM tunnel state change invalidates all the tunnel interface names
+ * and DPN endpoint IPs, as well as the egress actions of that tunnel.</li>
+ * </ul>
+ */
+public class SfcGeniusRpcCacheManager extends AbstractSfcCacheManager {
+
+    public SfcGeniusRpcCacheManager(DataBroker dataBroker, long maximumSize) {
+        super("Genius RPC", SfcGeniusRpcCache.getAll());
+        List<SfcGeniusRpcCacheListener<?>> listeners = new ArrayList<>();
+        listeners.add(new SfcGeniusRpcCacheListener<>(dataBroker,
+                InstanceIdentifier.create(InterfacesState.class).child(Interface.class),
+                SfcGeniusRpcCacheManager::invalidateInterface));
+        listeners.add(new SfcGeniusRpcCacheListener<>(dataBroker,
+                InstanceIdentifier.create(TunnelsState.class).child(StateTunnelList.class),
+                SfcGeniusRpcCacheManager::invalidateTunnel));
+        start(listeners, maximumSize);
+    }
+
+    private static void invalidateInterface(Interface theInterface) {
+        String interfaceName = theInterface.getName();
+        SfcGeniusRpcCache.DPN_IDS.invalidate(interfaceName);
+        SfcGeniusRpcCache.EGRESS_ACTIONS.invalidateIf(key -> interfaceName.equals(key.getInterfaceName()));
+    }
+
+    private static void invalidateTunnel(StateTunnelList tunnel) {
+        // tunnel names are looked up by DPN pair and tunnel type, and tunnels
+        // change rarely, so do not bother matching the DPNs
+        SfcGeniusRpcCache.TUNNEL_INTERFACES.invalidateAll();
+        SfcGeniusRpcCache.DPN_IPS.invalidateAll();
+        String tunnelInterfaceName = tunnel.getTunnelInterfaceName();
+        SfcGeniusRpcCache.EGRESS_ACTIONS.invalidateIf(key -> key.getInterfaceName() != null
+                && key.getInterfaceName().equals(tunnelInterfaceName));
+    }
+}
@@ -8,10 +8,13 @@
 package org.opendaylight.sfc.genius.util;
 
 import com.google.common.base.Preconditions;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import org.opendaylight.mdsal.binding.api.RpcConsumerRegistry;
 import org.opendaylight.yang.gen.v1.urn.ericsson.params.xml.ns.yang.sfc.sff.logical.rev160620.DpnIdType;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.IpAddress;
@@ -37,13 +40,16 @@ import org.slf4j.LoggerFactory;
 
 /**
  * This class centralizes all Genius RPC accesses which SFC openflow renderer
- * needs when using logical SFFs.
+ * needs when using logical SFFs. RPC results are served from the
+ * {@link SfcGeniusRpcCache} when it is enabled, and every RPC invocation is
+ * bounded by a timeout.
  *
  * @author Diego Granados (diego.jesus.granados.lopez@ericsson.com)
  */
 public class SfcGeniusRpcClient {
 
     private static final Logger LOG = LoggerFactory.getLogger(SfcGeniusRpcClient.class);
+    private static final long RPC_TIMEOUT_SECONDS = 10;
     private final ItmRpcService itmRpcService;
     private final OdlInterfaceRpcService ifmRpcService;
 
@@ -77,6 +83,14 @@ public class SfcGeniusRpcClient {
      */
     public Optional<List<Action>> getEgressActionsFromGeniusRPC(String targetInterfaceName,
             boolean interfaceIsPartOfTheTransportZone, int actionOffset) {
+        return SfcGeniusRpcCache.EGRESS_ACTIONS.get(
+            new SfcGeniusRpcCache.EgressActionsKey(targetInterfaceName, interfaceIsPartOfTheTransportZone,
+                    actionOffset),
+            () -> callGetEgressActions(targetInterfaceName, interfaceIsPartOfTheTransportZone, actionOffset));
+    }
+
+    private Optional<List<Action>> callGetEgressActions(String targetInterfaceName,
+            boolean interfaceIsPartOfTheTransportZone, int actionOffset) {
 
         Optional<List<Action>> result = Optional.empty();
         boolean successful = false;
@@ -94,7 +108,7 @@ public class SfcGeniusRpcClient {
             OdlInterfaceRpcService service = getIfmRpcService();
             if (service != null) {
                 RpcResult<GetEgressActionsForInterfaceOutput> output = service.getEgressActionsForInterface(input)
-                        .get();
+                        .get(RPC_TIMEOUT_SECONDS, TimeUnit.SECONDS);
                 if (output.isSuccessful()) {
                     result = Optional.of(output.getResult().getAction());
                     LOG.debug("getEgressInstructionsFromGeniusRPC({}) succeeded", input);
@@ -105,7 +119,7 @@ public class SfcGeniusRpcClient {
             } else {
                 LOG.error("getEgressInstructionsFromGeniusRPC({}) failed (service couldn't be retrieved)", input);
             }
-        } catch (InterruptedException | ExecutionException e) {
+        } catch (InterruptedException | ExecutionException | TimeoutException e) {
             LOG.error("failed to retrieve egress instructions for input {}: ", input, e);
         }
         if (!successful) {
@@ -130,6 +144,11 @@ public class SfcGeniusRpcClient {
      *         retrieval)
      */
     public Optional<String> getTargetInterfaceFromGeniusRPC(DpnIdType srcDpid, DpnIdType dstDpid) {
+        return SfcGeniusRpcCache.TUNNEL_INTERFACES.get(Arrays.asList(srcDpid, dstDpid),
+            () -> callGetTunnelInterfaceName(srcDpid, dstDpid));
+    }
+
+    private Optional<String> callGetTunnelInterfaceName(DpnIdType srcDpid, DpnIdType dstDpid) {
         LOG.debug("getTargetInterfaceFromGeniusRPC: starting (src dpnid:{} dst dpnid:{})", srcDpid, dstDpid);
 
         final ItmRpcService service = getItmRpcService();
@@ -147,7 +166,7 @@ public class SfcGeniusRpcClient {
         try {
             // Try first a specific VxlanGpe interface type
             builder.setTunnelType(TunnelTypeVxlanGpe.class);
-            output = service.getTunnelInterfaceName(builder.build()).get();
+            output = service.getTunnelInterfaceName(builder.build()).get(RPC_TIMEOUT_SECONDS, TimeUnit.SECONDS);
             interfaceName = Optional.ofNullable(output)
                     .map(RpcResult::getResult)
                     .map(GetTunnelInterfaceNameOutput::getInterfaceName);
@@ -158,7 +177,7 @@ public class SfcGeniusRpcClient {
 
             // If not, try with standard vxlan type, it might also have gpe enabled
             builder.setTunnelType(TunnelTypeVxlan.class);
-            output = service.getTunnelInterfaceName(builder.build()).get();
+            output = service.getTunnelInterfaceName(builder.build()).get(RPC_TIMEOUT_SECONDS, TimeUnit.SECONDS);
             interfaceName = Optional.ofNullable(output)
                     .map(RpcResult::getResult)
                     .map(GetTunnelInterfaceNameOutput::getInterfaceName);
@@ -166,7 +185,7 @@ public class SfcGeniusRpcClient {
                 LOG.debug("getTargetInterfaceFromGeniusRPC found Vxlan interface {}", interfaceName);
                 return interfaceName;
             }
-        } catch (InterruptedException | ExecutionException e) {
+        } catch (InterruptedException | ExecutionException | TimeoutException e) {
             LOG.error("getTargetInterfaceFromGeniusRPC exception when trying to retrieve target interface name: ", e);
         }
         LOG.debug("getTargetInterfaceFromGeniusRPC did not find target interface name");
@@ -184,6 +203,11 @@ public class SfcGeniusRpcClient {
      *         SF, or empty when the value cannot be retrieved
      */
     public Optional<DpnIdType> getDpnIdFromInterfaceNameFromGeniusRPC(String logicalInterfaceName) {
+        return SfcGeniusRpcCache.DPN_IDS.get(logicalInterfaceName,
+            () -> callGetDpidFromInterface(logicalInterfaceName));
+    }
+
+    private Optional<DpnIdType> callGetDpidFromInterface(String logicalInterfaceName) {
         Optional<DpnIdType> dpnid = Optional.empty();
         boolean successful = false;
 
@@ -196,7 +220,8 @@ public class SfcGeniusRpcClient {
             OdlInterfaceRpcService service = getIfmRpcService();
             if (service != null) {
                 LOG.debug("getDpnIdFromInterfaceNameFromGeniusRPC: service is not null, invoking rpc");
-                RpcResult<GetDpidFromInterfaceOutput> output = service.getDpidFromInterface(input).get();
+                RpcResult<GetDpidFromInterfaceOutput> output = service.getDpidFromInterface(input)
+                        .get(RPC_TIMEOUT_SECONDS, TimeUnit.SECONDS);
                 if (output.isSuccessful()) {
                     dpnid = Optional.of(new DpnIdType(output.getResult().getDpid()));
                     LOG.debug("getDpnIdFromInterfaceNameFromGeniusRPC({}) succeeded: {}", input, output);
@@ -207,7 +232,7 @@ public class SfcGeniusRpcClient {
             } else {
                 LOG.error("getDpnIdFromInterfaceNameFromGeniusRPC({}) failed (service couldn't be retrieved)", input);
             }
-        } catch (InterruptedException | ExecutionException e) {
+        } catch (InterruptedException | ExecutionException | TimeoutException e) {
             LOG.error("failed to retrieve target interface name: ", e);
         }
         if (!successful) {
@@ -223,6 +248,13 @@ public class SfcGeniusRpcClient {
      * @return the IP addresses.
      */
     public List<IpAddress> getDpnIpFromGeniusRPC(DpnIdType theDpnIdType) {
+        return SfcGeniusRpcCache.DPN_IPS.get(theDpnIdType.getValue(), () -> {
+            List<IpAddress> localIps = callGetEndpointIpForDpn(theDpnIdType);
+            return localIps.isEmpty() ? Optional.empty() : Optional.of(localIps);
+        }).orElse(Collections.emptyList());
+    }
+
+    private List<IpAddress> callGetEndpointIpForDpn(DpnIdType theDpnIdType) {
         GetEndpointIpForDpnInputBuilder builder = new GetEndpointIpForDpnInputBuilder();
         builder.setDpid(theDpnIdType.getValue());
         GetEndpointIpForDpnInput input = builder.build();
@@ -234,7 +266,8 @@ public class SfcGeniusRpcClient {
         }
 
         try {
-            RpcResult<GetEndpointIpForDpnOutput> output = service.getEndpointIpForDpn(input).get();
+            RpcResult<GetEndpointIpForDpnOutput> output = service.getEndpointIpForDpn(input)
+                    .get(RPC_TIMEOUT_SECONDS, TimeUnit.SECONDS);
             if (!output.isSuccessful()) {
                 LOG.warn("getDpnIpFromGeniusRPC({}) failed: {}", input, output);
                 return Collections.emptyList();
@@ -244,7 +277,7 @@ public class SfcGeniusRpcClient {
             if (localIps != null) {
                 return localIps;
             }
-        } catch (InterruptedException | ExecutionException e) {
+        } catch (InterruptedException | ExecutionException | TimeoutException e) {
             LOG.error("getDpnIpFromGeniusRPC failed due to exception", e);
             throw new SfcGeniusRuntimeException(e);
         }
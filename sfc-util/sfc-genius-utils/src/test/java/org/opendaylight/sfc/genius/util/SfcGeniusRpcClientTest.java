@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.genius.util;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigInteger;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.mdsal.binding.api.RpcConsumerRegistry;
+import org.opendaylight.yang.gen.v1.urn.ericsson.params.xml.ns.yang.sfc.sff.logical.rev160620.DpnIdType;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.genius.interfacemanager.rev160406.TunnelTypeVxlanGpe;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.genius.interfacemanager.rpcs.rev160406.GetDpidFromInterfaceInput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.genius.interfacemanager.rpcs.rev160406.GetDpidFromInterfaceOutput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.genius.interfacemanager.rpcs.rev160406.GetDpidFromInterfaceOutputBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.genius.interfacemanager.rpcs.rev160406.OdlInterfaceRpcService;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.genius.itm.rpcs.rev160406.GetTunnelInterfaceNameInput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.genius.itm.rpcs.rev160406.GetTunnelInterfaceNameOutput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.genius.itm.rpcs.rev160406.GetTunnelInterfaceNameOutputBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.genius.itm.rpcs.rev160406.ItmRpcService;
+import org.opendaylight.yangtools.yang.common.RpcResult;
+import org.opendaylight.yangtools.yang.common.RpcResultBuilder;
+
+public class SfcGeniusRpcClientTest {
+
+    private static final DpnIdType DPN_1 = new DpnIdType(BigInteger.ONE);
+    private static final DpnIdType DPN_2 = new DpnIdType(BigInteger.valueOf(2));
+
+    private LocalGeniusRpcServices geniusRpcServices;
+    private SfcGeniusRpcClient sfcGeniusRpcClient;
+
+    /*
+     * Local ITM and interface manager RPC services, answering the RPCs used by
+     * the client from in-memory tunnels and interfaces. The other RPCs are not
+     * implemented.
+     */
+    private static final class LocalGeniusRpcServices implements InvocationHandler {
+        // tunnel interface names of the VxLAN-GPE tunnels, by source and destination DPN
+        private final Map<String, String> tunnels = new ConcurrentHashMap<>();
+        // DPN ids by interface name
+        private final Map<String, BigInteger> interfaceDpns = new ConcurrentHashMap<>();
+        private final Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+        // when set, the tunnel interface name lookups are answered only once the test says so
+        private volatile SettableFuture<Void> heldTunnelLookups;
+        private final CountDownLatch tunnelLookupInvoked = new CountDownLatch(1);
+        // when set, the DPN lookups fail
+        private volatile boolean failDpnLookups;
+        // when set, run while a DPN lookup is in flight
+        private volatile Runnable onDpnLookup;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            calls.computeIfAbsent(method.getName(), name -> new AtomicInteger()).incrementAndGet();
+            switch (method.getName()) {
+                case "getTunnelInterfaceName":
+                    return getTunnelInterfaceName((GetTunnelInterfaceNameInput) args[0]);
+                case "getDpidFromInterface":
+                    return getDpidFromInterface((GetDpidFromInterfaceInput) args[0]);
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        }
+
+        private ListenableFuture<RpcResult<GetTunnelInterfaceNameOutput>> getTunnelInterfaceName(
+                GetTunnelInterfaceNameInput input) {
+            tunnelLookupInvoked.countDown();
+            String interfaceName = TunnelTypeVxlanGpe.class.equals(input.getTunnelType())
+                    ? tunnels.get(input.getSourceDpid() + "-" + input.getDestinationDpid())
+                    : null;
+            RpcResult<GetTunnelInterfaceNameOutput> result = interfaceName == null
+                    ? RpcResultBuilder.<GetTunnelInterfaceNameOutput>failed().build()
+                    : RpcResultBuilder.success(new GetTunnelInterfaceNameOutputBuilder()
+                            .setInterfaceName(interfaceName).build()).build();
+            SettableFuture<Void> held = heldTunnelLookups;
+            SettableFuture<RpcResult<GetTunnelInterfaceNameOutput>> future = SettableFuture.create();
+            if (held == null) {
+                future.set(result);
+            } else {
+                held.addListener(() -> future.set(result), Runnable::run);
+            }
+            return future;
+        }
+
+        private ListenableFuture<RpcResult<GetDpidFromInterfaceOutput>> getDpidFromInterface(
+                GetDpidFromInterfaceInput input) {
+            Runnable hook = onDpnLookup;
+            if (hook != null) {
+                hook.run();
+            }
+            BigInteger dpnId = interfaceDpns.get(input.getIntfName());
+            if (failDpnLookups || dpnId == null) {
+                return RpcResultBuilder.<GetDpidFromInterfaceOutput>failed().buildFuture();
+            }
+            return RpcResultBuilder.success(new GetDpidFromInterfaceOutputBuilder().setDpid(dpnId).build())
+                    .buildFuture();
+        }
+
+        void addTunnel(DpnIdType srcDpn, DpnIdType dstDpn, String interfaceName) {
+            tunnels.put(srcDpn.getValue() + "-" + dstDpn.getValue(), interfaceName);
+        }
+
+        int getCalls(String rpcName) {
+            AtomicInteger rpcCalls = calls.get(rpcName);
+            return rpcCalls == null ? 0 : rpcCalls.get();
+        }
+
+        RpcConsumerRegistry asRpcConsumerRegistry() {
+            Object services = Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[] {ItmRpcService.class, OdlInterfaceRpcService.class}, this);
+            return (RpcConsumerRegistry) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[] {RpcConsumerRegistry.class}, (proxy, method, args) -> {
+                        if ("getRpcService".equals(method.getName())) {
+                            return services;
+                        }
+                        throw new UnsupportedOperationException(method.getName());
+                    });
+        }
+    }
+
+    @Before
+    public void setUp() {
+        geniusRpcServices = new LocalGeniusRpcServices();
+        sfcGeniusRpcClient = new SfcGeniusRpcClient(geniusRpcServices.asRpcConsumerRegistry());
+        SfcGeniusRpcCache.enableAll(100);
+    }
+
+    @After
+    public void tearDown() {
+        SfcGeniusRpcCache.disableAll();
+    }
+
+    @Test
+    public void tunnelInterfaceIsCached() {
+        geniusRpcServices.addTunnel(DPN_1, DPN_2, "tun1");
+        long hits = SfcGeniusRpcCache.TUNNEL_INTERFACES.getStats().hitCount();
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(sfcGeniusRpcClient.getTargetInterfaceFromGeniusRPC(DPN_1, DPN_2), is(Optional.of("tun1")));
+        }
+
+        assertThat(geniusRpcServices.getCalls("getTunnelInterfaceName"), is(1));
+        assertThat(SfcGeniusRpcCache.TUNNEL_INTERFACES.getStats().hitCount(), is(hits + 9));
+
+        // a tunnel change invalidates the cached names
+        geniusRpcServices.addTunnel(DPN_1, DPN_2, "tun2");
+        SfcGeniusRpcCache.TUNNEL_INTERFACES.invalidateAll();
+        assertThat(sfcGeniusRpcClient.getTargetInterfaceFromGeniusRPC(DPN_1, DPN_2), is(Optional.of("tun2")));
+        assertThat(geniusRpcServices.getCalls("getTunnelInterfaceName"), is(2));
+    }
+
+    @Test
+    public void failureIsNotCached() {
+        geniusRpcServices.interfaceDpns.put("tap1", BigInteger.ONE);
+        geniusRpcServices.failDpnLookups = true;
+        assertThat(sfcGeniusRpcClient.getDpnIdFromInterfaceNameFromGeniusRPC("tap1"), is(Optional.empty()));
+
+        geniusRpcServices.failDpnLookups = false;
+        assertThat(sfcGeniusRpcClient.getDpnIdFromInterfaceNameFromGeniusRPC("tap1"), is(Optional.of(DPN_1)));
+        assertThat(sfcGeniusRpcClient.getDpnIdFromInterfaceNameFromGeniusRPC("tap1"), is(Optional.of(DPN_1)));
+        assertThat(geniusRpcServices.getCalls("getDpidFromInterface"), is(2));
+    }
+
+    @Test
+    public void resultRacingWithInvalidationIsNotCached() {
+        geniusRpcServices.interfaceDpns.put("tap1", BigInteger.ONE);
+        // the interface changes while the RPC is in flight
+        geniusRpcServices.onDpnLookup = () -> SfcGeniusRpcCache.DPN_IDS.invalidate("tap1");
+        assertThat(sfcGeniusRpcClient.getDpnIdFromInterfaceNameFromGeniusRPC("tap1"), is(Optional.of(DPN_1)));
+        assertThat(SfcGeniusRpcCache.DPN_IDS.size(), is(0L));
+
+        geniusRpcServices.onDpnLookup = null;
+        assertThat(sfcGeniusRpcClient.getDpnIdFromInterfaceNameFromGeniusRPC("tap1"), is(Optional.of(DPN_1)));
+        assertThat(sfcGeniusRpcClient.getDpnIdFromInterfaceNameFromGeniusRPC("tap1"), is(Optional.of(DPN_1)));
+        assertThat(geniusRpcServices.getCalls("getDpidFromInterface"), is(2));
+    }
+
+    @Test
+    public void concurrentCallsAreCoalesced() throws Exception {
+        geniusRpcServices.addTunnel(DPN_1, DPN_2, "tun1");
+        SettableFuture<Void> heldTunnelLookups = SettableFuture.create();
+        geniusRpcServices.heldTunnelLookups = heldTunnelLookups;
+
+        long coalescedCount = SfcGeniusRpcCache.TUNNEL_INTERFACES.getCoalescedCount();
+        CompletableFuture<Optional<String>> first = CompletableFuture.supplyAsync(
+            () -> sfcGeniusRpcClient.getTargetInterfaceFromGeniusRPC(DPN_1, DPN_2));
+        assertThat(geniusRpcServices.tunnelLookupInvoked.await(5, TimeUnit.SECONDS), is(true));
+        CompletableFuture<Optional<String>> second = CompletableFuture.supplyAsync(
+            () -> sfcGeniusRpcClient.getTargetInterfaceFromGeniusRPC(DPN_1, DPN_2));
+        while (SfcGeniusRpcCache.TUNNEL_INTERFACES.getCoalescedCount() == coalescedCount && !second.isDone()) {
+            Thread.sleep(10);
+        }
+        heldTunnelLookups.set(null);
+
+        assertThat(first.get(5, TimeUnit.SECONDS), is(Optional.of("tun1")));
+        assertThat(second.get(5, TimeUnit.SECONDS), is(Optional.of("tun1")));
+        assertThat(geniusRpcServices.getCalls("getTunnelInterfaceName"), is(1));
+    }
+}
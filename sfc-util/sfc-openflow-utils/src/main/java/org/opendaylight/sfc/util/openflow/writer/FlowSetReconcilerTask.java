@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.util.openflow.writer;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flat.batch.service.rev160321.ProcessFlatBatchInputBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flat.batch.service.rev160321.ProcessFlatBatchOutput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flat.batch.service.rev160321.SalFlatBatchService;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flat.batch.service.rev160321.process.flat.batch.input.Batch;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flat.batch.service.rev160321.process.flat.batch.input.BatchBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flat.batch.service.rev160321.process.flat.batch.input.batch.batch.choice.FlatBatchAddFlowCaseBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flat.batch.service.rev160321.process.flat.batch.input.batch.batch.choice.FlatBatchRemoveFlowCaseBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flat.batch.service.rev160321.process.flat.batch.input.batch.batch.choice.flat.batch.add.flow._case.FlatBatchAddFlow;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flat.batch.service.rev160321.process.flat.batch.input.batch.batch.choice.flat.batch.add.flow._case.FlatBatchAddFlowBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flat.batch.service.rev160321.process.flat.batch.input.batch.batch.choice.flat.batch.remove.flow._case.FlatBatchRemoveFlow;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flat.batch.service.rev160321.process.flat.batch.input.batch.batch.choice.flat.batch.remove.flow._case.FlatBatchRemoveFlowBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flat.batch.service.rev160321.process.flat.batch.output.BatchFailure;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.NodeId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.NodeRef;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.Nodes;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.Node;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.NodeKey;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+import org.opendaylight.yangtools.yang.common.RpcResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A thread class used to reconcile the flows of a node with its flow tables.
+ * It receives the flows to write and the flows to remove at object
+ * instantiation time - AKA constructor. The flows are added to and removed
+ * from the node itself, in a single flat batch RPC: the configuration data
+ * store already holds the flows to write and not the flows to remove, so
+ * writing them there again would not reach the node. The task does not wait
+ * for the batch to be processed, its outcome is logged once known.
+ */
+public class FlowSetReconcilerTask implements Runnable {
+    private static final Logger LOG = LoggerFactory.getLogger(FlowSetReconcilerTask.class);
+    private final String sffNodeName;
+    private final Set<FlowDetails> flowsToWrite;
+    private final Set<FlowDetails> flowsToDelete;
+    private final SalFlatBatchService salFlatBatchService;
+
+    /**
+     * Constructor.
+     *
+     * @param salFlatBatchService
+     *            - the flat batch service used to add and remove the flows
+     * @param sffNodeName
+     *            - the node to reconcile
+     * @param flowsToWrite
+     *            - the flows missing from the node
+     * @param flowsToDelete
+     *            - the stale flows of the node, as read from its flow tables
+     */
+    public FlowSetReconcilerTask(SalFlatBatchService salFlatBatchService, String sffNodeName,
+                                 Set<FlowDetails> flowsToWrite, Set<FlowDetails> flowsToDelete) {
+        this.salFlatBatchService = salFlatBatchService;
+        this.sffNodeName = sffNodeName;
+        this.flowsToWrite = flowsToWrite;
+        this.flowsToDelete = flowsToDelete;
+    }
+
+    @Override
+    public void run() {
+        LOG.debug("FlowSetReconcilerTask: starting addition of {} flows and deletion of {} flows in node {}",
+                flowsToWrite.size(), flowsToDelete.size(), sffNodeName);
+
+        // the stale flows are removed first, then the missing flows are added,
+        // each step numbered so that failures can be reported
+        int batchOrder = 0;
+        List<Batch> batches = new ArrayList<>();
+        if (!flowsToDelete.isEmpty()) {
+            List<FlatBatchRemoveFlow> removeFlows = new ArrayList<>();
+            for (FlowDetails f : flowsToDelete) {
+                removeFlows.add(new FlatBatchRemoveFlowBuilder(f.getFlow()).setBatchOrder(batchOrder++)
+                        .setFlowId(f.getFlowKey().getId()).setStrict(true).build());
+            }
+            batches.add(new BatchBuilder().setBatchOrder(batches.size()).setBatchChoice(
+                    new FlatBatchRemoveFlowCaseBuilder().setFlatBatchRemoveFlow(removeFlows).build()).build());
+        }
+        if (!flowsToWrite.isEmpty()) {
+            List<FlatBatchAddFlow> addFlows = new ArrayList<>();
+            for (FlowDetails f : flowsToWrite) {
+                addFlows.add(new FlatBatchAddFlowBuilder(f.getFlow()).setBatchOrder(batchOrder++)
+                        .setFlowId(f.getFlowKey().getId()).build());
+            }
+            batches.add(new BatchBuilder().setBatchOrder(batches.size()).setBatchChoice(
+                    new FlatBatchAddFlowCaseBuilder().setFlatBatchAddFlow(addFlows).build()).build());
+        }
+        if (batches.isEmpty()) {
+            return;
+        }
+
+        NodeRef nodeRef = new NodeRef(InstanceIdentifier.builder(Nodes.class)
+                .child(Node.class, new NodeKey(new NodeId(sffNodeName))).build());
+        ListenableFuture<RpcResult<ProcessFlatBatchOutput>> result = salFlatBatchService.processFlatBatch(
+                new ProcessFlatBatchInputBuilder().setNode(nodeRef).setBatch(batches).setExitOnFirstError(false)
+                        .build());
+        int flowCount = batchOrder;
+        Futures.addCallback(result, new FutureCallback<RpcResult<ProcessFlatBatchOutput>>() {
+            @Override
+            public void onSuccess(RpcResult<ProcessFlatBatchOutput> rpcResult) {
+                List<BatchFailure> failures = rpcResult.getResult() == null
+                        || rpcResult.getResult().getBatchFailure() == null ? Collections.emptyList()
+                        : rpcResult.getResult().getBatchFailure();
+                if (rpcResult.isSuccessful() && failures.isEmpty()) {
+                    LOG.debug("FlowSetReconcilerTask: {} flows of node {} reconciled", flowCount, sffNodeName);
+                } else {
+                    LOG.error("FlowSetReconcilerTask: {} of {} flows of node {} not reconciled: {} {}",
+                            failures.size(), flowCount, sffNodeName, failures, rpcResult.getErrors());
+                }
+            }
+
+            @Override
+            public void onFailure(Throwable throwable) {
+                LOG.error("FlowSetReconcilerTask: flows of node {} not reconciled", sffNodeName, throwable);
+            }
+        }, MoreExecutors.directExecutor());
+    }
+}
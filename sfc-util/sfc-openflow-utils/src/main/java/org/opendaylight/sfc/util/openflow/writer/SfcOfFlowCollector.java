@@ -0,0 +1,26 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.util.openflow.writer;
+
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.FlowBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.group.types.rev131018.groups.GroupBuilder;
+
+/**
+ * The part of a flow writer used while creating flows: it only collects the
+ * flows and groups created. Whether and when they are written to the MD-SAL
+ * datastore is up to the implementation.
+ */
+public interface SfcOfFlowCollector {
+
+    // Collect a flow created for an RSP
+    void writeFlow(Long rspId, String sffNodeName, FlowBuilder flow);
+
+    // Collect a group created on an SFF
+    void writeGroupToDataStore(String sffNodeName, GroupBuilder gb, boolean isAdd);
+}
@@ -13,9 +13,12 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
@@ -29,8 +32,12 @@ import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.sfc.provider.api.SfcDataStoreAPI;
 import org.opendaylight.sfc.util.openflow.OpenflowConstants;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flat.batch.service.rev160321.SalFlatBatchService;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowCapableNode;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.Table;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.TableKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.Flow;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.FlowBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.FlowKey;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.group.types.rev131018.groups.Group;
@@ -57,11 +64,16 @@ import org.slf4j.LoggerFactory;
 
 public class SfcOfFlowWriterImpl implements SfcOfFlowWriterInterface {
     private static final long SHUTDOWN_TIME = 5;
+    private static final int MAX_DELETED_FLOWS_PER_NODE = 100000;
     private static final String LOGSTR_THREAD_EXCEPTION = "Exception executing Thread: {}";
     private static final Logger LOG = LoggerFactory.getLogger(SfcOfFlowWriterImpl.class);
 
     private final ExecutorService threadPoolExecutorService;
 
+    // Reconciliations run on their own thread, so that they never hold up the
+    // flow writes and deletions
+    private final ExecutorService reconciliationExecutorService;
+
     private FlowBuilder flowBuilder;
 
     // Store all flows associated w/ each rendered service path,
@@ -75,18 +87,27 @@ public class SfcOfFlowWriterImpl implements SfcOfFlowWriterInterface {
     // flushFlows() is called
     private final Set<FlowDetails> setOfFlowsToAdd;
 
+    // Flows written to each node and not deleted since, along with the last
+    // flows deleted from each node, used to reconcile the flows of the nodes
+    private final Map<String, NodeFlows> nodeFlowsMap;
+
     private DataBroker dataProvider;
 
+    // Used to reconcile the flows of the nodes
+    private SalFlatBatchService salFlatBatchService;
+
     private WriteTransaction tx;
 
     private final EventBus eventBus;
 
     public SfcOfFlowWriterImpl() {
         this.threadPoolExecutorService = Executors.newSingleThreadExecutor();
+        this.reconciliationExecutorService = Executors.newSingleThreadExecutor();
         this.rspNameToFlowsMap = new ConcurrentHashMap<>();
         this.flowBuilder = null;
         this.setOfFlowsToDelete = new HashSet<>();
         this.setOfFlowsToAdd = new HashSet<>();
+        this.nodeFlowsMap = new ConcurrentHashMap<>();
         eventBus = new EventBus();
     }
 
@@ -100,6 +121,10 @@ public class SfcOfFlowWriterImpl implements SfcOfFlowWriterInterface {
         dataProvider = dataBroker;
     }
 
+    public void setSalFlatBatchService(SalFlatBatchService salFlatBatchService) {
+        this.salFlatBatchService = salFlatBatchService;
+    }
+
     @Override
     public void injectTransaction(WriteTransaction theTx) {
         tx = theTx;
@@ -118,11 +143,16 @@ public class SfcOfFlowWriterImpl implements SfcOfFlowWriterInterface {
      */
     @Override
     public void shutdown() throws ExecutionException, InterruptedException {
-        // When we close this service we need to shutdown our executor!
-        threadPoolExecutorService.shutdown();
-        if (!threadPoolExecutorService.awaitTermination(SHUTDOWN_TIME, TimeUnit.SECONDS)) {
+        // When we close this service we need to shutdown our executors!
+        shutdown(threadPoolExecutorService);
+        shutdown(reconciliationExecutorService);
+    }
+
+    private static void shutdown(ExecutorService executorService) throws InterruptedException {
+        executorService.shutdown();
+        if (!executorService.awaitTermination(SHUTDOWN_TIME, TimeUnit.SECONDS)) {
             LOG.error("SfcOfFlowProgrammerImpl Executor did not terminate in the specified time.");
-            List<Runnable> droppedTasks = threadPoolExecutorService.shutdownNow();
+            List<Runnable> droppedTasks = executorService.shutdownNow();
             LOG.error("SfcOfFlowProgrammerImpl Executor was abruptly shut down. [{}] tasks will not be executed.",
                     droppedTasks.size());
         }
@@ -216,6 +246,7 @@ public class SfcOfFlowWriterImpl implements SfcOfFlowWriterInterface {
             return;
         }
 
+        setOfFlowsToAdd.forEach(flow -> getNodeFlows(flow.getSffNodeName()).written(flow));
         FlowSetWriterTask writerThread = tx == null ? new FlowSetWriterTask(dataProvider, setOfFlowsToAdd)
                 : new FlowSetWriterTask(setOfFlowsToAdd, tx);
 
@@ -333,6 +364,7 @@ public class SfcOfFlowWriterImpl implements SfcOfFlowWriterInterface {
         if (setOfFlowsToDelete.isEmpty()) {
             return;
         }
+        setOfFlowsToDelete.forEach(flow -> getNodeFlows(flow.getSffNodeName()).deleted(flow));
         FlowSetRemoverTask fsrt = tx == null ? new FlowSetRemoverTask(dataProvider, setOfFlowsToDelete)
                 : new FlowSetRemoverTask(setOfFlowsToDelete, tx);
 
@@ -348,6 +380,62 @@ public class SfcOfFlowWriterImpl implements SfcOfFlowWriterInterface {
         setOfFlowsToDelete.clear();
     }
 
+    /**
+     * Reconcile the flows of a node with its flow tables, typically when the
+     * node reconnects. The flows written to the node that are missing from
+     * its flow tables are added again, and the flows deleted from the node
+     * that are still in its flow tables are removed again. This is done with
+     * a single flat batch RPC per node, as the configuration data store is
+     * already up to date. Only the flows written or deleted by this writer are
+     * considered, any other flow of the node is left alone.
+     *
+     * <p>
+     * The reconciliation runs on its own thread, and does not wait for the
+     * batch to be processed. The flows to reconcile are computed from the
+     * flow writes and deletions already submitted, whether they are done or
+     * not, against the flows of the node at that time.
+     *
+     * @param sffNodeName
+     *            - the node to reconcile
+     * @param flowCapableNode
+     *            - the node, as read from the operational data store
+     */
+    @SuppressWarnings("checkstyle:IllegalCatch")
+    public void reconcileFlows(String sffNodeName, FlowCapableNode flowCapableNode) {
+        if (salFlatBatchService == null) {
+            LOG.warn("reconcileFlows: no flat batch service, node {} not reconciled", sffNodeName);
+            return;
+        }
+
+        Map<TableFlowKey, Flow> nodeFlows = new HashMap<>();
+        if (flowCapableNode != null && flowCapableNode.getTable() != null) {
+            for (Table table : flowCapableNode.getTable()) {
+                if (table.getFlow() != null) {
+                    table.getFlow().forEach(flow -> nodeFlows.put(new TableFlowKey(table.getId(), flow.getId()), flow));
+                }
+            }
+        }
+
+        try {
+            reconciliationExecutorService.execute(() -> {
+                Set<FlowDetails> flowsToWrite = new HashSet<>();
+                Set<FlowDetails> flowsToDelete = new HashSet<>();
+                getNodeFlows(sffNodeName).diff(nodeFlows, flowsToWrite, flowsToDelete);
+                LOG.info("reconcileFlows: node {} has {} flows, adding {} missing flows, removing {} stale flows",
+                        sffNodeName, nodeFlows.size(), flowsToWrite.size(), flowsToDelete.size());
+                if (!flowsToWrite.isEmpty() || !flowsToDelete.isEmpty()) {
+                    new FlowSetReconcilerTask(salFlatBatchService, sffNodeName, flowsToWrite, flowsToDelete).run();
+                }
+            });
+        } catch (Exception ex) {
+            LOG.error(LOGSTR_THREAD_EXCEPTION, ex.toString(), ex);
+        }
+    }
+
+    private NodeFlows getNodeFlows(String sffNodeName) {
+        return nodeFlowsMap.computeIfAbsent(sffNodeName, NodeFlows::new);
+    }
+
     /**
      * Clear all flows from the SFFs whenever they are not featured in any RSP.
      *
@@ -407,4 +495,88 @@ public class SfcOfFlowWriterImpl implements SfcOfFlowWriterInterface {
         tx = dataProvider.newWriteOnlyTransaction();
         eventBus.post(tx);
     }
+
+    /**
+     * Identifier of a flow within a node.
+     */
+    private static final class TableFlowKey {
+        private final short tableId;
+        private final FlowId flowId;
+
+        TableFlowKey(short tableId, FlowId flowId) {
+            this.tableId = tableId;
+            this.flowId = flowId;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * tableId + Objects.hashCode(flowId);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof TableFlowKey)) {
+                return false;
+            }
+            TableFlowKey other = (TableFlowKey) obj;
+            return tableId == other.tableId && Objects.equals(flowId, other.flowId);
+        }
+    }
+
+    /**
+     * The flows written to a node and not deleted since, and the last flows
+     * deleted from it.
+     */
+    private static final class NodeFlows {
+        private final String sffNodeName;
+        private final Map<TableFlowKey, FlowDetails> writtenFlows = new HashMap<>();
+        private final Set<TableFlowKey> deletedFlows = new LinkedHashSet<>();
+
+        NodeFlows(String sffNodeName) {
+            this.sffNodeName = sffNodeName;
+        }
+
+        synchronized void written(FlowDetails flow) {
+            TableFlowKey key = new TableFlowKey(flow.getTableKey().getId(), flow.getFlowKey().getId());
+            writtenFlows.put(key, flow);
+            deletedFlows.remove(key);
+        }
+
+        synchronized void deleted(FlowDetails flow) {
+            TableFlowKey key = new TableFlowKey(flow.getTableKey().getId(), flow.getFlowKey().getId());
+            writtenFlows.remove(key);
+            deletedFlows.add(key);
+            if (deletedFlows.size() > MAX_DELETED_FLOWS_PER_NODE) {
+                Iterator<TableFlowKey> oldest = deletedFlows.iterator();
+                oldest.next();
+                oldest.remove();
+            }
+        }
+
+        /**
+         * Compute the flows to write and delete for the node to have the
+         * written flows and none of the deleted flows. The flows to delete are
+         * the ones of the node, as they are needed to remove them. The deleted
+         * flows are forgotten, they are either deleted again or gone already.
+         */
+        synchronized void diff(Map<TableFlowKey, Flow> nodeFlows, Set<FlowDetails> flowsToWrite,
+                               Set<FlowDetails> flowsToDelete) {
+            writtenFlows.forEach((key, flow) -> {
+                if (!nodeFlows.containsKey(key)) {
+                    flowsToWrite.add(flow);
+                }
+            });
+            deletedFlows.forEach(key -> {
+                Flow nodeFlow = nodeFlows.get(key);
+                if (nodeFlow != null) {
+                    flowsToDelete.add(new FlowDetails(sffNodeName, new FlowKey(key.flowId), new TableKey(key.tableId),
+                            nodeFlow, null));
+                }
+            });
+            deletedFlows.clear();
+        }
+    }
 }
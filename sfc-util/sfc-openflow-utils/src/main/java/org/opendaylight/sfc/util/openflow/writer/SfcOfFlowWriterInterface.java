@@ -28,7 +28,7 @@ import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.NodeId;
  * @since 2015-11-25
  */
 
-public interface SfcOfFlowWriterInterface {
+public interface SfcOfFlowWriterInterface extends SfcOfFlowCollector {
 
     void injectTransaction(WriteTransaction theTx);
 
@@ -39,6 +39,7 @@ public interface SfcOfFlowWriterInterface {
     void deregisterTransactionListener(Object interestedParty);
 
     // Write flows to MD-SAL datastore
+    @Override
     void writeFlow(Long rspId, String sffNodeName, FlowBuilder flow);
 
     void writeFlow(FlowDetails theFlowData);
@@ -53,6 +54,7 @@ public interface SfcOfFlowWriterInterface {
     boolean removeFlows(Collection<FlowDetails> theFlows);
 
     // Write group to MD-SAL datastore
+    @Override
     void writeGroupToDataStore(String sffNodeName, GroupBuilder gb, boolean isAdd);
 
     /**
@@ -7,15 +7,24 @@
  */
 package org.opendaylight.sfc.sfclisp.provider;
 
-import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 import org.opendaylight.lispflowmapping.lisp.util.LispAddressUtil;
 import org.opendaylight.lispflowmapping.lisp.util.SourceDestKeyHelper;
 import org.opendaylight.sfc.provider.api.SfcProviderServiceForwarderAPI;
-import org.opendaylight.sfc.sfclisp.provider.api.SfcLispFlowMappingApi;
+import org.opendaylight.sfc.sfclisp.provider.api.SfcLispMappingClient;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.RspName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfDataPlaneLocatorName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SffDataPlaneLocatorName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SffName;
@@ -41,9 +50,6 @@ import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.cont
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.access.list.entries.Ace;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.access.list.entries.ace.Matches;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.access.list.entries.ace.matches.ace.type.AceIp;
-import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.access.list.entries.ace.matches.ace.type.ace.ip.AceIpVersion;
-import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.access.list.entries.ace.matches.ace.type.ace.ip.ace.ip.version.AceIpv4;
-import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.access.list.entries.ace.matches.ace.type.ace.ip.ace.ip.version.AceIpv6;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.IpAddress;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.lisp.address.types.rev151105.lisp.address.Address;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.lisp.address.types.rev151105.lisp.address.address.ApplicationData;
@@ -62,51 +68,98 @@ public class LispUpdater implements ILispUpdater, AutoCloseable {
 
     private static final Logger LOG = LoggerFactory.getLogger(LispUpdater.class);
 
+    // maximum number of mapping records of a RSP in flight at once
+    private static final int MAX_MAPPINGS_IN_FLIGHT = 64;
+
     private final ExecutorService executor = SpecialExecutors.newBlockingBoundedCachedThreadPool(
             5, 1000, "LispUpdater", LispUpdater.class);
-    private final OdlMappingserviceService lfmService;
+    private final SfcLispMappingClient mappingClient;
+    // the SFF locators the ACE mappings of each RSP were last registered
+    // with, by RSP name
+    private final Map<RspName, List<IpAddress>> registeredHopLocators = new ConcurrentHashMap<>();
 
     public LispUpdater(OdlMappingserviceService lfmService) {
-        this.lfmService = lfmService;
+        this.mappingClient = new SfcLispMappingClient(lfmService, executor);
     }
 
     public ServiceFunctionForwarder updateLispData(ServiceFunctionForwarder serviceFunctionForwarder) {
+        return waitFor(updateLispDataAsync(serviceFunctionForwarder), serviceFunctionForwarder);
+    }
+
+    /**
+     * Add to a SFF the IP locator its LISP locator is mapped to, without
+     * waiting for the mapping lookup.
+     *
+     * @param serviceFunctionForwarder
+     *            the SFF
+     * @return the future updated SFF, the given SFF if it has no LISP locator
+     *         or the mapping is not found
+     */
+    public ListenableFuture<ServiceFunctionForwarder> updateLispDataAsync(
+            ServiceFunctionForwarder serviceFunctionForwarder) {
         List<SffDataPlaneLocator> locations = serviceFunctionForwarder.getSffDataPlaneLocator();
 
         if (locations == null) {
-            return serviceFunctionForwarder;
+            return Futures.immediateFuture(serviceFunctionForwarder);
         }
 
         Lisp lispLocation = getLispLocationFromSff(locations);
         if (lispLocation != null) {
-            return updateLispData(lispLocation, serviceFunctionForwarder);
+            return Futures.transform(getMapping(lispLocation),
+                reply -> updateLispData(lispLocation, serviceFunctionForwarder, reply),
+                MoreExecutors.directExecutor());
         } else {
-            return serviceFunctionForwarder;
+            return Futures.immediateFuture(serviceFunctionForwarder);
         }
     }
 
     public ServiceFunction updateLispData(ServiceFunction serviceFunction) {
+        return waitFor(updateLispDataAsync(serviceFunction), serviceFunction);
+    }
+
+    /**
+     * Add to a SF the IP locator its LISP locator is mapped to, without
+     * waiting for the mapping lookup.
+     *
+     * @param serviceFunction
+     *            the SF
+     * @return the future updated SF, the given SF if it has no LISP locator
+     *         or the mapping is not found
+     */
+    public ListenableFuture<ServiceFunction> updateLispDataAsync(ServiceFunction serviceFunction) {
         List<SfDataPlaneLocator> locations = serviceFunction.getSfDataPlaneLocator();
 
         if (locations == null) {
-            return serviceFunction;
+            return Futures.immediateFuture(serviceFunction);
         }
 
         Lisp lispLocation = getLispLocationFromSf(locations);
         if (lispLocation != null) {
-            return updateLispData(lispLocation, serviceFunction);
+            return Futures.transform(getMapping(lispLocation),
+                reply -> updateLispData(lispLocation, serviceFunction, reply), MoreExecutors.directExecutor());
         } else {
-            return serviceFunction;
+            return Futures.immediateFuture(serviceFunction);
         }
     }
 
-    private
-            ServiceFunctionForwarder
-                updateLispData(Lisp lispLocation, ServiceFunctionForwarder serviceFunctionForwarder) {
-        Object[] methodParameters = { LispAddressUtil.toIpPrefixEid(lispLocation.getEid(), 0) };
-        MappingRecord reply = (MappingRecord) SfcLispUtil.submitCallable(
-                new SfcLispFlowMappingApi(lfmService, SfcLispFlowMappingApi.Method.GET_MAPPING, methodParameters),
-                executor);
+    private ListenableFuture<MappingRecord> getMapping(Lisp lispLocation) {
+        return mappingClient.getMapping(LispAddressUtil.toIpPrefixEid(lispLocation.getEid(), 0));
+    }
+
+    private static <T> T waitFor(ListenableFuture<T> future, T fallback) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            LOG.warn("Interrupted while waiting for the LISP mapping service");
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            LOG.warn("LISP mapping service call failed: ", e);
+        }
+        return fallback;
+    }
+
+    private ServiceFunctionForwarder updateLispData(Lisp lispLocation,
+            ServiceFunctionForwarder serviceFunctionForwarder, MappingRecord reply) {
         if (reply == null) {
             return serviceFunctionForwarder;
         }
@@ -130,11 +183,8 @@ public class LispUpdater implements ILispUpdater, AutoCloseable {
         return serviceFunctionForwarder;
     }
 
-    private ServiceFunction updateLispData(Lisp lispLocation, ServiceFunction serviceFunction) {
-        Object[] methodParameters = { LispAddressUtil.toIpPrefixEid(lispLocation.getEid(), 0) };
-        MappingRecord reply = (MappingRecord) SfcLispUtil.submitCallable(
-                new SfcLispFlowMappingApi(lfmService, SfcLispFlowMappingApi.Method.GET_MAPPING, methodParameters),
-                executor);
+    private ServiceFunction updateLispData(Lisp lispLocation, ServiceFunction serviceFunction,
+            MappingRecord reply) {
         if (reply == null) {
             return serviceFunction;
         }
@@ -227,11 +277,7 @@ public class LispUpdater implements ILispUpdater, AutoCloseable {
         return false;
     }
 
-    private IpAddress findLastHop(Eid prefix) {
-        Object[] methodParameters = { prefix };
-        MappingRecord reply = (MappingRecord) SfcLispUtil.submitCallable(
-                new SfcLispFlowMappingApi(lfmService, SfcLispFlowMappingApi.Method.GET_MAPPING, methodParameters),
-                executor);
+    private IpAddress findLastHop(MappingRecord reply) {
         if (reply == null) {
             return null;
         }
@@ -251,55 +297,38 @@ public class LispUpdater implements ILispUpdater, AutoCloseable {
         return null;
     }
 
-    private void buildAndRegisterTeMapping(Eid eid, List<IpAddress> hopList) {
-        Rloc locatorPath = LispAddressUtil.asTeLcafRloc(hopList);
-        List<Rloc> locators = Collections.singletonList(locatorPath);
-        Object[] methodParameters = { eid, locators };
-        SfcLispUtil.submitCallable(
-                new SfcLispFlowMappingApi(lfmService, SfcLispFlowMappingApi.Method.ADD_MAPPING, methodParameters),
-                executor);
-    }
-
-    private Eid getSrcDstFromAce(AceIp ipMatch) {
-        AceIpVersion ipMatchVersion = ipMatch.getAceIpVersion();
-        String[] srcPrefixParts = null;
-        String[] dstPrefixParts = null;
-
-        if (ipMatchVersion instanceof AceIpv4) {
-            AceIpv4 ipMatch4 = (AceIpv4) ipMatchVersion;
-            srcPrefixParts = ipMatch4.getSourceIpv4Network().getValue().split("/");
-            dstPrefixParts = ipMatch4.getDestinationIpv4Network().getValue().split("/");
-        } else if (ipMatchVersion instanceof AceIpv6) {
-            AceIpv6 ipMatch6 = (AceIpv6) ipMatchVersion;
-            srcPrefixParts = ipMatch6.getSourceIpv6Network().getValue().split("/");
-            dstPrefixParts = ipMatch6.getDestinationIpv6Network().getValue().split("/");
-        }
-
-        if (srcPrefixParts != null && srcPrefixParts.length == 2 && dstPrefixParts != null
-                && dstPrefixParts.length == 2) {
-            return LispAddressUtil.asSrcDstEid(srcPrefixParts[0], dstPrefixParts[0],
-                    Integer.parseInt(srcPrefixParts[1]), Integer.parseInt(dstPrefixParts[1]), 0);
-        } else {
-            LOG.debug("Couldn't parse src/dst prefixes for ACE: {}", ipMatch);
-            return null;
-        }
+    private static List<Rloc> asElpLocators(List<IpAddress> hopList) {
+        return Collections.singletonList(LispAddressUtil.asTeLcafRloc(hopList));
     }
 
     @Deprecated
     public void registerPathOld(RenderedServicePath rsp) {
-        // build locator paths from rsp hops and the locators of each src/dst
-        // pair of the associated
-        // acl's aces
+        SfcLispRegistrationPlan plan = new SfcLispRegistrationPlan("register " + rsp.getName());
+        List<IpAddress> hopLocators = getHopLocatorsOld(rsp);
+        boolean planned = hopLocators != null && planAceMappingsOld(plan, rsp, hopLocators, srcDst -> true);
+        recordHopLocators(rsp.getName(), submit(plan) && planned ? hopLocators : null);
+    }
+
+    /**
+     * Get the locators of the SFFs of the hops of a RSP, the explicit locator
+     * path of each ACE of its ACL starts with.
+     *
+     * @param rsp
+     *            the RSP
+     * @return the SFF locators, null if one could not be found
+     */
+    private List<IpAddress> getHopLocatorsOld(RenderedServicePath rsp) {
         List<IpAddress> hopIpList = new ArrayList<>();
         List<RenderedServicePathHop> hops = rsp.getRenderedServicePathHop();
+        Map<SffName, ServiceFunctionForwarder> sffs = readHopForwarders(hops);
         for (RenderedServicePathHop hop : hops) {
             SffDataPlaneLocatorName locatorName = hop.getServiceFunctionForwarderLocator();
             SffName sffName = hop.getServiceFunctionForwarder();
             LOG.debug("Looking up SFF {}", sffName);
-            ServiceFunctionForwarder sff = SfcProviderServiceForwarderAPI.readServiceFunctionForwarder(sffName);
+            ServiceFunctionForwarder sff = sffs.get(sffName);
             if (sff == null) {
                 LOG.warn("Couldn't find SFF {} in datastore", sffName);
-                return;
+                return null;
             }
 
             List<SffDataPlaneLocator> locators = sff.getSffDataPlaneLocator();
@@ -324,101 +353,154 @@ public class LispUpdater implements ILispUpdater, AutoCloseable {
             }
             if (!found) {
                 LOG.debug("Couldn't find locator for SFF {}. Aborting!", sff);
-                return;
+                return null;
             }
         }
+        return hopIpList;
+    }
+
+    /**
+     * Add to a plan the mappings of the ACEs of the ACL of a RSP.
+     *
+     * @param plan
+     *            the registration plan
+     * @param rsp
+     *            the RSP
+     * @param hopLocators
+     *            the SFF locators of the hops of the RSP
+     * @param toRegister
+     *            tells the src/dst EIDs of the ACEs whose mapping is added
+     * @return false if the mappings of some ACEs could not be built
+     */
+    private boolean planAceMappingsOld(SfcLispRegistrationPlan plan, RenderedServicePath rsp,
+            List<IpAddress> hopLocators, Predicate<Eid> toRegister) {
+        // build locator paths from rsp hops and the locators of each src/dst
+        // pair of the associated
+        // acl's aces
+        List<IpAddress> hopIpList = new ArrayList<>(hopLocators);
 
         // get rsp's acl
         Acl acl = SfcLispUtil.getServiceFunctionAcl(rsp.getParentServiceFunctionPath());
         if (acl == null) {
             LOG.debug("ACL for RSP is null, can't register TE path with LISP!");
-            return;
+            return false;
         }
 
         AccessListEntries accessListEntries = acl.getAccessListEntries();
         if (accessListEntries == null) {
             LOG.debug("AccessListEntries for RSP is null, can't register TE path with LISP!");
-            return;
+            return false;
         }
 
         List<Ace> acesList = accessListEntries.getAce();
 
-        // for each of acl's aces get src/dst ips ...
+        // for each of acl's aces get src/dst ips and look up the locators of
+        // the dst eids all at once ...
+        List<Eid> srcDstList = new ArrayList<>();
+        List<ListenableFuture<MappingRecord>> dstMappings = new ArrayList<>();
         for (Ace aces : acesList) {
             Matches matches = aces.getMatches();
             if (matches.getAceType() instanceof AceIp) {
                 AceIp ipMatch = (AceIp) matches.getAceType();
-                Eid srcDst = getSrcDstFromAce(ipMatch);
+                Eid srcDst = SfcLispUtil.getSrcDstFromAce(ipMatch);
 
                 if (srcDst == null) {
                     LOG.debug("Couldn't parse src/dst prefixes for ACE: {}", ipMatch);
-                    return;
+                    break;
                 }
+                srcDstList.add(srcDst);
+                dstMappings.add(mappingClient.getMapping(SourceDestKeyHelper.getDst(srcDst)));
+            }
+        }
 
-                // ... find locator of dst eid ...
-                Eid dstPrefix = SourceDestKeyHelper.getDst(srcDst);
-                IpAddress lastHop = findLastHop(dstPrefix);
-                if (lastHop == null) {
-                    LOG.debug("Couldn't find locator for src/dst eid: {}", srcDst);
-                    return;
-                }
+        for (int i = 0; i < srcDstList.size(); i++) {
+            // ... find locator of dst eid ...
+            Eid srcDst = srcDstList.get(i);
+            IpAddress lastHop = findLastHop(waitFor(dstMappings.get(i), null));
+            if (lastHop == null) {
+                LOG.debug("Couldn't find locator for src/dst eid: {}", srcDst);
+                return false;
+            }
 
-                LOG.debug("Found last hop {}", lastHop);
-                if (isIpInList(hopIpList, lastHop)) {
-                    if (hopIpList.get(hopIpList.size() - 1).equals(lastHop)) {
-                        LOG.debug("Last hop is already on the last position in the list of hops!");
-                    } else {
-                        LOG.debug("Last hop is already in the list of hops, but not last. Not supported!");
-                        return;
-                    }
+            LOG.debug("Found last hop {}", lastHop);
+            if (isIpInList(hopIpList, lastHop)) {
+                if (hopIpList.get(hopIpList.size() - 1).equals(lastHop)) {
+                    LOG.debug("Last hop is already on the last position in the list of hops!");
                 } else {
-                    hopIpList.add(lastHop);
+                    LOG.debug("Last hop is already in the list of hops, but not last. Not supported!");
+                    return false;
                 }
-                // ... build a TE LCAF with the just found locator as last hop
-                // and register it with lfm.
-                // NOTE: We contemplate only the case when dst has an associated
-                // mapping in lfm's db, as the
-                // insertion of a new src/dst mapping does not affect it. If
-                // however, a src/dst mapping does
-                // exist, we overwrite it lower, thus this might require fixing.
-                // XXX
-                buildAndRegisterTeMapping(srcDst, hopIpList);
+            } else {
+                hopIpList.add(lastHop);
+            }
+            // ... build a TE LCAF with the just found locator as last hop
+            // and register it with lfm.
+            // NOTE: We contemplate only the case when dst has an associated
+            // mapping in lfm's db, as the
+            // insertion of a new src/dst mapping does not affect it. If
+            // however, a src/dst mapping does
+            // exist, we overwrite it lower, thus this might require fixing.
+            // XXX
+            if (toRegister.test(srcDst)) {
+                plan.addMapping(srcDst, asElpLocators(hopIpList));
             }
         }
+        return true;
     }
 
-    private void registerMapping(Eid eid, Rloc rloc) {
-        List<Rloc> locators = Collections.singletonList(rloc);
-        Object[] methodParameters = { eid, locators };
-        SfcLispUtil.submitCallable(
-                new SfcLispFlowMappingApi(lfmService, SfcLispFlowMappingApi.Method.ADD_MAPPING, methodParameters),
-                executor);
+    /**
+     * Record the SFF locators the ACE mappings of a RSP were registered with.
+     *
+     * @param rspName
+     *            the RSP name
+     * @param hopLocators
+     *            the SFF locators, null if the mappings may not all be
+     *            registered
+     */
+    private void recordHopLocators(RspName rspName, List<IpAddress> hopLocators) {
+        if (hopLocators == null) {
+            registeredHopLocators.remove(rspName);
+        } else {
+            registeredHopLocators.put(rspName, hopLocators);
+        }
     }
 
-    private void registerElpMapping(Eid eid, List<IpAddress> hopList) {
-        Rloc locatorPath = LispAddressUtil.asTeLcafRloc(hopList);
-        registerMapping(eid, locatorPath);
+    public void registerPath(RenderedServicePath rsp) {
+        SfcLispRegistrationPlan plan = new SfcLispRegistrationPlan("register " + rsp.getName());
+        if (planPath(plan, rsp)) {
+            submit(plan);
+        }
     }
 
-    public void registerPath(RenderedServicePath rsp) {
+    /**
+     * Add to a plan the mappings of a RSP.
+     *
+     * @param plan
+     *            the registration plan
+     * @param rsp
+     *            the RSP
+     * @return false if the mappings of the RSP could not be built
+     */
+    private boolean planPath(SfcLispRegistrationPlan plan, RenderedServicePath rsp) {
         // build locator paths from rsp hops and the locators of each src/dst
         // pair of the associated
         // acl's aces
         List<IpAddress> hopIpList = new ArrayList<>();
         List<RenderedServicePathHop> hops = rsp.getRenderedServicePathHop();
+        Map<SffName, ServiceFunctionForwarder> sffs = readHopForwarders(hops);
         for (RenderedServicePathHop hop : hops) {
             SffDataPlaneLocatorName locatorName = hop.getServiceFunctionForwarderLocator();
             SffName sffName = hop.getServiceFunctionForwarder();
-            ServiceFunctionForwarder sff = SfcProviderServiceForwarderAPI.readServiceFunctionForwarder(sffName);
+            ServiceFunctionForwarder sff = sffs.get(sffName);
             if (sff == null) {
                 LOG.warn("Couldn't find SFF {} that supports hop {} in datastore", sffName, hop.getHopNumber());
-                return;
+                return false;
             }
 
             List<SffDataPlaneLocator> locators = sff.getSffDataPlaneLocator();
             if (locators == null) {
                 LOG.debug("SFF {} has no locators. Aborting!", sff);
-                return;
+                return false;
             }
 
             boolean found = false;
@@ -441,14 +523,11 @@ public class LispUpdater implements ILispUpdater, AutoCloseable {
             }
             if (!found) {
                 LOG.debug("Couldn't find locator for SFF {}. Aborting!", sff);
-                return;
+                return false;
             }
         }
 
-        // TODO fix VNI. The RSP's tenant ID is a string (UUID?) we need a long
-        Eid spEid = LispAddressUtil.asServicePathEid(0, rsp.getPathId(),
-                                                     LispAddressUtil.STARTING_SERVICE_INDEX);
-        registerElpMapping(spEid, hopIpList);
+        plan.addMapping(getServicePathEid(rsp), asElpLocators(hopIpList));
 
         // TODO for each ACE in the RSP's ACL we should insert a SourceDest
         // mapping pointing at the ServicePath LCAF.
@@ -458,20 +537,48 @@ public class LispUpdater implements ILispUpdater, AutoCloseable {
         // an ELP as a locator BUT at this time
         // the hops can only be SimpleAddresses. The ServicePath LCAF is not
         // one.
+        return true;
     }
 
-    private void removeMapping(Eid eid) {
-        Object[] methodParameters = { eid };
-        SfcLispUtil.submitCallable(
-                new SfcLispFlowMappingApi(lfmService, SfcLispFlowMappingApi.Method.DELETE_MAPPING, methodParameters),
-                executor);
+    private static Eid getServicePathEid(RenderedServicePath rsp) {
+        // TODO fix VNI. The RSP's tenant ID is a string (UUID?) we need a long
+        return LispAddressUtil.asServicePathEid(0, rsp.getPathId(), LispAddressUtil.STARTING_SERVICE_INDEX);
+    }
+
+    /**
+     * Read the SFFs of the hops of a RSP in a single transaction, as a SFF
+     * may support many hops.
+     */
+    private static Map<SffName, ServiceFunctionForwarder> readHopForwarders(List<RenderedServicePathHop> hops) {
+        return SfcProviderServiceForwarderAPI.readServiceFunctionForwarders(
+                hops.stream().map(RenderedServicePathHop::getServiceFunctionForwarder).collect(Collectors.toList()));
+    }
+
+    /**
+     * Submit a registration plan.
+     *
+     * @param plan
+     *            the registration plan
+     * @return false if some mapping additions or removals failed
+     */
+    private boolean submit(SfcLispRegistrationPlan plan) {
+        if (plan.isEmpty()) {
+            return true;
+        }
+        SfcLispRegistrationPlan.Result result = plan.submit(mappingClient, MAX_MAPPINGS_IN_FLIGHT);
+        if (!result.isSuccessful()) {
+            LOG.warn("Plan {}: {}, failed EIDs: {}", plan.getName(), result, result.getFailed());
+        }
+        return result.isSuccessful();
     }
 
     @Deprecated
     public void deletePathOld(RenderedServicePath rsp) {
+        registeredHopLocators.remove(rsp.getName());
         // get rsp's acl
         Acl acl = SfcLispUtil.getServiceFunctionAcl(rsp.getParentServiceFunctionPath());
         if (acl != null) {
+            SfcLispRegistrationPlan plan = new SfcLispRegistrationPlan("delete " + rsp.getName());
             List<Ace> acesList = acl.getAccessListEntries().getAce();
 
             // for each of acl's aces get src/dst ips ...
@@ -479,91 +586,67 @@ public class LispUpdater implements ILispUpdater, AutoCloseable {
                 Matches matches = aces.getMatches();
                 if (matches.getAceType() instanceof AceIp) {
                     AceIp ipMatch = (AceIp) matches.getAceType();
-                    Eid srcDst = getSrcDstFromAce(ipMatch);
-                    removeMapping(srcDst);
+                    Eid srcDst = SfcLispUtil.getSrcDstFromAce(ipMatch);
+                    if (srcDst != null) {
+                        plan.removeMapping(srcDst);
+                    }
                 }
             }
+            submit(plan);
         }
     }
 
     public void deletePath(RenderedServicePath rsp) {
         // remove ServicePath mapping
-        Eid spEid = LispAddressUtil.asServicePathEid(0, rsp.getPathId(),
-                                                     LispAddressUtil.STARTING_SERVICE_INDEX);
-        removeMapping(spEid);
-    }
-
-    // "Possible null pointer dereference of acl1 on branch that might be infeasible" - false positive - ignore it.
-    @SuppressFBWarnings("NP_NULL_ON_SOME_PATH_MIGHT_BE_INFEASIBLE")
-    private boolean shallowCompareAcls(Acl acl1, Acl acl2) {
-        if (acl1 != null && acl2 == null) {
-            return false;
-        } else if (acl1 == null && acl2 != null) {
-            return false;
-        } else if (acl1 == null && acl2 == null) {
-            return true;
-        }
-
-        if (!acl1.getAclName().equals(acl2.getAclName())) {
-            return false;
-        }
-        List<Ace> aces1 = acl1.getAccessListEntries().getAce();
-        List<Ace> aces2 = acl2.getAccessListEntries().getAce();
-        if (aces1.size() != aces2.size()) {
-            return false;
-        }
-
-        for (Ace it1 : aces1) {
-            Matches matches1 = it1.getMatches();
-            if (!(matches1.getAceType() instanceof AceIp)) {
-                continue;
-            }
-            AceIp ipMatch1 = (AceIp) matches1.getAceType();
-            Eid sd1 = getSrcDstFromAce(ipMatch1);
-
-            boolean found = false;
-            for (Ace it2 : aces2) {
-                if (it1.getRuleName().equals(it2.getRuleName())) {
-                    found = true;
-                    Matches matches2 = it2.getMatches();
-                    if (!(matches2.getAceType() instanceof AceIp)) {
-                        continue;
-                    }
-                    AceIp ipMatch2 = (AceIp) matches2.getAceType();
-                    Eid sd2 = getSrcDstFromAce(ipMatch2);
-                    if (!sd1.equals(sd2)) {
-                        return false;
-                    }
-                }
-            }
-
-            if (!found) {
-                return false;
-            }
-        }
-        return true;
+        SfcLispRegistrationPlan plan = new SfcLispRegistrationPlan("delete " + rsp.getName());
+        plan.removeMapping(getServicePathEid(rsp));
+        submit(plan);
     }
 
     @Deprecated
     public void updatePathOld(RenderedServicePath newRsp, RenderedServicePath oldRsp) {
         Acl newAcl = SfcLispUtil.getServiceFunctionAcl(newRsp.getParentServiceFunctionPath());
         Acl oldAcl = SfcLispUtil.getServiceFunctionAcl(oldRsp.getParentServiceFunctionPath());
-        if (shallowCompareAcls(newAcl, oldAcl)) {
-            // overwrite
-            registerPath(newRsp);
-        } else {
-            deletePath(oldRsp);
-            registerPath(newRsp);
+        SfcLispAclDiff aclDiff = SfcLispAclDiff.diff(oldAcl, newAcl);
+        LOG.debug("RSP {} ACL update: {}", newRsp.getName(), aclDiff);
+
+        SfcLispRegistrationPlan plan = new SfcLispRegistrationPlan("update " + newRsp.getName());
+        // withdraw the mappings of the removed or changed aces only
+        aclDiff.getRemoved().forEach(plan::removeMapping);
+        if (!aclDiff.isShallowEqual()) {
+            plan.removeMapping(getServicePathEid(oldRsp));
         }
+        // overwrite
+        planPath(plan, newRsp);
+
+        // the mappings of the kept aces are left as they are as long as the
+        // hop locators their explicit locator paths start with did not
+        // change, else all of them are registered again
+        List<IpAddress> oldHopLocators = registeredHopLocators.remove(oldRsp.getName());
+        List<IpAddress> hopLocators = getHopLocatorsOld(newRsp);
+        boolean planned = false;
+        if (hopLocators != null) {
+            Set<Eid> added = aclDiff.getAdded();
+            Predicate<Eid> toRegister = hopLocators.equals(oldHopLocators) ? added::contains : srcDst -> true;
+            planned = planAceMappingsOld(plan, newRsp, hopLocators, toRegister);
+        }
+        recordHopLocators(newRsp.getName(), submit(plan) && planned ? hopLocators : null);
     }
 
     public void updatePath(RenderedServicePath newRsp, RenderedServicePath oldRsp) {
-        // overwrite
-        registerPath(newRsp);
+        // the service path mapping does not depend on the ACL, so no ACL diff
+        // is needed: overwrite, removing the old mapping should the path id
+        // have changed
+        SfcLispRegistrationPlan plan = new SfcLispRegistrationPlan("update " + newRsp.getName());
+        if (planPath(plan, newRsp)) {
+            plan.removeMapping(getServicePathEid(oldRsp));
+            submit(plan);
+        }
     }
 
     @Override
     public void close() {
+        LOG.info("{}", mappingClient);
         executor.shutdown();
     }
 }
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.sfclisp.provider;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.Acl;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.AccessListEntries;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.access.list.entries.Ace;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.access.list.entries.ace.Matches;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.access.list.entries.ace.matches.ace.type.AceIp;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.lfm.lisp.proto.rev151105.eid.container.Eid;
+
+/**
+ * The differences between two versions of the ACL of a RSP, as far as the
+ * LISP mappings are concerned.
+ *
+ * <p>
+ * The fingerprint of an IP ACE is the src/dst EID of the prefixes it
+ * matches, which is also the EID of its mapping, so it does not depend on
+ * the position of the ACE in the ACL. The ACEs added and removed are found by
+ * diffing the sets of fingerprints of the two ACLs, and the ACLs are compared
+ * by looking up the fingerprints by rule name, in linear time rather than by
+ * comparing each pair of ACEs. A changed ACE matches other prefixes, so it
+ * shows up as both removed and added.
+ */
+public final class SfcLispAclDiff {
+
+    private final boolean shallowEqual;
+    private final Set<Eid> added;
+    private final Set<Eid> removed;
+
+    private SfcLispAclDiff(boolean shallowEqual, Set<Eid> added, Set<Eid> removed) {
+        this.shallowEqual = shallowEqual;
+        this.added = Collections.unmodifiableSet(added);
+        this.removed = Collections.unmodifiableSet(removed);
+    }
+
+    /**
+     * Diff two versions of an ACL.
+     *
+     * @param oldAcl
+     *            the old ACL, may be null
+     * @param newAcl
+     *            the new ACL, may be null
+     * @return the differences between the ACLs
+     */
+    public static SfcLispAclDiff diff(Acl oldAcl, Acl newAcl) {
+        Set<Eid> oldSrcDsts = getSrcDsts(oldAcl);
+        Set<Eid> newSrcDsts = getSrcDsts(newAcl);
+
+        Set<Eid> added = new LinkedHashSet<>(newSrcDsts);
+        added.removeAll(oldSrcDsts);
+        Set<Eid> removed = new LinkedHashSet<>(oldSrcDsts);
+        removed.removeAll(newSrcDsts);
+        return new SfcLispAclDiff(shallowCompareAcls(newAcl, oldAcl), added, removed);
+    }
+
+    /**
+     * Whether the ACLs have the same name, the same number of ACEs, and each
+     * IP ACE of the first ACL has a namesake in the second one matching the
+     * same prefixes, if any of the namesakes is an IP ACE.
+     *
+     * @param acl1
+     *            an ACL, may be null
+     * @param acl2
+     *            another ACL, may be null
+     * @return true if the ACLs are equal as far as the LISP mappings are
+     *         concerned
+     */
+    public static boolean shallowCompareAcls(Acl acl1, Acl acl2) {
+        if (acl1 == null || acl2 == null) {
+            return acl1 == acl2;
+        }
+
+        if (!acl1.getAclName().equals(acl2.getAclName())) {
+            return false;
+        }
+        List<Ace> aces1 = acl1.getAccessListEntries().getAce();
+        List<Ace> aces2 = acl2.getAccessListEntries().getAce();
+        if (aces1.size() != aces2.size()) {
+            return false;
+        }
+
+        // the fingerprints of the IP ACEs of the second ACL, by rule name
+        Map<String, Set<Eid>> srcDsts2 = new HashMap<>();
+        for (Ace it2 : aces2) {
+            Set<Eid> ruleSrcDsts = srcDsts2.computeIfAbsent(it2.getRuleName(), ruleName -> new HashSet<>());
+            AceIp ipMatch2 = getAceIp(it2);
+            if (ipMatch2 != null) {
+                ruleSrcDsts.add(SfcLispUtil.getSrcDstFromAce(ipMatch2));
+            }
+        }
+
+        for (Ace it1 : aces1) {
+            AceIp ipMatch1 = getAceIp(it1);
+            if (ipMatch1 == null) {
+                continue;
+            }
+            Set<Eid> ruleSrcDsts = srcDsts2.get(it1.getRuleName());
+            if (ruleSrcDsts == null) {
+                return false;
+            }
+            if (ruleSrcDsts.isEmpty()) {
+                // no namesake is an IP ACE
+                continue;
+            }
+            Eid sd1 = SfcLispUtil.getSrcDstFromAce(ipMatch1);
+            if (sd1 == null || ruleSrcDsts.size() != 1 || !ruleSrcDsts.contains(sd1)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static AceIp getAceIp(Ace ace) {
+        Matches matches = ace.getMatches();
+        return matches != null && matches.getAceType() instanceof AceIp ? (AceIp) matches.getAceType() : null;
+    }
+
+    private static Set<Eid> getSrcDsts(Acl acl) {
+        AccessListEntries accessListEntries = acl == null ? null : acl.getAccessListEntries();
+        if (accessListEntries == null || accessListEntries.getAce() == null) {
+            return Collections.emptySet();
+        }
+        Set<Eid> srcDsts = new LinkedHashSet<>();
+        for (Ace ace : accessListEntries.getAce()) {
+            AceIp ipMatch = getAceIp(ace);
+            if (ipMatch != null) {
+                Eid srcDst = SfcLispUtil.getSrcDstFromAce(ipMatch);
+                if (srcDst != null) {
+                    srcDsts.add(srcDst);
+                }
+            }
+        }
+        return srcDsts;
+    }
+
+    public boolean isShallowEqual() {
+        return shallowEqual;
+    }
+
+    /**
+     * Get the src/dst EIDs matched by the new ACL only.
+     *
+     * @return the EIDs of the mappings to register
+     */
+    public Set<Eid> getAdded() {
+        return added;
+    }
+
+    /**
+     * Get the src/dst EIDs matched by the old ACL only.
+     *
+     * @return the EIDs of the mappings to withdraw
+     */
+    public Set<Eid> getRemoved() {
+        return removed;
+    }
+
+    public boolean isEmpty() {
+        return added.isEmpty() && removed.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("shallowEqual=%s added=%d removed=%d", shallowEqual, added.size(), removed.size());
+    }
+}
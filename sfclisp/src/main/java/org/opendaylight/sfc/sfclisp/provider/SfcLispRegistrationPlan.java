@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.sfclisp.provider;
+
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ListenableFuture;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.opendaylight.sfc.sfclisp.provider.api.SfcLispMappingClient;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.lfm.lisp.proto.rev151105.eid.container.Eid;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.lfm.lisp.proto.rev151105.rloc.container.Rloc;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The mapping records to add to and remove from the LISP mapping service for
+ * a RSP operation, so that they are all submitted at once.
+ *
+ * <p>
+ * The records are deduplicated by EID: adding the mapping of an EID twice
+ * keeps the last locators, and removing the mapping of an EID that is also
+ * added is dropped, as adding a mapping overwrites it. The removals are
+ * submitted before the additions, each in batches of at most a given number
+ * of records in flight. A failed record is reported and does not abort the
+ * others.
+ */
+public final class SfcLispRegistrationPlan {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SfcLispRegistrationPlan.class);
+
+    private final String name;
+    private final Map<Eid, List<Rloc>> additions = new LinkedHashMap<>();
+    private final Set<Eid> removals = new LinkedHashSet<>();
+    private int duplicates;
+
+    /**
+     * Create an empty plan.
+     *
+     * @param name
+     *            the plan name, used for logging
+     */
+    public SfcLispRegistrationPlan(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Plan to add the mapping of an EID.
+     *
+     * @param eid
+     *            the EID
+     * @param locators
+     *            the locators of the EID
+     */
+    public void addMapping(Eid eid, List<Rloc> locators) {
+        boolean removed = removals.remove(eid);
+        if (additions.put(eid, locators) != null || removed) {
+            duplicates++;
+        }
+    }
+
+    /**
+     * Plan to remove the mapping of an EID, unless it is also added.
+     *
+     * @param eid
+     *            the EID
+     */
+    public void removeMapping(Eid eid) {
+        if (additions.containsKey(eid) || !removals.add(eid)) {
+            duplicates++;
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int size() {
+        return additions.size() + removals.size();
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Get the number of records dropped as duplicates of another record of
+     * the plan.
+     *
+     * @return the number of duplicated records
+     */
+    public int getDuplicates() {
+        return duplicates;
+    }
+
+    /**
+     * Submit the records of the plan, waiting for all of them to be done.
+     *
+     * @param mappingClient
+     *            the mapping service client
+     * @param maxInFlight
+     *            maximum number of records in flight
+     * @return the outcome of the plan
+     */
+    public Result submit(SfcLispMappingClient mappingClient, int maxInFlight) {
+        long startNanos = System.nanoTime();
+        List<Eid> failed = new ArrayList<>();
+        List<Eid> added = new ArrayList<>(additions.keySet());
+        if (submit(new ArrayList<>(removals), mappingClient::removeMapping, maxInFlight, failed, "remove")) {
+            submit(added, eid -> mappingClient.addMapping(eid, additions.get(eid)), maxInFlight, failed, "add");
+        } else {
+            failed.addAll(added);
+        }
+        Result result = new Result(size(), failed);
+        LOG.debug("Plan {}: {} duplicates dropped, {} in {} us", name, duplicates, result,
+                (System.nanoTime() - startNanos) / 1000);
+        return result;
+    }
+
+    /**
+     * Submit records in batches.
+     *
+     * @return false if interrupted, in which case the records not known to
+     *         be done are added to the failed records
+     */
+    private boolean submit(List<Eid> eids, Function<Eid, ListenableFuture<Boolean>> call, int maxInFlight,
+            List<Eid> failed, String method) {
+        List<List<Eid>> batches = Lists.partition(eids, maxInFlight);
+        for (int b = 0; b < batches.size(); b++) {
+            List<Eid> batch = batches.get(b);
+            List<ListenableFuture<Boolean>> futures = batch.stream().map(call).collect(Collectors.toList());
+            for (int i = 0; i < batch.size(); i++) {
+                Eid eid = batch.get(i);
+                try {
+                    if (!Boolean.TRUE.equals(futures.get(i).get())) {
+                        LOG.warn("Plan {}: failed to {} mapping for EID {}", name, method, eid);
+                        failed.add(eid);
+                    }
+                } catch (InterruptedException e) {
+                    LOG.warn("Plan {}: interrupted, the outcome of the remaining records is unknown", name);
+                    Thread.currentThread().interrupt();
+                    failed.addAll(eids.subList(b * maxInFlight + i, eids.size()));
+                    return false;
+                } catch (ExecutionException e) {
+                    LOG.warn("Plan {}: failed to {} mapping for EID {}", name, method, eid, e);
+                    failed.add(eid);
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The outcome of a submitted plan.
+     */
+    public static final class Result {
+        private final int submitted;
+        private final List<Eid> failed;
+
+        Result(int submitted, List<Eid> failed) {
+            this.submitted = submitted;
+            this.failed = Collections.unmodifiableList(failed);
+        }
+
+        public int getSubmitted() {
+            return submitted;
+        }
+
+        /**
+         * Get the EIDs of the records that failed, or whose outcome is
+         * unknown.
+         *
+         * @return the EIDs of the failed records
+         */
+        public List<Eid> getFailed() {
+            return failed;
+        }
+
+        public boolean isSuccessful() {
+            return failed.isEmpty();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d records submitted, %d failed", submitted, failed.size());
+        }
+    }
+}
@@ -10,10 +10,6 @@ package org.opendaylight.sfc.sfclisp.provider;
 
 import com.google.common.net.InetAddresses;
 import java.util.List;
-import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Future;
 import org.opendaylight.lispflowmapping.lisp.util.LispAddressUtil;
 import org.opendaylight.sfc.provider.api.SfcProviderAclAPI;
 import org.opendaylight.sfc.provider.api.SfcProviderServiceClassifierAPI;
@@ -24,6 +20,10 @@ import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfp.rev1407
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sl.rev140701.data.plane.locator.locator.type.Ip;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sl.rev140701.data.plane.locator.locator.type.IpBuilder;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.Acl;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.access.list.entries.ace.matches.ace.type.AceIp;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.access.list.entries.ace.matches.ace.type.ace.ip.AceIpVersion;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.access.list.entries.ace.matches.ace.type.ace.ip.ace.ip.version.AceIpv4;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.access.list.entries.ace.matches.ace.type.ace.ip.ace.ip.version.AceIpv6;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.IetfInetUtil;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.IpAddress;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.lisp.address.types.rev151105.lisp.address.address.ApplicationData;
@@ -47,21 +47,6 @@ public final class SfcLispUtil {
 
     private static final Logger LOG = LoggerFactory.getLogger(SfcLispUtil.class);
 
-    public static Object submitCallable(Callable<Object> callable, ExecutorService executor) {
-        Future<Object> future;
-        Object result = null;
-
-        future = executor.submit(callable);
-
-        try {
-            result = future.get();
-        } catch (InterruptedException | ExecutionException e) {
-            LOG.warn("{} failed to: ", callable.toString(), e);
-        }
-
-        return result;
-    }
-
     public static Ip createLocator(ApplicationData applicationData) {
         IpAddress ip = IetfInetUtil.INSTANCE.ipAddressFor(
                 InetAddresses.fromInteger(applicationData.getApplicationData().getIpTos()));
@@ -87,6 +72,38 @@ public final class SfcLispUtil {
         return rmib.build();
     }
 
+    /**
+     * Build the src/dst EID of the prefixes matched by an IP ACE.
+     *
+     * @param ipMatch
+     *            the IP ACE match
+     * @return the src/dst EID, or null if the prefixes cannot be parsed
+     */
+    public static Eid getSrcDstFromAce(AceIp ipMatch) {
+        AceIpVersion ipMatchVersion = ipMatch.getAceIpVersion();
+        String[] srcPrefixParts = null;
+        String[] dstPrefixParts = null;
+
+        if (ipMatchVersion instanceof AceIpv4) {
+            AceIpv4 ipMatch4 = (AceIpv4) ipMatchVersion;
+            srcPrefixParts = ipMatch4.getSourceIpv4Network().getValue().split("/");
+            dstPrefixParts = ipMatch4.getDestinationIpv4Network().getValue().split("/");
+        } else if (ipMatchVersion instanceof AceIpv6) {
+            AceIpv6 ipMatch6 = (AceIpv6) ipMatchVersion;
+            srcPrefixParts = ipMatch6.getSourceIpv6Network().getValue().split("/");
+            dstPrefixParts = ipMatch6.getDestinationIpv6Network().getValue().split("/");
+        }
+
+        if (srcPrefixParts != null && srcPrefixParts.length == 2 && dstPrefixParts != null
+                && dstPrefixParts.length == 2) {
+            return LispAddressUtil.asSrcDstEid(srcPrefixParts[0], dstPrefixParts[0],
+                    Integer.parseInt(srcPrefixParts[1]), Integer.parseInt(dstPrefixParts[1]), 0);
+        } else {
+            LOG.debug("Couldn't parse src/dst prefixes for ACE: {}", ipMatch);
+            return null;
+        }
+    }
+
     public static Acl getServiceFunctionAcl(SfpName sfPathName) {
         ServiceFunctionPath serviceFunctionPath = SfcProviderServicePathAPI.readServiceFunctionPath(sfPathName);
         String classifierName = serviceFunctionPath.getClassifier();
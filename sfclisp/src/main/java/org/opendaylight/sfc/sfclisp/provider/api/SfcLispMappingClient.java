@@ -0,0 +1,363 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.sfclisp.provider.api;
+
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.JdkFutureAdapters;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.opendaylight.lispflowmapping.lisp.util.MaskUtil;
+import org.opendaylight.sfc.provider.api.SfcLatencyHistogram;
+import org.opendaylight.sfc.sfclisp.provider.SfcLispUtil;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.lfm.lisp.proto.rev151105.eid.container.Eid;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.lfm.lisp.proto.rev151105.mapping.record.container.MappingRecord;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.lfm.lisp.proto.rev151105.rloc.container.Rloc;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.lfm.mappingservice.rev150906.GetMappingOutput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.lfm.mappingservice.rev150906.OdlMappingserviceService;
+import org.opendaylight.yangtools.yang.common.RpcResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Asynchronous client of the LISP flow mapping service. Every call returns as
+ * soon as the mapping service RPC is invoked, so that the callers can have
+ * many mapping requests in flight and wait for them all at once.
+ *
+ * <p>
+ * The mappings got are kept in a cache bounded both in size and in time: an
+ * entry expires after the cache TTL or after the TTL of its mapping record,
+ * whichever comes first. Concurrent lookups of the same EID are coalesced into
+ * a single RPC. Adding or removing a mapping invalidates the cached mappings
+ * of the EIDs it covers: the EID itself and, for a prefix, the EIDs within
+ * it, whose best match may now be the new mapping. A lookup of a covered EID
+ * answered while the mapping was being added or removed is not kept, since
+ * the map server may have answered with the former mapping. Missing mappings
+ * and failed lookups are not kept either.
+ */
+public class SfcLispMappingClient {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SfcLispMappingClient.class);
+    public static final long DEFAULT_CACHE_TTL_SECONDS = 60;
+    public static final long DEFAULT_CACHE_MAXIMUM_SIZE = 4096;
+
+    private final OdlMappingserviceService lfmService;
+    private final Executor executor;
+    private final long cacheTtlNanos;
+    private final Cache<Eid, CachedMapping> cache;
+    private final ConcurrentMap<Eid, ListenableFuture<MappingRecord>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong coalescedCount = new AtomicLong();
+    private final SfcLatencyHistogram latencyHistogram = new SfcLatencyHistogram("lisp-get-mapping");
+    // guards the cache against lookups completing while it is invalidated
+    private final Object cacheLock = new Object();
+    // guarded by cacheLock: number of mapping additions and removals in flight, by EID
+    private final Map<Eid, Integer> pendingChanges = new HashMap<>();
+
+    /**
+     * Create a client with the default cache TTL and size.
+     *
+     * @param lfmService
+     *            the LISP flow mapping service
+     * @param executor
+     *            executor used to wait for the RPCs that do not return a
+     *            listenable future
+     */
+    public SfcLispMappingClient(OdlMappingserviceService lfmService, Executor executor) {
+        this(lfmService, executor, DEFAULT_CACHE_TTL_SECONDS, TimeUnit.SECONDS, DEFAULT_CACHE_MAXIMUM_SIZE);
+    }
+
+    /**
+     * Create a client.
+     *
+     * @param lfmService
+     *            the LISP flow mapping service
+     * @param executor
+     *            executor used to wait for the RPCs that do not return a
+     *            listenable future
+     * @param cacheTtl
+     *            time a mapping is kept in the cache, 0 disables the cache
+     * @param unit
+     *            the cache TTL unit
+     * @param cacheMaximumSize
+     *            maximum number of mappings kept in the cache
+     */
+    public SfcLispMappingClient(OdlMappingserviceService lfmService, Executor executor, long cacheTtl,
+            TimeUnit unit, long cacheMaximumSize) {
+        this.lfmService = Preconditions.checkNotNull(lfmService);
+        this.executor = Preconditions.checkNotNull(executor);
+        this.cacheTtlNanos = unit.toNanos(cacheTtl);
+        this.cache = cacheTtl > 0 ? CacheBuilder.newBuilder().maximumSize(cacheMaximumSize)
+                .expireAfterWrite(cacheTtl, unit).recordStats().build() : null;
+    }
+
+    /**
+     * Get the mapping of an EID, from the cache if present, or else from an
+     * already in-flight lookup of the same EID, or else from the mapping
+     * service.
+     *
+     * @param eid
+     *            the EID
+     * @return the future mapping record, null if the EID has no mapping or
+     *         the lookup failed
+     */
+    public ListenableFuture<MappingRecord> getMapping(Eid eid) {
+        Preconditions.checkNotNull(eid, "Cannot GET Mapping from LispFlowMapping, Mapping is null.");
+        if (cache == null) {
+            return callGetMapping(eid);
+        }
+
+        CachedMapping cached = cache.getIfPresent(eid);
+        if (cached != null) {
+            if (System.nanoTime() < cached.expiresNanos) {
+                return Futures.immediateFuture(cached.mappingRecord);
+            }
+            cache.invalidate(eid);
+        }
+
+        SettableFuture<MappingRecord> future = SettableFuture.create();
+        ListenableFuture<MappingRecord> inFlightFuture = inFlight.putIfAbsent(eid, future);
+        if (inFlightFuture != null) {
+            coalescedCount.incrementAndGet();
+            return inFlightFuture;
+        }
+
+        ListenableFuture<MappingRecord> reply = callGetMapping(eid);
+        Futures.addCallback(reply, new FutureCallback<MappingRecord>() {
+            @Override
+            public void onSuccess(MappingRecord mappingRecord) {
+                synchronized (cacheLock) {
+                    // an invalidation of the EID since the lookup started has removed it from the in-flight ones
+                    if (inFlight.remove(eid, future) && mappingRecord != null && !isChangePending(eid)) {
+                        cache.put(eid, new CachedMapping(mappingRecord, expiresNanos(mappingRecord)));
+                    }
+                }
+                future.set(mappingRecord);
+            }
+
+            @Override
+            public void onFailure(Throwable throwable) {
+                inFlight.remove(eid, future);
+                future.set(null);
+            }
+        }, MoreExecutors.directExecutor());
+        return future;
+    }
+
+    /**
+     * Add the mapping of an EID.
+     *
+     * @param eid
+     *            the EID
+     * @param locators
+     *            the locators of the EID
+     * @return the future outcome, true if the mapping was added
+     */
+    public ListenableFuture<Boolean> addMapping(Eid eid, List<Rloc> locators) {
+        Preconditions.checkNotNull(eid, "Cannot ADD new Mapping to LISP configuration store, EID is null.");
+        Preconditions.checkNotNull(locators, "Cannot ADD new Mapping to LISP configuration store, Locators is null.");
+
+        LOG.trace("ADD mapping with locators: {}", locators);
+        return updateMapping(eid, "ADD",
+            () -> lfmService.addMapping(SfcLispUtil.buildAddMappingInput(eid, locators)));
+    }
+
+    /**
+     * Remove the mapping of an EID.
+     *
+     * @param eid
+     *            the EID
+     * @return the future outcome, true if the mapping was removed
+     */
+    public ListenableFuture<Boolean> removeMapping(Eid eid) {
+        Preconditions.checkNotNull(eid, "Cannot REMOVE new Mapping to LISP configuration store, EID is null.");
+
+        LOG.trace("REMOVE mapping for EID: {}", eid);
+        return updateMapping(eid, "REMOVE",
+            () -> lfmService.removeMapping(SfcLispUtil.buildRemoveMappingInput(eid, 0)));
+    }
+
+    /**
+     * Change the mapping of an EID. The covered EIDs are invalidated before
+     * the mapping service is called, and again once it has answered, before
+     * the caller learns about the outcome, since the lookups started in
+     * between may have been answered with the former mapping.
+     */
+    @SuppressWarnings("checkstyle:IllegalCatch")
+    private <T> ListenableFuture<Boolean> updateMapping(Eid eid, String method,
+            Supplier<Future<RpcResult<T>>> rpc) {
+        synchronized (cacheLock) {
+            pendingChanges.merge(eid, 1, Integer::sum);
+            invalidate(eid);
+        }
+        ListenableFuture<Boolean> updated;
+        try {
+            updated = callUpdateMapping(eid, method, rpc.get());
+        } catch (RuntimeException e) {
+            changeDone(eid);
+            throw e;
+        }
+        return Futures.transform(updated, result -> {
+            changeDone(eid);
+            return result;
+        }, MoreExecutors.directExecutor());
+    }
+
+    private void changeDone(Eid eid) {
+        synchronized (cacheLock) {
+            pendingChanges.computeIfPresent(eid, (key, count) -> count > 1 ? count - 1 : null);
+            invalidate(eid);
+        }
+    }
+
+    // must be called holding the cache lock
+    private boolean isChangePending(Eid eid) {
+        return pendingChanges.keySet().stream().anyMatch(changed -> covers(changed, eid));
+    }
+
+    /**
+     * Invalidate the cached mappings that may be affected by a change of the
+     * mapping of an EID: the mapping of the EID itself and, if the EID is a
+     * prefix, the mappings of the EIDs within the prefix.
+     *
+     * @param eid
+     *            the EID whose mapping changes
+     */
+    public void invalidate(Eid eid) {
+        synchronized (cacheLock) {
+            if (cache != null) {
+                cache.asMap().keySet().removeIf(cached -> covers(eid, cached));
+            }
+            // later lookups must not join a lookup started before the change
+            inFlight.keySet().removeIf(pending -> covers(eid, pending));
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (cacheLock) {
+            if (cache != null) {
+                cache.invalidateAll();
+            }
+            inFlight.clear();
+        }
+    }
+
+    /**
+     * Check whether an EID is, or is a prefix covering, another EID of the
+     * same address type and virtual network.
+     *
+     * @param prefix
+     *            the possibly covering EID
+     * @param eid
+     *            the possibly covered EID
+     * @return true if the mapping of prefix may be the best match of eid
+     */
+    static boolean covers(Eid prefix, Eid eid) {
+        if (prefix.equals(eid)) {
+            return true;
+        }
+        if (!MaskUtil.isMaskable(prefix.getAddress()) || !MaskUtil.isMaskable(eid.getAddress())
+                || !Objects.equals(prefix.getAddressType(), eid.getAddressType())
+                || !Objects.equals(prefix.getVirtualNetworkId(), eid.getVirtualNetworkId())) {
+            return false;
+        }
+        short mask = MaskUtil.getMaskForAddress(prefix.getAddress());
+        return mask <= MaskUtil.getMaskForAddress(eid.getAddress())
+                && MaskUtil.normalize(prefix, mask).equals(MaskUtil.normalize(eid, mask));
+    }
+
+    public long size() {
+        return cache == null ? 0 : cache.size();
+    }
+
+    public CacheStats getStats() {
+        return cache == null ? new CacheStats(0, 0, 0, 0, 0, 0) : cache.stats();
+    }
+
+    /**
+     * Get the number of lookups served by waiting on an in-flight lookup of
+     * the same EID.
+     *
+     * @return the number of coalesced lookups
+     */
+    public long getCoalescedCount() {
+        return coalescedCount.get();
+    }
+
+    public SfcLatencyHistogram getLatencyHistogram() {
+        return latencyHistogram;
+    }
+
+    @Override
+    public String toString() {
+        CacheStats stats = getStats();
+        return String.format("LISP mapping cache: size=%d hits=%d misses=%d coalesced=%d hitRatio=%.3f latency=%s",
+                size(), stats.hitCount(), stats.missCount(), getCoalescedCount(), stats.hitRate(), latencyHistogram);
+    }
+
+    private long expiresNanos(MappingRecord mappingRecord) {
+        long ttlNanos = cacheTtlNanos;
+        Integer recordTtl = mappingRecord.getRecordTtl();
+        if (recordTtl != null && recordTtl >= 0) {
+            // the record TTL is in minutes
+            ttlNanos = Math.min(ttlNanos, TimeUnit.MINUTES.toNanos(recordTtl));
+        }
+        return System.nanoTime() + ttlNanos;
+    }
+
+    private ListenableFuture<MappingRecord> callGetMapping(Eid eid) {
+        long startNanos = System.nanoTime();
+        ListenableFuture<RpcResult<GetMappingOutput>> reply = JdkFutureAdapters.listenInPoolThread(
+                lfmService.getMapping(SfcLispUtil.buildGetMappingInput(eid)), executor);
+        ListenableFuture<MappingRecord> mappingRecord = Futures.transform(reply, result -> {
+            latencyHistogram.recordSince(startNanos);
+            GetMappingOutput output = result.getResult();
+            return output == null ? null : output.getMappingRecord();
+        }, MoreExecutors.directExecutor());
+        return Futures.catching(mappingRecord, Exception.class, e -> {
+            LOG.warn("Failed to GET mapping for EID {}: ", eid, e);
+            return null;
+        }, MoreExecutors.directExecutor());
+    }
+
+    private <T> ListenableFuture<Boolean> callUpdateMapping(Eid eid, String method,
+            Future<RpcResult<T>> rpcFuture) {
+        ListenableFuture<Boolean> updated = Futures.transform(JdkFutureAdapters.listenInPoolThread(rpcFuture, executor),
+            RpcResult::isSuccessful, MoreExecutors.directExecutor());
+        return Futures.catching(updated, Exception.class, e -> {
+            LOG.warn("Failed to {} mapping for EID {}: ", method, eid, e);
+            return false;
+        }, MoreExecutors.directExecutor());
+    }
+
+    private static final class CachedMapping {
+        private final MappingRecord mappingRecord;
+        private final long expiresNanos;
+
+        CachedMapping(MappingRecord mappingRecord, long expiresNanos) {
+            this.mappingRecord = mappingRecord;
+            this.expiresNanos = expiresNanos;
+        }
+    }
+}
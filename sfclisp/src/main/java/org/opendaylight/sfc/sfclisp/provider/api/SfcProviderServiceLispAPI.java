@@ -7,13 +7,24 @@
  */
 package org.opendaylight.sfc.sfclisp.provider.api;
 
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.MoreExecutors;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.sfc.sfclisp.provider.LispUpdater;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.ServiceFunctions;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.service.function.base.SfDataPlaneLocator;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.service.function.base.SfDataPlaneLocatorKey;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.service.functions.ServiceFunction;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.ServiceFunctionForwarders;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarder.base.SffDataPlaneLocator;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarder.base.SffDataPlaneLocatorKey;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.ServiceFunctionForwarder;
 import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
 import org.slf4j.Logger;
@@ -35,18 +46,50 @@ public class SfcProviderServiceLispAPI {
             LOG.debug("\n####### Start: {}", Thread.currentThread().getStackTrace()[1]);
         }
 
-        ServiceFunction updatedSf = lispUpdater.updateLispData(sf);
+        // the locator resolved is written once the lookup completes, so that
+        // the listeners do not wait for the mapping service. Only the locators
+        // added are merged: the SF may have been changed in the meantime.
+        Set<SfDataPlaneLocatorKey> knownKeys = getSfLocatorKeys(sf);
+        Futures.addCallback(lispUpdater.updateLispDataAsync(sf), new FutureCallback<ServiceFunction>() {
+            @Override
+            public void onSuccess(ServiceFunction updatedSf) {
+                writeServiceFunctionLocators(updatedSf, knownKeys);
+            }
+
+            @Override
+            public void onFailure(Throwable throwable) {
+                LOG.warn("Failed to update the LISP data of SF {}", sf.getName(), throwable);
+            }
+        }, MoreExecutors.directExecutor());
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("\n########## Stop: {}", Thread.currentThread().getStackTrace()[1]);
+        }
+    }
+
+    private static Set<SfDataPlaneLocatorKey> getSfLocatorKeys(ServiceFunction sf) {
+        List<SfDataPlaneLocator> locators = sf.getSfDataPlaneLocator();
+        return locators == null ? Collections.emptySet()
+                : locators.stream().map(SfDataPlaneLocator::key).collect(Collectors.toSet());
+    }
+
+    private void writeServiceFunctionLocators(ServiceFunction updatedSf, Set<SfDataPlaneLocatorKey> knownKeys) {
+        List<SfDataPlaneLocator> addedLocators = updatedSf.getSfDataPlaneLocator() == null ? Collections.emptyList()
+                : updatedSf.getSfDataPlaneLocator().stream().filter(loc -> !knownKeys.contains(loc.key()))
+                        .collect(Collectors.toList());
+        if (addedLocators.isEmpty()) {
+            return;
+        }
 
         InstanceIdentifier<ServiceFunction> sfEntryIID = InstanceIdentifier.builder(ServiceFunctions.class)
                 .child(ServiceFunction.class, updatedSf.key()).build();
 
         WriteTransaction writeTx = dataProvider.newWriteOnlyTransaction();
-        writeTx.put(LogicalDatastoreType.CONFIGURATION, sfEntryIID, updatedSf, true);
-        writeTx.submit();
-
-        if (LOG.isDebugEnabled()) {
-            LOG.debug("\n########## Stop: {}", Thread.currentThread().getStackTrace()[1]);
+        for (SfDataPlaneLocator locator : addedLocators) {
+            writeTx.merge(LogicalDatastoreType.CONFIGURATION,
+                    sfEntryIID.child(SfDataPlaneLocator.class, locator.key()), locator, true);
         }
+        writeTx.submit();
     }
 
     public void lispUpdateServiceFunctionForwarder(ServiceFunctionForwarder sff) {
@@ -54,18 +97,49 @@ public class SfcProviderServiceLispAPI {
             LOG.debug("\n####### Start: {}", Thread.currentThread().getStackTrace()[1]);
         }
 
-        ServiceFunctionForwarder updatedSff = lispUpdater.updateLispData(sff);
+        Set<SffDataPlaneLocatorKey> knownKeys = getSffLocatorKeys(sff);
+        Futures.addCallback(lispUpdater.updateLispDataAsync(sff), new FutureCallback<ServiceFunctionForwarder>() {
+            @Override
+            public void onSuccess(ServiceFunctionForwarder updatedSff) {
+                writeServiceFunctionForwarderLocators(updatedSff, knownKeys);
+            }
+
+            @Override
+            public void onFailure(Throwable throwable) {
+                LOG.warn("Failed to update the LISP data of SFF {}", sff.getName(), throwable);
+            }
+        }, MoreExecutors.directExecutor());
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("\n########## Stop: {}", Thread.currentThread().getStackTrace()[1]);
+        }
+    }
+
+    private static Set<SffDataPlaneLocatorKey> getSffLocatorKeys(ServiceFunctionForwarder sff) {
+        List<SffDataPlaneLocator> locators = sff.getSffDataPlaneLocator();
+        return locators == null ? Collections.emptySet()
+                : locators.stream().map(SffDataPlaneLocator::key).collect(Collectors.toSet());
+    }
+
+    private void writeServiceFunctionForwarderLocators(ServiceFunctionForwarder updatedSff,
+            Set<SffDataPlaneLocatorKey> knownKeys) {
+        List<SffDataPlaneLocator> addedLocators = updatedSff.getSffDataPlaneLocator() == null
+                ? Collections.emptyList()
+                : updatedSff.getSffDataPlaneLocator().stream().filter(loc -> !knownKeys.contains(loc.key()))
+                        .collect(Collectors.toList());
+        if (addedLocators.isEmpty()) {
+            return;
+        }
 
         InstanceIdentifier<ServiceFunctionForwarder> sffEntryIID = InstanceIdentifier
                 .builder(ServiceFunctionForwarders.class).child(ServiceFunctionForwarder.class, updatedSff.key())
                 .build();
 
         WriteTransaction writeTx = dataProvider.newWriteOnlyTransaction();
-        writeTx.merge(LogicalDatastoreType.CONFIGURATION, sffEntryIID, updatedSff, true);
-        writeTx.submit();
-
-        if (LOG.isDebugEnabled()) {
-            LOG.debug("\n########## Stop: {}", Thread.currentThread().getStackTrace()[1]);
+        for (SffDataPlaneLocator locator : addedLocators) {
+            writeTx.merge(LogicalDatastoreType.CONFIGURATION,
+                    sffEntryIID.child(SffDataPlaneLocator.class, locator.key()), locator, true);
         }
+        writeTx.submit();
     }
 }
@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.sfclisp.provider;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Test;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.Ipv4Acl;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.Acl;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.AclBuilder;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.AclKey;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.AccessListEntriesBuilder;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.access.list.entries.Ace;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.access.list.entries.AceBuilder;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.access.list.entries.ace.Matches;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.access.list.entries.ace.MatchesBuilder;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.access.list.entries.ace.matches.ace.type.AceEthBuilder;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.access.list.entries.ace.matches.ace.type.AceIp;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.access.list.entries.ace.matches.ace.type.AceIpBuilder;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.access.list.entries.ace.matches.ace.type.ace.ip.ace.ip.version.AceIpv4Builder;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Ipv4Prefix;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.lfm.lisp.proto.rev151105.eid.container.Eid;
+
+public class SfcLispAclDiffTest {
+
+    private static final String ACL_NAME = "acl";
+    private static final int LARGE_ACL_SIZE = 50000;
+    // the reference comparison is quadratic, it is run on smaller ACLs
+    private static final int REFERENCE_ACL_SIZE = 1000;
+    private static final int REFERENCE_ITERATIONS = 30;
+
+    private final Random random = new Random(20180612L);
+
+    private static String prefix(int firstByte, int index) {
+        return firstByte + "." + (index >> 8 & 0xff) + "." + (index & 0xff) + ".0/24";
+    }
+
+    private static Ace buildIpAce(String ruleName, String src, String dst) {
+        AceIpBuilder aceIpBuilder = new AceIpBuilder().setAceIpVersion(new AceIpv4Builder()
+                .setSourceIpv4Network(new Ipv4Prefix(src)).setDestinationIpv4Network(new Ipv4Prefix(dst)).build());
+        return new AceBuilder().setRuleName(ruleName)
+                .setMatches(new MatchesBuilder().setAceType(aceIpBuilder.build()).build()).build();
+    }
+
+    private static Ace buildEthAce(String ruleName) {
+        return new AceBuilder().setRuleName(ruleName)
+                .setMatches(new MatchesBuilder().setAceType(new AceEthBuilder().build()).build()).build();
+    }
+
+    private static Acl buildAcl(List<Ace> aces) {
+        return new AclBuilder().setAclName(ACL_NAME).withKey(new AclKey(ACL_NAME, Ipv4Acl.class))
+                .setAccessListEntries(new AccessListEntriesBuilder().setAce(aces).build()).build();
+    }
+
+    private List<Ace> buildAces(int size) {
+        List<Ace> aces = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            aces.add(buildIpAce("rule" + i, prefix(10 + (i >> 16), i), prefix(20, random.nextInt(0x10000))));
+        }
+        return aces;
+    }
+
+    /**
+     * Randomly change an ACL: the ACEs are shuffled, some are changed to
+     * match other prefixes or to be non IP ACEs, some are removed, and some
+     * are added.
+     */
+    private List<Ace> mutate(List<Ace> aces, int changed, int removed, int added) {
+        List<Ace> newAces = new ArrayList<>(aces);
+        Collections.shuffle(newAces, random);
+        for (int i = 0; i < changed; i++) {
+            Ace ace = newAces.get(i);
+            newAces.set(i, random.nextBoolean() ? buildEthAce(ace.getRuleName())
+                    : buildIpAce(ace.getRuleName(), prefix(30, i), prefix(31, random.nextInt(0x10000))));
+        }
+        newAces.subList(changed, changed + removed).clear();
+        for (int i = 0; i < added; i++) {
+            newAces.add(buildIpAce("added" + i, prefix(40, i), prefix(41, random.nextInt(0x10000))));
+        }
+        Collections.shuffle(newAces, random);
+        return newAces;
+    }
+
+    private static Set<Eid> srcDsts(List<Ace> aces) {
+        Set<Eid> srcDsts = new HashSet<>();
+        for (Ace ace : aces) {
+            if (ace.getMatches().getAceType() instanceof AceIp) {
+                srcDsts.add(SfcLispUtil.getSrcDstFromAce((AceIp) ace.getMatches().getAceType()));
+            }
+        }
+        return srcDsts;
+    }
+
+    /**
+     * The ACL comparison done by LispUpdater before the diff was introduced,
+     * comparing every pair of ACEs.
+     */
+    private static boolean referenceShallowCompareAcls(Acl acl1, Acl acl2) {
+        if (acl1 == null || acl2 == null) {
+            return acl1 == acl2;
+        }
+
+        if (!acl1.getAclName().equals(acl2.getAclName())) {
+            return false;
+        }
+        List<Ace> aces1 = acl1.getAccessListEntries().getAce();
+        List<Ace> aces2 = acl2.getAccessListEntries().getAce();
+        if (aces1.size() != aces2.size()) {
+            return false;
+        }
+
+        for (Ace it1 : aces1) {
+            Matches matches1 = it1.getMatches();
+            if (!(matches1.getAceType() instanceof AceIp)) {
+                continue;
+            }
+            AceIp ipMatch1 = (AceIp) matches1.getAceType();
+            Eid sd1 = SfcLispUtil.getSrcDstFromAce(ipMatch1);
+
+            boolean found = false;
+            for (Ace it2 : aces2) {
+                if (it1.getRuleName().equals(it2.getRuleName())) {
+                    found = true;
+                    Matches matches2 = it2.getMatches();
+                    if (!(matches2.getAceType() instanceof AceIp)) {
+                        continue;
+                    }
+                    AceIp ipMatch2 = (AceIp) matches2.getAceType();
+                    Eid sd2 = SfcLispUtil.getSrcDstFromAce(ipMatch2);
+                    if (!sd1.equals(sd2)) {
+                        return false;
+                    }
+                }
+            }
+
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void assertDiff(List<Ace> oldAces, List<Ace> newAces, boolean shallowEqual) {
+        SfcLispAclDiff aclDiff = SfcLispAclDiff.diff(buildAcl(oldAces), buildAcl(newAces));
+
+        assertEquals(shallowEqual, aclDiff.isShallowEqual());
+        Set<Eid> expectedAdded = srcDsts(newAces);
+        expectedAdded.removeAll(srcDsts(oldAces));
+        Set<Eid> expectedRemoved = srcDsts(oldAces);
+        expectedRemoved.removeAll(srcDsts(newAces));
+        assertEquals(expectedAdded, aclDiff.getAdded());
+        assertEquals(expectedRemoved, aclDiff.getRemoved());
+    }
+
+    @Test
+    public void shallowCompareAclsMatchesReference() {
+        for (int iteration = 0; iteration < REFERENCE_ITERATIONS; iteration++) {
+            List<Ace> oldAces = buildAces(REFERENCE_ACL_SIZE);
+            // a third of the iterations only shuffle the ACL
+            int changed = iteration % 3 == 0 ? 0 : random.nextInt(5);
+            int removed = iteration % 3 == 0 ? 0 : random.nextInt(5);
+            int added = iteration % 3 == 0 ? 0 : random.nextInt(5);
+            List<Ace> newAces = mutate(oldAces, changed, removed, added);
+            Acl oldAcl = buildAcl(oldAces);
+            Acl newAcl = buildAcl(newAces);
+
+            assertEquals(referenceShallowCompareAcls(newAcl, oldAcl), SfcLispAclDiff.diff(oldAcl, newAcl)
+                    .isShallowEqual());
+            assertEquals(referenceShallowCompareAcls(oldAcl, newAcl), SfcLispAclDiff.shallowCompareAcls(oldAcl,
+                    newAcl));
+            assertDiff(oldAces, newAces, referenceShallowCompareAcls(newAcl, oldAcl));
+        }
+    }
+
+    @Test
+    public void shuffledLargeAclsAreEqual() {
+        List<Ace> oldAces = buildAces(LARGE_ACL_SIZE);
+        List<Ace> newAces = mutate(oldAces, 0, 0, 0);
+
+        assertDiff(oldAces, newAces, true);
+        assertTrue(SfcLispAclDiff.diff(buildAcl(oldAces), buildAcl(newAces)).isEmpty());
+    }
+
+    @Test
+    public void changedLargeAclsAreDiffed() {
+        List<Ace> oldAces = buildAces(LARGE_ACL_SIZE);
+
+        assertDiff(oldAces, mutate(oldAces, 100, 0, 0), false);
+        assertDiff(oldAces, mutate(oldAces, 0, 100, 0), false);
+        assertDiff(oldAces, mutate(oldAces, 0, 0, 100), false);
+        // same size, but the removed rules are missing
+        assertDiff(oldAces, mutate(oldAces, 0, 100, 100), false);
+        assertDiff(oldAces, mutate(oldAces, 100, 100, 100), false);
+    }
+
+    @Test
+    public void nullAcls() {
+        Acl acl = buildAcl(buildAces(10));
+
+        assertTrue(SfcLispAclDiff.diff(null, null).isShallowEqual());
+        assertFalse(SfcLispAclDiff.diff(null, acl).isShallowEqual());
+        assertEquals(10, SfcLispAclDiff.diff(null, acl).getAdded().size());
+        assertEquals(10, SfcLispAclDiff.diff(acl, null).getRemoved().size());
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.sfclisp.provider;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.lispflowmapping.lisp.util.LispAddressUtil;
+import org.opendaylight.sfc.sfclisp.provider.api.SfcLispMappingClient;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.lfm.lisp.proto.rev151105.eid.container.Eid;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.lfm.lisp.proto.rev151105.rloc.container.Rloc;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.lfm.mappingservice.rev150906.OdlMappingserviceService;
+
+public class SfcLispRegistrationPlanTest {
+
+    private static final Eid EID_A = LispAddressUtil.asIpv4PrefixEid("10.0.0.1/32");
+    private static final Eid EID_B = LispAddressUtil.asIpv4PrefixEid("10.0.0.2/32");
+    private static final Eid EID_C = LispAddressUtil.asIpv4PrefixEid("10.0.0.3/32");
+    private static final Eid EID_D = LispAddressUtil.asIpv4PrefixEid("10.0.0.4/32");
+    private static final List<Rloc> LOCATORS_1 = Collections.singletonList(LispAddressUtil.asIpv4Rloc("192.168.0.1"));
+    private static final List<Rloc> LOCATORS_2 = Collections.singletonList(LispAddressUtil.asIpv4Rloc("192.168.0.2"));
+
+    private FakeMappingClient mappingClient;
+
+    /* Fake mapping client, recording the records submitted in order */
+    private static final class FakeMappingClient extends SfcLispMappingClient {
+        private final List<String> calls = new ArrayList<>();
+        private final Map<Eid, List<Rloc>> addedLocators = new HashMap<>();
+        // the records answered with false
+        private final Set<Eid> rejectedEids = new HashSet<>();
+        // the records whose call fails
+        private final Set<Eid> failingEids = new HashSet<>();
+
+        FakeMappingClient() {
+            super((OdlMappingserviceService) Proxy.newProxyInstance(OdlMappingserviceService.class.getClassLoader(),
+                new Class<?>[] {OdlMappingserviceService.class}, (proxy, method, args) -> {
+                    throw new UnsupportedOperationException(method.getName());
+                }), MoreExecutors.directExecutor());
+        }
+
+        @Override
+        public synchronized ListenableFuture<Boolean> addMapping(Eid eid, List<Rloc> locators) {
+            calls.add("add " + name(eid));
+            addedLocators.put(eid, locators);
+            return outcome(eid);
+        }
+
+        @Override
+        public synchronized ListenableFuture<Boolean> removeMapping(Eid eid) {
+            calls.add("remove " + name(eid));
+            return outcome(eid);
+        }
+
+        private ListenableFuture<Boolean> outcome(Eid eid) {
+            if (failingEids.contains(eid)) {
+                return Futures.immediateFailedFuture(new IllegalStateException("mapping service failure"));
+            }
+            return Futures.immediateFuture(!rejectedEids.contains(eid));
+        }
+
+        private static String name(Eid eid) {
+            return eid.equals(EID_A) ? "A" : eid.equals(EID_B) ? "B" : eid.equals(EID_C) ? "C" : "D";
+        }
+    }
+
+    @Before
+    public void setUp() {
+        mappingClient = new FakeMappingClient();
+    }
+
+    @Test
+    public void duplicatedRecordsAreDropped() {
+        SfcLispRegistrationPlan plan = new SfcLispRegistrationPlan("test");
+        plan.addMapping(EID_A, LOCATORS_1);
+        plan.addMapping(EID_A, LOCATORS_2);
+        plan.removeMapping(EID_B);
+        plan.removeMapping(EID_B);
+        // removing a mapping that is added is dropped, adding a mapping that is removed drops the removal
+        plan.removeMapping(EID_A);
+        plan.removeMapping(EID_C);
+        plan.addMapping(EID_C, LOCATORS_1);
+
+        assertEquals(3, plan.size());
+        assertEquals(4, plan.getDuplicates());
+
+        SfcLispRegistrationPlan.Result result = plan.submit(mappingClient, 10);
+        assertTrue(result.isSuccessful());
+        assertEquals(3, result.getSubmitted());
+        assertEquals(Arrays.asList("remove B", "add A", "add C"), mappingClient.calls);
+        // the last locators added are kept
+        assertEquals(LOCATORS_2, mappingClient.addedLocators.get(EID_A));
+        assertEquals(LOCATORS_1, mappingClient.addedLocators.get(EID_C));
+    }
+
+    @Test
+    public void removalsAreSubmittedBeforeAdditions() {
+        SfcLispRegistrationPlan plan = new SfcLispRegistrationPlan("test");
+        plan.addMapping(EID_A, LOCATORS_1);
+        plan.removeMapping(EID_B);
+        plan.addMapping(EID_C, LOCATORS_1);
+        plan.removeMapping(EID_D);
+
+        // batches smaller than the records of each kind
+        SfcLispRegistrationPlan.Result result = plan.submit(mappingClient, 1);
+        assertTrue(result.isSuccessful());
+        assertEquals(4, result.getSubmitted());
+        assertEquals(Arrays.asList("remove B", "remove D", "add A", "add C"), mappingClient.calls);
+    }
+
+    @Test
+    public void eachFailedRecordIsReported() {
+        mappingClient.rejectedEids.add(EID_A);
+        mappingClient.failingEids.add(EID_B);
+        SfcLispRegistrationPlan plan = new SfcLispRegistrationPlan("test");
+        plan.addMapping(EID_A, LOCATORS_1);
+        plan.removeMapping(EID_B);
+        plan.addMapping(EID_C, LOCATORS_1);
+        plan.removeMapping(EID_D);
+
+        SfcLispRegistrationPlan.Result result = plan.submit(mappingClient, 2);
+        assertFalse(result.isSuccessful());
+        assertEquals(4, result.getSubmitted());
+        assertEquals(Arrays.asList(EID_B, EID_A), result.getFailed());
+        // the failures do not abort the other records
+        assertEquals(Arrays.asList("remove B", "remove D", "add A", "add C"), mappingClient.calls);
+    }
+
+    @Test
+    public void emptyPlanSubmitsNothing() {
+        SfcLispRegistrationPlan plan = new SfcLispRegistrationPlan("test");
+        assertTrue(plan.isEmpty());
+
+        SfcLispRegistrationPlan.Result result = plan.submit(mappingClient, 10);
+        assertTrue(result.isSuccessful());
+        assertEquals(0, result.getSubmitted());
+        assertTrue(mappingClient.calls.isEmpty());
+    }
+}
@@ -0,0 +1,278 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.sfclisp.provider.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.lispflowmapping.lisp.util.LispAddressUtil;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.lfm.lisp.proto.rev151105.eid.container.Eid;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.lfm.lisp.proto.rev151105.mapping.record.container.MappingRecord;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.lfm.lisp.proto.rev151105.mapping.record.container.MappingRecordBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.lfm.mappingservice.rev150906.AddMappingInput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.lfm.mappingservice.rev150906.GetMappingInput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.lfm.mappingservice.rev150906.GetMappingOutput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.lfm.mappingservice.rev150906.GetMappingOutputBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.lfm.mappingservice.rev150906.OdlMappingserviceService;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.lfm.mappingservice.rev150906.RemoveMappingInput;
+import org.opendaylight.yangtools.yang.common.RpcResult;
+import org.opendaylight.yangtools.yang.common.RpcResultBuilder;
+
+public class SfcLispMappingClientTest {
+
+    private static final Eid NET_A = LispAddressUtil.asIpv4PrefixEid("10.0.0.0/16");
+    private static final Eid NET_B = LispAddressUtil.asIpv4PrefixEid("10.1.0.0/16");
+    private static final Eid SUBNET_A = LispAddressUtil.asIpv4PrefixEid("10.0.0.0/24");
+    private static final Eid HOST_A = LispAddressUtil.asIpv4PrefixEid("10.0.0.1/32");
+    private static final Eid HOST_B = LispAddressUtil.asIpv4PrefixEid("10.1.0.1/32");
+
+    private InMemoryMappingService mappingService;
+    private SfcLispMappingClient mappingClient;
+
+    /*
+     * In-memory mapping service answering the lookups with the most specific
+     * mapping covering the EID. Only the mapping RPCs used by the client are
+     * implemented.
+     */
+    private static final class InMemoryMappingService implements InvocationHandler {
+        private final Map<Eid, MappingRecord> mappings = new ConcurrentHashMap<>();
+        private final Map<Eid, AtomicInteger> lookups = new ConcurrentHashMap<>();
+        // when set, the lookups are answered, with the mapping found when they were made, only once the test says so
+        private volatile boolean holdLookups;
+        private final List<Runnable> heldAnswers = new CopyOnWriteArrayList<>();
+        // when set, the mapping additions and removals are applied and answered only once the test says so
+        private volatile boolean holdChanges;
+        private final List<Runnable> heldChanges = new CopyOnWriteArrayList<>();
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            switch (method.getName()) {
+                case "getMapping":
+                    return getMapping(((GetMappingInput) args[0]).getEid());
+                case "addMapping":
+                    MappingRecord mappingRecord = ((AddMappingInput) args[0]).getMappingRecord();
+                    return change(() -> mappings.put(mappingRecord.getEid(), mappingRecord));
+                case "removeMapping":
+                    Eid eid = ((RemoveMappingInput) args[0]).getEid();
+                    return change(() -> mappings.remove(eid));
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        }
+
+        private ListenableFuture<RpcResult<Void>> change(Runnable change) {
+            if (!holdChanges) {
+                change.run();
+                return RpcResultBuilder.<Void>success().buildFuture();
+            }
+            SettableFuture<RpcResult<Void>> held = SettableFuture.create();
+            heldChanges.add(() -> {
+                change.run();
+                held.set(RpcResultBuilder.<Void>success().build());
+            });
+            return held;
+        }
+
+        private ListenableFuture<RpcResult<GetMappingOutput>> getMapping(Eid eid) {
+            lookups.computeIfAbsent(eid, key -> new AtomicInteger()).incrementAndGet();
+            Eid best = null;
+            for (Eid mapped : mappings.keySet()) {
+                if (SfcLispMappingClient.covers(mapped, eid) && (best == null
+                        || SfcLispMappingClient.covers(best, mapped))) {
+                    best = mapped;
+                }
+            }
+            GetMappingOutput output = new GetMappingOutputBuilder()
+                    .setMappingRecord(best == null ? null : mappings.get(best)).build();
+            if (!holdLookups) {
+                return RpcResultBuilder.success(output).buildFuture();
+            }
+            SettableFuture<RpcResult<GetMappingOutput>> held = SettableFuture.create();
+            heldAnswers.add(() -> held.set(RpcResultBuilder.success(output).build()));
+            return held;
+        }
+
+        void put(Eid eid) {
+            mappings.put(eid, new MappingRecordBuilder().setEid(eid).setRecordTtl(1440).build());
+        }
+
+        int getLookups(Eid eid) {
+            AtomicInteger eidLookups = lookups.get(eid);
+            return eidLookups == null ? 0 : eidLookups.get();
+        }
+
+        int getLookups() {
+            return lookups.values().stream().mapToInt(AtomicInteger::get).sum();
+        }
+
+        void answerHeldLookups() {
+            holdLookups = false;
+            heldAnswers.forEach(Runnable::run);
+            heldAnswers.clear();
+        }
+
+        void applyHeldChanges() {
+            holdChanges = false;
+            heldChanges.forEach(Runnable::run);
+            heldChanges.clear();
+        }
+    }
+
+    @Before
+    public void setUp() {
+        mappingService = new InMemoryMappingService();
+        mappingClient = newClient(mappingService, 60);
+    }
+
+    private static SfcLispMappingClient newClient(InMemoryMappingService service, long cacheTtlSeconds) {
+        service.put(NET_A);
+        service.put(NET_B);
+        OdlMappingserviceService lfmService = (OdlMappingserviceService) Proxy.newProxyInstance(
+                OdlMappingserviceService.class.getClassLoader(), new Class<?>[] {OdlMappingserviceService.class},
+                service);
+        return new SfcLispMappingClient(lfmService, MoreExecutors.directExecutor(), cacheTtlSeconds,
+                TimeUnit.SECONDS, SfcLispMappingClient.DEFAULT_CACHE_MAXIMUM_SIZE);
+    }
+
+    private Eid getMappedEid(Eid eid) throws Exception {
+        MappingRecord mappingRecord = mappingClient.getMapping(eid).get();
+        return mappingRecord == null ? null : mappingRecord.getEid();
+    }
+
+    @Test
+    public void coversOnlyTheEidAndTheEidsWithinItsPrefix() {
+        assertTrue(SfcLispMappingClient.covers(HOST_A, HOST_A));
+        assertTrue(SfcLispMappingClient.covers(NET_A, SUBNET_A));
+        assertTrue(SfcLispMappingClient.covers(SUBNET_A, HOST_A));
+        assertFalse(SfcLispMappingClient.covers(SUBNET_A, NET_A));
+        assertFalse(SfcLispMappingClient.covers(SUBNET_A, HOST_B));
+        assertFalse(SfcLispMappingClient.covers(NET_B, HOST_A));
+    }
+
+    @Test
+    public void mappingChangeInvalidatesOnlyTheCoveredEids() throws Exception {
+        assertEquals(NET_A, getMappedEid(HOST_A));
+        assertEquals(NET_B, getMappedEid(HOST_B));
+        assertEquals(NET_A, getMappedEid(HOST_A));
+        assertEquals(NET_B, getMappedEid(HOST_B));
+        assertEquals(1, mappingService.getLookups(HOST_A));
+        assertEquals(1, mappingService.getLookups(HOST_B));
+
+        // the new prefix is now the best match of HOST_A only
+        assertTrue(mappingClient.addMapping(SUBNET_A, Collections.emptyList()).get());
+        assertEquals(SUBNET_A, getMappedEid(HOST_A));
+        assertEquals(NET_B, getMappedEid(HOST_B));
+        assertEquals(2, mappingService.getLookups(HOST_A));
+        assertEquals(1, mappingService.getLookups(HOST_B));
+
+        assertTrue(mappingClient.removeMapping(SUBNET_A).get());
+        assertEquals(NET_A, getMappedEid(HOST_A));
+        assertEquals(NET_B, getMappedEid(HOST_B));
+        assertEquals(3, mappingService.getLookups(HOST_A));
+        assertEquals(1, mappingService.getLookups(HOST_B));
+        assertEquals(2, mappingClient.size());
+    }
+
+    @Test
+    public void lookupAnsweredDuringAChangeOfItsEidIsNotCached() throws Exception {
+        mappingService.holdLookups = true;
+        ListenableFuture<MappingRecord> hostA = mappingClient.getMapping(HOST_A);
+        ListenableFuture<MappingRecord> hostB = mappingClient.getMapping(HOST_B);
+        assertTrue(mappingClient.addMapping(SUBNET_A, Collections.emptyList()).get());
+        mappingService.answerHeldLookups();
+        // HOST_A is answered with the mapping it had before the change
+        assertEquals(NET_A, hostA.get().getEid());
+        assertEquals(NET_B, hostB.get().getEid());
+        assertEquals(1, mappingService.getLookups(HOST_A));
+        assertEquals(1, mappingService.getLookups(HOST_B));
+
+        // the lookup of HOST_A may have been answered with the former mapping, it is done again
+        assertEquals(SUBNET_A, getMappedEid(HOST_A));
+        assertEquals(2, mappingService.getLookups(HOST_A));
+        // the lookup of HOST_B, not affected by the change, is kept
+        assertEquals(NET_B, getMappedEid(HOST_B));
+        assertEquals(1, mappingService.getLookups(HOST_B));
+    }
+
+    @Test
+    public void lookupStartedDuringAChangeOfItsEidIsNotCached() throws Exception {
+        mappingService.holdChanges = true;
+        ListenableFuture<Boolean> added = mappingClient.addMapping(SUBNET_A, Collections.emptyList());
+        // the map server has not applied the change yet
+        assertEquals(NET_A, getMappedEid(HOST_A));
+        assertEquals(NET_B, getMappedEid(HOST_B));
+        mappingService.holdLookups = true;
+        ListenableFuture<MappingRecord> hostA = mappingClient.getMapping(HOST_A);
+        mappingService.applyHeldChanges();
+        assertTrue(added.get());
+        // answered after the change, with the mapping found before it
+        mappingService.answerHeldLookups();
+        assertEquals(NET_A, hostA.get().getEid());
+        assertEquals(2, mappingService.getLookups(HOST_A));
+
+        // neither lookup of HOST_A started during the change was kept
+        assertEquals(SUBNET_A, getMappedEid(HOST_A));
+        assertEquals(3, mappingService.getLookups(HOST_A));
+        assertEquals(SUBNET_A, getMappedEid(HOST_A));
+        assertEquals(3, mappingService.getLookups(HOST_A));
+        // the lookup of HOST_B, not affected by the change, is kept
+        assertEquals(NET_B, getMappedEid(HOST_B));
+        assertEquals(1, mappingService.getLookups(HOST_B));
+    }
+
+    /**
+     * Resolve the locators of two SFs on every SF update, the mapping of one
+     * of them being registered again every tenth update.
+     *
+     * @return the number of lookups the mapping service got
+     */
+    private static int driveSfUpdates(InMemoryMappingService service, SfcLispMappingClient client)
+            throws Exception {
+        for (int i = 0; i < 100; i++) {
+            if (i % 10 == 0) {
+                assertTrue(client.addMapping(SUBNET_A, Collections.emptyList()).get());
+            }
+            assertEquals(SUBNET_A, client.getMapping(HOST_A).get().getEid());
+            assertEquals(NET_B, client.getMapping(HOST_B).get().getEid());
+        }
+        return service.getLookups();
+    }
+
+    @Test
+    public void cacheSavesTheLookupsOfRepeatedSfUpdates() throws Exception {
+        InMemoryMappingService uncachedService = new InMemoryMappingService();
+        int uncachedLookups = driveSfUpdates(uncachedService, newClient(uncachedService, 0));
+        InMemoryMappingService cachedService = new InMemoryMappingService();
+        SfcLispMappingClient cachedClient = newClient(cachedService,
+                SfcLispMappingClient.DEFAULT_CACHE_TTL_SECONDS);
+        int cachedLookups = driveSfUpdates(cachedService, cachedClient);
+
+        // without cache, every SF update looks both SFs up
+        assertEquals(200, uncachedLookups);
+        // with the cache, HOST_A is looked up again after each registration only
+        assertEquals(10 + 1, cachedLookups);
+        assertEquals(200 - cachedLookups, cachedClient.getStats().hitCount());
+    }
+}